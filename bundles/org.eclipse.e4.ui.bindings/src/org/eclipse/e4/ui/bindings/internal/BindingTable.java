@@ -32,6 +32,11 @@ import org.eclipse.jface.bindings.keys.KeyStroke;
 
 /**
  * manage tables of bindings that can be used to look up commands from keys.
+ * <p>
+ * The bindings are kept in a trie of their triggers, so perfect matches,
+ * partial matches and conflicts of a sequence are found by walking its
+ * triggers, without a map entry for every prefix of every binding.
+ * </p>
  */
 public class BindingTable {
 	private static int compareSchemes(String[] activeSchemeIds, final String schemeId1,
@@ -123,13 +128,71 @@ public class BindingTable {
 
 	public static final BindingComparator BEST_SEQUENCE = new BindingComparator();
 
+	/**
+	 * A node of the trie of trigger sequences. The node of a sequence holds the
+	 * bindings of the sequence, and the node of each trigger after it is a
+	 * child.
+	 */
+	private static final class TriggerNode {
+		Map<Trigger, TriggerNode> children;
+		// the active binding of the sequence
+		Binding binding;
+		// when the binding was made active, to report partial matches in
+		// the order they were added
+		int activation;
+		// the bindings of the sequence, best first, when there is more than one
+		ArrayList<Binding> ordered;
+		ArrayList<Binding> conflicts;
+		// the number of active bindings of longer sequences below this node
+		int partialCount;
+
+		TriggerNode getChild(Trigger trigger, boolean create) {
+			TriggerNode child = children == null ? null : children.get(trigger);
+			if (child == null && create) {
+				if (children == null) {
+					children = new HashMap<Trigger, TriggerNode>(4);
+				}
+				child = new TriggerNode();
+				children.put(trigger, child);
+			}
+			return child;
+		}
+
+		boolean isEmpty() {
+			return binding == null && ordered == null && conflicts == null && partialCount == 0
+					&& (children == null || children.isEmpty());
+		}
+
+		void collectBindings(Collection<TriggerNode> result) {
+			if (children != null) {
+				for (TriggerNode child : children.values()) {
+					if (child.binding != null) {
+						result.add(child);
+					}
+					if (child.partialCount > 0) {
+						child.collectBindings(result);
+					}
+				}
+			}
+		}
+
+		void collectConflicts(Collection<Binding> result) {
+			if (conflicts != null) {
+				result.addAll(conflicts);
+			}
+			if (children != null) {
+				for (TriggerNode child : children.values()) {
+					child.collectConflicts(result);
+				}
+			}
+		}
+	}
+
 	private Context tableId;
 	private ArrayList<Binding> bindings = new ArrayList<Binding>();
-	private Map<TriggerSequence, Binding> bindingsByTrigger = new HashMap<TriggerSequence, Binding>();
 	private Map<ParameterizedCommand, ArrayList<Binding>> bindingsByCommand = new HashMap<ParameterizedCommand, ArrayList<Binding>>();
-	private Map<TriggerSequence, ArrayList<Binding>> bindingsByPrefix = new HashMap<TriggerSequence, ArrayList<Binding>>();
-	private Map<TriggerSequence, ArrayList<Binding>> conflicts = new HashMap<TriggerSequence, ArrayList<Binding>>();
-	private Map<TriggerSequence, ArrayList<Binding>> orderedBindingsByTrigger = new HashMap<TriggerSequence, ArrayList<Binding>>();
+	private final TriggerNode root = new TriggerNode();
+	private int activations;
 
 	/**
 	 * @param context
@@ -148,17 +211,39 @@ public class BindingTable {
 
 	public Collection<Binding> getConflicts() {
 		Collection<Binding> conflictsList = new ArrayList<Binding>();
-		for (ArrayList<Binding> conflictsForTrigger : conflicts.values()) {
-			if (conflictsForTrigger != null) {
-				conflictsList.addAll(conflictsForTrigger);
-			}
-		}
+		root.collectConflicts(conflictsList);
 		return conflictsList;
 	}
 
 	// checks both the active bindings and conflicts list
 	public Collection<Binding> getConflictsFor(TriggerSequence triggerSequence) {
-		return conflicts.get(triggerSequence);
+		TriggerNode node = getNode(triggerSequence.getTriggers(), false);
+		return node == null ? null : node.conflicts;
+	}
+
+	private TriggerNode getNode(Trigger[] triggers, boolean create) {
+		TriggerNode node = root;
+		for (int i = 0; i < triggers.length && node != null; i++) {
+			node = node.getChild(triggers[i], create);
+		}
+		return node;
+	}
+
+	/**
+	 * Removes the nodes of the sequence that no longer hold anything.
+	 */
+	private void prune(Trigger[] triggers) {
+		TriggerNode[] path = new TriggerNode[triggers.length + 1];
+		path[0] = root;
+		for (int i = 0; i < triggers.length; i++) {
+			path[i + 1] = path[i].getChild(triggers[i], false);
+			if (path[i + 1] == null) {
+				return;
+			}
+		}
+		for (int i = triggers.length; i > 0 && path[i].isEmpty(); i--) {
+			path[i - 1].children.remove(triggers[i - 1]);
+		}
 	}
 
 	public void addBinding(Binding binding) {
@@ -166,13 +251,15 @@ public class BindingTable {
 			throw new IllegalArgumentException("Binding context " + binding.getContextId() //$NON-NLS-1$
 					+ " does not match " + getId()); //$NON-NLS-1$
 		}
-		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(binding.getTriggerSequence());
-		Binding possibleConflict = bindingsByTrigger.get(binding.getTriggerSequence());
+		Trigger[] triggers = binding.getTriggerSequence().getTriggers();
+		TriggerNode node = getNode(triggers, true);
+		ArrayList<Binding> bindingList = node.ordered;
+		Binding possibleConflict = node.binding;
 		if (bindingList == null || bindingList.isEmpty()) {
 			if (possibleConflict != null) {
 				if (bindingList == null) {
 					bindingList = new ArrayList<Binding>();
-					orderedBindingsByTrigger.put(binding.getTriggerSequence(), bindingList);
+					node.ordered = bindingList;
 				}
 				bindingList.add(binding);
 				bindingList.add(possibleConflict);
@@ -185,16 +272,17 @@ public class BindingTable {
 
 		if (possibleConflict != null && bindingList != null && !bindingList.isEmpty()
 				&& bindingList.get(0) != possibleConflict) {
-			removeBindingSimple(possibleConflict);
+			removeBindingSimple(triggers, node, possibleConflict);
 			possibleConflict = null;
 		}
 
-		evaluateOrderedBindings(binding.getTriggerSequence(), binding);
+		evaluateOrderedBindings(triggers, node, binding);
 	}
 
-	private void addBindingSimple(Binding binding) {
+	private void addBindingSimple(Trigger[] triggers, TriggerNode node, Binding binding) {
 		bindings.add(binding);
-		bindingsByTrigger.put(binding.getTriggerSequence(), binding);
+		node.binding = binding;
+		node.activation = activations++;
 
 		ArrayList<Binding> sequences = bindingsByCommand.get(binding.getParameterizedCommand());
 		if (sequences == null) {
@@ -204,31 +292,26 @@ public class BindingTable {
 		sequences.add(binding);
 		Collections.sort(sequences, BEST_SEQUENCE);
 
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings == null) {
-				bindings = new ArrayList<Binding>();
-				bindingsByPrefix.put(prefs[i], bindings);
-			}
-			bindings.add(binding);
-		}
+		updatePartialCounts(triggers, 1);
 	}
 
-	private void removeBindingSimple(Binding binding) {
+	private void removeBindingSimple(Trigger[] triggers, TriggerNode node, Binding binding) {
 		bindings.remove(binding);
-		bindingsByTrigger.remove(binding.getTriggerSequence());
+		node.binding = null;
 		ArrayList<Binding> sequences = bindingsByCommand.get(binding.getParameterizedCommand());
 
 		if (sequences != null) {
 			sequences.remove(binding);
 		}
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings != null) {
-				bindings.remove(binding);
-			}
+		updatePartialCounts(triggers, -1);
+	}
+
+	// the sequence is a partial match for each of its proper prefixes
+	private void updatePartialCounts(Trigger[] triggers, int delta) {
+		TriggerNode node = root;
+		for (int i = 0; i < triggers.length - 1; i++) {
+			node = node.getChild(triggers[i], false);
+			node.partialCount += delta;
 		}
 	}
 
@@ -237,48 +320,54 @@ public class BindingTable {
 			throw new IllegalArgumentException("Binding context " + binding.getContextId() //$NON-NLS-1$
 					+ " does not match " + getId()); //$NON-NLS-1$
 		}
-		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(binding.getTriggerSequence());
-		Binding possibleConflict = bindingsByTrigger.get(binding.getTriggerSequence());
+		Trigger[] triggers = binding.getTriggerSequence().getTriggers();
+		TriggerNode node = getNode(triggers, false);
+		if (node == null) {
+			return;
+		}
+		ArrayList<Binding> bindingList = node.ordered;
+		Binding possibleConflict = node.binding;
 		if (possibleConflict == binding) {
-			removeBindingSimple(binding);
+			removeBindingSimple(triggers, node, binding);
 			if (bindingList != null) {
 				bindingList.remove(binding);
 				if (bindingList.isEmpty()) {
-					orderedBindingsByTrigger.remove(binding.getTriggerSequence());
+					node.ordered = null;
 				} else {
-					evaluateOrderedBindings(binding.getTriggerSequence(), null);
+					evaluateOrderedBindings(triggers, node, null);
 				}
 			}
 		} else if (bindingList != null) {
 			bindingList.remove(binding);
 			if (bindingList.isEmpty()) {
-				orderedBindingsByTrigger.remove(binding.getTriggerSequence());
+				node.ordered = null;
 			} else {
-				evaluateOrderedBindings(binding.getTriggerSequence(), null);
+				evaluateOrderedBindings(triggers, node, null);
 			}
 		}
+		prune(triggers);
 	}
 
 	/**
 	 * @param binding
 	 */
-	private void evaluateOrderedBindings(TriggerSequence sequence, Binding binding) {
-		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(sequence);
+	private void evaluateOrderedBindings(Trigger[] triggers, TriggerNode node, Binding binding) {
+		ArrayList<Binding> bindingList = node.ordered;
 
 		// calculate binding to be used or any conflicts
 		if (bindingList != null) {
 			if (bindingList.isEmpty()) {
-				orderedBindingsByTrigger.remove(sequence);
+				node.ordered = null;
 			} else if (bindingList.size() > 1) {
 				Binding msb = bindingList.get(0);
 				Binding lsb = bindingList.get(1);
 				int rc = compareSchemes(BEST_SEQUENCE.getActiveSchemes(), msb.getSchemeId(),
 						lsb.getSchemeId());
 				if (rc == 0) {
-					ArrayList<Binding> conflictList = conflicts.get(sequence);
+					ArrayList<Binding> conflictList = node.conflicts;
 					if (conflictList == null) {
 						conflictList = new ArrayList<Binding>();
-						conflicts.put(sequence, conflictList);
+						node.conflicts = conflictList;
 					} else {
 						conflictList.clear();
 					}
@@ -295,27 +384,28 @@ public class BindingTable {
 						prev = next;
 					}
 				} else {
-					conflicts.remove(sequence);
-					if (bindingsByTrigger.get(sequence) == null) {
-						addBindingSimple(msb);
+					node.conflicts = null;
+					if (node.binding == null) {
+						addBindingSimple(triggers, node, msb);
 					}
 				}
 			} else {
-				if (bindingsByTrigger.get(sequence) == null) {
-					addBindingSimple(bindingList.get(0));
+				if (node.binding == null) {
+					addBindingSimple(triggers, node, bindingList.get(0));
 				}
-				orderedBindingsByTrigger.remove(sequence);
+				node.ordered = null;
 			}
 		} else if (binding != null) {
-			conflicts.remove(sequence);
-			if (bindingsByTrigger.get(sequence) == null) {
-				addBindingSimple(binding);
+			node.conflicts = null;
+			if (node.binding == null) {
+				addBindingSimple(triggers, node, binding);
 			}
 		}
 	}
 
 	public Binding getPerfectMatch(TriggerSequence trigger) {
-		return bindingsByTrigger.get(trigger);
+		TriggerNode node = getNode(trigger.getTriggers(), false);
+		return node == null ? null : node.binding;
 	}
 
 	public Binding getBestSequenceFor(ParameterizedCommand command) {
@@ -333,11 +423,30 @@ public class BindingTable {
 	}
 
 	public Collection<Binding> getPartialMatches(TriggerSequence sequence) {
-		return bindingsByPrefix.get(sequence);
+		TriggerNode node = getNode(sequence.getTriggers(), false);
+		if (node == null || node.partialCount == 0) {
+			return null;
+		}
+		ArrayList<TriggerNode> nodes = new ArrayList<TriggerNode>(node.partialCount);
+		node.collectBindings(nodes);
+		// in the order the bindings were made active, not in the order of the
+		// trie
+		Collections.sort(nodes, new Comparator<TriggerNode>() {
+			@Override
+			public int compare(TriggerNode n1, TriggerNode n2) {
+				return n1.activation < n2.activation ? -1 : (n1.activation == n2.activation ? 0 : 1);
+			}
+		});
+		ArrayList<Binding> partialMatches = new ArrayList<Binding>(nodes.size());
+		for (TriggerNode partialMatch : nodes) {
+			partialMatches.add(partialMatch.binding);
+		}
+		return partialMatches;
 	}
 
 	public boolean isPartialMatch(TriggerSequence seq) {
-		return bindingsByPrefix.get(seq) != null;
+		TriggerNode node = getNode(seq.getTriggers(), false);
+		return node != null && node.partialCount > 0;
 	}
 
 	public Collection<Binding> getBindings() {
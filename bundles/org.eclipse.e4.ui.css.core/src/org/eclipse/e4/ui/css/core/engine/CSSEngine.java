@@ -219,6 +219,20 @@ public interface CSSEngine {
 	 */
 	void applyStyles(Object node, boolean applyStylesToChildNodes, boolean computeDefaultStyle);
 
+	/**
+	 * Restyle the Object node and its child nodes after a change of the node
+	 * tested by the selectors, like its CSS class, id or pseudo classes.
+	 * Unlike {@link #applyStyles(Object, boolean)}, the child nodes whose
+	 * styles cannot have changed may be skipped, as well as the property
+	 * values which did not change. The default implementation applies the
+	 * styles to the node and all its child nodes.
+	 *
+	 * @param node
+	 */
+	default void restyle(Object node) {
+		applyStyles(node, true);
+	}
+
 	/*--------------- Apply style declaration -----------------*/
 
 	/**
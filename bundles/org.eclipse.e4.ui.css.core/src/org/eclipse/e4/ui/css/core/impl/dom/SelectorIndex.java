@@ -0,0 +1,439 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSLangConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedCondition;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSValue;
+
+/**
+ * Index of the selectors of a list of CSS rules by their rightmost simple
+ * selector: its id, one of its CSS classes or its element type. Only the
+ * selectors indexed under the id, the CSS classes or the type of an element,
+ * and the ones which cannot be indexed, need to be tested against the element.
+ * <p>
+ * The index also collects the attributes and pseudo classes the selectors
+ * depend on, so that elements are only restyled when they could match other
+ * rules.
+ * </p>
+ */
+final class SelectorIndex {
+
+	/**
+	 * A selector of a style rule, with its position in the list of rules.
+	 */
+	static final class Entry {
+		final int order;
+		final CSSStyleDeclaration style;
+		final ExtendedSelector selector;
+
+		/**
+		 * Whether the selector matches an element depending only on its type,
+		 * id, CSS classes and ancestors, in which case siblings which have the
+		 * same type, id and CSS classes can share their style.
+		 */
+		final boolean shareable;
+
+		Entry(int order, CSSStyleDeclaration style, ExtendedSelector selector, boolean shareable) {
+			this.order = order;
+			this.style = style;
+			this.selector = selector;
+			this.shareable = shareable;
+		}
+	}
+
+	/**
+	 * The properties of an element which determine the candidate selectors. Two
+	 * keys are equal if they describe siblings with the same type, id and CSS
+	 * classes, for which the same pseudo element is requested.
+	 */
+	static final class ElementKey {
+		final Node parent;
+		final String type;
+		final String id;
+		final String cssClass;
+		final String pseudoElt;
+
+		ElementKey(Element elt, String pseudoElt) {
+			this.parent = elt.getParentNode();
+			// Same as the element name tested by CSSElementSelectorImpl
+			this.type = elt.getPrefix() == null ? elt.getNodeName() : elt.getLocalName();
+			if (elt instanceof CSSStylableElement) {
+				CSSStylableElement stylableElement = (CSSStylableElement) elt;
+				this.id = stylableElement.getCSSId();
+				this.cssClass = stylableElement.getCSSClass();
+			} else {
+				this.id = elt.getAttribute("id"); //$NON-NLS-1$
+				this.cssClass = elt.getAttribute("class"); //$NON-NLS-1$
+			}
+			this.pseudoElt = pseudoElt;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = System.identityHashCode(parent);
+			result = 31 * result + (type == null ? 0 : type.hashCode());
+			result = 31 * result + (id == null ? 0 : id.hashCode());
+			result = 31 * result + (cssClass == null ? 0 : cssClass.hashCode());
+			return 31 * result + (pseudoElt == null ? 0 : pseudoElt.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ElementKey)) {
+				return false;
+			}
+			ElementKey other = (ElementKey) obj;
+			return parent == other.parent && equals(type, other.type) && equals(id, other.id)
+					&& equals(cssClass, other.cssClass) && equals(pseudoElt, other.pseudoElt);
+		}
+
+		private static boolean equals(String s1, String s2) {
+			return s1 == null ? s2 == null : s1.equals(s2);
+		}
+	}
+
+	private final Map<String, List<Entry>> idEntries = new HashMap<>();
+	private final Map<String, List<Entry>> classEntries = new HashMap<>();
+	private final Map<String, List<Entry>> typeEntries = new HashMap<>();
+	private final List<Entry> otherEntries = new ArrayList<>();
+
+	/**
+	 * An invalidation set: what selectors test on elements.
+	 */
+	private static final class Features {
+		boolean cssClass;
+		boolean id;
+		final Set<String> attributes = new TreeSet<>();
+		final Set<String> pseudoClasses = new TreeSet<>();
+
+		/**
+		 * Returns the values of the features of the given element.
+		 */
+		List<Object> getValues(Element elt) {
+			List<Object> values = new ArrayList<>(2 + attributes.size() + pseudoClasses.size());
+			CSSStylableElement stylableElement = elt instanceof CSSStylableElement ? (CSSStylableElement) elt
+					: null;
+			if (cssClass) {
+				values.add(stylableElement != null ? stylableElement.getCSSClass() : elt.getAttribute("class")); //$NON-NLS-1$
+			}
+			if (id) {
+				values.add(stylableElement != null ? stylableElement.getCSSId() : elt.getAttribute("id")); //$NON-NLS-1$
+			}
+			for (String attribute : attributes) {
+				values.add(elt.getAttribute(attribute));
+			}
+			if (stylableElement != null) {
+				for (String pseudoClass : pseudoClasses) {
+					values.add(Boolean.valueOf(stylableElement.isPseudoInstanceOf(pseudoClass)));
+				}
+			}
+			return values;
+		}
+	}
+
+	/** The features tested on the elements matched by the selectors */
+	private final Features features = new Features();
+	/** The features tested on the ancestors of these elements */
+	private final Features ancestorFeatures = new Features();
+	private boolean invalidationSupported = true;
+	private boolean inheritedValues;
+
+	/**
+	 * Indexes the selectors of the style rules of the given list.
+	 */
+	SelectorIndex(List<CSSRule> rules) {
+		int order = 0;
+		for (CSSRule rule : rules) {
+			if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+				continue;
+			}
+			CSSStyleDeclaration style = ((CSSStyleRule) rule).getStyle();
+			if (!inheritedValues) {
+				inheritedValues = hasInheritedValue(style);
+			}
+			SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+			int length = selectorList.getLength();
+			for (int i = 0; i < length; i++) {
+				Selector selector = selectorList.item(i);
+				if (selector instanceof ExtendedSelector) {
+					add((ExtendedSelector) selector, style, order++);
+				}
+				if (invalidationSupported) {
+					invalidationSupported = collectFeatures(selector, false);
+				}
+			}
+		}
+	}
+
+	private void add(ExtendedSelector selector, CSSStyleDeclaration style, int order) {
+		// Find the rightmost compound selector
+		Selector rightmost = selector;
+		boolean sibling = false;
+		while (true) {
+			if (rightmost instanceof DescendantSelector) {
+				rightmost = ((DescendantSelector) rightmost).getSimpleSelector();
+			} else if (rightmost instanceof SiblingSelector) {
+				rightmost = ((SiblingSelector) rightmost).getSiblingSelector();
+				sibling = true;
+			} else {
+				break;
+			}
+		}
+
+		Condition condition = null;
+		if (rightmost instanceof ConditionalSelector) {
+			condition = ((ConditionalSelector) rightmost).getCondition();
+			rightmost = ((ConditionalSelector) rightmost).getSimpleSelector();
+		}
+		String type = null;
+		boolean shareable = !sibling && rightmost instanceof CSSElementSelectorImpl
+				&& ((CSSElementSelectorImpl) rightmost).getNamespaceURI() == null
+				&& (condition == null || isShareable(condition));
+		if (rightmost instanceof CSSElementSelectorImpl) {
+			type = ((CSSElementSelectorImpl) rightmost).getLocalName();
+		}
+
+		Entry entry = new Entry(order, style, selector, shareable);
+		String id = findConditionValue(condition, true);
+		if (id != null) {
+			idEntries.computeIfAbsent(id, k -> new ArrayList<>()).add(entry);
+			return;
+		}
+		String cssClass = findConditionValue(condition, false);
+		if (cssClass != null) {
+			classEntries.computeIfAbsent(cssClass, k -> new ArrayList<>()).add(entry);
+			return;
+		}
+		if (type != null) {
+			typeEntries.computeIfAbsent(type, k -> new ArrayList<>()).add(entry);
+			return;
+		}
+		otherEntries.add(entry);
+	}
+
+	/**
+	 * Returns whether the condition only tests the id and CSS classes.
+	 */
+	private static boolean isShareable(Condition condition) {
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl and = (CSSAndConditionImpl) condition;
+			return isShareable(and.getFirstCondition()) && isShareable(and.getSecondCondition());
+		}
+		return condition instanceof CSSIdConditionImpl || condition instanceof CSSClassConditionImpl;
+	}
+
+	/**
+	 * Returns the value of an id or CSS class condition which has to be met
+	 * for the condition to be met, <code>null</code> if there is none.
+	 */
+	private static String findConditionValue(Condition condition, boolean id) {
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl and = (CSSAndConditionImpl) condition;
+			String value = findConditionValue(and.getFirstCondition(), id);
+			return value != null ? value : findConditionValue(and.getSecondCondition(), id);
+		}
+		if (id ? condition instanceof CSSIdConditionImpl : condition instanceof CSSClassConditionImpl) {
+			return ((AttributeCondition) condition).getValue();
+		}
+		return null;
+	}
+
+	private static boolean hasInheritedValue(CSSStyleDeclaration style) {
+		int length = style.getLength();
+		for (int i = 0; i < length; i++) {
+			CSSValue value = style.getPropertyCSSValue(style.item(i));
+			if (value != null && "inherit".equals(value.getCssText())) { //$NON-NLS-1$
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the attributes and pseudo classes tested by a selector to the
+	 * invalidation sets.
+	 *
+	 * @return <code>false</code> if the selector tests something else than the
+	 *         type, attributes and pseudo classes of an element and its
+	 *         ancestors
+	 */
+	private boolean collectFeatures(Selector selector, boolean ancestor) {
+		if (selector instanceof DescendantSelector) {
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			return collectFeatures(descendantSelector.getAncestorSelector(), true)
+					&& collectFeatures(descendantSelector.getSimpleSelector(), ancestor);
+		}
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			return collectFeatures(conditionalSelector.getSimpleSelector(), ancestor)
+					&& collectFeatures(conditionalSelector.getCondition(), ancestor);
+		}
+		// Sibling selectors depend on the siblings of the elements
+		return selector instanceof ElementSelector;
+	}
+
+	private boolean collectFeatures(Condition condition, boolean ancestor) {
+		if (condition instanceof CombinatorCondition) {
+			CombinatorCondition combinatorCondition = (CombinatorCondition) condition;
+			return collectFeatures(combinatorCondition.getFirstCondition(), ancestor)
+					&& collectFeatures(combinatorCondition.getSecondCondition(), ancestor);
+		}
+		Features tested = ancestor ? ancestorFeatures : features;
+		if (condition instanceof CSSClassConditionImpl) {
+			tested.cssClass = true;
+			return true;
+		}
+		if (condition instanceof CSSIdConditionImpl) {
+			tested.id = true;
+			return true;
+		}
+		if (condition instanceof CSSPseudoClassConditionImpl) {
+			tested.pseudoClasses.add(((CSSPseudoClassConditionImpl) condition).getValue());
+			return true;
+		}
+		if (condition instanceof CSSLangConditionImpl) {
+			// The language is inherited from the ancestors
+			return false;
+		}
+		if (condition instanceof AttributeCondition && condition instanceof ExtendedCondition) {
+			((ExtendedCondition) condition).fillAttributeSet(tested.attributes);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the invalidation sets describe everything the selectors
+	 * depend on, so that the styles of an element can only change if its
+	 * {@link StyleState} or the one of an ancestor changes.
+	 */
+	boolean isInvalidationSupported() {
+		return invalidationSupported;
+	}
+
+	/**
+	 * Returns the state of the given element that the selectors depend on.
+	 */
+	StyleState getStyleState(Element elt, int generation) {
+		return new StyleState(generation, elt.getParentNode(), features.getValues(elt),
+				ancestorFeatures.getValues(elt), inheritedValues);
+	}
+
+	/**
+	 * Returns the selectors which may match an element with the given key, in
+	 * the order of the rules.
+	 */
+	List<Entry> getCandidates(ElementKey key) {
+		List<List<Entry>> lists = new ArrayList<>(4);
+		addEntries(lists, idEntries, key.id);
+		if (key.cssClass != null && !key.cssClass.isEmpty() && !classEntries.isEmpty()) {
+			for (String cssClass : splitClasses(key.cssClass)) {
+				addEntries(lists, classEntries, cssClass);
+			}
+		}
+		addEntries(lists, typeEntries, key.type);
+		if (!otherEntries.isEmpty()) {
+			lists.add(otherEntries);
+		}
+
+		switch (lists.size()) {
+		case 0:
+			return Collections.emptyList();
+		case 1:
+			return lists.get(0);
+		default:
+			List<Entry> candidates = new ArrayList<>();
+			for (List<Entry> list : lists) {
+				candidates.addAll(list);
+			}
+			candidates.sort((entry1, entry2) -> Integer.compare(entry1.order, entry2.order));
+			return candidates;
+		}
+	}
+
+	private static void addEntries(List<List<Entry>> lists, Map<String, List<Entry>> entries, String key) {
+		if (key != null) {
+			List<Entry> list = entries.get(key);
+			if (list != null) {
+				lists.add(list);
+			}
+		}
+	}
+
+	/**
+	 * Splits a list of CSS classes the same way {@link CSSClassConditionImpl}
+	 * does, ignoring duplicates.
+	 */
+	private static Set<String> splitClasses(String cssClass) {
+		Set<String> classes = new LinkedHashSet<>();
+		int length = cssClass.length();
+		int start = 0;
+		for (int i = 0; i <= length; i++) {
+			if (i == length || Character.isSpaceChar(cssClass.charAt(i))) {
+				if (i > start) {
+					classes.add(cssClass.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * Returns whether siblings with the same type, id and CSS classes may share
+	 * the style computed from the given candidates.
+	 */
+	static boolean isShareable(List<Entry> candidates) {
+		for (Entry entry : candidates) {
+			if (!entry.shareable) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
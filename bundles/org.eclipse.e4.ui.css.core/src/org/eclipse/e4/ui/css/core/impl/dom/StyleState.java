@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.List;
+import org.w3c.dom.Node;
+
+/**
+ * The state of an element which the selectors of the stylesheets depend on:
+ * its parent, its CSS class and id, and the attributes and pseudo classes
+ * tested by the selectors. Comparing the state of an element with the one it
+ * had when it was last styled tells whether its styles, or the styles of its
+ * descendants, could differ.
+ *
+ * @see ViewCSSImpl#getStyleState(org.w3c.dom.Element)
+ */
+public final class StyleState {
+
+	private final int generation;
+	private final Node parent;
+	private final List<Object> values;
+	private final List<Object> ancestorValues;
+	private final boolean inheritedValues;
+
+	StyleState(int generation, Node parent, List<Object> values, List<Object> ancestorValues,
+			boolean inheritedValues) {
+		this.generation = generation;
+		this.parent = parent;
+		this.values = values;
+		this.ancestorValues = ancestorValues;
+		this.inheritedValues = inheritedValues;
+	}
+
+	/**
+	 * Returns whether the rules matching the element could differ from the
+	 * ones which matched when it had the previous state.
+	 *
+	 * @param previous
+	 *            the state of the element when it was last styled, or
+	 *            <code>null</code> if it was never styled
+	 */
+	public boolean invalidatesElement(StyleState previous) {
+		return previous == null || generation != previous.generation || parent != previous.parent
+				|| !values.equals(previous.values);
+	}
+
+	/**
+	 * Returns whether the rules matching the descendants of the element could
+	 * differ from the ones which matched when it had the previous state.
+	 *
+	 * @param previous
+	 *            the state of the element when it was last styled, or
+	 *            <code>null</code> if it was never styled
+	 */
+	public boolean invalidatesDescendants(StyleState previous) {
+		if (inheritedValues && invalidatesElement(previous)) {
+			// Descendants may inherit the values of the element
+			return true;
+		}
+		// A moved element has other ancestors
+		return previous == null || generation != previous.generation || parent != previous.parent
+				|| !ancestorValues.equals(previous.ancestorValues);
+	}
+}
@@ -18,7 +18,9 @@
 package org.eclipse.e4.ui.css.core.impl.dom;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
 import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
@@ -39,6 +41,8 @@ import org.w3c.dom.views.DocumentView;
 
 /**
  * {@link ViewCSS} implementation used to compute {@link CSSStyleDeclaration}.
+ * When the stylesheets notify their changes, the selectors of their rules are
+ * indexed so that only the selectors which may match an element are tested.
  */
 public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChangeListener {
 
@@ -46,6 +50,15 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	private boolean ruleCachingEnabled;
 	/** Cached state of combined CSS rules for the current stylesheets */
 	private List<CSSRule> currentCombinedRules;
+	/** Cached index of the selectors of the combined CSS rules */
+	private SelectorIndex currentSelectorIndex;
+	/**
+	 * Styles computed for elements which siblings with the same type, id and
+	 * CSS classes can share, <code>null</code> when style sharing is disabled
+	 */
+	private Map<SelectorIndex.ElementKey, CSSStyleDeclaration> sharedStyles;
+	/** Incremented when the stylesheets change */
+	private int generation;
 
 	/**
 	 * Creates a new ViewCSS.
@@ -72,10 +85,72 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-		CSSStyleDeclaration styleDeclaration = getComputedStyle(getCombinedRules(), elt, pseudoElt);
+		if (!this.ruleCachingEnabled) {
+			return getComputedStyle(getCombinedRules(), elt, pseudoElt);
+		}
+
+		SelectorIndex.ElementKey key = new SelectorIndex.ElementKey(elt, pseudoElt);
+		List<SelectorIndex.Entry> candidates = getSelectorIndex().getCandidates(key);
+		boolean shareable = sharedStyles != null && SelectorIndex.isShareable(candidates);
+		if (shareable && sharedStyles.containsKey(key)) {
+			return sharedStyles.get(key);
+		}
+		CSSStyleDeclaration styleDeclaration = getComputedStyle(candidates, elt, pseudoElt);
+		if (shareable) {
+			sharedStyles.put(key, styleDeclaration);
+		}
 		return styleDeclaration;
 	}
 
+	/**
+	 * Enables or disables the sharing of computed styles between sibling
+	 * elements which have the same type, id and CSS classes. Sharing must only
+	 * be enabled while the styles of a tree of elements are computed, as the
+	 * shared styles are not updated when the CSS classes or ids of the
+	 * ancestors of the elements change.
+	 *
+	 * @param enabled
+	 *            whether computed styles are shared; disabling forgets the
+	 *            shared styles
+	 */
+	public void setStyleSharingEnabled(boolean enabled) {
+		sharedStyles = enabled ? new HashMap<>() : null;
+	}
+
+	/**
+	 * Returns whether the styles of an element can only change if its
+	 * {@link StyleState}, or the one of an ancestor, changes. This is the case
+	 * when the stylesheets notify their changes and their selectors do not
+	 * test the siblings of elements.
+	 */
+	public boolean isIncrementalStylingSupported() {
+		return this.ruleCachingEnabled && getSelectorIndex().isInvalidationSupported();
+	}
+
+	/**
+	 * Returns the state of an element which the selectors of the current
+	 * stylesheets depend on.
+	 *
+	 * @param elt
+	 *            the element
+	 * @return the state of the element
+	 * @see #isIncrementalStylingSupported()
+	 */
+	public StyleState getStyleState(Element elt) {
+		return getSelectorIndex().getStyleState(elt, generation);
+	}
+
+	/**
+	 * Returns the index of the selectors of the combined CSS rules, which is
+	 * cached until the stylesheets change.
+	 */
+	private SelectorIndex getSelectorIndex() {
+		if (this.currentSelectorIndex == null) {
+			this.currentSelectorIndex = new SelectorIndex(getCombinedRules());
+		}
+		return this.currentSelectorIndex;
+	}
+
 	/**
 	 * Retrieves the combined list of CSS rules for all current stylesheets. This
 	 * method returns a cached state when the stylesheets are the same as on its
@@ -170,13 +245,56 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		return null;
 	}
 
+	/**
+	 * Computes the style of an element from the candidate selectors of the
+	 * selector index, which are sorted in the order of the rules.
+	 */
+	private CSSStyleDeclaration getComputedStyle(List<SelectorIndex.Entry> candidates, Element elt,
+			String pseudoElt) {
+		List<StyleWrapper> styleDeclarations = null;
+		StyleWrapper firstStyleDeclaration = null;
+		int position = 0;
+		for (SelectorIndex.Entry candidate : candidates) {
+			if (candidate.selector.match(elt, pseudoElt)) {
+				StyleWrapper wrapper = new StyleWrapper(candidate.style, candidate.selector.getSpecificity(),
+						position++);
+				if (firstStyleDeclaration == null) {
+					firstStyleDeclaration = wrapper;
+				} else {
+					if (styleDeclarations == null) {
+						styleDeclarations = new ArrayList<>();
+						styleDeclarations.add(firstStyleDeclaration);
+					}
+					styleDeclarations.add(wrapper);
+				}
+			}
+		}
+		if (styleDeclarations != null) {
+			return new CSSComputedStyleImpl(styleDeclarations);
+		}
+		if (firstStyleDeclaration != null) {
+			return firstStyleDeclaration.style;
+		}
+		return null;
+	}
+
 	@Override
 	public void styleSheetAdded(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentSelectorIndex = null;
+		generation++;
+		if (sharedStyles != null) {
+			sharedStyles.clear();
+		}
 	}
 
 	@Override
 	public void styleSheetRemoved(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentSelectorIndex = null;
+		generation++;
+		if (sharedStyles != null) {
+			sharedStyles.clear();
+		}
 	}
 }
@@ -56,6 +56,7 @@ import org.eclipse.e4.ui.css.core.exceptions.UnsupportedPropertyException;
 import org.eclipse.e4.ui.css.core.impl.dom.CSSRuleListImpl;
 import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetImpl;
 import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.StyleState;
 import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
 import org.eclipse.e4.ui.css.core.resources.IResourcesRegistry;
@@ -103,6 +104,18 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	private static final String ARCHIVE_IDENTIFIER = "!";
 
+	/**
+	 * Key of the {@link StyleState} an element had when it was last styled in
+	 * its {@link CSSElementContext}.
+	 */
+	private static final String STYLE_STATE_KEY = "org.eclipse.e4.ui.css.core.styleState"; //$NON-NLS-1$
+
+	/**
+	 * Key of the CSS values last applied to an element in its
+	 * {@link CSSElementContext}, by property and pseudo instance.
+	 */
+	private static final String APPLIED_VALUES_KEY = "org.eclipse.e4.ui.css.core.appliedValues"; //$NON-NLS-1$
+
 	/**
 	 * Default {@link IResourcesLocatorManager} used to get InputStream, Reader
 	 * resource like Image.
@@ -153,6 +166,19 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	/**
+	 * Whether a tree of elements is being styled, during which the view shares
+	 * computed styles between siblings.
+	 */
+	private boolean sharingStyles;
+
+	/**
+	 * Whether property values equal to the ones last applied to an element are
+	 * skipped, which is the case while the descendants of a restyled element
+	 * are incrementally restyled.
+	 */
+	private boolean skipUnchangedValues;
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -360,79 +386,204 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	@Override
 	public void applyStyles(Object element, boolean applyStylesToChildNodes, boolean computeDefaultStyle) {
+		applyStyles(element, applyStylesToChildNodes, computeDefaultStyle, false);
+	}
+
+	@Override
+	public void restyle(Object element) {
+		applyStyles(element, true, computeDefaultStyle, true);
+	}
+
+	private void applyStyles(Object element, boolean applyStylesToChildNodes, boolean computeDefaultStyle,
+			boolean incremental) {
+		// Let siblings share their computed styles while a tree is styled
+		boolean shareStyles = applyStylesToChildNodes && !sharingStyles && viewCSS instanceof ViewCSSImpl;
+		if (shareStyles) {
+			sharingStyles = true;
+			((ViewCSSImpl) viewCSS).setStyleSharingEnabled(true);
+		}
+		try {
+			doApplyStyles(element, applyStylesToChildNodes, computeDefaultStyle, incremental);
+		} finally {
+			if (shareStyles) {
+				((ViewCSSImpl) viewCSS).setStyleSharingEnabled(false);
+				sharingStyles = false;
+			}
+		}
+	}
+
+	private void doApplyStyles(Object element, boolean applyStylesToChildNodes, boolean computeDefaultStyle,
+			boolean incremental) {
 		Element elt = getElement(element);
 		if (elt != null) {
 			if (!isVisible(elt)) {
 				return;
 			}
 
-			/*
-			 * Compute new Style to apply.
-			 */
-			CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
-			if (computeDefaultStyle) {
-				if (applyStylesToChildNodes) {
-					this.computeDefaultStyle = computeDefaultStyle;
-				}
-				/*
-				 * Apply default style.
-				 */
-				applyDefaultStyleDeclaration(element, false, style, null);
+			// All the values are applied again: the resources they resolve
+			// to may have changed even if the values did not
+			CSSElementContext context = getStyledElementContext(elt);
+			if (context != null) {
+				context.setData(APPLIED_VALUES_KEY, null);
 			}
 
-			/*
-			 * Manage static pseudo instances
-			 */
-			String[] pseudoInstances = getStaticPseudoInstances(elt);
-			if (pseudoInstances != null && pseudoInstances.length > 0) {
-				// there are static pseudo instances defined, loop for it and
-				// apply styles for each pseudo instance.
-				for (String pseudoInstance : pseudoInstances) {
-					CSSStyleDeclaration styleWithPseudoInstance = viewCSS.getComputedStyle(elt, pseudoInstance);
-					if (computeDefaultStyle) {
-						/*
-						 * Apply default style for the current pseudo instance.
-						 */
-						applyDefaultStyleDeclaration(element, false, styleWithPseudoInstance, pseudoInstance);
-					}
+			// Remember the state the styles are computed for, unless styles
+			// are computed for the default style declarations
+			StyleState state = null;
+			StyleState previousState = null;
+			if (!computeDefaultStyle && !this.computeDefaultStyle && viewCSS instanceof ViewCSSImpl
+					&& ((ViewCSSImpl) viewCSS).isIncrementalStylingSupported()) {
+				state = ((ViewCSSImpl) viewCSS).getStyleState(elt);
+				previousState = recordStyleState(elt, state);
+			}
 
-					if (styleWithPseudoInstance != null) {
-						CSSRule parentRule = styleWithPseudoInstance.getParentRule();
-						if (parentRule instanceof ExtendedCSSRule) {
-							applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
+			applyStylesToElement(element, elt, applyStylesToChildNodes, computeDefaultStyle);
+
+			if (applyStylesToChildNodes) {
+				/*
+				 * Style all children recursive. When the element is restyled
+				 * after a change and the state of the elements is known, only
+				 * the children which could match other rules than when they
+				 * were last styled are restyled.
+				 */
+				NodeList nodes = getChildNodesToStyle(elt);
+				if (nodes != null) {
+					boolean invalidated = state == null || state.invalidatesDescendants(previousState);
+					for (int k = 0; k < nodes.getLength(); k++) {
+						if (incremental && state != null) {
+							applyStylesIncrementally(nodes.item(k), invalidated);
 						} else {
-							applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
+							applyStyles(nodes.item(k), applyStylesToChildNodes);
 						}
 					}
+					onStylesAppliedToChildNodes(elt, nodes);
 				}
 			}
+		}
 
-			if (style != null) {
-				applyStyleDeclaration(elt, style, null);
-			}
+	}
+
+	/**
+	 * Styles an element of a tree being restyled, and its descendants, if the
+	 * rules matching them could differ from the ones which matched when they
+	 * were last styled. Only the property values which differ from the ones
+	 * applied then are applied.
+	 *
+	 * @param element
+	 *            the element to style
+	 * @param invalidated
+	 *            whether the state of an ancestor changed in a way that could
+	 *            change the rules matching the element
+	 */
+	private void applyStylesIncrementally(Object element, boolean invalidated) {
+		Element elt = getElement(element);
+		if (elt == null || !isVisible(elt)) {
+			return;
+		}
+		StyleState state = ((ViewCSSImpl) viewCSS).getStyleState(elt);
+		StyleState previousState = recordStyleState(elt, state);
+		if (invalidated || state.invalidatesElement(previousState)) {
+			boolean skipUnchanged = skipUnchangedValues;
+			skipUnchangedValues = true;
 			try {
-				// Apply inline style
-				applyInlineStyle(elt, false);
-			} catch (Exception e) {
-				handleExceptions(e);
+				applyStylesToElement(element, elt, false, false);
+			} finally {
+				skipUnchangedValues = skipUnchanged;
 			}
+		}
+
+		NodeList nodes = getChildNodesToStyle(elt);
+		if (nodes != null) {
+			boolean descendantsInvalidated = invalidated || state.invalidatesDescendants(previousState);
+			for (int k = 0; k < nodes.getLength(); k++) {
+				applyStylesIncrementally(nodes.item(k), descendantsInvalidated);
+			}
+			onStylesAppliedToChildNodes(elt, nodes);
+		}
+	}
 
+	private void applyStylesToElement(Object element, Element elt, boolean applyStylesToChildNodes,
+			boolean computeDefaultStyle) {
+		/*
+		 * Compute new Style to apply.
+		 */
+		CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
+		if (computeDefaultStyle) {
 			if (applyStylesToChildNodes) {
-				/*
-				 * Style all children recursive.
-				 */
-				NodeList nodes = elt instanceof ChildVisibilityAwareElement
-						? ((ChildVisibilityAwareElement) elt).getVisibleChildNodes()
-								: elt.getChildNodes();
-						if (nodes != null) {
-							for (int k = 0; k < nodes.getLength(); k++) {
-								applyStyles(nodes.item(k), applyStylesToChildNodes);
-							}
-							onStylesAppliedToChildNodes(elt, nodes);
-						}
+				this.computeDefaultStyle = computeDefaultStyle;
 			}
+			/*
+			 * Apply default style.
+			 */
+			applyDefaultStyleDeclaration(element, false, style, null);
 		}
 
+		/*
+		 * Manage static pseudo instances
+		 */
+		String[] pseudoInstances = getStaticPseudoInstances(elt);
+		if (pseudoInstances != null && pseudoInstances.length > 0) {
+			// there are static pseudo instances defined, loop for it and
+			// apply styles for each pseudo instance.
+			for (String pseudoInstance : pseudoInstances) {
+				CSSStyleDeclaration styleWithPseudoInstance = viewCSS.getComputedStyle(elt, pseudoInstance);
+				if (computeDefaultStyle) {
+					/*
+					 * Apply default style for the current pseudo instance.
+					 */
+					applyDefaultStyleDeclaration(element, false, styleWithPseudoInstance, pseudoInstance);
+				}
+
+				if (styleWithPseudoInstance != null) {
+					CSSRule parentRule = styleWithPseudoInstance.getParentRule();
+					if (parentRule instanceof ExtendedCSSRule) {
+						applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
+					} else {
+						applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
+					}
+				}
+			}
+		}
+
+		if (style != null) {
+			applyStyleDeclaration(elt, style, null);
+		}
+		try {
+			// Apply inline style
+			applyInlineStyle(elt, false);
+		} catch (Exception e) {
+			handleExceptions(e);
+		}
+	}
+
+	private NodeList getChildNodesToStyle(Element elt) {
+		return elt instanceof ChildVisibilityAwareElement ? ((ChildVisibilityAwareElement) elt).getVisibleChildNodes()
+				: elt.getChildNodes();
+	}
+
+	/**
+	 * Records the state of an element when it is styled.
+	 *
+	 * @return the state the element had when it was last styled, or
+	 *         <code>null</code> if unknown
+	 */
+	private StyleState recordStyleState(Element elt, StyleState state) {
+		CSSElementContext context = getStyledElementContext(elt);
+		if (context == null) {
+			return null;
+		}
+		StyleState previousState = (StyleState) context.getData(STYLE_STATE_KEY);
+		context.setData(STYLE_STATE_KEY, state);
+		return previousState;
+	}
+
+	/**
+	 * Returns the context of an element which is attached to a native widget,
+	 * <code>null</code> if there is none.
+	 */
+	private CSSElementContext getStyledElementContext(Object element) {
+		Object widget = getNativeWidget(element);
+		return widget != null ? getCSSElementContext(widget) : null;
 	}
 
 	/**
@@ -529,11 +680,25 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			currentCSSPropertiesApplyed = new HashMap<>();
 		}
 		List<ICSSPropertyHandler2> handlers2 = null;
+		Map<String, String> appliedValues = getAppliedValues(element);
 		for (int i = 0; i < style.getLength(); i++) {
 			String property = style.item(i);
 			CSSValue value = style.getPropertyCSSValue(property);
+			String key = null;
+			String cssText = null;
+			if (appliedValues != null) {
+				key = pseudo == null ? property : property + ':' + pseudo;
+				cssText = value.getCssText();
+				if (skipUnchangedValues && !"inherit".equals(cssText) && cssText.equals(appliedValues.get(key))) {
+					// The value is already applied
+					continue;
+				}
+			}
 			try {
 				ICSSPropertyHandler handler = this.applyCSSProperty(element, property, value, pseudo);
+				if (handler != null && appliedValues != null) {
+					appliedValues.put(key, cssText);
+				}
 				ICSSPropertyHandler2 propertyHandler2 = null;
 				if (handler instanceof ICSSPropertyHandler2) {
 					propertyHandler2 = (ICSSPropertyHandler2) handler;
@@ -571,6 +736,25 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	}
 
+	/**
+	 * Returns the CSS values last applied to an element, by property and
+	 * pseudo instance, <code>null</code> if the element is not attached to a
+	 * native widget.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, String> getAppliedValues(Object element) {
+		CSSElementContext context = getStyledElementContext(element);
+		if (context == null) {
+			return null;
+		}
+		Map<String, String> appliedValues = (Map<String, String>) context.getData(APPLIED_VALUES_KEY);
+		if (appliedValues == null) {
+			appliedValues = new HashMap<>();
+			context.setData(APPLIED_VALUES_KEY, appliedValues);
+		}
+		return appliedValues;
+	}
+
 	@Override
 	public CSSStyleDeclaration parseAndApplyStyleDeclaration(Object node,
 			Reader reader) throws IOException {
@@ -512,6 +512,16 @@ public class ThemeEngine implements IThemeEngine {
 		}
 	}
 
+	@Override
+	public void restyle(Object widget) {
+		for (CSSEngine engine : cssEngines) {
+			Object element = engine.getElement(widget);
+			if (element != null) {
+				engine.restyle(element);
+			}
+		}
+	}
+
 	private String getPreferenceThemeId() {
 		return getPreferences().get(THEMEID_KEY, null);
 	}
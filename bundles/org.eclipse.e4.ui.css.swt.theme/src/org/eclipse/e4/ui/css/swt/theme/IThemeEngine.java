@@ -155,6 +155,17 @@ public interface IThemeEngine {
 	 */
 	void applyStyles(Object widget, boolean applyStylesToChildNodes);
 
+	/**
+	 * Restyle the widget and its children after a change of its CSS class, id
+	 * or state, skipping the children whose style cannot have changed.
+	 *
+	 * @param widget
+	 *            the widget
+	 */
+	default void restyle(Object widget) {
+		applyStyles(widget, true);
+	}
+
 	/**
 	 * Get the style currently active for a widget
 	 *
@@ -45,7 +45,7 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 	private SelectionListener selectionListener = new SelectionAdapter() {
 		@Override
 		public void widgetSelected(SelectionEvent e) {
-			applyStyles(getWidget(), true);
+			engine.restyle(getWidget());
 		}
 
 	};
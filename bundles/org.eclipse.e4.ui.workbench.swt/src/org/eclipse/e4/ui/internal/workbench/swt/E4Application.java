@@ -374,6 +374,26 @@ public class E4Application implements IApplication {
 				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
 		eclipseContext.set(IWorkbench.CLEAR_PERSISTED_STATE, clearPersistedState);
 
+		// Binary snapshot of the persisted state
+		Boolean binaryModelSnapshot = getArgValue(E4Workbench.BINARY_MODEL_SNAPSHOT, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.BINARY_MODEL_SNAPSHOT, binaryModelSnapshot);
+
+		// Index of the model elements
+		Boolean modelIndex = getArgValue(E4Workbench.MODEL_INDEX, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.MODEL_INDEX, modelIndex);
+
+		// Cache of the assembled initial model
+		Boolean modelAssemblyCache = getArgValue(E4Workbench.MODEL_ASSEMBLY_CACHE, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		if (modelAssemblyCache.booleanValue()) {
+			File cacheFile = WorkbenchSWTActivator.getDefault().getContext().getDataFile("assembledModel.bin"); //$NON-NLS-1$
+			if (cacheFile != null) {
+				eclipseContext.set(E4Workbench.MODEL_ASSEMBLY_CACHE, cacheFile);
+			}
+		}
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
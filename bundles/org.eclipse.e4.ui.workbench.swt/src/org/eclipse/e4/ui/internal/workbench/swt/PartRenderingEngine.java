@@ -1319,13 +1319,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.restyle(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.restyle(widget);
 				}
 
 				@Override
@@ -1342,7 +1342,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.restyle(widget);
 				}
 			});
 
@@ -1362,13 +1362,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.restyle(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.restyle(widget);
 				}
 
 				@Override
@@ -1389,7 +1389,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.restyle(widget);
 				}
 			});
 
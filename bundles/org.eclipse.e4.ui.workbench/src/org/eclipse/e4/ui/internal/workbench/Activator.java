@@ -71,6 +71,8 @@ public class Activator implements BundleActivator, DebugOptionsListener {
 
 	private DebugTrace trace;
 
+	private EventSubscriptions eventSubscriptions;
+
 	/**
 	 * Get the default activator.
 	 *
@@ -119,6 +121,12 @@ public class Activator implements BundleActivator, DebugOptionsListener {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		synchronized (this) {
+			if (eventSubscriptions != null) {
+				eventSubscriptions.dispose();
+				eventSubscriptions = null;
+			}
+		}
 		if (locationTracker != null) {
 			locationTracker.close();
 			locationTracker = null;
@@ -161,6 +169,17 @@ public class Activator implements BundleActivator, DebugOptionsListener {
 		activator.getTrace().trace(option, msg, error);
 	}
 
+	/**
+	 * @return the subscriptions of the event handlers, or <code>null</code> if
+	 *         the bundle is not started
+	 */
+	synchronized EventSubscriptions getEventSubscriptions() {
+		if (eventSubscriptions == null && context != null) {
+			eventSubscriptions = new EventSubscriptions(context);
+		}
+		return eventSubscriptions;
+	}
+
 	public LogService getLogService() {
 		LogService logService = null;
 		if (logTracker != null) {
@@ -86,6 +86,28 @@ public class E4Workbench implements IWorkbench {
 	 * Value is: <code>forcedShowLocation</code>
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
+	/**
+	 * The argument for whether to persist the workbench model as a binary
+	 * snapshot instead of XMI <br>
+	 * <br>
+	 * Value is: <code>binaryModelSnapshot</code>
+	 */
+	public static final String BINARY_MODEL_SNAPSHOT = "binaryModelSnapshot"; //$NON-NLS-1$
+	/**
+	 * The argument for whether to cache the initial model assembled from the
+	 * fragments and the cacheable processors. In the context, the value is the
+	 * cache {@link java.io.File} <br>
+	 * <br>
+	 * Value is: <code>modelAssemblyCache</code>
+	 */
+	public static final String MODEL_ASSEMBLY_CACHE = "modelAssemblyCache"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the model service indexes the elements of the
+	 * application model to narrow its searches <br>
+	 * <br>
+	 * Value is: <code>modelIndex</code>
+	 */
+	public static final String MODEL_INDEX = "modelIndex"; //$NON-NLS-1$
 
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
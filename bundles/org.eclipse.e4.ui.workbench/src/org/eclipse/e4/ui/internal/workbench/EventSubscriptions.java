@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Tells whether an event handler is subscribed to a topic. The topics of the
+ * registered {@link EventHandler} services are read again only after the
+ * handler services have changed, and the answer for a topic is remembered
+ * until then.
+ * <p>
+ * The event broker subscribes its handlers as event handler services, and the
+ * event admin delivers events to these services only, so an event without a
+ * subscriber can be dropped without being created.
+ * </p>
+ */
+final class EventSubscriptions implements ServiceListener {
+
+	private static final String TOPIC_WILDCARD = "*"; //$NON-NLS-1$
+
+	private final BundleContext context;
+
+	// The patterns of the handlers, null until read again
+	private Patterns patterns;
+
+	private static final class Patterns {
+		final Set<String> topics = new HashSet<>();
+		final List<String> prefixes = new ArrayList<>();
+		final Map<String, Boolean> subscribedTopics = new ConcurrentHashMap<>();
+		final Map<String, Boolean> separateTopics = new ConcurrentHashMap<>();
+		boolean all;
+
+		boolean hasSubscribers(String topic) {
+			Boolean subscribed = subscribedTopics.get(topic);
+			if (subscribed == null) {
+				subscribed = Boolean.valueOf(matches(topic));
+				subscribedTopics.put(topic, subscribed);
+			}
+			return subscribed.booleanValue();
+		}
+
+		boolean hasSeparateSubscribers(String topic, String otherTopic) {
+			Boolean subscribed = separateTopics.get(topic);
+			if (subscribed == null) {
+				subscribed = Boolean.valueOf(matchesSeparately(topic, otherTopic));
+				separateTopics.put(topic, subscribed);
+			}
+			return subscribed.booleanValue();
+		}
+
+		private boolean matches(String topic) {
+			if (all || topics.contains(topic)) {
+				return true;
+			}
+			for (String prefix : prefixes) {
+				if (topic.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean matchesSeparately(String topic, String otherTopic) {
+			// "*" matches both topics
+			if (topics.contains(topic) && !topic.equals(otherTopic)) {
+				return true;
+			}
+			for (String prefix : prefixes) {
+				if (topic.startsWith(prefix) && !otherTopic.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * @param context
+	 *            the context of the bundle used to look up the event handlers
+	 */
+	EventSubscriptions(BundleContext context) {
+		this.context = context;
+		try {
+			context.addServiceListener(this,
+					"(" + Constants.OBJECTCLASS + "=" + EventHandler.class.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} catch (InvalidSyntaxException e) {
+			// The filter is constant
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Stops tracking the event handlers.
+	 */
+	void dispose() {
+		context.removeServiceListener(this);
+	}
+
+	/**
+	 * Returns whether an event handler subscribed to the topic, either by name
+	 * or with a wildcard.
+	 *
+	 * @param topic
+	 *            the topic of an event
+	 * @return <code>true</code> if an event on the topic may be handled
+	 */
+	boolean hasSubscribers(String topic) {
+		return getPatterns().hasSubscribers(topic);
+	}
+
+	/**
+	 * Returns whether an event handler subscribed to the topic with a pattern
+	 * that does not match the other topic. The handlers subscribed to both
+	 * topics, such as the ones subscribed to all the events, are left out.
+	 * <p>
+	 * The other topic must be the same on every call.
+	 * </p>
+	 *
+	 * @param topic
+	 *            the topic of an event
+	 * @param otherTopic
+	 *            the topic of the events which replace the event for the
+	 *            handlers subscribed to both topics
+	 * @return <code>true</code> if a handler needs the event on the topic
+	 *         itself
+	 */
+	boolean hasSeparateSubscribers(String topic, String otherTopic) {
+		return getPatterns().hasSeparateSubscribers(topic, otherTopic);
+	}
+
+	private synchronized Patterns getPatterns() {
+		if (patterns == null) {
+			patterns = readPatterns();
+		}
+		return patterns;
+	}
+
+	private Patterns readPatterns() {
+		Patterns result = new Patterns();
+		ServiceReference<?>[] references;
+		try {
+			references = context.getAllServiceReferences(EventHandler.class.getName(), null);
+		} catch (InvalidSyntaxException | IllegalStateException e) {
+			// Deliver every event if the handlers cannot be known
+			result.all = true;
+			return result;
+		}
+		if (references == null) {
+			return result;
+		}
+		for (ServiceReference<?> reference : references) {
+			Object property = reference.getProperty(EventConstants.EVENT_TOPIC);
+			if (property instanceof String) {
+				addPattern(result, (String) property);
+			} else if (property instanceof String[]) {
+				for (String pattern : (String[]) property) {
+					addPattern(result, pattern);
+				}
+			} else if (property instanceof Iterable<?>) {
+				for (Object pattern : (Iterable<?>) property) {
+					if (pattern instanceof String) {
+						addPattern(result, (String) pattern);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void addPattern(Patterns patterns, String pattern) {
+		if (pattern.equals(TOPIC_WILDCARD)) {
+			patterns.all = true;
+		} else if (pattern.endsWith(TOPIC_WILDCARD)) {
+			// "a/b/*" matches the topics below "a/b/"
+			patterns.prefixes.add(pattern.substring(0, pattern.length() - 1));
+		} else {
+			patterns.topics.add(pattern);
+		}
+	}
+
+	@Override
+	public synchronized void serviceChanged(ServiceEvent event) {
+		patterns = null;
+	}
+}
@@ -18,8 +18,24 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -30,6 +46,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.IExtension;
@@ -39,6 +56,7 @@ import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.contributions.IContributionFactory;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.model.application.MApplication;
@@ -56,9 +74,11 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.osgi.framework.Bundle;
 
 /**
  * The ModelAssembler is responsible for adding {@link MModelFragment fragments}
@@ -86,10 +106,16 @@ public class ModelAssembler {
 	@Inject
 	private IExtensionRegistry registry;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.MODEL_ASSEMBLY_CACHE)
+	private File cacheFile;
+
 	private static final String EXTENSION_POINT_ID = "org.eclipse.e4.workbench.model"; //$NON-NLS-1$
 
 	private static final String INITIAL = "initial"; //$NON-NLS-1$
 	private static final String NOTEXISTS = "notexists"; //$NON-NLS-1$
+	private static final String CACHEABLE = "cacheable"; //$NON-NLS-1$
 
 	/**
 	 * Processes the application model. This will run pre-processors, process the
@@ -98,6 +124,14 @@ public class ModelAssembler {
 	 * used to retrieve the contributed fragments (with imports) and processors.<br>
 	 * Extension points will be sorted based on the dependencies of their
 	 * contributors.
+	 * <p>
+	 * When a cache file is available and the application is running from a
+	 * non-persisted state, the model resulting from the fragments and from the
+	 * processors marked as cacheable is read from the cache, as long as the
+	 * initial model and the contributions did not change since it was written.
+	 * The model restored from a persisted state is always processed in full: it
+	 * differs between sessions, so a cache keyed on it would never be reused.
+	 * </p>
 	 *
 	 * @param initial <code>true</code> if running from a non-persisted state
 	 */
@@ -105,6 +139,11 @@ public class ModelAssembler {
 		IExtensionPoint extPoint = registry.getExtensionPoint(EXTENSION_POINT_ID);
 		IExtension[] extensions = new ExtensionsSort().sort(extPoint.getExtensions());
 
+		if (initial && cacheFile != null) {
+			processModelWithCache(extensions);
+			return;
+		}
+
 		// run processors which are marked to run before fragments
 		runProcessors(extensions, initial, false);
 		// process fragments (and resolve imports)
@@ -113,6 +152,184 @@ public class ModelAssembler {
 		runProcessors(extensions, initial, true);
 	}
 
+	/**
+	 * Processes the initial application model like
+	 * {@link #processModel(boolean)}, but reads the model resulting from the
+	 * leading cacheable steps from the cache file. The fragments are cacheable
+	 * if all the pre-processors are.
+	 *
+	 * @param extensions the sorted {@link IExtension extensions}
+	 */
+	private void processModelWithCache(IExtension[] extensions) {
+		List<IConfigurationElement> preProcessors = getProcessors(extensions, true, false);
+		List<IConfigurationElement> postProcessors = getProcessors(extensions, true, true);
+		int cachedPreProcessors = countCacheable(preProcessors);
+		boolean cachedFragments = cachedPreProcessors == preProcessors.size();
+		int cachedPostProcessors = cachedFragments ? countCacheable(postProcessors) : 0;
+
+		String fingerprint = computeFingerprint(extensions);
+		if (fingerprint == null || !loadCachedModel(fingerprint)) {
+			preProcessors.subList(0, cachedPreProcessors).forEach(this::runProcessor);
+			if (cachedFragments) {
+				processFragments(extensions, true);
+			}
+			postProcessors.subList(0, cachedPostProcessors).forEach(this::runProcessor);
+			if (fingerprint != null) {
+				saveCachedModel(fingerprint);
+			}
+		}
+
+		preProcessors.subList(cachedPreProcessors, preProcessors.size()).forEach(this::runProcessor);
+		if (!cachedFragments) {
+			processFragments(extensions, true);
+		}
+		postProcessors.subList(cachedPostProcessors, postProcessors.size()).forEach(this::runProcessor);
+	}
+
+	private List<IConfigurationElement> getProcessors(IExtension[] extensions, boolean initial,
+			boolean afterFragments) {
+		List<IConfigurationElement> processors = new ArrayList<>();
+		for (IExtension extension : extensions) {
+			IConfigurationElement[] ces = extension.getConfigurationElements();
+			for (IConfigurationElement ce : ces) {
+				boolean parseBoolean = Boolean.parseBoolean(ce.getAttribute("beforefragment")); //$NON-NLS-1$
+				if ("processor".equals(ce.getName()) && afterFragments != parseBoolean) { //$NON-NLS-1$
+					if (initial || !INITIAL.equals(ce.getAttribute("apply"))) { //$NON-NLS-1$
+						processors.add(ce);
+					}
+				}
+			}
+		}
+		return processors;
+	}
+
+	private static int countCacheable(List<IConfigurationElement> processors) {
+		int count = 0;
+		while (count < processors.size() && Boolean.parseBoolean(processors.get(count).getAttribute(CACHEABLE))) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Computes a fingerprint of the initial model, of the declarations of the
+	 * extensions, of the versions of the contributing bundles and of the
+	 * contents of the fragment files.
+	 *
+	 * @return the fingerprint, or <code>null</code> if it could not be computed
+	 */
+	private String computeFingerprint(IExtension[] extensions) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			DataOutputStream output = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+				@Override
+				public void write(int b) {
+					// only the digest is needed
+				}
+			}, digest));
+			EObjectOutputStream modelOutput = new EObjectOutputStream(output, Collections.emptyMap());
+			modelOutput.saveResource(applicationResource);
+			modelOutput.flush();
+			for (IExtension extension : extensions) {
+				String bundleName = extension.getContributor().getName();
+				output.writeUTF(bundleName);
+				Bundle bundle = Activator.getDefault().getBundleForName(bundleName);
+				if (bundle != null) {
+					output.writeUTF(bundle.getVersion().toString());
+					output.writeLong(bundle.getLastModified());
+				}
+				for (IConfigurationElement ce : extension.getConfigurationElements()) {
+					writeConfigurationElement(output, ce);
+					if ("fragment".equals(ce.getName()) && ce.getAttribute("uri") != null) { //$NON-NLS-1$ //$NON-NLS-2$
+						URI uri = createFragmentURI(bundleName, ce.getAttribute("uri")); //$NON-NLS-1$
+						try (InputStream input = applicationResource.getResourceSet().getURIConverter()
+								.createInputStream(uri)) {
+							byte[] buffer = new byte[8192];
+							int read;
+							while ((read = input.read(buffer)) != -1) {
+								output.write(buffer, 0, read);
+							}
+						}
+					}
+				}
+			}
+			output.flush();
+			StringBuilder fingerprint = new StringBuilder();
+			for (byte b : digest.digest()) {
+				fingerprint.append(String.format("%02x", Byte.valueOf(b))); //$NON-NLS-1$
+			}
+			return fingerprint.toString();
+		} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+			logger.debug(e, "Unable to compute the fingerprint of the application model"); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	private static void writeConfigurationElement(DataOutputStream output, IConfigurationElement ce)
+			throws IOException {
+		output.writeUTF(ce.getName());
+		for (String attribute : ce.getAttributeNames()) {
+			output.writeUTF(attribute);
+			output.writeUTF(ce.getAttribute(attribute));
+		}
+		IConfigurationElement[] children = ce.getChildren();
+		output.writeInt(children.length);
+		for (IConfigurationElement child : children) {
+			writeConfigurationElement(output, child);
+		}
+	}
+
+	/**
+	 * Replaces the application model with the one of the cache file if the
+	 * cache was written for the same fingerprint.
+	 *
+	 * @return <code>true</code> if the model was read from the cache
+	 */
+	private boolean loadCachedModel(String fingerprint) {
+		if (!cacheFile.isFile()) {
+			return false;
+		}
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		E4XMIResource cachedResource = new E4XMIResource(applicationResource.getURI());
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (!fingerprint.equals(input.readUTF())) {
+				return false;
+			}
+			ModelSnapshot.load(cachedResource, input);
+		} catch (IOException | RuntimeException e) {
+			logger.warn(e, "Unable to read the cached application model from " + cacheFile); //$NON-NLS-1$
+			return false;
+		}
+
+		MApplication cachedApplication = (MApplication) cachedResource.getContents().get(0);
+		Map<EObject, String> ids = new LinkedHashMap<>(cachedResource.getEObjectToIDMap());
+		cachedApplication.setContext(application.getContext());
+		applicationResource.getContents().set(0, (EObject) cachedApplication);
+		for (Entry<EObject, String> entry : ids.entrySet()) {
+			applicationResource.setID(entry.getKey(), entry.getValue());
+		}
+		application = cachedApplication;
+		context.set(MApplication.class, cachedApplication);
+		return true;
+	}
+
+	private void saveCachedModel(String fingerprint) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		File tmpFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				output.writeUTF(fingerprint);
+				ModelSnapshot.save(applicationResource, output);
+			}
+			Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			logger.warn(e, "Unable to cache the application model in " + cacheFile); //$NON-NLS-1$
+			tmpFile.delete();
+		}
+	}
+
 	/**
 	 * Adds the {@link MApplicationElement model elements} contributed by the
 	 * {@link IExtension extensions} to the {@link MApplication application model}.
@@ -280,13 +497,7 @@ public class ModelAssembler {
 
 		URI uri;
 		try {
-			// check if the attrURI is already a platform URI
-			if (URIHelper.isPlatformURI(attrURI)) {
-				uri = URI.createURI(attrURI);
-			} else {
-				String path = bundleName + '/' + attrURI;
-				uri = URI.createPlatformPluginURI(path, false);
-			}
+			uri = createFragmentURI(bundleName, attrURI);
 		} catch (RuntimeException e) {
 			logger.warn(e, "Invalid location \"" + attrURI + "\" of model extension \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			return null;
@@ -314,6 +525,15 @@ public class ModelAssembler {
 		return (MModelFragments) extensionRoot;
 	}
 
+	private static URI createFragmentURI(String bundleName, String attrURI) {
+		// check if the attrURI is already a platform URI
+		if (URIHelper.isPlatformURI(attrURI)) {
+			return URI.createURI(attrURI);
+		}
+		String path = bundleName + '/' + attrURI;
+		return URI.createPlatformPluginURI(path, false);
+	}
+
 	/**
 	 * Contributes the given {@link MModelFragment} to the application model.
 	 *
@@ -378,16 +598,8 @@ public class ModelAssembler {
 	 *                       <code>false</code> otherwise
 	 */
 	public void runProcessors(IExtension[] extensions, boolean initial, boolean afterFragments) {
-		for (IExtension extension : extensions) {
-			IConfigurationElement[] ces = extension.getConfigurationElements();
-			for (IConfigurationElement ce : ces) {
-				boolean parseBoolean = Boolean.parseBoolean(ce.getAttribute("beforefragment")); //$NON-NLS-1$
-				if ("processor".equals(ce.getName()) && afterFragments != parseBoolean) { //$NON-NLS-1$
-					if (initial || !INITIAL.equals(ce.getAttribute("apply"))) { //$NON-NLS-1$
-						runProcessor(ce);
-					}
-				}
-			}
+		for (IConfigurationElement ce : getProcessors(extensions, initial, afterFragments)) {
+			runProcessor(ce);
 		}
 	}
 
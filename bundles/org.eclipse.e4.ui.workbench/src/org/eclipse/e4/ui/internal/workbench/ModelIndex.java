@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.advanced.impl.AdvancedPackageImpl;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * An index of the elements of an application model by element id, tag and
+ * class, and of the placeholders by the element they reference. The index is
+ * maintained from the notifications of the model.
+ * <p>
+ * The index does not decide which elements a search finds, it only tells
+ * which elements a search has to visit to reach the candidates: the
+ * containers of the candidates, and the placeholders referencing them or
+ * their containers, along with the containers of these placeholders.
+ * </p>
+ */
+final class ModelIndex extends EContentAdapter {
+
+	private final Map<String, Set<EObject>> elementsById = new HashMap<>();
+	private final Map<String, Set<EObject>> elementsByTag = new HashMap<>();
+	private final Map<Class<?>, Integer> classCounts = new HashMap<>();
+	private final Map<EObject, Set<EObject>> placeholdersByRef = new HashMap<>();
+
+	private ModelIndex() {
+	}
+
+	/**
+	 * Returns the index of the application, creating it if needed.
+	 *
+	 * @param application
+	 *            the application
+	 * @return the index of the application
+	 */
+	static ModelIndex getIndex(MApplication application) {
+		EObject eApplication = (EObject) application;
+		for (Adapter adapter : eApplication.eAdapters()) {
+			if (adapter instanceof ModelIndex) {
+				return (ModelIndex) adapter;
+			}
+		}
+		ModelIndex index = new ModelIndex();
+		eApplication.eAdapters().add(index);
+		return index;
+	}
+
+	/**
+	 * Returns the elements a search for the given criteria has to visit, or
+	 * <code>null</code> if the index cannot narrow the search.
+	 *
+	 * @param id
+	 *            the element id to search for, or <code>null</code>
+	 * @param clazz
+	 *            the class of the elements to search for, or <code>null</code>
+	 * @param tagsToMatch
+	 *            the tags the elements must all have, or <code>null</code>
+	 * @return the elements to visit, empty if no element matches, or
+	 *         <code>null</code> if all the elements have to be visited
+	 */
+	Set<Object> getSearchPath(String id, Class<?> clazz, List<String> tagsToMatch) {
+		Collection<EObject> candidates;
+		if (id != null) {
+			candidates = elementsById.getOrDefault(id, Collections.emptySet());
+		} else if (tagsToMatch != null && !tagsToMatch.isEmpty()) {
+			candidates = null;
+			for (String tag : tagsToMatch) {
+				Set<EObject> tagged = elementsByTag.getOrDefault(tag, Collections.emptySet());
+				if (candidates == null || tagged.size() < candidates.size()) {
+					candidates = tagged;
+				}
+			}
+		} else if (clazz != null) {
+			return hasInstances(clazz) ? null : new HashSet<>();
+		} else {
+			return null;
+		}
+
+		Set<Object> path = new HashSet<>();
+		Deque<EObject> pending = new ArrayDeque<>();
+		for (EObject candidate : candidates) {
+			if (matches((MApplicationElement) candidate, id, clazz, tagsToMatch)) {
+				pending.push(candidate);
+			}
+		}
+		while (!pending.isEmpty()) {
+			EObject element = pending.pop();
+			// Stop at the first container already on the path
+			while (element != null && path.add(element)) {
+				Set<EObject> placeholders = placeholdersByRef.get(element);
+				if (placeholders != null) {
+					pending.addAll(placeholders);
+				}
+				element = element.eContainer();
+			}
+		}
+		return path;
+	}
+
+	private static boolean matches(MApplicationElement element, String id, Class<?> clazz, List<String> tagsToMatch) {
+		if (id != null && !id.equals(element.getElementId())) {
+			return false;
+		}
+		if (clazz != null && !clazz.isInstance(element)) {
+			return false;
+		}
+		return tagsToMatch == null || element.getTags().containsAll(tagsToMatch);
+	}
+
+	private boolean hasInstances(Class<?> clazz) {
+		for (Class<?> elementClass : classCounts.keySet()) {
+			if (clazz.isAssignableFrom(elementClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if (target instanceof MApplicationElement) {
+			MApplicationElement element = (MApplicationElement) target;
+			add(elementsById, element.getElementId(), target);
+			for (String tag : element.getTags()) {
+				add(elementsByTag, tag, target);
+			}
+			classCounts.merge(target.getClass(), Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + 1));
+		}
+		if (target instanceof MPlaceholder) {
+			add(placeholdersByRef, (EObject) ((MPlaceholder) target).getRef(), target);
+		}
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if (target instanceof MApplicationElement) {
+			MApplicationElement element = (MApplicationElement) target;
+			remove(elementsById, element.getElementId(), target);
+			for (String tag : element.getTags()) {
+				remove(elementsByTag, tag, target);
+			}
+			classCounts.computeIfPresent(target.getClass(),
+					(c, count) -> count.intValue() == 1 ? null : Integer.valueOf(count.intValue() - 1));
+		}
+		if (target instanceof MPlaceholder) {
+			remove(placeholdersByRef, (EObject) ((MPlaceholder) target).getRef(), target);
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		Object feature = notification.getFeature();
+		Object notifier = notification.getNotifier();
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID) {
+			remove(elementsById, notification.getOldStringValue(), (EObject) notifier);
+			add(elementsById, notification.getNewStringValue(), (EObject) notifier);
+		} else if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS) {
+			updateTags((MApplicationElement) notifier, notification);
+		} else if (feature == AdvancedPackageImpl.Literals.PLACEHOLDER__REF
+				&& notification.getEventType() == Notification.SET) {
+			remove(placeholdersByRef, (EObject) notification.getOldValue(), (EObject) notifier);
+			add(placeholdersByRef, (EObject) notification.getNewValue(), (EObject) notifier);
+		}
+	}
+
+	private void updateTags(MApplicationElement element, Notification notification) {
+		Collection<?> removedTags = Collections.emptySet();
+		Collection<?> addedTags = Collections.emptySet();
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+		case Notification.ADD_MANY:
+			addedTags = getValues(notification.getNewValue());
+			break;
+		case Notification.REMOVE:
+		case Notification.REMOVE_MANY:
+			removedTags = getValues(notification.getOldValue());
+			break;
+		case Notification.SET:
+			removedTags = getValues(notification.getOldValue());
+			addedTags = getValues(notification.getNewValue());
+			break;
+		default:
+			return;
+		}
+		List<String> tags = element.getTags();
+		for (Object tag : removedTags) {
+			// The same tag may be in the list several times
+			if (!tags.contains(tag)) {
+				remove(elementsByTag, (String) tag, (EObject) element);
+			}
+		}
+		for (Object tag : addedTags) {
+			add(elementsByTag, (String) tag, (EObject) element);
+		}
+	}
+
+	private static Collection<?> getValues(Object value) {
+		if (value instanceof Collection<?>) {
+			return (Collection<?>) value;
+		}
+		return value == null ? Collections.emptySet() : Collections.singleton(value);
+	}
+
+	private static <K> void add(Map<K, Set<EObject>> map, K key, EObject element) {
+		if (key != null) {
+			map.computeIfAbsent(key, k -> new HashSet<>()).add(element);
+		}
+	}
+
+	private static <K> void remove(Map<K, Set<EObject>> map, K key, EObject element) {
+		if (key == null) {
+			return;
+		}
+		Set<EObject> elements = map.get(key);
+		if (elements != null && elements.remove(element) && elements.isEmpty()) {
+			map.remove(key);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import org.eclipse.core.runtime.Assert;
@@ -160,10 +161,24 @@ public class ModelServiceImpl implements EModelService {
 
 	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
 			Selector matcher, List<T> elements, int searchFlags) {
+		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags, null);
+	}
+
+	/**
+	 * @param searchPath
+	 *            the elements to visit, or <code>null</code> to visit all the
+	 *            elements
+	 */
+	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
+			Selector matcher, List<T> elements, int searchFlags, Set<Object> searchPath) {
 		Assert.isLegal(searchRoot != null);
 		if (searchFlags == 0) {
 			return;
 		}
+		if (searchPath != null && !searchPath.contains(searchRoot)) {
+			// No match in this subtree
+			return;
+		}
 
 		// are *we* a match ?
 		boolean classMatch = clazz == null ? true : clazz.isInstance(searchRoot);
@@ -198,21 +213,21 @@ public class ModelServiceImpl implements EModelService {
 			}
 
 			for (MApplicationElement child : children) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 
 		if (searchRoot instanceof MBindingContext && (searchFlags == ANYWHERE)) {
 			MBindingContext bindingContext = (MBindingContext) searchRoot;
 			for (MBindingContext child : bindingContext.getChildren()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 
 		if (searchRoot instanceof MBindingTable) {
 			MBindingTable bindingTable = (MBindingTable) searchRoot;
 			for (MKeyBinding child : bindingTable.getBindings()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 
@@ -238,19 +253,19 @@ public class ModelServiceImpl implements EModelService {
 					MElementContainer<? extends MUIElement> container = searchContainer;
 					List<? extends MUIElement> children = container.getChildren();
 					for (MUIElement child : children) {
-						findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 					}
 				} else if ((searchFlags & IN_ACTIVE_PERSPECTIVE) != 0) {
 					// Only search the currently active perspective, if any
 					MPerspective active = ((MPerspectiveStack) searchContainer).getSelectedElement();
 					if (active != null) {
-						findElementsRecursive(active, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(active, clazz, matcher, elements, searchFlags, searchPath);
 					}
 				} else if ((searchFlags & IN_SHARED_AREA) != 0) {
 					// Only recurse through the shared areas
 					List<MArea> areas = findElements(searchContainer, null, MArea.class);
 					for (MArea area : areas) {
-						findElementsRecursive(area, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(area, clazz, matcher, elements, searchFlags, searchPath);
 					}
 				}
 			} else {
@@ -258,7 +273,7 @@ public class ModelServiceImpl implements EModelService {
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) searchRoot;
 				List<MUIElement> children = container.getChildren();
 				for (MUIElement child : children) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 				}
 			}
 		}
@@ -268,7 +283,7 @@ public class ModelServiceImpl implements EModelService {
 			MTrimmedWindow tw = (MTrimmedWindow) searchRoot;
 			List<MTrimBar> bars = tw.getTrimBars();
 			for (MTrimBar bar : bars) {
-				findElementsRecursive(bar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(bar, clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 
@@ -276,17 +291,17 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MWindow) {
 			MWindow window = (MWindow) searchRoot;
 			for (MWindow dw : window.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, searchPath);
 			}
 
 			MMenu menu = window.getMainMenu();
 			if (menu != null && (searchFlags & IN_MAIN_MENU) != 0) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, searchPath);
 			}
 			// Check for Handlers
 			if (searchFlags == ANYWHERE && MHandler.class.equals(clazz)) {
 				for (MHandler child : window.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 				}
 			}
 		}
@@ -294,7 +309,7 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MPerspective) {
 			MPerspective persp = (MPerspective) searchRoot;
 			for (MWindow dw : persp.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 		// Search shared elements
@@ -304,7 +319,7 @@ public class ModelServiceImpl implements EModelService {
 			// Don't search in shared areas unless the flag is set
 			if (ph.getRef() != null
 					&& (!(ph.getRef() instanceof MArea) || (searchFlags & IN_SHARED_AREA) != 0)) {
-				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags);
+				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags, searchPath);
 			}
 		}
 
@@ -312,16 +327,16 @@ public class ModelServiceImpl implements EModelService {
 			MPart part = (MPart) searchRoot;
 
 			for (MMenu menu : part.getMenus()) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, searchPath);
 			}
 
 			MToolBar toolBar = part.getToolbar();
 			if (toolBar != null) {
-				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags, searchPath);
 			}
 			if (MHandler.class.equals(clazz)) {
 				for (MHandler child : part.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, searchPath);
 				}
 			}
 		}
@@ -395,8 +410,7 @@ public class ModelServiceImpl implements EModelService {
 
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz, List<String> tagsToMatch) {
-		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, ANYWHERE, matcher);
+		return findElements(searchRoot, id, clazz, tagsToMatch, ANYWHERE);
 	}
 
 	@Override
@@ -408,7 +422,31 @@ public class ModelServiceImpl implements EModelService {
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch, int searchFlags) {
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, searchFlags, matcher);
+		List<T> elements = new ArrayList<>();
+		Set<Object> searchPath = getSearchPath(searchRoot, id, clazz, tagsToMatch);
+		if (searchPath == null || !searchPath.isEmpty()) {
+			findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags, searchPath);
+		}
+		return elements;
+	}
+
+	/**
+	 * Returns the elements a search from the given root has to visit according
+	 * to the index of the model, if it is enabled.
+	 *
+	 * @return the elements to visit, empty if no element matches, or
+	 *         <code>null</code> if all the elements have to be visited
+	 */
+	private Set<Object> getSearchPath(MUIElement searchRoot, String id, Class<?> clazz, List<String> tagsToMatch) {
+		if (searchRoot == null || !Boolean.TRUE.equals(appContext.get(E4Workbench.MODEL_INDEX))) {
+			return null;
+		}
+		EObject root = EcoreUtil.getRootContainer((EObject) searchRoot);
+		if (!(root instanceof MApplication)) {
+			// Only the elements of the application model are indexed
+			return null;
+		}
+		return ModelIndex.getIndex((MApplication) root).getSearchPath(id, clazz, tagsToMatch);
 	}
 
 	@Override
@@ -424,7 +462,10 @@ public class ModelServiceImpl implements EModelService {
 			List<String> tagsToMatch) {
 		List<T> elements = new ArrayList<>();
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION);
+		Set<Object> searchPath = getSearchPath(searchRoot, id, clazz, tagsToMatch);
+		if (searchPath == null || !searchPath.isEmpty()) {
+			findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION, searchPath);
+		}
 		return elements;
 	}
 
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * Reads and writes the contents of the application model in the binary format
+ * of EMF, which loads much faster than XMI. The XMI ids of the elements are
+ * not part of that format, they are written after the contents in the order of
+ * a traversal of the containment tree so that the model assembler still
+ * recognizes the elements merged from fragments.
+ */
+public final class ModelSnapshot {
+
+	private ModelSnapshot() {
+	}
+
+	/**
+	 * Writes the contents of the resource to the file. The file is replaced
+	 * only once the snapshot has been completely written.
+	 *
+	 * @param resource
+	 *            the resource to write
+	 * @param file
+	 *            the snapshot file
+	 * @throws IOException
+	 *             if the snapshot could not be written
+	 */
+	public static void save(XMLResource resource, File file) throws IOException {
+		File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		file.getParentFile().mkdirs();
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+			save(resource, output);
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Writes the contents of the resource to the stream.
+	 *
+	 * @param resource
+	 *            the resource to write
+	 * @param output
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if the snapshot could not be written
+	 */
+	public static void save(XMLResource resource, OutputStream output) throws IOException {
+		EObjectOutputStream stream = new EObjectOutputStream(output, Collections.emptyMap());
+		stream.saveResource(resource);
+		List<String> ids = new ArrayList<>();
+		TreeIterator<EObject> it = EcoreUtil.getAllContents(resource, false);
+		while (it.hasNext()) {
+			String id = resource.getID(it.next());
+			ids.add(id == null ? "" : id); //$NON-NLS-1$
+		}
+		stream.writeCompressedInt(ids.size());
+		for (String id : ids) {
+			stream.writeString(id);
+		}
+		stream.flush();
+	}
+
+	/**
+	 * Reads the contents of the snapshot file into the resource.
+	 *
+	 * @param resource
+	 *            the empty resource to read the contents into
+	 * @param file
+	 *            the snapshot file
+	 * @throws IOException
+	 *             if the snapshot could not be read, or is not complete
+	 */
+	public static void load(XMLResource resource, File file) throws IOException {
+		try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+			load(resource, input);
+		}
+	}
+
+	/**
+	 * Reads the contents of a snapshot from the stream into the resource.
+	 *
+	 * @param resource
+	 *            the empty resource to read the contents into
+	 * @param input
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if the snapshot could not be read, or is not complete
+	 */
+	public static void load(XMLResource resource, InputStream input) throws IOException {
+		EObjectInputStream stream = new EObjectInputStream(input, Collections.emptyMap());
+		stream.loadResource(resource);
+		int count = stream.readCompressedInt();
+		TreeIterator<EObject> it = EcoreUtil.getAllContents(resource, false);
+		for (int i = 0; i < count; i++) {
+			if (!it.hasNext()) {
+				throw new IOException("The model snapshot has more ids than elements"); //$NON-NLS-1$
+			}
+			EObject eObject = it.next();
+			String id = stream.readString();
+			if (!id.isEmpty()) {
+				resource.setID(eObject, id);
+			}
+		}
+		if (it.hasNext()) {
+			throw new IOException("The model snapshot has less ids than elements"); //$NON-NLS-1$
+		}
+	}
+}
@@ -53,6 +53,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.osgi.framework.Bundle;
 
@@ -89,6 +90,11 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(IWorkbench.CLEAR_PERSISTED_STATE)
 	private boolean clearPersistedState;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.BINARY_MODEL_SNAPSHOT)
+	private boolean binaryModelSnapshot;
+
 	/**
 	 * Constructor.
 	 *
@@ -142,30 +148,45 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Override
 	public Resource loadMostRecentModel() {
 		File workbenchData = null;
+		File workbenchSnapshot = null;
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
 			workbenchData = getWorkbenchSaveLocation();
+			workbenchSnapshot = getWorkbenchSnapshotLocation();
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			if (workbenchData.exists()) {
+				workbenchData.delete();
+			}
+			if (workbenchSnapshot.exists()) {
+				workbenchSnapshot.delete();
+			}
 		}
 
 		// last stored time-stamp
 		long restoreLastModified = restoreLocation == null ? 0L : new File(
 				restoreLocation.toFileString()).lastModified();
+		long snapshotLastModified = workbenchSnapshot == null ? 0L : workbenchSnapshot.lastModified();
 
 		// See bug 380663, bug 381219
 		// long lastApplicationModification = getLastApplicationModification();
 		// boolean restore = restoreLastModified > lastApplicationModification;
-		boolean restore = restoreLastModified > 0;
+		boolean restore = restoreLastModified > 0 || snapshotLastModified > 0;
 		boolean initialModel;
 
 		resource = null;
 		if (restore && saveAndRestore) {
-			resource = loadResource(restoreLocation);
+			// The most recently saved model wins, the XMI is written by the
+			// auto-save and when the snapshot is disabled
+			if (snapshotLastModified >= restoreLastModified) {
+				resource = loadSnapshot(workbenchSnapshot);
+			}
+			if (resource == null && restoreLastModified > 0) {
+				resource = loadResource(restoreLocation);
+			}
 			// If the saved model does not have any top-level windows, Eclipse will exit
 			// immediately, so throw out the persisted state and reinitialize with the defaults.
 			if (!hasTopLevelWindows(resource)) {
@@ -210,8 +231,13 @@ public class ResourceHandler implements IModelResourceHandler {
 
 	@Override
 	public void save() throws IOException {
-		if (saveAndRestore)
-			resource.save(null);
+		if (saveAndRestore) {
+			if (binaryModelSnapshot && resource instanceof XMLResource) {
+				ModelSnapshot.save((XMLResource) resource, getWorkbenchSnapshotLocation());
+			} else {
+				resource.save(null);
+			}
+		}
 	}
 
 	/**
@@ -241,6 +267,10 @@ public class ResourceHandler implements IModelResourceHandler {
 		return workbenchData;
 	}
 
+	private File getWorkbenchSnapshotLocation() {
+		return new File(getBaseLocation(), "workbench.bin"); //$NON-NLS-1$
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
@@ -279,6 +309,25 @@ public class ResourceHandler implements IModelResourceHandler {
 		return resource;
 	}
 
+	/**
+	 * Loads the binary snapshot of the persisted model into a resource with the
+	 * save location of the XMI.
+	 *
+	 * @return the resource, or <code>null</code> if the snapshot could not be
+	 *         read and the XMI has to be used instead
+	 */
+	private Resource loadSnapshot(File snapshot) {
+		Resource snapshotResource = createResource();
+		try {
+			ModelSnapshot.load((XMLResource) snapshotResource, snapshot);
+			return snapshotResource;
+		} catch (IOException | RuntimeException e) {
+			logger.error(e, "Unable to load the model snapshot " + snapshot + ", falling back to XMI"); //$NON-NLS-1$ //$NON-NLS-2$
+			resourceSet.getResources().remove(snapshotResource);
+			return null;
+		}
+	}
+
 	private Resource getResource(URI uri) throws Exception {
 		Resource resource;
 		if (saveAndRestore) {
@@ -14,8 +14,13 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
@@ -29,20 +34,82 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.osgi.service.event.EventConstants;
 import org.osgi.service.log.LogService;
 
 /**
  * Transforms E4 MPart events into 3.x legacy events.
+ * <p>
+ * The topics of the events are computed once per model feature, and no event
+ * is created for a topic that no event handler subscribed to.
+ * </p>
+ * <p>
+ * Between {@link #beginBatch()} and {@link #endBatch()}, the handlers that
+ * subscribed to the topic of a change still receive it right away, as the
+ * renderers and the code making the changes rely on it. The handlers that
+ * subscribed to all the events of the model instead receive the changes of the
+ * batch as one event on {@link #TOPIC_BATCH} when the batch ends.
+ * </p>
  */
 public class UIEventPublisher extends EContentAdapter {
 
+	/**
+	 * The topic of the event sent at the end of a batch with all its changes.
+	 * The topic is below {@link UIEvents#UIModelTopicBase}, so that the handlers
+	 * subscribed to all the events of the model receive this event instead of
+	 * the events of the batch that nobody subscribed to separately. The
+	 * {@link IEventBroker#DATA} of the event is the list of the argument maps of
+	 * the changes of the batch, each map holding the topic of its event under
+	 * {@link EventConstants#EVENT_TOPIC}. Successive changes of a value are
+	 * merged into one, and dropped if the value ends where it started.
+	 */
+	public static final String TOPIC_BATCH = UIEvents.UIModelTopicBase + "/UIEventPublisher/batch"; //$NON-NLS-1$
+
+	private static final String UNKNOWN_TYPE = "UNKNOWN"; //$NON-NLS-1$
+
+	// The UIEvents types, indexed by the type of the EMF notification
+	private static final String[] EVENT_TYPES = new String[Notification.MOVE + 1];
+
+	static {
+		for (int i = 0; i < EVENT_TYPES.length; i++) {
+			EVENT_TYPES[i] = UNKNOWN_TYPE;
+		}
+		EVENT_TYPES[Notification.ADD] = EventTypes.ADD;
+		EVENT_TYPES[Notification.ADD_MANY] = EventTypes.ADD_MANY;
+		EVENT_TYPES[Notification.REMOVE] = EventTypes.REMOVE;
+		EVENT_TYPES[Notification.REMOVE_MANY] = EventTypes.REMOVE_MANY;
+		EVENT_TYPES[Notification.MOVE] = EventTypes.MOVE;
+		// Notification.UNSET doesn't appear to be generated
+		EVENT_TYPES[Notification.SET] = EventTypes.SET;
+	}
+
+	private static final String APPLICATION_ELEMENT_TOPIC_BASE = "org/eclipse/e4/ui/model/application/ApplicationElement/"; //$NON-NLS-1$
+
+	private static final String[] TRANSIENTDATA_TOPICS = createTopics(
+			APPLICATION_ELEMENT_TOPIC_BASE + UIEvents.ApplicationElement.TRANSIENTDATA);
+
+	private static final String[] PERSISTEDSTATE_TOPICS = createTopics(
+			APPLICATION_ELEMENT_TOPIC_BASE + UIEvents.ApplicationElement.PERSISTEDSTATE);
+
+	// The topics of the features, indexed by the type of the EMF notification
+	private static final Map<EStructuralFeature, String[]> FEATURE_TOPICS = new ConcurrentHashMap<>();
+
 	private IEclipseContext context;
 
+	private final EventSubscriptions subscriptions;
+
+	private int batchDepth;
+	private List<Map<String, Object>> batch;
+	// The index in the batch of the last change of each value
+	private Map<List<Object>, Integer> batchedValues;
+
 	/**
 	 * @param e4Context
 	 */
 	public UIEventPublisher(IEclipseContext e4Context) {
 		this.context = e4Context;
+		Activator activator = Activator.getDefault();
+		this.subscriptions = activator == null ? null : activator.getEventSubscriptions();
 	}
 
 	@Override
@@ -53,15 +120,134 @@ public class UIEventPublisher extends EContentAdapter {
 		if (notification.isTouch())
 			return;
 
+		String topic = getTopic(notification);
+		if (topic == null) {
+			return;
+		}
+		boolean batched = batchDepth > 0 && hasSubscribers(TOPIC_BATCH);
+		boolean sent = batchDepth > 0 ? hasSeparateSubscribers(topic) : hasSubscribers(topic);
+		if (!batched && !sent) {
+			return;
+		}
+
 		// Format the EMF event as an E4 UIEvent
-		Map<String, Object> argMap = new HashMap<>();
+		Map<String, Object> argMap = new HashMap<>(16);
 
-		String topic = formatData(notification, argMap);
+		formatData(notification, argMap);
 
-		if (topic != null) {
+		if (sent) {
+			// The broker copies the map into the event
 			IEventBroker eventManager = context.get(IEventBroker.class);
 			eventManager.send(topic, argMap);
 		}
+		if (batched) {
+			addToBatch(topic, argMap);
+		}
+	}
+
+	private boolean hasSubscribers(String topic) {
+		return subscriptions == null || subscriptions.hasSubscribers(topic);
+	}
+
+	// Whether a handler wants the event itself rather than the batch
+	private boolean hasSeparateSubscribers(String topic) {
+		return subscriptions == null || subscriptions.hasSeparateSubscribers(topic, TOPIC_BATCH);
+	}
+
+	/**
+	 * Starts collecting the changes of the model until the matching call to
+	 * {@link #endBatch()}. Batches may be nested, the changes are delivered on
+	 * {@link #TOPIC_BATCH} when the outermost batch ends.
+	 */
+	public void beginBatch() {
+		if (batchDepth++ == 0) {
+			batch = new ArrayList<>();
+			batchedValues = new HashMap<>();
+		}
+	}
+
+	/**
+	 * Ends a batch started with {@link #beginBatch()}. When the outermost batch
+	 * ends, one event on {@link #TOPIC_BATCH} lists its changes in their order.
+	 */
+	public void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("No batch of events was started"); //$NON-NLS-1$
+		}
+		if (--batchDepth > 0) {
+			return;
+		}
+		List<Map<String, Object>> events = batch;
+		batch = null;
+		batchedValues = null;
+		List<Map<String, Object>> changes = new ArrayList<>(events.size());
+		for (Map<String, Object> argMap : events) {
+			// Merged changes are left as null
+			if (argMap != null) {
+				changes.add(argMap);
+			}
+		}
+		if (!changes.isEmpty()) {
+			IEventBroker eventManager = context.get(IEventBroker.class);
+			eventManager.send(TOPIC_BATCH, changes);
+		}
+	}
+
+	private void addToBatch(String topic, Map<String, Object> argMap) {
+		argMap.put(EventConstants.EVENT_TOPIC, topic);
+		if (!EventTypes.SET.equals(argMap.get(EventTags.TYPE))) {
+			batch.add(argMap);
+			return;
+		}
+		// Merge the successive changes of a value into one event
+		List<Object> value = Arrays.asList(argMap.get(EventTags.ELEMENT), topic, getMapKey(argMap));
+		Integer index = batchedValues.get(value);
+		if (index != null) {
+			Map<String, Object> previous = batch.set(index.intValue(), null);
+			Object oldValue = previous.get(EventTags.OLD_VALUE);
+			if (isSameValue(oldValue, argMap.get(EventTags.NEW_VALUE))) {
+				// The value is back to what it was before the batch
+				batchedValues.remove(value);
+				return;
+			}
+			if (oldValue == null) {
+				argMap.remove(EventTags.OLD_VALUE);
+			} else {
+				argMap.put(EventTags.OLD_VALUE, oldValue);
+			}
+		}
+		batchedValues.put(value, Integer.valueOf(batch.size()));
+		batch.add(argMap);
+	}
+
+	// The key of the changed entry for the events of maps, null otherwise
+	private static Object getMapKey(Map<String, Object> argMap) {
+		Object newValue = argMap.get(EventTags.NEW_VALUE);
+		return newValue instanceof Map.Entry<?, ?> ? ((Map.Entry<?, ?>) newValue).getKey() : null;
+	}
+
+	private static boolean isSameValue(Object oldValue, Object newValue) {
+		if (oldValue instanceof Map.Entry<?, ?> && newValue instanceof Map.Entry<?, ?>) {
+			return Objects.equals(((Map.Entry<?, ?>) oldValue).getValue(), ((Map.Entry<?, ?>) newValue).getValue());
+		}
+		return Objects.equals(oldValue, newValue);
+	}
+
+	private String getTopic(Notification notification) {
+		Object notifier = notification.getNotifier();
+		int eventType = notification.getEventType();
+		if (eventType >= EVENT_TYPES.length) {
+			eventType = 0;
+		}
+		if (notifier instanceof MApplicationElement) {
+			return getTopics((EStructuralFeature) notification.getFeature())[eventType];
+		} else if (notifier instanceof StringToObjectMapImpl) {
+			return TRANSIENTDATA_TOPICS[eventType];
+		} else if (notifier instanceof StringToStringMapImpl) {
+			return PERSISTEDSTATE_TOPICS[eventType];
+		}
+		// Unhandled notification type. Ignore event
+		return null;
 	}
 
 	/**
@@ -102,11 +288,10 @@ public class UIEventPublisher extends EContentAdapter {
 	 * Likely there is some "simple" EMF wisdom we are missing to make this work with a couple of
 	 * annotations, a white swan and a full moon.
 	 */
-	private String formatData(final Notification notification, Map<String, Object> argMap) {
+	private void formatData(final Notification notification, Map<String, Object> argMap) {
 		MApplicationElement appElement = null;
 		EStructuralFeature feature = null;
 		String attributeName = null;
-		String topic = null;
 
 		Object notifier = notification.getNotifier();
 		Object oldValue = null;
@@ -118,7 +303,6 @@ public class UIEventPublisher extends EContentAdapter {
 			appElement = (MApplicationElement) notifier;
 			feature = (EStructuralFeature) notification.getFeature();
 			attributeName = feature.getName();
-			topic = getTopic(feature, getEventType(notification));
 			switch (notification.getEventType()) {
 			case Notification.MOVE:
 				// for MOVE, oldValue is actually the source position
@@ -168,7 +352,6 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.TRANSIENTDATA;
-			topic = getTopic(attributeName, getEventType(notification));
 
 			// We need to send MapEntries for the old and new values.
 			oldValue = createMapEntry(key, notification.getOldValue());
@@ -191,12 +374,11 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.PERSISTEDSTATE;
-			topic = getTopic(attributeName, getEventType(notification));
 			oldValue = createMapEntry(key, notification.getOldValue());
 			newValue = createMapEntry(key, notification.getNewValue());
 		} else {
-			// Unhandled notification type. Ignore event
-			return null;
+			// Unhandled notification type, filtered out by getTopic(Notification)
+			return;
 		}
 
 		argMap.put(EventTags.TYPE, getEventType(notification));
@@ -224,33 +406,11 @@ public class UIEventPublisher extends EContentAdapter {
 		if (appElement instanceof MUIElement) {
 			argMap.put(EventTags.WIDGET, ((MUIElement) appElement).getWidget());
 		}
-
-		return topic;
 	}
 
 	private String getEventType(Notification notification) {
-		switch (notification.getEventType()) {
-		case Notification.ADD:
-			return EventTypes.ADD;
-
-		case Notification.ADD_MANY:
-			return EventTypes.ADD_MANY;
-
-		case Notification.REMOVE:
-			return EventTypes.REMOVE;
-
-		case Notification.REMOVE_MANY:
-			return EventTypes.REMOVE_MANY;
-
-		case Notification.MOVE:
-			return EventTypes.MOVE;
-
-			// case Notification.UNSET: doesn't appear to be generated
-		case Notification.SET:
-			return EventTypes.SET;
-		}
-
-		return "UNKNOWN"; //$NON-NLS-1$
+		int eventType = notification.getEventType();
+		return eventType < EVENT_TYPES.length ? EVENT_TYPES[eventType] : UNKNOWN_TYPE;
 	}
 
 	private Map.Entry<String, Object> createMapEntry(final String key, final Object value) {
@@ -272,16 +432,23 @@ public class UIEventPublisher extends EContentAdapter {
 		};
 	}
 
-	private String getTopic(EStructuralFeature eFeature, String type) {
-		EClass eContainingClass = eFeature.getEContainingClass();
-		return UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
-				+ eContainingClass.getEPackage().getName() + UIEvents.TOPIC_SEP
-				+ eContainingClass.getName() + UIEvents.TOPIC_SEP + eFeature.getName()
-				+ UIEvents.TOPIC_SEP + type;
+	private static String[] getTopics(EStructuralFeature eFeature) {
+		String[] topics = FEATURE_TOPICS.get(eFeature);
+		if (topics == null) {
+			EClass eContainingClass = eFeature.getEContainingClass();
+			topics = createTopics(UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
+					+ eContainingClass.getEPackage().getName() + UIEvents.TOPIC_SEP + eContainingClass.getName()
+					+ UIEvents.TOPIC_SEP + eFeature.getName());
+			FEATURE_TOPICS.put(eFeature, topics);
+		}
+		return topics;
 	}
 
-	private String getTopic(String attributeName, String type) {
-		String topicBase = "org/eclipse/e4/ui/model/application/ApplicationElement/"; //$NON-NLS-1$
-		return topicBase + attributeName + UIEvents.TOPIC_SEP + type;
+	private static String[] createTopics(String topicBase) {
+		String[] topics = new String[EVENT_TYPES.length];
+		for (int i = 0; i < topics.length; i++) {
+			topics[i] = (topicBase + UIEvents.TOPIC_SEP + EVENT_TYPES[i]).intern();
+		}
+		return topics;
 	}
 }
@@ -102,6 +102,15 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 */
 	private boolean isExpandableCheckFilters = false;
 
+	/**
+	 * Indicates if structural refreshes should compute a minimal diff between
+	 * the existing items and the new children instead of reassigning items by
+	 * position.
+	 *
+	 * @see #setUseIncrementalRefresh(boolean)
+	 */
+	private boolean incrementalRefresh = false;
+
 	/**
 	 * Safe runnable used to update an item.
 	 */
@@ -618,7 +627,11 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 	@Override
 	protected Object[] getSortedChildren(Object parentElementOrTreePath) {
-		Object[] result = getFilteredChildren(parentElementOrTreePath);
+		Object[] result = getBackgroundSortedChildren(parentElementOrTreePath);
+		if (result != null) {
+			return result;
+		}
+		result = getFilteredChildren(parentElementOrTreePath);
 		ViewerComparator comparator = getComparator();
 		if (parentElementOrTreePath != null
 				&& comparator instanceof TreePathViewerSorter) {
@@ -1252,6 +1265,15 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		return result.toArray();
 	}
 
+	@Override
+	Object[] getBackgroundRefreshParents() {
+		Object[] expanded = getExpandedElements();
+		Object[] parents = new Object[expanded.length + 1];
+		parents[0] = getRoot();
+		System.arraycopy(expanded, 0, parents, 1, expanded.length);
+		return parents;
+	}
+
 	/**
 	 * Returns whether the node corresponding to the given element or tree path
 	 * is expanded or collapsed.
@@ -2676,6 +2698,11 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 		Item[] items = getChildren(widget);
 
+		if (incrementalRefresh && items.length > 0) {
+			updateChildrenIncrementally(widget, items, elementChildren, updateLabels);
+			return;
+		}
+
 		// save the expanded elements
 		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY); // assume
 																					// num
@@ -2822,6 +2849,129 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Updates the given items to correspond to the child elements by applying
+	 * a minimal set of removals and insertions. Items whose element is still
+	 * present and whose relative order is unchanged are kept as they are, so
+	 * their labels and subtrees are not touched unless
+	 * <code>updateLabels</code> is <code>true</code>. Elements are matched
+	 * using the viewer's comparer.
+	 *
+	 * @param widget
+	 *            the parent widget
+	 * @param items
+	 *            the current child items of the widget
+	 * @param elementChildren
+	 *            the sorted and filtered child elements
+	 * @param updateLabels
+	 *            <code>true</code> to update labels for existing elements
+	 */
+	private void updateChildrenIncrementally(Widget widget, Item[] items,
+			Object[] elementChildren, boolean updateLabels) {
+		// index the current items by element, the first occurrence wins
+		CustomHashtable oldPositions = newHashtable(items.length * 2 + 1);
+		for (int i = 0; i < items.length; i++) {
+			Object data = items[i].getData();
+			if (data != null && !oldPositions.containsKey(data)) {
+				oldPositions.put(data, Integer.valueOf(i));
+			}
+		}
+
+		// position of the item currently showing each new child, or -1
+		int[] sources = new int[elementChildren.length];
+		for (int i = 0; i < elementChildren.length; i++) {
+			Integer position = (Integer) oldPositions.remove(elementChildren[i]);
+			sources[i] = position == null ? -1 : position.intValue();
+		}
+
+		// items on the longest increasing run of sources can stay where they
+		// are, all others are removed and re-inserted at their new position
+		boolean[] stable = computeStableItems(sources, items.length);
+		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+		for (int i = 0; i < items.length; i++) {
+			if (!stable[i]) {
+				Item item = items[i];
+				Object data = item.getData();
+				if (data != null) {
+					if (getExpanded(item)) {
+						expanded.put(data, data);
+					}
+					disassociate(item);
+				}
+				item.dispose();
+			}
+		}
+
+		for (int i = 0; i < elementChildren.length; i++) {
+			Object newElement = elementChildren[i];
+			int source = sources[i];
+			if (source >= 0 && stable[source]) {
+				Item item = items[source];
+				Object oldElement = item.getData();
+				if (oldElement != newElement) {
+					// equal but not identical, see updateChildren
+					unmapElement(oldElement, item);
+					item.setData(newElement);
+					mapElement(newElement, item);
+				}
+				updatePlus(item, newElement);
+				if (updateLabels) {
+					updateItem(item, newElement);
+				} else {
+					associate(newElement, item);
+				}
+			} else {
+				createTreeItem(widget, newElement, i);
+				// new items are initially collapsed
+				if (expanded.containsKey(newElement)) {
+					setExpanded(getChild(widget, i), true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes which of the current items can be kept in place, i.e. the items
+	 * on a longest strictly increasing subsequence of <code>sources</code>.
+	 *
+	 * @param sources
+	 *            for each new child, the index of its current item or -1
+	 * @param itemCount
+	 *            the number of current items
+	 * @return for each current item whether it can be kept in place
+	 */
+	private static boolean[] computeStableItems(int[] sources, int itemCount) {
+		int[] tails = new int[sources.length];
+		int[] previous = new int[sources.length];
+		int length = 0;
+		for (int i = 0; i < sources.length; i++) {
+			int source = sources[i];
+			if (source < 0) {
+				continue;
+			}
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sources[tails[mid]] < source) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			previous[i] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = i;
+			if (low == length) {
+				length++;
+			}
+		}
+		boolean[] stable = new boolean[itemCount];
+		for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+			stable[sources[i]] = true;
+		}
+		return stable;
+	}
+
 	/** Returns true if children were pruned */
 	/*package*/ boolean optionallyPruneChildren(Item item, Object element) {
 		// need a dummy node if element is expandable;
@@ -3240,4 +3390,42 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Instructs structural refreshes to compute a minimal insert/remove diff
+	 * between the items currently shown and the new children of each refreshed
+	 * node, instead of reassigning items by position.
+	 * <p>
+	 * With incremental refresh, items of elements that are still present and
+	 * whose relative order did not change are left untouched, so the cost of a
+	 * refresh grows with the size of the change rather than with the number of
+	 * items. Combined with <code>refresh(false)</code> or
+	 * <code>refresh(element, false)</code>, labels of unchanged elements are
+	 * not updated at all. Elements are matched using the viewer's
+	 * {@link IElementComparer}.
+	 * </p>
+	 * <p>
+	 * This setting has no effect for viewers with a lazy content provider.
+	 * </p>
+	 *
+	 * @param incremental
+	 *            <code>true</code> to enable incremental refresh
+	 * @see #isUseIncrementalRefresh()
+	 * @since 3.16
+	 */
+	public void setUseIncrementalRefresh(boolean incremental) {
+		this.incrementalRefresh = incremental;
+	}
+
+	/**
+	 * Returns whether structural refreshes compute a minimal diff of the
+	 * children.
+	 *
+	 * @return <code>true</code> if incremental refresh is enabled
+	 * @see #setUseIncrementalRefresh(boolean)
+	 * @since 3.16
+	 */
+	public boolean isUseIncrementalRefresh() {
+		return incrementalRefresh;
+	}
+
 }
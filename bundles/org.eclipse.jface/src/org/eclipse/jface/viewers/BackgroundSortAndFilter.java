@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.widgets.Control;
+
+/**
+ * Runs the filtering and sorting part of a full refresh of a
+ * {@link ColumnViewer} on a worker thread.
+ * <p>
+ * On a refresh, the raw children of the root (and, for trees, of every
+ * expanded element) are fetched from the content provider on the UI thread.
+ * Filters and the comparator are then applied on a worker thread and the
+ * results are handed back to the viewer with an <code>asyncExec</code>, where
+ * the usual refresh runs with the precomputed children. A refresh that arrives
+ * while another one is still computing cancels it.
+ * </p>
+ *
+ * @see ColumnViewer#setUseBackgroundSortAndFilter(boolean)
+ */
+/* package */final class BackgroundSortAndFilter {
+
+	/**
+	 * Arrays of at least this length are sorted with a parallel sort.
+	 */
+	static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+	private final ColumnViewer viewer;
+
+	/**
+	 * Incremented on the UI thread for every scheduled refresh; workers and
+	 * pending UI updates of older refreshes stop when they see a newer value.
+	 */
+	private volatile int generation;
+
+	/**
+	 * The precomputed children used while a background refresh is applied, or
+	 * <code>null</code>.
+	 */
+	private CustomHashtable results;
+
+	BackgroundSortAndFilter(ColumnViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Schedules the filtering and sorting for a refresh of the given element.
+	 * Must be called on the UI thread.
+	 *
+	 * @param element
+	 *            the element to refresh
+	 * @param updateLabels
+	 *            <code>true</code> to update labels for existing elements
+	 * @return <code>true</code> if the refresh was scheduled, and
+	 *         <code>false</code> if it has to run synchronously
+	 */
+	boolean schedule(final Object element, final boolean updateLabels) {
+		if (results != null) {
+			// a background result is being applied right now
+			return false;
+		}
+		Object root = viewer.getRoot();
+		if (root == null || (element != null && !viewer.equals(element, root))) {
+			return false;
+		}
+		IContentProvider contentProvider = viewer.getContentProvider();
+		if (contentProvider instanceof ILazyContentProvider
+				|| contentProvider instanceof ILazyTreeContentProvider
+				|| contentProvider instanceof ILazyTreePathContentProvider
+				|| contentProvider instanceof ITreePathContentProvider
+				|| viewer.getComparator() instanceof TreePathViewerSorter) {
+			return false;
+		}
+
+		final Object[] parents = viewer.getBackgroundRefreshParents();
+		final Object[][] rawChildren = new Object[parents.length][];
+		for (int i = 0; i < parents.length; i++) {
+			rawChildren[i] = viewer.getRawChildren(parents[i]);
+		}
+		final ViewerFilter[] filters = viewer.getFilters();
+		final ViewerComparator comparator = viewer.getComparator();
+		final int current = ++generation;
+		final Control control = viewer.getControl();
+
+		ForkJoinPool.commonPool().execute(() -> {
+			final Object[][] filteredChildren = new Object[parents.length][];
+			final Object[][] sortedChildren = new Object[parents.length][];
+			try {
+				for (int i = 0; i < parents.length && current == generation; i++) {
+					filteredChildren[i] = filter(parents[i], rawChildren[i], filters, current);
+					sortedChildren[i] = sort(filteredChildren[i], comparator, current);
+				}
+			} catch (RuntimeException e) {
+				Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE,
+						"Background sorting and filtering failed", e)); //$NON-NLS-1$
+				Arrays.fill(sortedChildren, null);
+			}
+			if (current != generation || control.isDisposed()) {
+				return;
+			}
+			control.getDisplay().asyncExec(() -> {
+				if (current != generation || control.isDisposed()) {
+					return;
+				}
+				apply(parents, rawChildren, filteredChildren, sortedChildren, element,
+						updateLabels);
+			});
+		});
+		return true;
+	}
+
+	/**
+	 * Cancels any pending background refresh.
+	 */
+	void cancel() {
+		generation++;
+	}
+
+	/**
+	 * Returns the precomputed sorted children of the given parent while a
+	 * background result is being applied, or <code>null</code>.
+	 *
+	 * @param parent
+	 *            the parent element
+	 * @return the sorted children or <code>null</code>
+	 */
+	Object[] getResult(Object parent) {
+		if (results == null || parent == null) {
+			return null;
+		}
+		return (Object[]) results.get(parent);
+	}
+
+	private void apply(Object[] parents, Object[][] rawChildren, Object[][] filteredChildren,
+			Object[][] sortedChildren, Object element, boolean updateLabels) {
+		results = viewer.newHashtable(parents.length * 2 + 1);
+		for (int i = 0; i < parents.length; i++) {
+			// only use results whose input is still what the content provider
+			// returns, the model may have changed in the meantime
+			if (sortedChildren[i] != null
+					&& isSame(rawChildren[i], viewer.getRawChildren(parents[i]))) {
+				if (filteredChildren[i].length != rawChildren[i].length) {
+					viewer.notifyFilteredOut(rawChildren[i], filteredChildren[i]);
+				}
+				results.put(parents[i], sortedChildren[i]);
+			}
+		}
+		try {
+			viewer.refresh(element, updateLabels);
+		} finally {
+			results = null;
+		}
+	}
+
+	private Object[] filter(Object parent, Object[] rawChildren,
+			ViewerFilter[] filters, int current) {
+		Object[] result = rawChildren;
+		for (int i = 0; i < filters.length && current == generation; i++) {
+			result = filters[i].filter(viewer, parent, result);
+		}
+		return current == generation ? result : null;
+	}
+
+	private Object[] sort(Object[] filteredChildren,
+			ViewerComparator comparator, int current) {
+		if (filteredChildren == null || comparator == null) {
+			return filteredChildren;
+		}
+		// be sure we're not modifying the original array from the model
+		Object[] result = filteredChildren.clone();
+		if (result.length >= PARALLEL_SORT_THRESHOLD && !comparator.isCachingSortKeys()
+				&& !overridesSort(comparator)) {
+			Arrays.parallelSort(result, (a, b) -> comparator.compare(viewer, a, b));
+		} else {
+			comparator.sort(viewer, result);
+		}
+		return current == generation ? result : null;
+	}
+
+	/**
+	 * Returns whether the given comparator provides its own implementation of
+	 * {@link ViewerComparator#sort(Viewer, Object[])}, in which case it cannot
+	 * be replaced by a parallel sort.
+	 */
+	private static boolean overridesSort(ViewerComparator comparator) {
+		try {
+			return comparator.getClass().getMethod("sort", Viewer.class, Object[].class) //$NON-NLS-1$
+					.getDeclaringClass() != ViewerComparator.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
+	private static boolean isSame(Object[] a, Object[] b) {
+		if (a == b) {
+			return true;
+		}
+		if (a.length != b.length) {
+			return false;
+		}
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -63,6 +63,12 @@ public abstract class ColumnViewer extends StructuredViewer {
 
 	private MouseListener mouseListener;
 
+	/**
+	 * Runs sorting and filtering of full refreshes on a worker thread, or
+	 * <code>null</code> if refreshes are synchronous.
+	 */
+	private BackgroundSortAndFilter backgroundSortAndFilter;
+
 	// after logging for the first
 	// time
 
@@ -351,6 +357,8 @@ public abstract class ColumnViewer extends StructuredViewer {
 		// columns
 		if (labelProvider instanceof CellLabelProvider) {
 			((CellLabelProvider) labelProvider).initialize(this, null);
+		} else if (labelProvider instanceof DecoratingLabelProvider) {
+			((DecoratingLabelProvider) labelProvider).setViewer(this);
 		}
 		super.setLabelProvider(labelProvider);
 	}
@@ -523,6 +531,11 @@ public abstract class ColumnViewer extends StructuredViewer {
 			cancelEditing();
 		}
 
+		if (backgroundSortAndFilter != null
+				&& backgroundSortAndFilter.schedule(element, true)) {
+			return;
+		}
+
 		super.refresh(element);
 	}
 
@@ -535,9 +548,91 @@ public abstract class ColumnViewer extends StructuredViewer {
 			cancelEditing();
 		}
 
+		if (backgroundSortAndFilter != null
+				&& backgroundSortAndFilter.schedule(element, updateLabels)) {
+			return;
+		}
+
 		super.refresh(element, updateLabels);
 	}
 
+	/**
+	 * Instructs full refreshes of this viewer to filter and sort the elements
+	 * on a worker thread.
+	 * <p>
+	 * When enabled, {@link #refresh()} and the other methods refreshing the
+	 * viewer's root only fetch the elements from the content provider on the UI
+	 * thread. The viewer's filters and comparator are then applied in the
+	 * background, large arrays being sorted with a parallel sort, and the
+	 * widgets are updated on the UI thread once the result is available. A new
+	 * refresh cancels a pending one. Refreshes of other elements, as well as
+	 * lazy content providers, {@link ITreePathContentProvider}s and
+	 * {@link TreePathViewerSorter}s, are still handled synchronously.
+	 * </p>
+	 * <p>
+	 * Filters and comparators used with this mode must be thread safe, and so
+	 * must be the label providers they consult.
+	 * </p>
+	 *
+	 * @param enable
+	 *            <code>true</code> to filter and sort in the background
+	 * @see #isUseBackgroundSortAndFilter()
+	 * @since 3.16
+	 */
+	public void setUseBackgroundSortAndFilter(boolean enable) {
+		if (enable && backgroundSortAndFilter == null) {
+			backgroundSortAndFilter = new BackgroundSortAndFilter(this);
+		} else if (!enable && backgroundSortAndFilter != null) {
+			backgroundSortAndFilter.cancel();
+			backgroundSortAndFilter = null;
+		}
+	}
+
+	/**
+	 * Returns whether full refreshes filter and sort in the background.
+	 *
+	 * @return <code>true</code> if background sorting and filtering is enabled
+	 * @see #setUseBackgroundSortAndFilter(boolean)
+	 * @since 3.16
+	 */
+	public boolean isUseBackgroundSortAndFilter() {
+		return backgroundSortAndFilter != null;
+	}
+
+	/**
+	 * Returns the parents whose children are filtered and sorted in the
+	 * background for a full refresh.
+	 *
+	 * @return the parent elements
+	 */
+	Object[] getBackgroundRefreshParents() {
+		return new Object[] { getRoot() };
+	}
+
+	/**
+	 * Returns the children of the given parent that were filtered and sorted in
+	 * the background, if a background refresh is currently being applied.
+	 *
+	 * @param parent
+	 *            the parent element
+	 * @return the sorted children, or <code>null</code>
+	 */
+	Object[] getBackgroundSortedChildren(Object parent) {
+		if (backgroundSortAndFilter == null) {
+			return null;
+		}
+		return backgroundSortAndFilter.getResult(parent);
+	}
+
+	@Override
+	protected Object[] getSortedChildren(Object parent) {
+		Object[] result = getBackgroundSortedChildren(parent);
+		if (result != null) {
+			return result;
+		}
+		return super.getSortedChildren(parent);
+	}
+
 	@Override
 	public void update(Object element, String[] properties) {
 		if (checkBusy())
@@ -663,6 +758,9 @@ public abstract class ColumnViewer extends StructuredViewer {
 			((Control)event.widget).removeMouseListener(mouseListener);
 			mouseListener = null;
 		}
+		if (backgroundSortAndFilter != null) {
+			backgroundSortAndFilter.cancel();
+		}
 		super.handleDispose(event);
 	}
 
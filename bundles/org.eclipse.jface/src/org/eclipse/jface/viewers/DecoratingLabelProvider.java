@@ -25,6 +25,11 @@ import org.eclipse.swt.graphics.Image;
  * a nested label provider and an optional decorator.
  * The decorator decorates the label text, image, font and colors provided by
  * the nested label provider.
+ * <p>
+ * If the decorator implements {@link IPrioritizedLabelDecorator} and the label
+ * provider is used by a {@link ColumnViewer}, the decorator is told which
+ * elements are visible in the viewer after labels have been updated.
+ * </p>
  */
 public class DecoratingLabelProvider extends LabelProvider implements IViewerLabelProvider, IColorProvider,
 		IFontProvider, ITreePathLabelProvider {
@@ -38,6 +43,8 @@ public class DecoratingLabelProvider extends LabelProvider implements IViewerLab
 
 	private IDecorationContext decorationContext = DecorationContext.DEFAULT_CONTEXT;
 
+	private VisibleElementsTracker visibleElementsTracker;
+
     /**
      * Creates a decorating label provider which uses the given label decorator
      * to decorate labels provided by the given label provider.
@@ -74,6 +81,7 @@ public class DecoratingLabelProvider extends LabelProvider implements IViewerLab
      */
     @Override
 	public void dispose() {
+        setViewer(null);
         provider.dispose();
         if (decorator != null) {
             decorator.dispose();
@@ -225,6 +233,7 @@ public class DecoratingLabelProvider extends LabelProvider implements IViewerLab
                 decorationReady = false;
             }
         }
+        labelRequested(currentDecorator);
         // update icon and label
 
         if (decorationReady || oldText == null
@@ -243,6 +252,32 @@ public class DecoratingLabelProvider extends LabelProvider implements IViewerLab
 
     }
 
+	/**
+	 * Sets the viewer this label provider is used by, or <code>null</code>.
+	 *
+	 * @param viewer
+	 *            the viewer or <code>null</code>
+	 */
+	void setViewer(ColumnViewer viewer) {
+		if (visibleElementsTracker != null) {
+			visibleElementsTracker.dispose();
+			visibleElementsTracker = null;
+		}
+		if (viewer != null && viewer.getControl() != null && !viewer.getControl().isDisposed()) {
+			visibleElementsTracker = new VisibleElementsTracker(viewer);
+		}
+	}
+
+	/**
+	 * A label was requested and may have queued a decoration, tell a
+	 * prioritized decorator about the visible elements.
+	 */
+	private void labelRequested(ILabelDecorator currentDecorator) {
+		if (visibleElementsTracker != null && currentDecorator instanceof IPrioritizedLabelDecorator) {
+			visibleElementsTracker.labelRequested((IPrioritizedLabelDecorator) currentDecorator);
+		}
+	}
+
 	/**
 	 * Decoration is ready. Update anything else for the settings.
 	 * @param settings The object collecting the settings.
@@ -330,6 +365,7 @@ public class DecoratingLabelProvider extends LabelProvider implements IViewerLab
                 decorationReady = false;
             }
         }
+        labelRequested(currentDecorator);
         settings.setHasPendingDecorations(!decorationReady);
         // update icon and label
 
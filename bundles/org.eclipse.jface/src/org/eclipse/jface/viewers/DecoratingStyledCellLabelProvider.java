@@ -41,6 +41,11 @@ import org.eclipse.swt.graphics.Image;
  * and {@link IFontDecorator} to provide foreground and background color and
  * font decoration.
  * </p>
+ * <p>
+ * If the {@link ILabelDecorator} implements
+ * {@link IPrioritizedLabelDecorator}, it is told which elements are visible in
+ * the viewer after labels have been updated.
+ * </p>
  *
  * @since 3.4
  */
@@ -50,6 +55,7 @@ public class DecoratingStyledCellLabelProvider extends
 	private ILabelDecorator decorator;
 	private IDecorationContext decorationContext= DecorationContext.DEFAULT_CONTEXT;
 	private ILabelProviderListener labelProviderListener;
+	private VisibleElementsTracker visibleElementsTracker;
 
 	/**
 	 * Creates a {@link DecoratingStyledCellLabelProvider} that delegates the
@@ -119,6 +125,12 @@ public class DecoratingStyledCellLabelProvider extends
 			isDecorationPending = !((IDelayedLabelDecorator) this.decorator)
 					.prepareDecoration(element, oldText);
 		}
+		if (this.decorator instanceof IPrioritizedLabelDecorator) {
+			VisibleElementsTracker tracker = getVisibleElementsTracker();
+			if (tracker != null) {
+				tracker.labelRequested((IPrioritizedLabelDecorator) this.decorator);
+			}
+		}
 		if (isDecorationPending && oldText.length() == 0) {
 			// item is empty: is shown for the first time: don't wait
 			return false;
@@ -126,6 +138,17 @@ public class DecoratingStyledCellLabelProvider extends
 		return isDecorationPending;
 	}
 
+	private VisibleElementsTracker getVisibleElementsTracker() {
+		if (this.visibleElementsTracker == null) {
+			ColumnViewer viewer = getViewer();
+			if (viewer != null && viewer.getControl() != null
+					&& !viewer.getControl().isDisposed()) {
+				this.visibleElementsTracker = new VisibleElementsTracker(viewer);
+			}
+		}
+		return this.visibleElementsTracker;
+	}
+
 	@Override
 	public void update(ViewerCell cell) {
 		if (waitForPendingDecoration(cell)) {
@@ -292,6 +315,10 @@ public class DecoratingStyledCellLabelProvider extends
 
 	@Override
 	public void dispose() {
+		if (this.visibleElementsTracker != null) {
+			this.visibleElementsTracker.dispose();
+			this.visibleElementsTracker = null;
+		}
 		super.dispose();
 		if (this.decorator != null) {
 			this.decorator.removeListener(this.labelProviderListener);
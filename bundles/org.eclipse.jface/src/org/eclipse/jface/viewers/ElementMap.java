@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+/**
+ * ElementMap associates viewer elements with their widgets. Keys and values
+ * cannot be null.
+ * <p>
+ * Unlike {@link CustomHashtable}, the map uses open addressing with linear
+ * probing over flat arrays, so no entry object is allocated per element. Keys
+ * are compared with the given {@link IElementComparer}, or with
+ * <code>equals</code> and <code>hashCode</code> if there is none. The hash
+ * code of every key is cached, so the comparer is only consulted for keys with
+ * equal hash codes and is never called again when the map grows.
+ * </p>
+ * <p>
+ * This class is used by {@link StructuredViewer} for its element map, where
+ * each value is either a single widget or an array of widgets.
+ * </p>
+ */
+/* package */final class ElementMap {
+
+	/**
+	 * The default capacity used when not specified in the constructor.
+	 */
+	static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final IElementComparer comparer;
+
+	/**
+	 * Keys and values interleaved: the key of slot i is at 2 * i, its value at
+	 * 2 * i + 1. Empty slots have a <code>null</code> key.
+	 */
+	private Object[] table;
+
+	private int[] hashes;
+
+	private int size;
+
+	private int threshold;
+
+	/**
+	 * Constructs a new map with the given capacity and the given element
+	 * comparer.
+	 *
+	 * @param capacity
+	 *            the number of elements that can be added without growing
+	 * @param comparer
+	 *            the element comparer to use to compare keys and obtain hash
+	 *            codes for keys, or <code>null</code> to use the normal
+	 *            <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementMap(int capacity, IElementComparer comparer) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.comparer = comparer;
+		allocate(tableSizeFor(capacity));
+	}
+
+	/**
+	 * Constructs a new map holding all key/value pairs of the given map, using
+	 * the given element comparer.
+	 *
+	 * @param map
+	 *            the original map to copy from
+	 * @param comparer
+	 *            the element comparer to use to compare keys and obtain hash
+	 *            codes for keys, or <code>null</code> to use the normal
+	 *            <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementMap(ElementMap map, IElementComparer comparer) {
+		this(map.size, comparer);
+		Object[] oldTable = map.table;
+		for (int i = 0; i < oldTable.length; i += 2) {
+			if (oldTable[i] != null) {
+				put(oldTable[i], oldTable[i + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the element comparer used to compare keys, or <code>null</code>.
+	 *
+	 * @return the element comparer or <code>null</code>
+	 */
+	IElementComparer getComparer() {
+		return comparer;
+	}
+
+	/**
+	 * Answers the value associated with the given key.
+	 *
+	 * @param key
+	 *            the key of the value returned
+	 * @return the value associated with the key, or <code>null</code> if the
+	 *         key does not exist
+	 */
+	Object get(Object key) {
+		int slot = indexOf(key, hash(key));
+		return slot < 0 ? null : table[2 * slot + 1];
+	}
+
+	/**
+	 * Answers whether the given key is contained in this map.
+	 *
+	 * @param key
+	 *            the key to look for
+	 * @return <code>true</code> if the key exists
+	 */
+	boolean containsKey(Object key) {
+		return indexOf(key, hash(key)) >= 0;
+	}
+
+	/**
+	 * Associates the given value with the given key. If the key already exists,
+	 * both the stored key and its value are replaced, so that the map does not
+	 * hang onto keys that are equal but "old" (see bug 30607).
+	 *
+	 * @param key
+	 *            the key to add
+	 * @param value
+	 *            the value to add
+	 * @return the old value associated with the key, or <code>null</code> if
+	 *         the key did not exist
+	 */
+	Object put(Object key, Object value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		int hash = hash(key);
+		int mask = hashes.length - 1;
+		int slot = hash & mask;
+		while (table[2 * slot] != null) {
+			if (hashes[slot] == hash && keyEquals(key, table[2 * slot])) {
+				Object result = table[2 * slot + 1];
+				table[2 * slot] = key;
+				table[2 * slot + 1] = value;
+				return result;
+			}
+			slot = (slot + 1) & mask;
+		}
+		table[2 * slot] = key;
+		table[2 * slot + 1] = value;
+		hashes[slot] = hash;
+		if (++size > threshold) {
+			grow();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the key/value pair with the given key.
+	 *
+	 * @param key
+	 *            the key to remove
+	 * @return the value associated with the key, or <code>null</code> if the
+	 *         key did not exist
+	 */
+	Object remove(Object key) {
+		int slot = indexOf(key, hash(key));
+		if (slot < 0) {
+			return null;
+		}
+		Object result = table[2 * slot + 1];
+		deleteSlot(slot);
+		return result;
+	}
+
+	/**
+	 * Answers the number of key/value pairs in this map.
+	 *
+	 * @return the number of key/value pairs
+	 */
+	int size() {
+		return size;
+	}
+
+	private int indexOf(Object key, int hash) {
+		int mask = hashes.length - 1;
+		int slot = hash & mask;
+		Object candidate;
+		while ((candidate = table[2 * slot]) != null) {
+			if (hashes[slot] == hash && keyEquals(key, candidate)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Empties the given slot and shifts following entries of the same probe
+	 * sequence back, so no tombstones are needed.
+	 */
+	private void deleteSlot(int slot) {
+		int mask = hashes.length - 1;
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (table[2 * next] != null) {
+			int home = hashes[next] & mask;
+			// move the entry if its home slot is not between the hole and the
+			// entry, taking wrap-around into account
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				table[2 * hole] = table[2 * next];
+				table[2 * hole + 1] = table[2 * next + 1];
+				hashes[hole] = hashes[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		table[2 * hole] = null;
+		table[2 * hole + 1] = null;
+		size--;
+	}
+
+	private void grow() {
+		Object[] oldTable = table;
+		int[] oldHashes = hashes;
+		if (oldHashes.length == MAXIMUM_CAPACITY) {
+			throw new IllegalStateException("Element map capacity exceeded"); //$NON-NLS-1$
+		}
+		allocate(oldHashes.length << 1);
+		int mask = hashes.length - 1;
+		for (int i = 0; i < oldHashes.length; i++) {
+			Object key = oldTable[2 * i];
+			if (key != null) {
+				int slot = oldHashes[i] & mask;
+				while (table[2 * slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				table[2 * slot] = key;
+				table[2 * slot + 1] = oldTable[2 * i + 1];
+				hashes[slot] = oldHashes[i];
+			}
+		}
+	}
+
+	private void allocate(int length) {
+		table = new Object[2 * length];
+		hashes = new int[length];
+		threshold = (int) (length * 0.75f);
+	}
+
+	/**
+	 * Returns a power of two table length that holds the given number of
+	 * entries below the load factor.
+	 */
+	private static int tableSizeFor(int capacity) {
+		int length = 2;
+		while (length < MAXIMUM_CAPACITY && length * 0.75f <= capacity) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	/**
+	 * Answers the spread hash code for the given key.
+	 */
+	private int hash(Object key) {
+		int h = comparer == null ? key.hashCode() : comparer.hashCode(key);
+		// spread the higher bits, since the table length is a power of two
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Compares two keys for equality.
+	 */
+	private boolean keyEquals(Object a, Object b) {
+		if (a == b) {
+			return true;
+		}
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	@Override
+	public String toString() {
+		if (size == 0) {
+			return "{}"; //$NON-NLS-1$
+		}
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('{');
+		for (int i = 0; i < table.length; i += 2) {
+			if (table[i] != null) {
+				buffer.append(table[i]);
+				buffer.append('=');
+				buffer.append(table[i + 1]);
+				buffer.append(", "); //$NON-NLS-1$
+			}
+		}
+		buffer.setLength(buffer.length() - 2);
+		buffer.append('}');
+		return buffer.toString();
+	}
+}
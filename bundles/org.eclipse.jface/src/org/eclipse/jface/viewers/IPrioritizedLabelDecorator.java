@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+/**
+ * A prioritized label decorator is a delayed label decorator that can compute
+ * the decorations of the elements the user is looking at before the others.
+ * {@link DecoratingLabelProvider} and
+ * {@link DecoratingStyledCellLabelProvider} tell such a decorator which
+ * elements are shown in the visible area of their viewer whenever that area
+ * changes.
+ *
+ * @since 3.16
+ */
+public interface IPrioritizedLabelDecorator extends IDelayedLabelDecorator {
+
+	/**
+	 * Sets the elements currently shown in the visible area of the given
+	 * viewer. Pending decorations for these elements should be computed before
+	 * pending decorations for elements not shown in any viewer. The elements
+	 * replace any elements previously set for the same viewer.
+	 *
+	 * @param viewer
+	 *            the viewer showing the elements
+	 * @param elements
+	 *            the visible elements, or an empty array if the viewer shows
+	 *            nothing or has been disposed
+	 */
+	public void setVisibleElements(Viewer viewer, Object[] elements);
+
+}
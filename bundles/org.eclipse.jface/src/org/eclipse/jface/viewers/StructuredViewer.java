@@ -69,7 +69,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementMap elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -920,7 +920,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @param rawResult
 	 * @param filteredResult
 	 */
-	private void notifyFilteredOut(Object[] rawResult, Object[] filteredResult) {
+	void notifyFilteredOut(Object[] rawResult, Object[] filteredResult) {
 		int rawIndex = 0;
 		int filteredIndex = 0;
 		for (; filteredIndex < filteredResult.length; ) {
@@ -1329,7 +1329,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 				}
 			} else {
 				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
+				int indexOfItem = indexOf(widgets, item);
 				if (indexOfItem == -1) {
 					int length = widgets.length;
 					System.arraycopy(widgets, 0,
@@ -1384,6 +1384,17 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		return new CustomHashtable(capacity, getComparer());
 	}
 
+	/**
+	 * Returns a new element map using the given capacity and this viewer's
+	 * element comparer.
+	 *
+	 * @param capacity the initial capacity of the map
+	 * @return a new element map
+	 */
+	private ElementMap newElementMap(int capacity) {
+		return new ElementMap(capacity, getComparer());
+	}
+
 	/**
 	 * Attempts to preserves the current selection across a run of the given
 	 * code. This method should not preserve the selection if
@@ -1818,7 +1829,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newElementMap(ElementMap.DEFAULT_CAPACITY);
 		} else {
 			elementMap = null;
 		}
@@ -1836,7 +1847,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementMap(elementMap, comparer);
 		}
 	}
 
@@ -1905,7 +1916,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newElementMap(ElementMap.DEFAULT_CAPACITY);
 		}
 	}
 
@@ -1927,6 +1938,19 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 	}
 
+	/**
+	 * Returns the index of the given item in the given widgets, comparing by
+	 * identity, or -1 if it is not contained.
+	 */
+	private static int indexOf(Widget[] widgets, Widget item) {
+		for (int i = 0; i < widgets.length; i++) {
+			if (widgets[i] == item) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Removes the given association from the internal element to widget map.
 	 * Does nothing if mapping is disabled, or if the given element does not map
@@ -1955,7 +1979,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 				}
 			} else {
 				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
+				int indexOfItem = indexOf(widgets, item);
 				if (indexOfItem == -1) {
 					return;
 				}
@@ -2323,7 +2347,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		comparer = null;
 		if (filters != null)
 			filters.clear();
-		elementMap = newHashtable(1);
+		elementMap = newElementMap(1);
 		openListeners.clear();
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
@@ -16,8 +16,12 @@
 
 package org.eclipse.jface.viewers;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -53,6 +57,68 @@ public class ViewerComparator {
 	 */
 	private Comparator<? super String> comparator;
 
+	/**
+	 * The cache of collation keys by label used by {@link #sort(Viewer, Object[])},
+	 * or <code>null</code> if sort keys are not cached.
+	 */
+	private CollationKeyCache keyCache;
+
+	/**
+	 * The sort key of one element, computed once per sort.
+	 */
+	private static final class SortKey {
+		final Object element;
+
+		final int category;
+
+		final String label;
+
+		final CollationKey collationKey;
+
+		SortKey(Object element, int category, String label, CollationKey collationKey) {
+			this.element = element;
+			this.category = category;
+			this.label = label;
+			this.collationKey = collationKey;
+		}
+	}
+
+	/**
+	 * A least recently used cache of collation keys by label. Access must be
+	 * synchronized on the cache.
+	 */
+	private static final class CollationKeyCache extends LinkedHashMap<String, CollationKey> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private Collator collator;
+
+		CollationKeyCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		CollationKey getKey(Collator newCollator, String label) {
+			if (newCollator != collator) {
+				clear();
+				collator = newCollator;
+			}
+			CollationKey key = get(label);
+			if (key == null) {
+				key = collator.getCollationKey(label);
+				put(label, key);
+			}
+			return key;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CollationKey> eldest) {
+			return size() > maxSize;
+		}
+	}
+
 	/**
      * Creates a new {@link ViewerComparator}, which uses the default comparator
      * to sort strings.
@@ -192,7 +258,9 @@ public class ViewerComparator {
 	 * The default implementation of this method uses the
 	 * {@link java.util.Arrays#sort(Object[], Comparator)} algorithm on the
 	 * given array, calling {@link #compare(Viewer, Object, Object)} to compare
-	 * elements.
+	 * elements. If sort keys are cached, elements are compared by their
+	 * precomputed categories and labels instead, see
+	 * {@link #setSortKeyCacheSize(int)}.
      * </p>
      * <p>
      * Subclasses may reimplement this method to provide a more optimized implementation.
@@ -202,6 +270,10 @@ public class ViewerComparator {
      * @param elements the elements to sort
      */
 	public void sort(final Viewer viewer, Object[] elements) {
+		if (keyCache != null) {
+			sortWithKeys(viewer, elements);
+			return;
+		}
 		try {
 			Arrays.sort(elements, (a, b) -> ViewerComparator.this.compare(viewer, a, b));
 		} catch (IllegalArgumentException e) {
@@ -228,4 +300,67 @@ public class ViewerComparator {
 			throw e;
 		}
 	}
+
+	/**
+	 * Sets the maximum number of collation keys cached across sorts, or 0 to
+	 * disable sort key caching, which is the default.
+	 * <p>
+	 * When sort key caching is enabled, {@link #sort(Viewer, Object[])}
+	 * obtains the category and the label of each element once per sort rather
+	 * than once per comparison. If the string comparator is a
+	 * {@link java.text.Collator}, elements are compared by
+	 * {@link CollationKey}s, which are kept in a least recently used cache by
+	 * label so that they survive across sorts of unchanged elements. Otherwise
+	 * the labels are compared with the string comparator.
+	 * </p>
+	 * <p>
+	 * Sort key caching is only suitable for comparators that do not override
+	 * {@link #compare(Viewer, Object, Object)}.
+	 * </p>
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached collation keys, or 0 to disable
+	 *            caching
+	 * @since 3.16
+	 */
+	public void setSortKeyCacheSize(int maxSize) {
+		keyCache = maxSize > 0 ? new CollationKeyCache(maxSize) : null;
+	}
+
+	/**
+	 * Returns whether sort keys are cached.
+	 *
+	 * @return <code>true</code> if sort keys are cached
+	 * @see #setSortKeyCacheSize(int)
+	 * @since 3.16
+	 */
+	public boolean isCachingSortKeys() {
+		return keyCache != null;
+	}
+
+	private void sortWithKeys(Viewer viewer, Object[] elements) {
+		Comparator<? super String> stringComparator = getComparator();
+		Collator collator = stringComparator instanceof Collator ? (Collator) stringComparator : null;
+		SortKey[] keys = new SortKey[elements.length];
+		synchronized (keyCache) {
+			for (int i = 0; i < elements.length; i++) {
+				Object element = elements[i];
+				String label = getLabel(viewer, element);
+				CollationKey collationKey = collator == null ? null : keyCache.getKey(collator, label);
+				keys[i] = new SortKey(element, category(element), label, collationKey);
+			}
+		}
+		Arrays.sort(keys, (a, b) -> {
+			if (a.category != b.category) {
+				return a.category - b.category;
+			}
+			if (a.collationKey != null) {
+				return a.collationKey.compareTo(b.collationKey);
+			}
+			return stringComparator.compare(a.label, b.label);
+		});
+		for (int i = 0; i < keys.length; i++) {
+			elements[i] = keys[i].element;
+		}
+	}
 }
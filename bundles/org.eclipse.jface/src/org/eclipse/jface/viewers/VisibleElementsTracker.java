@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.ScrollBar;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.Tree;
+
+/**
+ * Tells an {@link IPrioritizedLabelDecorator} which elements are shown in the
+ * visible area of a {@link ColumnViewer}.
+ * <p>
+ * The visible elements are computed in an <code>asyncExec</code> after labels
+ * were requested, so that a refresh or an expansion has created all its items
+ * and queued their decorations first, and again whenever the viewer is
+ * scrolled or resized. At most one update is pending at any time.
+ * </p>
+ *
+ * @see DecoratingLabelProvider
+ * @see DecoratingStyledCellLabelProvider
+ */
+/* package */final class VisibleElementsTracker {
+
+	/**
+	 * The maximum number of rows reported, as a guard against huge clients.
+	 */
+	private static final int MAX_ROWS = 500;
+
+	private final ColumnViewer viewer;
+
+	private IPrioritizedLabelDecorator decorator;
+
+	private boolean updateScheduled;
+
+	private final Listener listener = new Listener() {
+		@Override
+		public void handleEvent(Event event) {
+			if (event.type == SWT.Dispose) {
+				dispose();
+			} else {
+				scheduleUpdate();
+			}
+		}
+	};
+
+	private final Runnable update = new Runnable() {
+		@Override
+		public void run() {
+			updateScheduled = false;
+			IPrioritizedLabelDecorator current = decorator;
+			Control control = viewer.getControl();
+			if (current != null && control != null && !control.isDisposed()) {
+				current.setVisibleElements(viewer, getVisibleElements());
+			}
+		}
+	};
+
+	/**
+	 * Create a new tracker for the given viewer.
+	 *
+	 * @param viewer
+	 *            the viewer, whose control must have been created
+	 */
+	VisibleElementsTracker(ColumnViewer viewer) {
+		this.viewer = viewer;
+		Control control = viewer.getControl();
+		control.addListener(SWT.Resize, listener);
+		control.addListener(SWT.Expand, listener);
+		control.addListener(SWT.Dispose, listener);
+		ScrollBar bar = getVerticalBar();
+		if (bar != null) {
+			bar.addListener(SWT.Selection, listener);
+		}
+	}
+
+	/**
+	 * Note that a label was requested, so the given decorator should be told
+	 * about the visible elements once the current UI operation has completed.
+	 *
+	 * @param prioritizedDecorator
+	 *            the decorator to update
+	 */
+	void labelRequested(IPrioritizedLabelDecorator prioritizedDecorator) {
+		if (decorator != prioritizedDecorator) {
+			clearVisibleElements();
+			decorator = prioritizedDecorator;
+		}
+		scheduleUpdate();
+	}
+
+	/**
+	 * Stop tracking the viewer and clear the elements reported to the
+	 * decorator.
+	 */
+	void dispose() {
+		Control control = viewer.getControl();
+		if (control != null && !control.isDisposed()) {
+			control.removeListener(SWT.Resize, listener);
+			control.removeListener(SWT.Expand, listener);
+			control.removeListener(SWT.Dispose, listener);
+			ScrollBar bar = getVerticalBar();
+			if (bar != null && !bar.isDisposed()) {
+				bar.removeListener(SWT.Selection, listener);
+			}
+		}
+		clearVisibleElements();
+		decorator = null;
+	}
+
+	private void clearVisibleElements() {
+		if (decorator != null) {
+			decorator.setVisibleElements(viewer, new Object[0]);
+		}
+	}
+
+	private void scheduleUpdate() {
+		Control control = viewer.getControl();
+		if (updateScheduled || decorator == null || control == null || control.isDisposed()) {
+			return;
+		}
+		updateScheduled = true;
+		control.getDisplay().asyncExec(update);
+	}
+
+	private ScrollBar getVerticalBar() {
+		Control control = viewer.getControl();
+		if (control instanceof Tree) {
+			return ((Tree) control).getVerticalBar();
+		}
+		if (control instanceof Table) {
+			return ((Table) control).getVerticalBar();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the elements of the rows intersecting the client area of the
+	 * viewer, walking down from the top row.
+	 */
+	private Object[] getVisibleElements() {
+		Control control = viewer.getControl();
+		Item top = null;
+		if (control instanceof Tree) {
+			top = ((Tree) control).getTopItem();
+		} else if (control instanceof Table) {
+			Table table = (Table) control;
+			int index = table.getTopIndex();
+			if (index >= 0 && index < table.getItemCount()) {
+				top = table.getItem(index);
+			}
+		}
+		if (top == null) {
+			return new Object[0];
+		}
+		Rectangle area = control.getClientArea();
+		int bottom = area.y + area.height;
+		List<Object> elements = new ArrayList<>();
+		ViewerRow row = viewer.getViewerRowFromItem(top);
+		while (row != null && elements.size() < MAX_ROWS) {
+			Rectangle bounds = row.getBounds();
+			if (bounds.y >= bottom) {
+				break;
+			}
+			Object element = row.getElement();
+			if (element != null) {
+				elements.add(element);
+			}
+			row = row.getNeighbor(ViewerRow.BELOW, false);
+		}
+		return elements.toArray();
+	}
+}
@@ -1164,6 +1164,15 @@ public class FilteredResourcesSelectionDialog extends
 			return false;
 		}
 
+		/**
+		 * Resources are matched on their name and path only, so they can be
+		 * matched concurrently.
+		 */
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+
 		/**
 		 * Check show derived flag for a filter
 		 *
@@ -15,8 +15,12 @@
 package org.eclipse.ui.internal.views.markers;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -72,6 +76,17 @@ public class CachedMarkerBuilder {
 
 	private IMemento memento;
 
+	/**
+	 * The largest number of changed markers applied to the gathered markers,
+	 * beyond which all of the markers are gathered again.
+	 */
+	static final int MAX_MARKER_CHANGES = 10000;
+
+	// The markers changed since the markers were last gathered, null if they
+	// have to be gathered again
+	private Set<IMarker> changedMarkers;
+	private final Object changedMarkersLock = new Object();
+
 
 	/**
 	 * Create a new instance of the receiver. Update using the updateJob.
@@ -298,6 +313,7 @@ public class CachedMarkerBuilder {
 	 *
 	 */
 	void scheduleUpdate() {
+		requireGathering();
 		if (active) {
 			scheduler.scheduleUpdate(MarkerUpdateScheduler.SHORT_DELAY,true);
 		}
@@ -308,11 +324,68 @@ public class CachedMarkerBuilder {
 	 *
 	 */
 	void scheduleUpdate(long delay) {
+		requireGathering();
 		if (active) {
 			scheduler.scheduleUpdate(delay,true);
 		}
 	}
 
+	/**
+	 * Record markers that were added, changed or removed, to be applied to the
+	 * gathered markers by the next update.
+	 *
+	 * @param markers
+	 */
+	void markersChanged(Collection<IMarker> markers) {
+		synchronized (changedMarkersLock) {
+			if (changedMarkers == null) {
+				return;
+			}
+			changedMarkers.addAll(markers);
+			if (changedMarkers.size() > MAX_MARKER_CHANGES) {
+				changedMarkers = null;
+			}
+		}
+	}
+
+	/**
+	 * Return the markers changed since the last call, and start recording the
+	 * changes again.
+	 *
+	 * @return the changed markers, or <code>null</code> if the markers have to
+	 *         be gathered again
+	 */
+	Collection<IMarker> takeMarkerChanges() {
+		synchronized (changedMarkersLock) {
+			Collection<IMarker> changes = changedMarkers;
+			changedMarkers = new LinkedHashSet<>();
+			return changes;
+		}
+	}
+
+	/**
+	 * Record again the changes taken by an update that did not apply them.
+	 *
+	 * @param changes
+	 *            the changes returned by {@link #takeMarkerChanges()}
+	 */
+	void restoreMarkerChanges(Collection<IMarker> changes) {
+		if (changes == null) {
+			requireGathering();
+		} else {
+			markersChanged(changes);
+		}
+	}
+
+	/**
+	 * Make the next update gather all of the markers again.
+	 */
+	void requireGathering() {
+		synchronized (changedMarkersLock) {
+			changedMarkers = null;
+		}
+	}
+
 	/**
 	 * Returns true if updates have been scheduled and not finished,else false.
 	 */
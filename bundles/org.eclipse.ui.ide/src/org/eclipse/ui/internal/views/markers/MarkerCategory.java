@@ -21,15 +21,34 @@ import org.eclipse.ui.views.markers.internal.MarkerMessages;
 
 class MarkerCategory extends MarkerSupportItem {
 
-	final int start;
+	/**
+	 * The markers of the category: the entry array they are in and their range
+	 * in it, with the children and the highest severity computed from them.
+	 * The markers are updated in place while the views read them, so the range
+	 * is replaced as a whole and is never changed.
+	 */
+	private static final class Range {
 
-	final int end;
+		final MarkerEntry[] entries;
 
-	private volatile MarkerEntry[] children;
+		final int start;
 
-	private final String name;
+		final int end;
+
+		volatile MarkerEntry[] children;
 
-	private int severity = -1;
+		volatile int severity = -1;
+
+		Range(MarkerEntry[] entries, int start, int end) {
+			this.entries = entries;
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	private volatile Range range;
+
+	private final String name;
 
 	private final Markers markers;
 
@@ -38,50 +57,90 @@ class MarkerCategory extends MarkerSupportItem {
 	 * startIndex and endIndex showing.
 	 *
 	 * @param markers
+	 * @param entries
+	 *            the entries the indices refer to
 	 * @param startIndex
 	 * @param endIndex
 	 *            the builder used to generate the children lazily.
 	 */
-	MarkerCategory(Markers markers, int startIndex,
+	MarkerCategory(Markers markers, MarkerEntry[] entries, int startIndex,
 			int endIndex, String categoryName) {
 		this.markers = markers;
-		start = startIndex;
-		end = endIndex;
+		range = new Range(entries, startIndex, endIndex);
 		name = categoryName;
 	}
 
 	@Override
 	MarkerSupportItem[] getChildren() {
-		MarkerEntry[] myChildren = children;
+		Range myRange = range;
+		MarkerEntry[] myChildren = myRange.children;
 		if (myChildren != null) {
 			return myChildren;
 		}
-		MarkerItem[] allMarkers = markers.getMarkerEntryArray();
+		MarkerEntry[] allMarkers = myRange.entries;
 		int markersLength = allMarkers.length;
-		if (start >= markersLength || end >= markersLength) {
+		if (myRange.start >= markersLength || myRange.end >= markersLength) {
 			// NB: the array can be changed after our creation via
 			// markers::updateWithNewMarkers so that the expected array size doesn't match
 			// anymore to our start/end values. Just return nothing in this case and let the
 			// "children" be null to avoid persistence of inconsistent data
 			return new MarkerEntry[0];
 		}
-		int totalSize = getChildrenCount();
+		int totalSize = myRange.end - myRange.start + 1;
 		myChildren = new MarkerEntry[totalSize];
-		System.arraycopy(allMarkers, start, myChildren, 0, totalSize);
+		System.arraycopy(allMarkers, myRange.start, myChildren, 0, totalSize);
 		for (MarkerEntry markerEntry : myChildren) {
 			markerEntry.setCategory(this);
 		}
-		children = myChildren;
+		myRange.children = myChildren;
 		return myChildren;
 	}
 
 	void resetChildren() {
-		children = null;
+		Range myRange = range;
+		range = new Range(myRange.entries, myRange.start, myRange.end);
+	}
+
+	/**
+	 * Move the receiver to the markers between startIndex and endIndex after
+	 * the markers were updated in place.
+	 *
+	 * @param entries
+	 *            the entries the indices refer to
+	 * @param startIndex
+	 * @param endIndex
+	 * @param changed
+	 *            <code>true</code> if markers were added to or removed from
+	 *            the receiver
+	 */
+	void setRange(MarkerEntry[] entries, int startIndex, int endIndex, boolean changed) {
+		Range oldRange = range;
+		Range newRange = new Range(entries, startIndex, endIndex);
+		if (!changed) {
+			newRange.children = oldRange.children;
+			newRange.severity = oldRange.severity;
+		}
+		range = newRange;
+	}
+
+	/**
+	 * @return the index of the first marker of the receiver
+	 */
+	int getStart() {
+		return range.start;
+	}
+
+	/**
+	 * @return the index of the last marker of the receiver
+	 */
+	int getEnd() {
+		return range.end;
 	}
 
 	@Override
 	int getChildrenCount() {
-		return end - start + 1;
+		Range myRange = range;
+		return myRange.end - myRange.start + 1;
 	}
 
 	@Override
@@ -118,18 +177,20 @@ class MarkerCategory extends MarkerSupportItem {
 	 * @return int
 	 */
 	int getHighestSeverity() {
-		if (severity >= 0)
-			return severity;
-		severity = 0;// Reset to info
+		Range myRange = range;
+		if (myRange.severity >= 0)
+			return myRange.severity;
+		int severity = 0;// Reset to info
 		for (MarkerSupportItem supportItem : getChildren()) {
 			if (supportItem.isConcrete()) {
 				int elementSeverity = supportItem.getAttributeValue(IMarker.SEVERITY, -1);
 				if (elementSeverity > severity)
 					severity = elementSeverity;
 				if (severity == IMarker.SEVERITY_ERROR)// As bad as it gets
-					return severity;
+					break;
 			}
 		}
+		myRange.severity = severity;
 		return severity;
 	}
 
@@ -199,12 +260,13 @@ class MarkerCategory extends MarkerSupportItem {
 		StringBuilder builder = new StringBuilder();
 		builder.append("MarkerCategory [name="); //$NON-NLS-1$
 		builder.append(name);
+		Range myRange = range;
 		builder.append(", severity="); //$NON-NLS-1$
-		builder.append(severity);
+		builder.append(myRange.severity);
 		builder.append(", start="); //$NON-NLS-1$
-		builder.append(start);
+		builder.append(myRange.start);
 		builder.append(", end="); //$NON-NLS-1$
-		builder.append(end);
+		builder.append(myRange.end);
 		builder.append(']');
 		return builder.toString();
 	}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.ui.views.markers.MarkerViewUtil;
+
+import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.Collator;
+
+/**
+ * The MarkerColumns store the attributes the markers view reads the most for
+ * the markers gathered together, one array per attribute, instead of a map of
+ * cached values in each {@link MarkerEntry}.
+ * <p>
+ * Severities and priorities are kept as <code>int</code>s. Messages and
+ * folder paths are shared through a {@link Strings} pool, which also keeps
+ * one collation key per distinct message, so that the many markers with the
+ * same message or in the same folder keep a single copy.
+ * </p>
+ * <p>
+ * The columns are filled by one thread while gathering and only read once
+ * the gathered entries are published.
+ * </p>
+ *
+ * @since 3.14
+ *
+ */
+final class MarkerColumns {
+
+	/**
+	 * Returned by {@link #getValue(int, String)} for the attributes that are
+	 * not stored in columns.
+	 */
+	static final Object NOT_STORED = new Object();
+
+	private static final String[] ATTRIBUTES = { IMarker.SEVERITY, IMarker.PRIORITY, IMarker.MESSAGE,
+			MarkerViewUtil.PATH_ATTRIBUTE };
+
+	// The int value of an attribute that is not set
+	private static final int UNSET = Integer.MIN_VALUE;
+
+	// The int value of an attribute that is set to something else than an
+	// Integer, read from the marker instead
+	private static final int NOT_INTEGER = Integer.MIN_VALUE + 1;
+
+	/**
+	 * A pool of the strings of the markers gathered at the same time. It may
+	 * be shared by the threads gathering the markers.
+	 */
+	static final class Strings {
+		private final Map<String, String> strings = new ConcurrentHashMap<>();
+		private final Map<String, CollationKey> collationKeys = new ConcurrentHashMap<>();
+
+		String intern(String string) {
+			if (string == null) {
+				return null;
+			}
+			String interned = strings.putIfAbsent(string, string);
+			return interned == null ? string : interned;
+		}
+
+		CollationKey getCollationKey(String string) {
+			CollationKey key = collationKeys.get(string);
+			if (key == null) {
+				key = Collator.getInstance().getCollationKey(string);
+				CollationKey previous = collationKeys.putIfAbsent(string, key);
+				if (previous != null) {
+					key = previous;
+				}
+			}
+			return key;
+		}
+	}
+
+	private final Strings strings;
+
+	private int size;
+
+	private int[] severities;
+
+	private int[] priorities;
+
+	private String[] messages;
+
+	private String[] paths;
+
+	/**
+	 * Create new columns for about <code>capacity</code> markers.
+	 *
+	 * @param strings
+	 *            the pool to share the strings with
+	 * @param capacity
+	 */
+	MarkerColumns(Strings strings, int capacity) {
+		this.strings = strings;
+		int length = Math.max(capacity, 1);
+		severities = new int[length];
+		priorities = new int[length];
+		messages = new String[length];
+		paths = new String[length];
+	}
+
+	/**
+	 * Read the stored attributes of the marker and return the entry for it.
+	 *
+	 * @param marker
+	 * @return the entry backed by the receiver
+	 */
+	MarkerEntry add(IMarker marker) {
+		if (size == severities.length) {
+			int length = size * 2;
+			severities = Arrays.copyOf(severities, length);
+			priorities = Arrays.copyOf(priorities, length);
+			messages = Arrays.copyOf(messages, length);
+			paths = Arrays.copyOf(paths, length);
+		}
+		int index = size++;
+		Object[] values;
+		try {
+			values = marker.getAttributes(ATTRIBUTES);
+		} catch (CoreException e) {
+			// The marker is gone, let the entry find out
+			return new MarkerEntry(marker);
+		}
+		severities[index] = toInt(values[0]);
+		priorities[index] = toInt(values[1]);
+		if (values[2] instanceof String) {
+			messages[index] = strings.intern((String) values[2]);
+		} else if (values[2] != null) {
+			// Let the entry convert it
+			return new MarkerEntry(marker);
+		}
+		if (values[3] != null) {
+			paths[index] = strings.intern(values[3].toString());
+		} else {
+			IPath path = marker.getResource().getFullPath();
+			// The number of segments in the container, not the path
+			if (path.segmentCount() > 1) {
+				paths[index] = strings.intern(path.removeLastSegments(1).removeTrailingSeparator().toString());
+			}
+		}
+		return new MarkerEntry(marker, this, index);
+	}
+
+	private static int toInt(Object value) {
+		if (value == null) {
+			return UNSET;
+		}
+		if (value instanceof Integer) {
+			return ((Integer) value).intValue();
+		}
+		return NOT_INTEGER;
+	}
+
+	/**
+	 * Release the unused capacity once all the markers are added.
+	 */
+	void trim() {
+		if (size < severities.length) {
+			severities = Arrays.copyOf(severities, size);
+			priorities = Arrays.copyOf(priorities, size);
+			messages = Arrays.copyOf(messages, size);
+			paths = Arrays.copyOf(paths, size);
+		}
+	}
+
+	/**
+	 * Return the value of the attribute for the marker at index.
+	 *
+	 * @param index
+	 * @param attribute
+	 * @return the value, <code>null</code> if it is not set, or
+	 *         {@link #NOT_STORED} if the attribute is not in a column
+	 */
+	Object getValue(int index, String attribute) {
+		if (IMarker.SEVERITY.equals(attribute)) {
+			return toValue(severities[index]);
+		}
+		if (IMarker.MESSAGE.equals(attribute)) {
+			return messages[index];
+		}
+		if (IMarker.PRIORITY.equals(attribute)) {
+			return toValue(priorities[index]);
+		}
+		return NOT_STORED;
+	}
+
+	private static Object toValue(int value) {
+		if (value == UNSET) {
+			return null;
+		}
+		if (value == NOT_INTEGER) {
+			return NOT_STORED;
+		}
+		return Integer.valueOf(value);
+	}
+
+	/**
+	 * Return the folder path of the marker at index, <code>null</code> if the
+	 * resource of the marker is not in a folder.
+	 *
+	 * @param index
+	 * @return String or <code>null</code>
+	 */
+	String getPath(int index) {
+		return paths[index];
+	}
+
+	/**
+	 * Return the collation key of the message of the marker at index, shared
+	 * by the markers with the same message.
+	 *
+	 * @param index
+	 * @return the key, or <code>null</code> if there is no message
+	 */
+	CollationKey getMessageCollationKey(int index) {
+		String message = messages[index];
+		if (message == null) {
+			return null;
+		}
+		if (message.length() == 0) {
+			return MarkerSupportInternalUtilities.EMPTY_COLLATION_KEY;
+		}
+		return strings.getCollationKey(message);
+	}
+}
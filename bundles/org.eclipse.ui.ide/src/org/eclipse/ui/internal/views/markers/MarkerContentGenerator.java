@@ -24,14 +24,12 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.mapping.ResourceMapping;
-import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.preference.IPreferenceStore;
@@ -1012,7 +1010,7 @@ public class MarkerContentGenerator {
 	 * @param monitor
 	 */
 	Collection<MarkerEntry> generateMarkerEntries(IProgressMonitor monitor) {
-		List<MarkerEntry> result = new LinkedList<>();
+		List<MarkerEntry> result = new ArrayList<>();
 		String[] typeIds = getTypes();
 		boolean includeSubTypes = builder.includeMarkerSubTypes();
 		boolean cancelled = gatherMarkers(typeIds, includeSubTypes, result,
@@ -1045,6 +1043,7 @@ public class MarkerContentGenerator {
 			Collection<MarkerEntry> result, IProgressMonitor monitor) {
 		try {
 			Collection<IResource> resources = getResourcesForBuild();
+			MarkerColumns.Strings strings = new MarkerColumns.Strings();
 			if (includeSubTypes) {
 				// Optimize and calculate super types
 				String[] superTypes = MarkerResourceUtil.getMutuallyExclusiveSupersIds(typeIds);
@@ -1052,14 +1051,16 @@ public class MarkerContentGenerator {
 					return false;
 				}
 				for (String superType : superTypes) {
-					boolean success = internalGatherMarkers(resources, superType, includeSubTypes, result, monitor);
+					boolean success = internalGatherMarkers(resources, superType, includeSubTypes, result, strings,
+							monitor);
 					if (!success || monitor.isCanceled()) {
 						return false;
 					}
 				}
 			} else {
 				for (String typeId : typeIds) {
-					boolean success = internalGatherMarkers(resources, typeId, includeSubTypes, result, monitor);
+					boolean success = internalGatherMarkers(resources, typeId, includeSubTypes, result, strings,
+							monitor);
 					if (!success || monitor.isCanceled()) {
 						return false;
 					}
@@ -1082,50 +1083,69 @@ public class MarkerContentGenerator {
 	 * @param typeId
 	 * @param includeSubTypes
 	 * @param result
+	 * @param strings
 	 * @param monitor
 	 */
 	private boolean internalGatherMarkers(Collection<IResource> resources, String typeId,
-			boolean includeSubTypes, Collection<MarkerEntry> result, IProgressMonitor monitor) {
+			boolean includeSubTypes, Collection<MarkerEntry> result, MarkerColumns.Strings strings,
+			IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			return false;
 		}
 		IResource[] selected = getSelectedResources();
 		Collection<MarkerFieldFilterGroup> enabled = getEnabledFilters();
 		boolean filtersAreANDed = andFilters();
-		Iterator<IResource> iterator = resources.iterator();
-		while (iterator.hasNext()) {
-			IMarker[] markers = null;
-			try {
-				IResource resource = iterator.next();
-				if (!resource.isAccessible()) {
-					continue;
+		// The markers are found in the background, but filtered here as the
+		// filters are not expected to be thread safe
+		MarkerGatherer gatherer = new MarkerGatherer(resources, typeId, includeSubTypes, strings);
+		try {
+			gatherer.start();
+			MarkerEntry[] entries;
+			while ((entries = gatherer.next(monitor)) != null) {
+				for (int i = 0; i < entries.length; i++) {
+					MarkerEntry entry = entries[i];
+					if (select(entry, selected, enabled, filtersAreANDed)) {
+						result.add(entry);
+					}
+					entry.clearCache();
+					if (i % 500 == 0) {
+						if (monitor.isCanceled()) {
+							return false;
+						}
+					}
 				}
-				markers = resource.findMarkers(typeId, includeSubTypes, IResource.DEPTH_INFINITE);
-			} catch (CoreException e) {
-				MarkerSupportInternalUtilities.logViewError(e);
 			}
-			if (markers == null) {
+		} finally {
+			gatherer.cancel();
+		}
+		return !monitor.isCanceled();
+	}
+
+	/**
+	 * Create the entries of the markers that still exist and are selected by
+	 * the enabled filters.
+	 *
+	 * @param markers
+	 * @return the selected entries
+	 */
+	Collection<MarkerEntry> createSelectedEntries(Collection<IMarker> markers) {
+		IResource[] selected = getSelectedResources();
+		Collection<MarkerFieldFilterGroup> enabled = getEnabledFilters();
+		boolean filtersAreANDed = andFilters();
+		MarkerColumns columns = new MarkerColumns(new MarkerColumns.Strings(), markers.size());
+		List<MarkerEntry> result = new ArrayList<>();
+		for (IMarker marker : markers) {
+			if (!marker.exists()) {
 				continue;
 			}
-			if (monitor.isCanceled()) {
-				return false;
-			}
-			MarkerEntry entry = null;
-			int lenght = markers.length;
-			for (int i = 0; i < lenght; i++) {
-				entry = new MarkerEntry(markers[i]);
-				if (select(entry, selected, enabled, filtersAreANDed)) {
-					result.add(entry);
-				}
-				entry.clearCache();
-				if (i % 500 == 0) {
-					if (monitor.isCanceled()) {
-						return false;
-					}
-				}
+			MarkerEntry entry = columns.add(marker);
+			if (select(entry, selected, enabled, filtersAreANDed)) {
+				result.add(entry);
 			}
+			entry.clearCache();
 		}
-		return true;
+		columns.trim();
+		return result;
 	}
 
 	void dispose() {
@@ -82,6 +82,13 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	 */
 	private IMarker marker;
 
+	/**
+	 * The columns holding the attributes read when the marker was gathered,
+	 * <code>null</code> if they were not read.
+	 */
+	private MarkerColumns columns;
+	private int index;
+
 	/**
 	 * Create a new instance of the receiver.
 	 *
@@ -92,6 +99,20 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		stale = false;
 	}
 
+	/**
+	 * Create a new instance of the receiver whose attributes are stored at
+	 * index in columns.
+	 *
+	 * @param marker
+	 * @param columns
+	 * @param index
+	 */
+	MarkerEntry(IMarker marker, MarkerColumns columns, int index) {
+		this(marker);
+		this.columns = columns;
+		this.index = index;
+	}
+
 	@Override
 	public <T> T getAdapter(Class<T> adapter) {
 		if (adapter.equals(IMarker.class)) {
@@ -146,6 +167,12 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	 * @return Object or <code>null</code>
 	 */
 	Object getAttributeValue(String attribute) {
+		if (columns != null) {
+			Object value = columns.getValue(index, attribute);
+			if (value != MarkerColumns.NOT_STORED) {
+				return value;
+			}
+		}
 		Object value = getCache().get(attribute);
 		if(value == null) {
 			if(stale){
@@ -203,6 +230,12 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	 * @return CollationKey
 	 */
 	CollationKey getCollationKey(String attribute, String defaultValue) {
+		if (columns != null && IMarker.MESSAGE.equals(attribute)) {
+			CollationKey key = columns.getMessageCollationKey(index);
+			if (key != null) {
+				return key;
+			}
+		}
 		String attributeValue;
 		Object value = getCache().get(attribute);
 		if (value != null) {
@@ -322,6 +355,13 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 
 	@Override
 	public String getPath() {
+		if (columns != null) {
+			if (stale) {
+				return MarkerSupportInternalUtilities.UNKNOWN_ATRRIBTE_VALUE_STRING;
+			}
+			String folder = columns.getPath(index);
+			return folder == null ? super.getPath() : folder;
+		}
 		String folder = getAttributeValue(MarkerViewUtil.PATH_ATTRIBUTE, null);
 		if (folder != null) {
 			return folder;
@@ -362,11 +402,30 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	 */
 	void setMarker(IMarker marker) {
 		this.marker = marker;
+		columns = null;
 		// reset stale
 		stale = false;
 		clearCache();
 	}
 
+	/**
+	 * Return the severity of the marker without caching it.
+	 *
+	 * @return the severity, or -1 if it is not set
+	 */
+	int getSeverity() {
+		Object value = columns == null ? MarkerColumns.NOT_STORED : columns.getValue(index, IMarker.SEVERITY);
+		if (value == MarkerColumns.NOT_STORED) {
+			try {
+				value = marker.getAttribute(IMarker.SEVERITY);
+			} catch (CoreException e) {
+				checkIfMarkerStale();
+				value = null;
+			}
+		}
+		return value instanceof Integer ? ((Integer) value).intValue() : -1;
+	}
+
 	/**
 	 * Get the cache for the receiver. Create if neccessary.
 	 *
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.views.markers.internal.MarkerMessages;
+
+/**
+ * The MarkerGatherer finds the markers of a type on a collection of resources
+ * and creates their entries, with their attributes read into
+ * {@link MarkerColumns}.
+ * <p>
+ * The workspace root is split into its projects, hidden ones included, and
+ * the resources are gathered by a pool of system jobs. The entries are handed
+ * out resource by resource, in the order of the resources, to the thread that
+ * filters them, so that the filters are never called concurrently. While it
+ * waits for a resource, that thread gathers the resources no job has claimed
+ * yet.
+ * </p>
+ *
+ * @since 3.14
+ *
+ */
+class MarkerGatherer {
+
+	private static final MarkerEntry[] NO_ENTRIES = new MarkerEntry[0];
+
+	/**
+	 * A resource to search and the entries found on it.
+	 */
+	private static final class Unit {
+		final IResource resource;
+		final int depth;
+		MarkerEntry[] entries;
+
+		Unit(IResource resource, int depth) {
+			this.resource = resource;
+			this.depth = depth;
+		}
+	}
+
+	private final Unit[] units;
+	private final String typeId;
+	private final boolean includeSubTypes;
+	private final MarkerColumns.Strings strings;
+
+	private final AtomicInteger nextUnit = new AtomicInteger();
+	private volatile boolean cancelled;
+	private boolean parallel;
+	private int returned;
+
+	/**
+	 * Create a gatherer of the markers of type typeId on the resources.
+	 *
+	 * @param resources
+	 * @param typeId
+	 * @param includeSubTypes
+	 * @param strings
+	 *            the pool of the strings of the gathered markers
+	 */
+	MarkerGatherer(Collection<IResource> resources, String typeId, boolean includeSubTypes,
+			MarkerColumns.Strings strings) {
+		this.typeId = typeId;
+		this.includeSubTypes = includeSubTypes;
+		this.strings = strings;
+		List<Unit> list = new ArrayList<>(resources.size());
+		for (IResource resource : resources) {
+			if (resource instanceof IWorkspaceRoot) {
+				list.add(new Unit(resource, IResource.DEPTH_ZERO));
+				for (IProject project : ((IWorkspaceRoot) resource).getProjects(IContainer.INCLUDE_HIDDEN)) {
+					list.add(new Unit(project, IResource.DEPTH_INFINITE));
+				}
+			} else {
+				list.add(new Unit(resource, IResource.DEPTH_INFINITE));
+			}
+		}
+		units = list.toArray(new Unit[list.size()]);
+	}
+
+	/**
+	 * Start gathering in the background if there is more than one resource
+	 * and more than one processor.
+	 */
+	void start() {
+		int workers = Math.min(units.length, Runtime.getRuntime().availableProcessors());
+		if (workers < 2) {
+			return;
+		}
+		parallel = true;
+		for (int i = 0; i < workers; i++) {
+			Job job = new Job(MarkerMessages.MarkerView_searching_for_markers) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					int next;
+					while (!cancelled && !monitor.isCanceled() && (next = nextUnit.getAndIncrement()) < units.length) {
+						gather(units[next]);
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Stop gathering. The entries of the resources not handed out yet are
+	 * dropped.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Return the entries found on the next resource, waiting for them if they
+	 * are being gathered. Until they are, the resources not claimed by a job
+	 * are gathered on the calling thread.
+	 *
+	 * @param monitor
+	 * @return the entries, or <code>null</code> if all of them were returned
+	 *         or the monitor is cancelled
+	 */
+	MarkerEntry[] next(IProgressMonitor monitor) {
+		if (returned == units.length || monitor.isCanceled()) {
+			return null;
+		}
+		Unit unit = units[returned++];
+		if (!parallel) {
+			gather(unit);
+		} else {
+			while (!isGathered(unit)) {
+				if (monitor.isCanceled()) {
+					cancel();
+					return null;
+				}
+				int next = nextUnit.getAndIncrement();
+				if (next < units.length) {
+					gather(units[next]);
+					continue;
+				}
+				// The remaining resources are being gathered by the jobs
+				synchronized (unit) {
+					if (unit.entries != null) {
+						break;
+					}
+					try {
+						unit.wait(100);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						cancel();
+						return null;
+					}
+				}
+			}
+		}
+		MarkerEntry[] entries = unit.entries;
+		// The entries are owned by the caller now
+		unit.entries = null;
+		return entries;
+	}
+
+	private static boolean isGathered(Unit unit) {
+		synchronized (unit) {
+			return unit.entries != null;
+		}
+	}
+
+	private void gather(Unit unit) {
+		MarkerEntry[] entries = NO_ENTRIES;
+		try {
+			entries = findEntries(unit);
+		} finally {
+			synchronized (unit) {
+				unit.entries = entries;
+				unit.notifyAll();
+			}
+		}
+	}
+
+	private MarkerEntry[] findEntries(Unit unit) {
+		IMarker[] markers;
+		try {
+			if (!unit.resource.isAccessible()) {
+				return NO_ENTRIES;
+			}
+			markers = unit.resource.findMarkers(typeId, includeSubTypes, unit.depth);
+		} catch (CoreException e) {
+			MarkerSupportInternalUtilities.logViewError(e);
+			return NO_ENTRIES;
+		}
+		MarkerColumns columns = new MarkerColumns(strings, markers.length);
+		MarkerEntry[] entries = new MarkerEntry[markers.length];
+		for (int i = 0; i < markers.length; i++) {
+			if (i % 500 == 0 && cancelled) {
+				return Arrays.copyOf(entries, i);
+			}
+			entries[i] = columns.add(markers[i]);
+		}
+		columns.trim();
+		return entries;
+	}
+}
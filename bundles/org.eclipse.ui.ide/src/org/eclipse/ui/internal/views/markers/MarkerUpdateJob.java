@@ -14,9 +14,10 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -69,28 +70,72 @@ class MarkerUpdateJob extends Job {
 		// builder.getUpdateScheduler().indicateStatus(
 		// MarkerMessages.MarkerView_searching_for_markers, false);
 
-		Collection<MarkerEntry> markerEntries = new LinkedList<>();
-		//this is not incremental clean every time
-		clean = !clean(markerEntries, monitor);
-		if (monitor.isCanceled()) {
-			return;
+		// The changes recorded from now on are applied by the next update
+		Collection<IMarker> changes = builder.takeMarkerChanges();
+		if (changes != null) {
+			if (monitor.isCanceled()) {
+				builder.restoreMarkerChanges(changes);
+				return;
+			}
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			if (applyMarkerChanges(changes, monitor)) {
+				builder.getUpdateScheduler().scheduleUIUpdate(MarkerUpdateScheduler.SHORT_DELAY);
+				builder.setBuilding(false);
+				updateDone();
+				return;
+			}
 		}
-		// builder.getUpdateScheduler().indicateStatus(
-		// MarkerMessages.MarkerView_processUpdates, false);
 
-		monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return;
+		boolean gathered = false;
+		try {
+			Collection<MarkerEntry> markerEntries = new ArrayList<>();
+			//this is not incremental clean every time
+			clean = !clean(markerEntries, monitor);
+			if (monitor.isCanceled()) {
+				return;
+			}
+			// builder.getUpdateScheduler().indicateStatus(
+			// MarkerMessages.MarkerView_processUpdates, false);
+
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			if (!processMarkerEntries(markerEntries, monitor)) {
+				return;
+			}
+			gathered = true;
+			if (monitor.isCanceled()) {
+				return;
+			}
+			builder.getUpdateScheduler().scheduleUIUpdate(MarkerUpdateScheduler.SHORT_DELAY);
+			if (monitor.isCanceled()) {
+				return;
+			}
+			builder.setBuilding(false);
+			updateDone();
+		} finally {
+			if (!gathered) {
+				builder.requireGathering();
+			}
 		}
-		if (monitor.isCanceled()) {
-			return;
+	}
+
+	/**
+	 * Replace the entries of the changed markers in the sorted and grouped
+	 * entries, without gathering all of the markers again.
+	 *
+	 * @param changes
+	 *            the added, changed and removed markers
+	 * @return <code>true</code> if the changes were applied
+	 */
+	boolean applyMarkerChanges(Collection<IMarker> changes, IProgressMonitor monitor) {
+		MarkerContentGenerator generator = builder.getGenerator();
+		if (generator == null) {
+			return false;
 		}
-		builder.getUpdateScheduler().scheduleUIUpdate(MarkerUpdateScheduler.SHORT_DELAY);
-		if (monitor.isCanceled()) {
-			return;
+		if (changes.isEmpty()) {
+			return true;
 		}
-		builder.setBuilding(false);
-		updateDone();
+		Collection<MarkerEntry> newEntries = generator.createSelectedEntries(changes);
+		return builder.getMarkers().applyChanges(changes, newEntries, monitor);
 	}
 
 	/**
@@ -21,9 +21,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.core.resources.IMarker;
@@ -51,6 +55,8 @@ class Markers {
 	private volatile MarkerEntry[] markerEntryArray = EMPTY_ENTRY_ARRAY;
 	// the categories
 	private volatile MarkerCategory[] categories = EMPTY_CATEGORY_ARRAY;
+	// the group values of the categories, in the same order
+	private MarkerGroupingEntry[] categoryGroups;
 
 	private CachedMarkerBuilder builder;
 
@@ -61,6 +67,11 @@ class Markers {
 	private Map<IMarker, MarkerEntry> markerToEntryMap;
 	private Integer[] markerCounts;
 
+	// the categories updated in place since the viewer was last refreshed,
+	// null if everything has to be refreshed
+	private Set<MarkerCategory> changedCategories;
+	private final Object changesLock = new Object();
+
 	Markers(CachedMarkerBuilder builder) {
 		this.builder = builder;
 	}
@@ -84,6 +95,8 @@ class Markers {
 				markerToEntryMap = null;
 			}
 			markerCounts = null;
+			categoryGroups = null;
+			refreshAll();
 			if (markerEntries.isEmpty()) {
 				categories = EMPTY_CATEGORY_ARRAY;
 				markerEntryArray = EMPTY_ENTRY_ARRAY;
@@ -153,6 +166,7 @@ class Markers {
 		MarkerCategory lastCategory = null;
 		try {
 			inChange = true;
+			refreshAll();
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = markerComparator.getFieldsComparator();
 				for (MarkerCategory category : categories) {
@@ -162,10 +176,10 @@ class Markers {
 					lastCategory = category;
 					// sort various categories
 					category.resetChildren(); // reset cached children
-					int avaliable = category.end - category.start + 1;
+					int avaliable = category.getChildrenCount();
 					int effLimit = getShowingLimit(avaliable);
 					MarkerSortUtil.sortStartingKElement(markerEntryArray,
-							comparator, category.start, category.end, effLimit,
+							comparator, category.getStart(), category.getEnd(), effLimit,
 							monitor);
 				}
 			} else {
@@ -198,6 +212,289 @@ class Markers {
 		}
 	}
 
+	/**
+	 * Update the sorted and grouped entries with the changes of markers,
+	 * without sorting and grouping all of them again. The entries of the
+	 * changed markers are removed, and the new entries are inserted where they
+	 * sort in their categories, so that only O(k log n) comparisons are made
+	 * for k changes.
+	 *
+	 * @param changedMarkers
+	 *            the markers whose entries are replaced
+	 * @param newEntries
+	 *            the entries of the changed markers that are shown
+	 * @param monitor
+	 * @return <code>false</code> if the entries could not be updated in place
+	 *         and have to be sorted and grouped again
+	 */
+	synchronized boolean applyChanges(Collection<IMarker> changedMarkers, Collection<MarkerEntry> newEntries,
+			IProgressMonitor monitor) {
+		boolean hierarchy = builder.isShowingHierarchy();
+		if (hierarchy ? categoryGroups == null || categoryGroups.length != categories.length
+				: categories.length > 0) {
+			// not sorted and grouped the way they are shown
+			return false;
+		}
+		boolean initialVal = inChange;
+		MarkerComparator markerComparator = builder.getComparator();
+		try {
+			inChange = true;
+			Map<IMarker, MarkerEntry> entryMap = getMarkerToEntryMap();
+			Set<MarkerEntry> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (IMarker marker : changedMarkers) {
+				MarkerEntry entry = entryMap.remove(marker);
+				if (entry != null) {
+					removed.add(entry);
+				}
+			}
+			MarkerEntry[] oldEntries = markerEntryArray;
+			MarkerEntry[] entries = new MarkerEntry[oldEntries.length + newEntries.size()];
+			if (hierarchy) {
+				applyChangesToCategories(oldEntries, removed, newEntries, entries, monitor);
+			} else {
+				List<MarkerEntry> added = new ArrayList<>(newEntries);
+				added.sort(markerComparator);
+				int size = mergeSegment(oldEntries, 0, oldEntries.length - 1, removed, added, markerComparator,
+						entries, 0, monitor);
+				markerEntryArray = trim(entries, size);
+				refreshAll();
+			}
+			for (MarkerEntry entry : newEntries) {
+				if (!entry.getStaleState()) {
+					entryMap.put(entry.getMarker(), entry);
+				}
+			}
+			markerCounts = null;
+			return true;
+		} catch (IllegalArgumentException e) {
+			StringBuilder err = new StringBuilder("Bug 371586: broken comparator. "); //$NON-NLS-1$
+			err.append(markerComparator.getCategory());
+			err.append(", fields: "); //$NON-NLS-1$
+			err.append(Arrays.toString(markerComparator.getFields()));
+			IDEWorkbenchPlugin.log(err.toString(), e);
+			markerToEntryMap = null;
+			return false;
+		} finally {
+			inChange = initialVal;
+		}
+	}
+
+	/**
+	 * Apply the changes category by category, adding the categories of new
+	 * groups and dropping the categories left empty.
+	 */
+	private void applyChangesToCategories(MarkerEntry[] source, Set<MarkerEntry> removed,
+			Collection<MarkerEntry> newEntries, MarkerEntry[] target, IProgressMonitor monitor) {
+		MarkerGroup group = builder.getCategoryGroup();
+		Comparator<MarkerGroupingEntry> groupComparator = group.getEntriesComparator();
+		Comparator<MarkerItem> comparator = builder.getComparator().getFieldsComparator();
+
+		// the new entries of each existing category, and of new groups
+		Map<MarkerCategory, List<MarkerEntry>> addedByCategory = new HashMap<>();
+		TreeMap<MarkerGroupingEntry, List<MarkerEntry>> addedByNewGroup = new TreeMap<>(groupComparator);
+		for (MarkerEntry entry : newEntries) {
+			IMarker marker = entry.getMarker();
+			MarkerGroupingEntry groupingEntry;
+			try {
+				groupingEntry = group.findGroupValue(marker.getType(), marker);
+			} catch (CoreException e) {
+				entry.checkIfMarkerStale();
+				continue;
+			}
+			int index = Arrays.binarySearch(categoryGroups, groupingEntry, groupComparator);
+			List<MarkerEntry> list;
+			if (index >= 0) {
+				list = addedByCategory.computeIfAbsent(categories[index], category -> new ArrayList<>());
+			} else {
+				list = addedByNewGroup.computeIfAbsent(groupingEntry, key -> new ArrayList<>());
+			}
+			list.add(entry);
+		}
+
+		MarkerCategory[] oldCategories = categories;
+		List<MarkerCategory> newCategories = new ArrayList<>(oldCategories.length + addedByNewGroup.size());
+		List<MarkerGroupingEntry> newGroups = new ArrayList<>(newCategories.size());
+		int[] ranges = new int[(oldCategories.length + addedByNewGroup.size()) * 2];
+		Set<MarkerCategory> changed = new HashSet<>();
+		boolean categoriesChanged = !addedByNewGroup.isEmpty();
+		Iterator<Entry<MarkerGroupingEntry, List<MarkerEntry>>> newGroupsIterator = addedByNewGroup.entrySet()
+				.iterator();
+		Entry<MarkerGroupingEntry, List<MarkerEntry>> nextNewGroup = newGroupsIterator.hasNext()
+				? newGroupsIterator.next()
+				: null;
+		int size = 0;
+		for (int i = 0; i <= oldCategories.length; i++) {
+			// the new groups sorting before this category
+			while (nextNewGroup != null && (i == oldCategories.length
+					|| groupComparator.compare(nextNewGroup.getKey(), categoryGroups[i]) < 0)) {
+				List<MarkerEntry> added = nextNewGroup.getValue();
+				added.sort(comparator);
+				int start = size;
+				size = mergeSegment(source, 0, -1, removed, added, comparator, target, size, monitor);
+				MarkerCategory category = new MarkerCategory(this, target, start, size - 1,
+						group.getMarkerField().getValue(target[start]));
+				ranges[newCategories.size() * 2] = start;
+				ranges[newCategories.size() * 2 + 1] = size - 1;
+				newCategories.add(category);
+				newGroups.add(nextNewGroup.getKey());
+				nextNewGroup = newGroupsIterator.hasNext() ? newGroupsIterator.next() : null;
+			}
+			if (i == oldCategories.length) {
+				break;
+			}
+			MarkerCategory category = oldCategories[i];
+			List<MarkerEntry> added = addedByCategory.get(category);
+			if (added == null) {
+				added = Collections.emptyList();
+			} else {
+				added.sort(comparator);
+			}
+			int start = size;
+			size = mergeSegment(source, category.getStart(), category.getEnd(), removed, added, comparator, target,
+					size, monitor);
+			if (size == start) {
+				// no markers left in this category
+				categoriesChanged = true;
+				continue;
+			}
+			if (!added.isEmpty() || size - start != category.getChildrenCount()) {
+				changed.add(category);
+			}
+			ranges[newCategories.size() * 2] = start;
+			ranges[newCategories.size() * 2 + 1] = size - 1;
+			newCategories.add(category);
+			newGroups.add(categoryGroups[i]);
+		}
+
+		// the categories read their markers from the entries they were moved
+		// to, not from the ones published last
+		MarkerEntry[] entries = trim(target, size);
+		markerEntryArray = entries;
+		for (int i = 0; i < newCategories.size(); i++) {
+			MarkerCategory category = newCategories.get(i);
+			category.setRange(entries, ranges[i * 2], ranges[i * 2 + 1], changed.contains(category));
+		}
+		if (categoriesChanged) {
+			categories = newCategories.toArray(new MarkerCategory[newCategories.size()]);
+			categoryGroups = newGroups.toArray(new MarkerGroupingEntry[newGroups.size()]);
+			refreshAll();
+		} else {
+			synchronized (changesLock) {
+				if (changedCategories != null) {
+					changedCategories.addAll(changed);
+				}
+			}
+		}
+	}
+
+	private static MarkerEntry[] trim(MarkerEntry[] entries, int size) {
+		return size == entries.length ? entries : Arrays.copyOf(entries, size);
+	}
+
+	/**
+	 * Copy the entries of source between from and to into target, without the
+	 * removed ones and with the added ones.
+	 * <p>
+	 * The first entries of a range are sorted, as many as are shown, and the
+	 * rest of the range sorts after them. The added entries are inserted among
+	 * the sorted entries with a binary search, or go to the unsorted rest.
+	 * </p>
+	 *
+	 * @param added
+	 *            the sorted entries to add
+	 * @return the index in target after the copied entries
+	 */
+	private int mergeSegment(MarkerEntry[] source, int from, int to, Set<MarkerEntry> removed,
+			List<MarkerEntry> added, Comparator<MarkerItem> comparator, MarkerEntry[] target, int targetStart,
+			IProgressMonitor monitor) {
+		int sortedCount = getShowingLimit(to - from + 1);
+		int removedSorted = 0;
+		int pos = targetStart;
+		for (int i = from; i <= to; i++) {
+			MarkerEntry entry = source[i];
+			if (removed.contains(entry)) {
+				if (i < from + sortedCount) {
+					removedSorted++;
+				}
+				continue;
+			}
+			target[pos++] = entry;
+		}
+		int sorted = sortedCount - removedSorted;
+		int unsorted = pos - targetStart - sorted;
+		if (unsorted > 0 && removedSorted > 0) {
+			// some of the unsorted entries are shown now
+			for (MarkerEntry entry : added) {
+				target[pos++] = entry;
+			}
+			MarkerSortUtil.sortStartingKElement(target, comparator, targetStart, pos - 1,
+					getShowingLimit(pos - targetStart), monitor);
+			return pos;
+		}
+		int addedCount = added.size();
+		if (addedCount == 0) {
+			return pos;
+		}
+		// the added entries that sort among the sorted ones, and where
+		int inserted = 0;
+		int[] insertionPoints = new int[addedCount];
+		int low = 0;
+		for (MarkerEntry entry : added) {
+			if (unsorted > 0 && comparator.compare(entry, target[targetStart + sorted - 1]) > 0) {
+				break;
+			}
+			int high = sorted;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (comparator.compare(target[targetStart + middle], entry) > 0) {
+					high = middle;
+				} else {
+					low = middle + 1;
+				}
+			}
+			insertionPoints[inserted++] = low;
+		}
+		// make room for them, from the back
+		int end = targetStart + sorted;
+		System.arraycopy(target, end, target, end + inserted, unsorted);
+		for (int i = inserted - 1; i >= 0; i--) {
+			int point = targetStart + insertionPoints[i];
+			System.arraycopy(target, point, target, point + i + 1, end - point);
+			target[point + i] = added.get(i);
+			end = point;
+		}
+		pos += inserted;
+		for (int i = inserted; i < addedCount; i++) {
+			target[pos++] = added.get(i);
+		}
+		return pos;
+	}
+
+	/**
+	 * Mark all of the entries and categories as changed.
+	 */
+	private void refreshAll() {
+		synchronized (changesLock) {
+			changedCategories = null;
+		}
+	}
+
+	/**
+	 * Return the categories whose markers were updated in place since the
+	 * last call, and start recording the changes again.
+	 *
+	 * @return the changed categories, or <code>null</code> if the categories
+	 *         or the entries not in categories changed and everything has to
+	 *         be refreshed
+	 */
+	Collection<MarkerCategory> takeChangedCategories() {
+		synchronized (changesLock) {
+			Collection<MarkerCategory> changed = changedCategories;
+			changedCategories = new HashSet<>();
+			return changed;
+		}
+	}
+
 	/**
 	 * get marker limit to show, if any.
 	 *
@@ -229,15 +526,18 @@ class Markers {
 				builder.getCategoryGroup(), newMarkers.length - 1, monitor);
 		int start = 0;
 		MarkerCategory[] markerCategories = new MarkerCategory[boundaryInfoMap.size()];
+		MarkerGroupingEntry[] groupingEntries = new MarkerGroupingEntry[markerCategories.length];
 		int i = 0;
 		int end = 0;
 		for (Entry<MarkerGroupingEntry, Integer> entry : boundaryInfoMap.entrySet()) {
 			end = entry.getValue();
-			markerCategories[i++] = new MarkerCategory(this, start, end,
+			groupingEntries[i] = entry.getKey();
+			markerCategories[i++] = new MarkerCategory(this, newMarkers, start, end,
 					builder.getCategoryGroup().getMarkerField()
 							.getValue(newMarkers[start]));
 			start = end + 1;
 		}
+		categoryGroups = groupingEntries;
 		return markerCategories;
 	}
 
@@ -318,17 +618,7 @@ class Markers {
 	static Integer[] getMarkerCounts(MarkerEntry[] entries) {
 		int[] ints = new int[] { 0, 0, 0, 0 };
 		for (MarkerEntry entry : entries) {
-			IMarker marker = entry.getMarker();
-			int severity = -1;
-			Object value = null;
-			try {
-				value = marker.getAttribute(IMarker.SEVERITY);
-			} catch (CoreException e) {
-				entry.checkIfMarkerStale();
-			}
-			if (value instanceof Integer) {
-				severity = ((Integer) value).intValue();
-			}
+			int severity = entry.getSeverity();
 			if (severity >= IMarker.SEVERITY_INFO) {
 				ints[severity]++;
 			} else {
@@ -345,6 +635,10 @@ class Markers {
 	 * @return {@link MarkerItem}
 	 */
 	public synchronized MarkerItem getMarkerItem(IMarker marker) {
+		return getMarkerToEntryMap().get(marker);
+	}
+
+	private Map<IMarker, MarkerEntry> getMarkerToEntryMap() {
 		if (markerToEntryMap == null) {
 			markerToEntryMap = new HashMap<>();
 			for (MarkerEntry markerEntry : markerEntryArray) {
@@ -354,7 +648,7 @@ class Markers {
 				}
 			}
 		}
-		return markerToEntryMap.get(marker);
+		return markerToEntryMap;
 	}
 
 	/**
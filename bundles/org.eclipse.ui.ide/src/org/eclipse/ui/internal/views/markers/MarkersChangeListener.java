@@ -14,6 +14,7 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 
@@ -165,6 +166,16 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * @param event
 	 */
 	private void handleMarkerChange(IResourceChangeEvent event) {
+		IMarkerDelta[] markerDeltas = event.findMarkerDeltas(null, true);
+		String[] types = listeningTypes;
+		Collection<IMarker> changed = new ArrayList<>(markerDeltas.length);
+		for (IMarkerDelta markerDelta : markerDeltas) {
+			if (isApplicableType(types, markerDelta.getType())) {
+				changed.add(markerDelta.getMarker());
+			}
+		}
+		// the update applies the changes to the markers it has
+		builder.markersChanged(changed);
 		builder.getUpdateScheduler().scheduleUpdate();
 	}
 
@@ -14,6 +14,8 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.Collection;
+
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Item;
@@ -65,6 +67,22 @@ public class MarkersTreeViewer extends TreeViewer {
 		unmapAllElements();
 	}
 
+	/**
+	 * Refresh the children and the labels of the categories whose markers
+	 * changed, leaving the other items as they are.
+	 *
+	 * @param categories
+	 *            the changed categories
+	 */
+	void refreshCategories(Collection<MarkerCategory> categories) {
+		for (MarkerCategory category : categories) {
+			// Changed markers have new entries, so only the category label has
+			// to be updated
+			refresh(category, false);
+			update(category, null);
+		}
+	}
+
 	@Override
 	protected void doUpdateItem(Item item, Object element) {
 		super.doUpdateItem(item, element);
@@ -15,6 +15,8 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.Collection;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -105,10 +107,16 @@ class UIUpdateJob extends WorkbenchJob {
 				contentProvider.inputChanged(viewer, view.getViewerInput(), clone);
 
 				viewer.getTree().setRedraw(false);
-				viewer.refresh(true);
-				if (!monitor.isCanceled()) {
-					//do not expand if canceled
-					view.reexpandCategories();
+				Collection<MarkerCategory> changedCategories = view.getBuilder().getMarkers().takeChangedCategories();
+				if (changedCategories != null && viewer instanceof MarkersTreeViewer) {
+					// only markers of existing categories changed
+					((MarkersTreeViewer) viewer).refreshCategories(changedCategories);
+				} else {
+					viewer.refresh(true);
+					if (!monitor.isCanceled()) {
+						//do not expand if canceled
+						view.reexpandCategories();
+					}
 				}
 				// clear the pending change flags
 				view.getBuilder().resetChangeFlags();
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (C) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates stack samples of a thread into a call tree, as displayed by a flame graph. Each node
+ * of the tree is a stack frame reached through a particular chain of callers, and records the
+ * time spent in the frame itself (self time) and in the frame and its callees (total time).
+ * <p>
+ * The number of nodes is bounded. Once the limit is reached, samples passing through frames not
+ * yet in the tree are attributed to the deepest frame that is already in the tree.
+ * <p>
+ * The tree is thread-safe. Nodes returned by {@link #getRoot()} must only be read while holding
+ * the lock of the tree.
+ */
+public class CallTree {
+	private static final String ROOT_NAME = "all"; //$NON-NLS-1$
+
+	/**
+	 * A node of the call tree.
+	 */
+	public static class Node {
+		private final String frame;
+		private final Map<String, Node> children = new HashMap<>();
+		private long selfTime;
+		private long totalTime;
+
+		Node(String frame) {
+			this.frame = frame;
+		}
+
+		/**
+		 * Returns the fully qualified method name of the frame.
+		 */
+		public String getFrame() {
+			return frame;
+		}
+
+		/**
+		 * Returns the time in milliseconds during which this frame was at the top of the stack.
+		 */
+		public long getSelfTime() {
+			return selfTime;
+		}
+
+		/**
+		 * Returns the time in milliseconds during which this frame was on the stack.
+		 */
+		public long getTotalTime() {
+			return totalTime;
+		}
+
+		/**
+		 * Returns the frames called by this frame.
+		 */
+		public Collection<Node> getChildren() {
+			return Collections.unmodifiableCollection(children.values());
+		}
+
+		Node getChild(String childFrame) {
+			return children.get(childFrame);
+		}
+	}
+
+	private final int maxNodes;
+	private Node root = new Node(ROOT_NAME);
+	private int nodeCount;
+
+	/**
+	 * Creates an empty call tree.
+	 *
+	 * @param maxNodes the maximum number of nodes in the tree, not counting the root
+	 */
+	public CallTree(int maxNodes) {
+		this.maxNodes = Math.max(maxNodes, 0);
+	}
+
+	/**
+	 * Adds a stack sample to the tree.
+	 *
+	 * @param stackTrace the stack trace, with the most recent call first as returned by
+	 *     {@link Thread#getStackTrace()}
+	 * @param time the time in milliseconds represented by the sample
+	 */
+	public synchronized void addSample(StackTraceElement[] stackTrace, long time) {
+		Node node = root;
+		node.totalTime += time;
+		for (int i = stackTrace.length; --i >= 0;) {
+			String frame = getFrameName(stackTrace[i]);
+			Node child = node.children.get(frame);
+			if (child == null) {
+				if (nodeCount >= maxNodes) {
+					break;
+				}
+				child = new Node(frame);
+				node.children.put(frame, child);
+				nodeCount++;
+			}
+			child.totalTime += time;
+			node = child;
+		}
+		node.selfTime += time;
+	}
+
+	/**
+	 * Returns the root of the tree. Its children are the outermost frames of the samples.
+	 */
+	public synchronized Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the number of nodes in the tree, not counting the root.
+	 */
+	public synchronized int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Removes all samples from the tree.
+	 */
+	public synchronized void clear() {
+		root = new Node(ROOT_NAME);
+		nodeCount = 0;
+	}
+
+	/**
+	 * Writes the tree in the collapsed stack format used by flame graph tools. There is one line
+	 * for every chain of frames with a self time, listing the frames from the outermost to the
+	 * innermost separated by semicolons, followed by a space and the self time in milliseconds.
+	 *
+	 * @param out the destination
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	public synchronized void writeCollapsedStacks(Appendable out) throws IOException {
+		List<String> path = new ArrayList<>();
+		for (Node child : root.children.values()) {
+			writeCollapsedStacks(child, path, out);
+		}
+	}
+
+	private static void writeCollapsedStacks(Node node, List<String> path, Appendable out)
+			throws IOException {
+		path.add(node.frame);
+		if (node.selfTime > 0) {
+			for (int i = 0; i < path.size(); i++) {
+				if (i > 0) {
+					out.append(';');
+				}
+				out.append(path.get(i));
+			}
+			out.append(' ');
+			out.append(Long.toString(node.selfTime));
+			out.append('\n');
+		}
+		for (Node child : node.children.values()) {
+			writeCollapsedStacks(child, path, out);
+		}
+		path.remove(path.size() - 1);
+	}
+
+	private static String getFrameName(StackTraceElement element) {
+		return element.getClassName() + '.' + element.getMethodName();
+	}
+}
@@ -67,14 +67,8 @@ public class DefaultUiFreezeEventLogger implements IUiFreezeEventLogger {
 	@Override
 	public void log(UiFreezeEvent event) {
 		long lastTimestamp = event.getStartTimestamp();
-		String startTime = dateFormat.format(new Date(lastTimestamp));
-
-		String template = event.isStillRunning()
-				? Messages.DefaultUiFreezeEventLogger_ui_freeze_ongoing_header_2
-				: Messages.DefaultUiFreezeEventLogger_ui_freeze_finished_header_2;
 		long duration = event.getTotalDuration();
-		String format = duration >= 100000 ? "%.0f" : duration >= 10 ? "%.2g" : "%.1g"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-		String header = NLS.bind(template, String.format(format, duration / 1000.0), startTime);
+		String header = createHeader(event);
 
 		StackSample[] stackTraceSamples = event.getStackTraceSamples();
 		if (stackTraceSamples.length == 0 && (event.isStarvedAwake() || event.isStarvedAsleep())) {
@@ -118,6 +112,33 @@ public class DefaultUiFreezeEventLogger implements IUiFreezeEventLogger {
 		MonitoringPlugin.getDefault().getLog().log(loggedEvent);
 	}
 
+	/**
+	 * Writes a {@link UiFreezeEvent} with the same stack signature as freezes already logged in
+	 * this session to the log. Only the header of the event is logged, without the stack samples.
+	 *
+	 * @param event the event that caused the UI thread to freeze
+	 * @param earlierOccurrences the number of freezes with the same signature logged before
+	 * @see FreezeDatabase#getSignature(UiFreezeEvent)
+	 */
+	public void logDuplicate(UiFreezeEvent event, int earlierOccurrences) {
+		String header = createHeader(event) +
+				NLS.bind(Messages.DefaultUiFreezeEventLogger_duplicate_freeze_1, earlierOccurrences);
+		int severity = event.getTotalDuration() >= longEventErrorThresholdMillis ?
+				IStatus.ERROR : IStatus.WARNING;
+		MonitoringPlugin.getDefault().getLog().log(
+				new Status(severity, PreferenceConstants.PLUGIN_ID, header));
+	}
+
+	private static String createHeader(UiFreezeEvent event) {
+		String startTime = dateFormat.format(new Date(event.getStartTimestamp()));
+		String template = event.isStillRunning()
+				? Messages.DefaultUiFreezeEventLogger_ui_freeze_ongoing_header_2
+				: Messages.DefaultUiFreezeEventLogger_ui_freeze_finished_header_2;
+		long duration = event.getTotalDuration();
+		String format = duration >= 100000 ? "%.0f" : duration >= 10 ? "%.2g" : "%.1g"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return NLS.bind(template, String.format(format, duration / 1000.0), startTime);
+	}
+
 	private static IStatus createThreadStatus(ThreadInfo thread) {
 		Throwable stackTrace = new StackTrace(thread.getStackTrace());
 		StringBuilder threadText = createThreadMessage(thread);
@@ -49,6 +49,7 @@ import org.eclipse.ui.monitoring.UiFreezeEvent;
  */
 public class EventLoopMonitorThread extends Thread {
 	private static final int EVENT_HISTORY_SIZE = 100;
+	private static final long FREEZE_DATABASE_SAVE_INTERVAL = 60 * 1000; // 1 min
 	private static final String EXTENSION_ID = "org.eclipse.ui.monitoring.logger"; //$NON-NLS-1$
 	private static final String NEW_LINE_AND_BULLET = "\n* "; //$NON-NLS-1$
 	private static final String TRACE_EVENT_MONITOR = "/debug/event_monitor"; //$NON-NLS-1$
@@ -76,10 +77,18 @@ public class EventLoopMonitorThread extends Thread {
 		public int maxStackSamples;
 		/** If true, log freeze events to the Eclipse error log on the local machine. */
 		public boolean logToErrorLog;
+		/** @see org.eclipse.ui.monitoring.PreferenceConstants#AGGREGATE_FREEZES */
+		public boolean aggregateFreezes;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#UI_THREAD_FILTER */
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
 		public String noninterestingThreadFilter;
+		/**
+		 * Interval between two samples of the continuous sampling profiler, or zero to disable it.
+		 */
+		public int continuousSamplingInterval;
+		/** Maximum number of nodes in the call tree of the continuous sampling profiler. */
+		public int continuousSamplingMaxNodes;
 
 		/**
 		 * Checks if the values of parameters for UI responsiveness monitoring are valid.
@@ -358,11 +367,14 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final FreezeDatabase freezeDatabase;
+	private long freezeDatabaseSaveTime;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
 	private boolean dumpLockedSynchronizers;
 	private long monitoringThreadId;
+	private final SamplingProfiler samplingProfiler;
 
 	/**
 	 * Initializes the static state of the monitoring thread.
@@ -396,6 +408,14 @@ public class EventLoopMonitorThread extends Thread {
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
 		sleepMonitor = new Object();
+		freezeDatabase =
+				args.aggregateFreezes ? MonitoringPlugin.getDefault().getFreezeDatabase() : null;
+		if (args.continuousSamplingInterval > 0) {
+			samplingProfiler = new SamplingProfiler(uiThreadId, () -> eventStartOrResumeTime != 0,
+					args.continuousSamplingInterval, args.continuousSamplingMaxNodes);
+		} else {
+			samplingProfiler = null;
+		}
 	}
 
 	/**
@@ -403,6 +423,10 @@ public class EventLoopMonitorThread extends Thread {
 	 */
 	public void shutdown() throws SWTException {
 		cancelled.set(true);
+		if (samplingProfiler != null) {
+			samplingProfiler.shutdown();
+			samplingProfiler.exportCallTree();
+		}
 		if (!display.isDisposed()) {
 			display.removeListener(SWT.PreEvent, eventLoopState);
 			display.removeListener(SWT.PostEvent, eventLoopState);
@@ -412,6 +436,14 @@ public class EventLoopMonitorThread extends Thread {
 		wakeUp();
 	}
 
+	/**
+	 * Returns the continuous sampling profiler of the UI thread, or {@code null} if continuous
+	 * sampling is disabled.
+	 */
+	public SamplingProfiler getSamplingProfiler() {
+		return samplingProfiler;
+	}
+
 	/**
 	 * For testing only.
 	 */
@@ -491,6 +523,10 @@ public class EventLoopMonitorThread extends Thread {
 		// Register for events
 		display.asyncExec(() -> registerDisplayListeners());
 
+		if (samplingProfiler != null && !cancelled.get()) {
+			samplingProfiler.start();
+		}
+
 		long currTime = getTimestamp();
 
 		while (!cancelled.get()) {
@@ -779,8 +815,23 @@ public class EventLoopMonitorThread extends Thread {
 			tracer.trace("Logging " + event + "Prior events:\n" + eventHistory.extractAndClear()); //$NON-NLS-1$//$NON-NLS-2$
 		}
 
+		FreezeDatabase.Entry statistics = null;
+		// Ongoing freezes are recorded when they finish.
+		if (freezeDatabase != null && !event.isStillRunning()) {
+			statistics = freezeDatabase.record(event);
+			long currTime = getTimestamp();
+			if (currTime - freezeDatabaseSaveTime >= FREEZE_DATABASE_SAVE_INTERVAL) {
+				freezeDatabase.save();
+				freezeDatabaseSaveTime = currTime;
+			}
+		}
+
 		if (logToErrorLog) {
-			defaultLogger.log(event);
+			if (statistics != null && statistics.getSessionCount() > 1) {
+				defaultLogger.logDuplicate(event, statistics.getSessionCount() - 1);
+			} else {
+				defaultLogger.log(event);
+			}
 		}
 
 		for (int i = 0; i < externalLoggers.size(); i++) {
@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright (C) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+
+/**
+ * Groups UI freezes by a normalized signature of the stack of the UI thread and keeps statistics
+ * for each group: the number of freezes, their total, median and maximum duration, and when the
+ * group was first and last seen. The statistics are stored in a compact binary file and are
+ * accumulated across sessions.
+ * <p>
+ * The signature of a freeze consists of the innermost {@link #MAX_SIGNATURE_FRAMES} frames of
+ * the part of the UI thread stack shared by all its samples, that is, of the code that was
+ * running during the whole freeze. Line numbers and the generated parts of lambda names are
+ * ignored, so that the signature is stable across sessions and minor code changes.
+ * <p>
+ * This class is thread-safe.
+ */
+public class FreezeDatabase {
+	/** The name of the database file in the state location of the plug-in. */
+	public static final String FILE_NAME = "ui_freezes.dat"; //$NON-NLS-1$
+	/** The maximum number of frames in a signature. */
+	public static final int MAX_SIGNATURE_FRAMES = 16;
+	/** The maximum number of signatures kept. The least recently seen ones are dropped first. */
+	public static final int MAX_ENTRIES = 1000;
+	/** The number of most recent durations the median duration is computed from. */
+	public static final int MEDIAN_WINDOW = 31;
+
+	private static final int MAGIC = 0x55494644; // "UIFD"
+	private static final int FORMAT_VERSION = 1;
+
+	private static final Pattern LAMBDA_CLASS = Pattern.compile("\\$\\$Lambda\\$.*"); //$NON-NLS-1$
+	private static final Pattern LAMBDA_METHOD = Pattern.compile("(lambda\\$.*\\$)\\d+"); //$NON-NLS-1$
+
+	/**
+	 * Statistics of the freezes sharing a signature. Instances are snapshots and are not updated
+	 * when more freezes are recorded.
+	 */
+	public static class Entry {
+		private final String signature;
+		private int count;
+		private long totalDuration;
+		private long maxDuration;
+		private long firstSeen;
+		private long lastSeen;
+		/** Ring buffer of the most recent durations. */
+		private int[] recentDurations = new int[MEDIAN_WINDOW];
+		private int numRecentDurations;
+		/** The number of freezes recorded in the current session. */
+		private int sessionCount;
+
+		Entry(String signature) {
+			this.signature = signature;
+		}
+
+		Entry(Entry other) {
+			this.signature = other.signature;
+			this.count = other.count;
+			this.totalDuration = other.totalDuration;
+			this.maxDuration = other.maxDuration;
+			this.firstSeen = other.firstSeen;
+			this.lastSeen = other.lastSeen;
+			this.recentDurations = other.recentDurations.clone();
+			this.numRecentDurations = other.numRecentDurations;
+			this.sessionCount = other.sessionCount;
+		}
+
+		void add(long start, long duration) {
+			if (count == 0 || start < firstSeen) {
+				firstSeen = start;
+			}
+			lastSeen = Math.max(lastSeen, start);
+			count++;
+			sessionCount++;
+			totalDuration += duration;
+			maxDuration = Math.max(maxDuration, duration);
+			recentDurations[count % MEDIAN_WINDOW] = (int) Math.min(duration, Integer.MAX_VALUE);
+			numRecentDurations = Math.min(numRecentDurations + 1, MEDIAN_WINDOW);
+		}
+
+		/**
+		 * Returns the i-th most recent duration, starting at 0.
+		 */
+		int getRecentDuration(int i) {
+			return recentDurations[(count - i) % MEDIAN_WINDOW];
+		}
+
+		void setRecentDuration(int i, int duration) {
+			recentDurations[(count - i) % MEDIAN_WINDOW] = duration;
+		}
+
+		/**
+		 * Returns the frames of the signature, innermost first, separated by new lines.
+		 */
+		public String getSignature() {
+			return signature;
+		}
+
+		/** Returns the number of freezes. */
+		public int getCount() {
+			return count;
+		}
+
+		/** Returns the number of freezes recorded in the current session. */
+		public int getSessionCount() {
+			return sessionCount;
+		}
+
+		/** Returns the total duration of the freezes in milliseconds. */
+		public long getTotalDuration() {
+			return totalDuration;
+		}
+
+		/** Returns the duration of the longest freeze in milliseconds. */
+		public long getMaxDuration() {
+			return maxDuration;
+		}
+
+		/**
+		 * Returns the median duration in milliseconds of the last {@link #MEDIAN_WINDOW}
+		 * freezes.
+		 */
+		public long getMedianDuration() {
+			if (numRecentDurations == 0) {
+				return 0;
+			}
+			int[] durations = new int[numRecentDurations];
+			for (int i = 0; i < numRecentDurations; i++) {
+				durations[i] = getRecentDuration(i);
+			}
+			Arrays.sort(durations);
+			return durations[durations.length / 2];
+		}
+
+		/** Returns the start time of the first freeze in milliseconds since the epoch. */
+		public long getFirstSeen() {
+			return firstSeen;
+		}
+
+		/** Returns the start time of the last freeze in milliseconds since the epoch. */
+		public long getLastSeen() {
+			return lastSeen;
+		}
+
+		@Override
+		public String toString() {
+			return count + " freezes, " + totalDuration + "ms total, " + maxDuration //$NON-NLS-1$ //$NON-NLS-2$
+					+ "ms max:\n" + signature; //$NON-NLS-1$
+		}
+	}
+
+	private final File file;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private boolean dirty;
+
+	/**
+	 * Creates a database backed by the given file and loads the statistics stored in it.
+	 *
+	 * @param file the file, or {@code null} to keep the statistics in memory only
+	 */
+	public FreezeDatabase(File file) {
+		this.file = file;
+		if (file != null && file.isFile()) {
+			try {
+				load();
+			} catch (IOException e) {
+				entries.clear();
+				MonitoringPlugin.logError(NLS.bind(Messages.FreezeDatabase_read_error_1, file), e);
+			}
+		}
+	}
+
+	/**
+	 * Computes the signature of the given freeze.
+	 *
+	 * @return the signature, or {@code null} if the event has no stack samples
+	 */
+	public static String getSignature(UiFreezeEvent event) {
+		StackSample[] samples = event.getStackTraceSamples();
+		if (samples.length == 0) {
+			return null;
+		}
+		// The first thread of each sample is the UI thread.
+		StackTraceElement[] stack = samples[0].getStackTraces()[0].getStackTrace();
+		int common = stack.length; // Number of outermost frames shared by all samples.
+		for (int i = 1; i < samples.length && common > 0; i++) {
+			ThreadInfo thread = samples[i].getStackTraces()[0];
+			StackTraceElement[] other = thread.getStackTrace();
+			int n = 0;
+			while (n < common && n < other.length
+					&& isSameFrame(stack[stack.length - 1 - n], other[other.length - 1 - n])) {
+				n++;
+			}
+			common = n;
+		}
+		if (common == 0) {
+			common = stack.length; // The samples have nothing in common, use the first one.
+		}
+		if (common == 0) {
+			return null;
+		}
+
+		StringBuilder signature = new StringBuilder();
+		int start = stack.length - common;
+		int end = Math.min(stack.length, start + MAX_SIGNATURE_FRAMES);
+		for (int i = start; i < end; i++) {
+			if (i > start) {
+				signature.append('\n');
+			}
+			signature.append(normalizeClassName(stack[i].getClassName()));
+			signature.append('.');
+			signature.append(normalizeMethodName(stack[i].getMethodName()));
+		}
+		return signature.toString();
+	}
+
+	private static boolean isSameFrame(StackTraceElement a, StackTraceElement b) {
+		return a.getMethodName().equals(b.getMethodName()) && a.getClassName().equals(b.getClassName());
+	}
+
+	private static String normalizeClassName(String className) {
+		int pos = className.indexOf("$$Lambda$"); //$NON-NLS-1$
+		return pos < 0 ? className : LAMBDA_CLASS.matcher(className).replaceFirst("\\$\\$Lambda"); //$NON-NLS-1$
+	}
+
+	private static String normalizeMethodName(String methodName) {
+		return methodName.startsWith("lambda$") ? //$NON-NLS-1$
+				LAMBDA_METHOD.matcher(methodName).replaceFirst("$1") : methodName; //$NON-NLS-1$
+	}
+
+	/**
+	 * Adds a freeze to the statistics of its signature.
+	 *
+	 * @param event the freeze
+	 * @return a snapshot of the updated statistics, or {@code null} if the event has no stack
+	 *     samples
+	 */
+	public Entry record(UiFreezeEvent event) {
+		String signature = getSignature(event);
+		if (signature == null) {
+			return null;
+		}
+		return record(signature, event.getStartTimestamp(), event.getTotalDuration());
+	}
+
+	synchronized Entry record(String signature, long start, long duration) {
+		Entry entry = entries.get(signature);
+		if (entry == null) {
+			if (entries.size() >= MAX_ENTRIES) {
+				evictLeastRecentlySeen();
+			}
+			entry = new Entry(signature);
+			entries.put(signature, entry);
+		}
+		entry.add(start, duration);
+		dirty = true;
+		return new Entry(entry);
+	}
+
+	private void evictLeastRecentlySeen() {
+		Entry oldest = null;
+		for (Entry entry : entries.values()) {
+			if (oldest == null || entry.lastSeen < oldest.lastSeen) {
+				oldest = entry;
+			}
+		}
+		if (oldest != null) {
+			entries.remove(oldest.signature);
+		}
+	}
+
+	/**
+	 * Returns the signatures with the largest total freeze duration.
+	 *
+	 * @param limit the maximum number of entries to return
+	 * @return snapshots of the statistics, sorted by decreasing total duration
+	 */
+	public List<Entry> getTopOffenders(int limit) {
+		return getTopOffenders(limit,
+				Comparator.comparingLong(Entry::getTotalDuration).reversed());
+	}
+
+	/**
+	 * Returns the first entries in the given order.
+	 *
+	 * @param limit the maximum number of entries to return
+	 * @param order the order of the entries
+	 * @return snapshots of the statistics
+	 */
+	public synchronized List<Entry> getTopOffenders(int limit, Comparator<Entry> order) {
+		List<Entry> result = new ArrayList<>(entries.size());
+		for (Entry entry : entries.values()) {
+			result.add(new Entry(entry));
+		}
+		Collections.sort(result, order);
+		return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+	}
+
+	/**
+	 * Returns the number of distinct signatures.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Removes all statistics, including the ones stored in the file.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		dirty = true;
+		save();
+	}
+
+	/**
+	 * Writes the statistics to the file if they have changed since they were last written.
+	 */
+	public synchronized void save() {
+		if (!dirty || file == null) {
+			return;
+		}
+		try (DataOutputStream out =
+				new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(entries.size());
+			for (Entry entry : entries.values()) {
+				out.writeUTF(entry.signature);
+				out.writeInt(entry.count);
+				out.writeLong(entry.totalDuration);
+				out.writeLong(entry.maxDuration);
+				out.writeLong(entry.firstSeen);
+				out.writeLong(entry.lastSeen);
+				out.writeByte(entry.numRecentDurations);
+				for (int i = 0; i < entry.numRecentDurations; i++) {
+					out.writeInt(entry.getRecentDuration(i));
+				}
+			}
+			dirty = false;
+		} catch (IOException e) {
+			MonitoringPlugin.logError(NLS.bind(Messages.FreezeDatabase_write_error_1, file), e);
+		}
+	}
+
+	private void load() throws IOException {
+		try (DataInputStream in =
+				new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return; // Unknown format, start over.
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				Entry entry = new Entry(in.readUTF());
+				entry.count = in.readInt();
+				entry.totalDuration = in.readLong();
+				entry.maxDuration = in.readLong();
+				entry.firstSeen = in.readLong();
+				entry.lastSeen = in.readLong();
+				entry.numRecentDurations = Math.min(in.readByte(), MEDIAN_WINDOW);
+				// The durations were written from the most recent one backwards.
+				for (int j = 0; j < entry.numRecentDurations; j++) {
+					entry.setRecentDuration(j, in.readInt());
+				}
+				entries.put(entry.signature, entry);
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ package org.eclipse.ui.internal.monitoring;
 import org.eclipse.osgi.util.NLS;
 
 final class Messages extends NLS {
+	public static String DefaultUiFreezeEventLogger_duplicate_freeze_1;
 	public static String DefaultUiFreezeEventLogger_holding_1;
 	public static String DefaultUiFreezeEventLogger_sample_header_2;
 	public static String DefaultUiFreezeEventLogger_stack_trace_header;
@@ -41,7 +42,10 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
 	public static String FilterHandler_missing_thread_error;
+	public static String FreezeDatabase_read_error_1;
+	public static String FreezeDatabase_write_error_1;
 	public static String MonitoringStartup_initialization_error;
+	public static String SamplingProfiler_export_error_1;
 
 	private Messages() {
 		// Do not instantiate.
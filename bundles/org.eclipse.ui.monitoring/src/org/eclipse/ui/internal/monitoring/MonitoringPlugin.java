@@ -26,6 +26,7 @@ import org.osgi.framework.BundleContext;
  */
 public class MonitoringPlugin extends AbstractUIPlugin {
 	private static MonitoringPlugin plugin;
+	private FreezeDatabase freezeDatabase;
 
 	@Override
 	public void start(BundleContext context) throws Exception {
@@ -35,6 +36,12 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		synchronized (this) {
+			if (freezeDatabase != null) {
+				freezeDatabase.save();
+				freezeDatabase = null;
+			}
+		}
 		plugin = null;
 		super.stop(context);
 	}
@@ -43,6 +50,17 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the database of UI freezes, which is stored in the state location of the plug-in.
+	 */
+	public synchronized FreezeDatabase getFreezeDatabase() {
+		if (freezeDatabase == null) {
+			freezeDatabase =
+					new FreezeDatabase(getStateLocation().append(FreezeDatabase.FILE_NAME).toFile());
+		}
+		return freezeDatabase;
+	}
+
 	public static void logError(String message, Throwable e) {
 		log(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID, message, e));
 	}
@@ -82,6 +82,11 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		args.aggregateFreezes = preferences.getBoolean(PreferenceConstants.AGGREGATE_FREEZES);
+		args.continuousSamplingInterval =
+				preferences.getInt(PreferenceConstants.CONTINUOUS_SAMPLING_INTERVAL_MILLIS);
+		args.continuousSamplingMaxNodes =
+				preferences.getInt(PreferenceConstants.CONTINUOUS_SAMPLING_MAX_NODES);
 
 		return args;
 	}
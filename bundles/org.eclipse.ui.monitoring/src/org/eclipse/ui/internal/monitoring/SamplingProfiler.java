@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (C) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Continuously samples the stack of the UI thread while it is dispatching events and aggregates
+ * the samples into a {@link CallTree}. Unlike the freeze samples collected by
+ * {@link EventLoopMonitorThread}, which are only logged for long events, the call tree shows
+ * where the UI thread spends its time overall, including in many short events.
+ * <p>
+ * To keep the overhead low, the UI thread is not sampled while it is idle, and only the stack of
+ * the UI thread is captured, without lock information.
+ */
+public class SamplingProfiler extends Thread {
+	/** The name of the file the call tree is exported to in the state location of the plug-in. */
+	public static final String PROFILE_FILE_NAME = "ui_thread_profile.txt"; //$NON-NLS-1$
+
+	/* NOTE: All time-related values in this class are in milliseconds. */
+
+	private final long uiThreadId;
+	private final BooleanSupplier uiThreadBusy;
+	private final long samplingInterval;
+	private final CallTree callTree;
+	private final AtomicBoolean cancelled = new AtomicBoolean(false);
+	private long sampleCount;
+
+	/**
+	 * Creates a profiler. The profiler starts sampling when the thread is started.
+	 *
+	 * @param uiThreadId the id of the UI thread
+	 * @param uiThreadBusy tells whether the UI thread is currently dispatching an event
+	 * @param samplingInterval the time between two samples
+	 * @param maxNodes the maximum number of nodes in the call tree
+	 */
+	public SamplingProfiler(long uiThreadId, BooleanSupplier uiThreadBusy, long samplingInterval,
+			int maxNodes) {
+		super("UI Thread Sampling Profiler"); //$NON-NLS-1$
+		setDaemon(true);
+		this.uiThreadId = uiThreadId;
+		this.uiThreadBusy = uiThreadBusy;
+		this.samplingInterval = Math.max(samplingInterval, 1);
+		this.callTree = new CallTree(maxNodes);
+	}
+
+	/**
+	 * Returns the call tree aggregating the samples collected so far.
+	 */
+	public CallTree getCallTree() {
+		return callTree;
+	}
+
+	/**
+	 * Returns the number of samples collected so far.
+	 */
+	public synchronized long getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Stops sampling. Can be called on any thread.
+	 */
+	public void shutdown() {
+		cancelled.set(true);
+		interrupt();
+	}
+
+	@Override
+	public void run() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		long lastSampleTime = getTimestamp();
+		while (!cancelled.get()) {
+			try {
+				Thread.sleep(samplingInterval);
+			} catch (InterruptedException e) {
+				continue; // Check whether the profiler was shut down.
+			}
+			long currTime = getTimestamp();
+			// Don't attribute more than two intervals to a sample if this thread was starved.
+			long weight = Math.min(currTime - lastSampleTime, 2 * samplingInterval);
+			lastSampleTime = currTime;
+			if (!uiThreadBusy.getAsBoolean()) {
+				continue;
+			}
+			ThreadInfo info = threadMXBean.getThreadInfo(uiThreadId, Integer.MAX_VALUE);
+			if (info == null) {
+				return; // The UI thread has terminated.
+			}
+			callTree.addSample(info.getStackTrace(), weight);
+			synchronized (this) {
+				sampleCount++;
+			}
+		}
+	}
+
+	/**
+	 * Writes the call tree in the collapsed stack format to {@link #PROFILE_FILE_NAME} in the
+	 * state location of the plug-in, replacing the previous profile.
+	 */
+	public void exportCallTree() {
+		MonitoringPlugin plugin = MonitoringPlugin.getDefault();
+		if (plugin == null || callTree.getNodeCount() == 0) {
+			return;
+		}
+		File file = plugin.getStateLocation().append(PROFILE_FILE_NAME).toFile();
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()),
+				StandardCharsets.UTF_8)) {
+			callTree.writeCollapsedStacks(writer);
+		} catch (IOException e) {
+			MonitoringPlugin.logError(
+					NLS.bind(Messages.SamplingProfiler_export_error_1, file), e);
+		}
+	}
+
+	private static long getTimestamp() {
+		return System.nanoTime() / 1000000;
+	}
+}
@@ -34,6 +34,9 @@ public class MonitoringPreferenceInitializer extends AbstractPreferenceInitializ
 		store.setDefault(PreferenceConstants.DEADLOCK_REPORTING_THRESHOLD_MILLIS,
 				5 * 60 * 1000); // 5 min
 		store.setDefault(PreferenceConstants.LOG_TO_ERROR_LOG, true);
+		store.setDefault(PreferenceConstants.AGGREGATE_FREEZES, true);
+		store.setDefault(PreferenceConstants.CONTINUOUS_SAMPLING_INTERVAL_MILLIS, 0); // Disabled
+		store.setDefault(PreferenceConstants.CONTINUOUS_SAMPLING_MAX_NODES, 20000);
 		store.setDefault(PreferenceConstants.UI_THREAD_FILTER, ""); //$NON-NLS-1$
 		store.setDefault(PreferenceConstants.NONINTERESTING_THREAD_FILTER,
 				"java.*" //$NON-NLS-1$
@@ -132,6 +132,8 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 				Messages.MonitoringPreferencePage_enable_monitoring_label, block);
 		createBooleanEditor(PreferenceConstants.LOG_TO_ERROR_LOG,
 				Messages.MonitoringPreferencePage_log_freeze_events_label, block);
+		createBooleanEditor(PreferenceConstants.AGGREGATE_FREEZES,
+				Messages.MonitoringPreferencePage_aggregate_freezes_label, block);
 
 		longEventWarningThreshold = createIntegerEditor(
 				PreferenceConstants.LONG_EVENT_WARNING_THRESHOLD_MILLIS,
@@ -148,6 +150,10 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		createIntegerEditor(
 				PreferenceConstants.MAX_STACK_SAMPLES,
 				Messages.MonitoringPreferencePage_max_stack_samples_label, block, 0, 100);
+		createIntegerEditor(
+				PreferenceConstants.CONTINUOUS_SAMPLING_INTERVAL_MILLIS,
+				Messages.MonitoringPreferencePage_continuous_sampling_interval_label, block,
+				0, 1000);
 		GridLayoutFactory.fillDefaults()
 				.numColumns(2)
 				.spacing(LayoutConstants.getSpacing())
@@ -46,6 +46,15 @@ public class PreferenceConstants {
 	 * If true, log freeze events to the Eclipse error log.
 	 */
 	public static final String LOG_TO_ERROR_LOG = "log_to_error_log"; //$NON-NLS-1$
+	/**
+	 * If true, UI freezes are grouped by a normalized signature of the stack traces of the UI
+	 * thread, and statistics of each group are kept across sessions in the state location of
+	 * the plug-in. A freeze with the same signature as a freeze already logged in the current
+	 * session is logged to the Eclipse error log without its stack traces.
+	 *
+	 * @since 1.2
+	 */
+	public static final String AGGREGATE_FREEZES = "aggregate_freezes"; //$NON-NLS-1$
 	/**
 	 * Comma separated fully qualified method names of stack frames. The names may contain
 	 * '*' and '?' wildcard characters. A UI freeze is not logged if any of the stack traces
@@ -58,6 +67,21 @@ public class PreferenceConstants {
 	 * message if all stack frames of the thread match the filter.
 	 */
 	public static final String NONINTERESTING_THREAD_FILTER = "noninteresting_thread_filter"; //$NON-NLS-1$
+	/**
+	 * Interval in milliseconds between two samples of the UI thread taken by the continuous
+	 * sampling profiler, or zero to disable the profiler. The samples are aggregated into a call
+	 * tree that is written in collapsed stack format to the state location of the plug-in when
+	 * the workbench shuts down.
+	 *
+	 * @since 1.2
+	 */
+	public static final String CONTINUOUS_SAMPLING_INTERVAL_MILLIS = "continuous_sampling_interval"; //$NON-NLS-1$
+	/**
+	 * Maximum number of nodes of the call tree built by the continuous sampling profiler.
+	 *
+	 * @since 1.2
+	 */
+	public static final String CONTINUOUS_SAMPLING_MAX_NODES = "continuous_sampling_max_nodes"; //$NON-NLS-1$
 
 	private PreferenceConstants() {}
 }
@@ -139,6 +139,9 @@ public class CommonNavigatorMessages extends NLS {
 	/** */
 	public static String LoggingJob;
 
+	/** */
+	public static String DeferredChildrenManager_Fetching_children_of_0_;
+
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, CommonNavigatorMessages.class);
@@ -113,10 +113,13 @@ public class ContributorTrackingSet extends LinkedHashSet {
 	 */
 	public void setContents(Object[] contents) {
 		super.clear();
-		if(contents != null)
+		if (contents != null) {
+			if (contributor != null) {
+				contentService.rememberContributions(contributor, firstClassContributor, contents);
+			}
 			for (Object content : contents)
-				add(content);
-
+				super.add(content);
+		}
 	}
 
 	@Override
@@ -0,0 +1,337 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.navigator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ITreeViewerListener;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
+
+/**
+ * Computes the children of the elements of a tree viewer in background jobs
+ * for a {@link NavigatorContentServiceContentProvider}, in the spirit of the
+ * {@link org.eclipse.ui.progress.DeferredTreeContentManager}, but through the
+ * content extensions and their pipeline.
+ * <p>
+ * The first time the children of an element are asked for, a "Pending..."
+ * placeholder is returned and the children are added to the viewer in batches
+ * as the extensions provide them, so that they go through the sorter and the
+ * filters of the viewer. Until all of them are fetched, the children added so
+ * far and the placeholder are returned when they are asked for again. When
+ * the children of an element that were fetched before are asked for again,
+ * the known children are returned while the children are fetched again, and
+ * the element is refreshed once all of them are known. Fetching the children
+ * of an element is cancelled when the element is collapsed.
+ * </p>
+ * <p>
+ * Apart from the jobs, the manager is only used from the UI thread.
+ * </p>
+ *
+ * @since 3.8
+ */
+public class DeferredChildrenManager {
+
+	private static final int BATCH_SIZE = 100;
+
+	private final NavigatorContentServiceContentProvider contentProvider;
+
+	private final AbstractTreeViewer viewer;
+
+	private final Display display;
+
+	/* The running fetch of each parent */
+	private final Map<Object, Fetch> fetches = new HashMap<>();
+
+	/* The children of the parents that were fetched completely */
+	private final Map<Object, Object[]> fetchedChildren = new HashMap<>();
+
+	/* The parents whose fetched children are newer than the ones shown */
+	private final Set<Object> freshParents = new HashSet<>();
+
+	/* Set while the viewer is refreshed with fetched children */
+	private boolean applying;
+
+	private final ITreeViewerListener collapseListener = new ITreeViewerListener() {
+		@Override
+		public void treeCollapsed(TreeExpansionEvent event) {
+			collapsed(event.getElement());
+		}
+
+		@Override
+		public void treeExpanded(TreeExpansionEvent event) {
+			// The children are asked for when needed
+		}
+	};
+
+	/**
+	 * Fetches the children of a parent through the content extensions.
+	 */
+	final class Fetch extends Job {
+
+		private final Object parent;
+
+		private final Object parentOrPath;
+
+		private final Set enabledExtensions;
+
+		private final PendingUpdateAdapter placeholder;
+
+		/* The children added to the viewer so far, used in the UI thread */
+		private final List<Object> shown = new ArrayList<>();
+
+		private volatile boolean canceled;
+
+		Fetch(String name, Object aParent, Object aParentOrPath, Set theEnabledExtensions,
+				PendingUpdateAdapter aPlaceholder) {
+			super(name);
+			parent = aParent;
+			parentOrPath = aParentOrPath;
+			enabledExtensions = theEnabledExtensions;
+			placeholder = aPlaceholder;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			final Object[] children = contentProvider.internalGetChildren(parent, parentOrPath, enabledExtensions,
+					this);
+			if (isCanceled() || monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			display.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					done(Fetch.this, children);
+				}
+			});
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		protected void canceling() {
+			canceled = true;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == DeferredChildrenManager.this;
+		}
+
+		/**
+		 * @return True if the children are not wanted anymore.
+		 */
+		boolean isCanceled() {
+			return canceled;
+		}
+
+		/**
+		 * Shows the children of one of the extensions of the parent, called
+		 * in the job as soon as they are known.
+		 *
+		 * @param children
+		 *            The children not provided by other extensions yet
+		 */
+		void addChildren(Object[] children) {
+			if (placeholder == null) {
+				// The known children are shown until all of them are fetched
+				return;
+			}
+			for (int start = 0; start < children.length && !isCanceled(); start += BATCH_SIZE) {
+				final Object[] batch = Arrays.copyOfRange(children, start,
+						Math.min(start + BATCH_SIZE, children.length));
+				display.asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						if (isCurrent(Fetch.this)) {
+							shown.addAll(Arrays.asList(batch));
+							addToViewer(parentOrPath, batch);
+						}
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * @param aContentProvider
+	 *            The content provider to compute the children with
+	 * @param aViewer
+	 *            The viewer showing the children
+	 */
+	public DeferredChildrenManager(NavigatorContentServiceContentProvider aContentProvider,
+			AbstractTreeViewer aViewer) {
+		contentProvider = aContentProvider;
+		viewer = aViewer;
+		display = aViewer.getControl().getDisplay();
+		viewer.addTreeListener(collapseListener);
+	}
+
+	/**
+	 * Returns the children of the parent that are known, or a placeholder,
+	 * and fetches the children in a job.
+	 *
+	 * @param aParentElement
+	 *            The parent element
+	 * @param aParentElementOrPath
+	 *            The parent element or its path
+	 * @param theEnabledExtensions
+	 *            The extensions providing the children of the parent
+	 * @return The children to show until all of them are fetched
+	 */
+	Object[] getChildren(Object aParentElement, Object aParentElementOrPath, Set theEnabledExtensions) {
+		Object[] children = fetchedChildren.get(aParentElement);
+		if (children != null) {
+			if (!freshParents.remove(aParentElement) && !applying && !fetches.containsKey(aParentElement)) {
+				startFetch(aParentElement, aParentElementOrPath, theEnabledExtensions, null);
+			}
+			return children;
+		}
+		Fetch fetch = fetches.get(aParentElement);
+		if (fetch != null && fetch.placeholder != null) {
+			// Keep showing what was fetched so far, and keep fetching the rest
+			List<Object> shown = new ArrayList<>(fetch.shown);
+			shown.add(fetch.placeholder);
+			return shown.toArray();
+		}
+		PendingUpdateAdapter placeholder = new PendingUpdateAdapter();
+		startFetch(aParentElement, aParentElementOrPath, theEnabledExtensions, placeholder);
+		return new Object[] { placeholder };
+	}
+
+	private void startFetch(Object aParentElement, Object aParentElementOrPath, Set theEnabledExtensions,
+			PendingUpdateAdapter aPlaceholder) {
+		Fetch previous = fetches.remove(aParentElement);
+		if (previous != null) {
+			previous.cancel();
+		}
+		String label = contentProvider.getContentService().createCommonLabelProvider().getText(aParentElement);
+		Fetch fetch = new Fetch(NLS.bind(CommonNavigatorMessages.DeferredChildrenManager_Fetching_children_of_0_,
+				label), aParentElement, aParentElementOrPath, theEnabledExtensions, aPlaceholder);
+		fetches.put(aParentElement, fetch);
+		fetch.schedule();
+	}
+
+	private boolean isCurrent(Fetch aFetch) {
+		return fetches.get(aFetch.parent) == aFetch && !viewer.getControl().isDisposed();
+	}
+
+	private void done(Fetch aFetch, Object[] children) {
+		if (!isCurrent(aFetch)) {
+			return;
+		}
+		fetches.remove(aFetch.parent);
+		fetchedChildren.put(aFetch.parent, children);
+		if (aFetch.placeholder != null) {
+			// The children were added in batches
+			removeFromViewer(aFetch.placeholder);
+			return;
+		}
+		freshParents.add(aFetch.parent);
+		applying = true;
+		try {
+			refreshInViewer(aFetch.parent);
+		} finally {
+			applying = false;
+			// In case the parent is not in the viewer anymore
+			freshParents.remove(aFetch.parent);
+		}
+	}
+
+	private void collapsed(final Object anElement) {
+		fetchedChildren.remove(anElement);
+		Fetch fetch = fetches.remove(anElement);
+		if (fetch == null) {
+			return;
+		}
+		fetch.cancel();
+		if (fetch.placeholder != null) {
+			// Once collapsed, drop the children fetched so far so that they
+			// are asked for again on the next expansion
+			display.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					if (!viewer.getControl().isDisposed()) {
+						refreshInViewer(anElement);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Adds the fetched children of the parent to the viewer. The children
+	 * were already passed through the pipeline of the content extensions.
+	 *
+	 * @param aParentElementOrPath
+	 *            The parent element or its path
+	 * @param children
+	 *            The children to add
+	 */
+	protected void addToViewer(Object aParentElementOrPath, Object[] children) {
+		viewer.add(aParentElementOrPath, children);
+	}
+
+	/**
+	 * Removes the placeholder of a parent from the viewer once all of its
+	 * children are shown.
+	 *
+	 * @param aPlaceholder
+	 *            The placeholder to remove
+	 */
+	protected void removeFromViewer(Object aPlaceholder) {
+		viewer.remove(aPlaceholder);
+	}
+
+	/**
+	 * Refreshes the parent in the viewer, to show its fetched children.
+	 *
+	 * @param aParentElement
+	 *            The parent element
+	 */
+	protected void refreshInViewer(Object aParentElement) {
+		viewer.refresh(aParentElement, false);
+	}
+
+	/**
+	 * Cancels all of the fetches and forgets the fetched children, when the
+	 * input of the viewer changes.
+	 */
+	public void reset() {
+		Job.getJobManager().cancel(this);
+		fetches.clear();
+		fetchedChildren.clear();
+		freshParents.clear();
+	}
+
+	/**
+	 * Cancels all of the fetches and stops listening to the viewer.
+	 */
+	public void dispose() {
+		reset();
+		viewer.removeTreeListener(collapseListener);
+	}
+}
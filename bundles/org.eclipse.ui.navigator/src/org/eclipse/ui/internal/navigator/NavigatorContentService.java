@@ -686,6 +686,25 @@ public class NavigatorContentService implements IExtensionActivationListener,
 		}
 	}
 
+	/**
+	 * Remember the contribution of all of the elements, taking the lock once
+	 * for all of them rather than once per element.
+	 *
+	 * @param source
+	 * @param firstClassSource
+	 * @param elements
+	 * @see #rememberContribution(INavigatorContentDescriptor,
+	 *      INavigatorContentDescriptor, Object)
+	 */
+	public void rememberContributions(INavigatorContentDescriptor source,
+			INavigatorContentDescriptor firstClassSource, Object[] elements) {
+		synchronized (this) {
+			for (Object element : elements) {
+				rememberContribution(source, firstClassSource, element);
+			}
+		}
+	}
+
 	/**
 	 * Forget about the specified element
 	 *
@@ -56,6 +56,12 @@ import org.eclipse.ui.navigator.OverridePolicy;
  * functionality (filters, sorting, etc) may choose to use this class, in effect
  * using an extensible, aggregating, delegate content provider.
  * </p>
+ * <p>
+ * The extensions are resolved for each element the viewer asks about. The
+ * children of a parent are not resolved together: when the expressions of the
+ * extensions only test the type of the elements, the descriptors are cached
+ * per type, otherwise each child has to be evaluated anyway.
+ * </p>
  *
  * @see org.eclipse.ui.internal.navigator.NavigatorContentService
  * @see org.eclipse.ui.internal.navigator.NavigatorContentServiceLabelProvider
@@ -75,6 +81,8 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 
 	private Viewer viewer;
 
+	private DeferredChildrenManager deferredChildren;
+
 	/**
 	 * <p>
 	 * Creates a cached {@link NavigatorContentService}&nbsp;from the given
@@ -110,6 +118,9 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	@Override
 	public void inputChanged(Viewer aViewer, Object anOldInput, Object aNewInput) {
 		viewer = aViewer;
+		if (deferredChildren != null) {
+			deferredChildren.reset();
+		}
 		contentService.updateService(aViewer, anOldInput, aNewInput);
 	}
 
@@ -122,6 +133,9 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	@Override
 	public Object[] getChildren(Object aParentElement) {
 		Set enabledExtensions = contentService.findContentExtensionsByTriggerPoint(aParentElement);
+		if (deferredChildren != null && !enabledExtensions.isEmpty()) {
+			return deferredChildren.getChildren(aParentElement, aParentElement, enabledExtensions);
+		}
 		return internalGetChildren(aParentElement, aParentElement, enabledExtensions, !ELEMENTS);
 	}
 
@@ -129,13 +143,60 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	public Object[] getChildren(TreePath parentPath) {
 		Object aParentElement = internalAsElement(parentPath);
 		Set enabledExtensions = contentService.findContentExtensionsByTriggerPoint(aParentElement);
+		if (deferredChildren != null && !enabledExtensions.isEmpty()) {
+			return deferredChildren.getChildren(aParentElement, parentPath, enabledExtensions);
+		}
 		return internalGetChildren(aParentElement, parentPath, enabledExtensions, !ELEMENTS);
 	}
 
+	/**
+	 * Computes the children in background jobs with the given manager, or in
+	 * the calling thread when it is <code>null</code>.
+	 *
+	 * @param aManager
+	 *            The manager of the children computed in the background, or
+	 *            <code>null</code>
+	 */
+	public void setDeferredChildrenManager(DeferredChildrenManager aManager) {
+		if (deferredChildren != null) {
+			deferredChildren.dispose();
+		}
+		deferredChildren = aManager;
+	}
+
+	/**
+	 * @return The manager of the children computed in the background, or
+	 *         <code>null</code> if they are computed in the calling thread.
+	 */
+	public DeferredChildrenManager getDeferredChildrenManager() {
+		return deferredChildren;
+	}
+
+	/**
+	 * @return The content service providing the extensions.
+	 */
+	NavigatorContentService getContentService() {
+		return contentService;
+	}
+
+	/**
+	 * Computes the children of the parent for a fetch of the deferred children
+	 * manager, handing it the children of each extension once they are known.
+	 */
+	Object[] internalGetChildren(Object aParentElement, Object aParentElementOrPath, Set enabledExtensions,
+			DeferredChildrenManager.Fetch aFetch) {
+		return internalGetChildren(aParentElement, aParentElementOrPath, enabledExtensions, !ELEMENTS, aFetch);
+	}
+
 	private static final boolean ELEMENTS = true;
 
 	private Object[] internalGetChildren(final Object aParentElement,
 			final Object aParentElementOrPath, final Set enabledExtensions, final boolean elements) {
+		return internalGetChildren(aParentElement, aParentElementOrPath, enabledExtensions, elements, null);
+	}
+
+	private Object[] internalGetChildren(final Object aParentElement, final Object aParentElementOrPath,
+			final Set enabledExtensions, final boolean elements, final DeferredChildrenManager.Fetch aFetch) {
 		if (enabledExtensions.isEmpty()) {
 			return NO_CHILDREN;
 		}
@@ -143,6 +204,9 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		final ContributorTrackingSet localSet = new ContributorTrackingSet(contentService);
 
 		for (final Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
+			if (aFetch != null && aFetch.isCanceled()) {
+				break;
+			}
 			SafeRunner.run(new NavigatorSafeRunnable() {
 				NavigatorContentExtension foundExtension = (NavigatorContentExtension) itr.next();
 				Object[] contributedChildren = null;
@@ -169,7 +233,17 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 							pipelineChildren(aParentElement, overridingExtensions, foundDescriptor,
 									localSet, elements);
 						}
-						finalSet.addAll(localSet);
+						if (aFetch == null) {
+							finalSet.addAll(localSet);
+						} else {
+							List added = new ArrayList(localSet.size());
+							for (Object child : localSet) {
+								if (finalSet.add(child)) {
+									added.add(child);
+								}
+							}
+							aFetch.addChildren(added.toArray());
+						}
 					}
 				}
 
@@ -482,6 +556,10 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	 */
 	@Override
 	public void dispose() {
+		if (deferredChildren != null) {
+			deferredChildren.dispose();
+			deferredChildren = null;
+		}
 		if (disposeContentService) {
 			contentService.dispose();
 		}
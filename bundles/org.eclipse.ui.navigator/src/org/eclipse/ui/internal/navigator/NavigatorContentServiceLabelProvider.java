@@ -40,6 +40,7 @@ import org.eclipse.ui.internal.navigator.extensions.NavigatorContentExtension;
 import org.eclipse.ui.navigator.CommonViewer;
 import org.eclipse.ui.navigator.ICommonLabelProvider;
 import org.eclipse.ui.navigator.INavigatorContentService;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
 
 /**
  * <p>
@@ -130,6 +131,8 @@ public class NavigatorContentServiceLabelProvider extends EventManager
 
 	@Override
 	public String getColumnText(Object anElement, int aColumn) {
+		if (anElement instanceof PendingUpdateAdapter)
+			return anElement.toString();
 		ILabelProvider[] labelProviders = contentService.findRelevantLabelProviders(anElement);
 		if (labelProviders.length == 0)
 			return NLS.bind(CommonNavigatorMessages.NavigatorContentServiceLabelProvider_Error_no_label_provider_for_0_, makeSmallString(anElement));
@@ -147,6 +150,8 @@ public class NavigatorContentServiceLabelProvider extends EventManager
 
 	@Override
 	public StyledString getStyledText(Object anElement) {
+		if (anElement instanceof PendingUpdateAdapter)
+			return new StyledString(anElement.toString());
 		Collection extensions = contentService.findPossibleLabelExtensions(anElement);
 		if (extensions.isEmpty())
 			return new StyledString(NLS.bind(CommonNavigatorMessages.NavigatorContentServiceLabelProvider_Error_no_label_provider_for_0_, makeSmallString(anElement)));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,12 @@ package org.eclipse.ui.internal.navigator;
 
 import java.util.Vector;
 
+import org.eclipse.ui.internal.misc.GlobMatcher;
+
 /**
- * A string pattern matcher, suppporting "*" and "?" wildcards.
+ * A string pattern matcher, suppporting "*" and "?" wildcards. Matching is
+ * done by a {@link GlobMatcher}, the segments of the pattern are kept to find
+ * it in texts.
  */
 public class StringMatcher {
 	protected String fPattern;
@@ -41,6 +45,8 @@ public class StringMatcher {
 
 	protected static final char fSingleWildCard = '\u0000';
 
+	private final GlobMatcher fMatcher;
+
 	/**
 	 *
 	 */
@@ -95,6 +101,7 @@ public class StringMatcher {
 		fIgnoreWildCards = ignoreWildCards;
 		fPattern = pattern;
 		fLength = pattern.length();
+		fMatcher = new GlobMatcher(pattern, ignoreCase, ignoreWildCards);
 
 		if (fIgnoreWildCards) {
 			parseNoWildCards();
@@ -196,90 +203,7 @@ public class StringMatcher {
 	 *            marks the ending index (exclusive) of the substring
 	 */
 	public boolean match(String text, int start, int end) {
-		if (null == text) {
-			throw new IllegalArgumentException();
-		}
-
-		if (start > end) {
-			return false;
-		}
-
-		if (fIgnoreWildCards) {
-			return (end - start == fLength)
-					&& fPattern.regionMatches(fIgnoreCase, 0, text, start,
-							fLength);
-		}
-		int segCount = fSegments.length;
-		if (segCount == 0 && (fHasLeadingStar || fHasTrailingStar)) {
-			// contains
-			// only
-			// '*'(s)
-			return true;
-		}
-		if (start == end) {
-			return fLength == 0;
-		}
-		if (fLength == 0) {
-			return start == end;
-		}
-
-		int tlen = text.length();
-		if (start < 0) {
-			start = 0;
-		}
-		if (end > tlen) {
-			end = tlen;
-		}
-
-		int tCurPos = start;
-		int bound = end - fBound;
-		if (bound < 0) {
-			return false;
-		}
-		int i = 0;
-		String current = fSegments[i];
-		int segLength = current.length();
-
-		/* process first segment */
-		if (!fHasLeadingStar) {
-			if (!regExpRegionMatches(text, start, current, 0, segLength)) {
-				return false;
-			}
-			++i;
-			tCurPos = tCurPos + segLength;
-
-		}
-		if ((fSegments.length == 1) && (!fHasLeadingStar)
-				&& (!fHasTrailingStar)) {
-			// only one segment to match, no wildcards specified
-			return tCurPos == end;
-		}
-		/* process middle segments */
-		while (i < segCount) {
-			current = fSegments[i];
-			int currentMatch;
-			int k = current.indexOf(fSingleWildCard);
-			if (k < 0) {
-				currentMatch = textPosIn(text, tCurPos, end, current);
-				if (currentMatch < 0) {
-					return false;
-				}
-			} else {
-				currentMatch = regExpPosIn(text, tCurPos, end, current);
-				if (currentMatch < 0) {
-					return false;
-				}
-			}
-			tCurPos = currentMatch + current.length();
-			i++;
-		}
-
-		/* process final segment */
-		if (!fHasTrailingStar && tCurPos != end) {
-			int clen = current.length();
-			return regExpRegionMatches(text, end - clen, current, 0, clen);
-		}
-		return i == segCount;
+		return fMatcher.match(text, start, end);
 	}
 
 	/**
@@ -458,38 +382,4 @@ public class StringMatcher {
 		}
 		return true;
 	}
-
-	/**
-	 * @param text
-	 *            the string to match
-	 * @param start
-	 *            the starting index in the text for search, inclusive
-	 * @param end
-	 *            the stopping point of search, exclusive
-	 * @param p
-	 *            a string that has no wildcard
-	 * @return the starting index in the text of the pattern , or -1 if not
-	 *         found
-	 */
-	protected int textPosIn(String text, int start, int end, String p) {
-
-		int plen = p.length();
-		int max = end - plen;
-
-		if (!fIgnoreCase) {
-			int i = text.indexOf(p, start);
-			if (i == -1 || i > max) {
-				return -1;
-			}
-			return i;
-		}
-
-		for (int i = start; i <= max; ++i) {
-			if (text.regionMatches(true, i, p, 0, plen)) {
-				return i;
-			}
-		}
-
-		return -1;
-	}
 }
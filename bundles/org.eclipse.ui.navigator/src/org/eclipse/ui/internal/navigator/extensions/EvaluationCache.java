@@ -19,12 +19,17 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
 import org.eclipse.ui.internal.navigator.VisibilityAssistant.VisibilityListener;
 
 /**
  * A cache for evaluated {@link NavigatorContentDescriptor}.
+ * <p>
+ * The cache is thread safe, as the children of the elements of a viewer can
+ * be computed in background jobs while the UI thread looks up descriptors.
+ * </p>
  */
 public class EvaluationCache implements VisibilityListener {
 	// TODO Have an LRU cache with max size as well as SoftReferences, to help
@@ -43,6 +48,11 @@ public class EvaluationCache implements VisibilityListener {
 	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluations = new HashMap<>();
 	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluationsWithOverrides = new HashMap<>();
 
+	// The descriptors of the elements of a class, when the evaluations only
+	// depend on the class of the element
+	private final Map<Class<?>, NavigatorContentDescriptor[]> typeEvaluations = new WeakHashMap<>();
+	private final Map<Class<?>, NavigatorContentDescriptor[]> typeEvaluationsWithOverrides = new WeakHashMap<>();
+
 	private final ReferenceQueue<Object> evaluationsQueue = new ReferenceQueue<>();
 	private final ReferenceQueue<Object> evaluationsWithOverridesQueue = new ReferenceQueue<>();
 
@@ -56,9 +66,8 @@ public class EvaluationCache implements VisibilityListener {
 	private void cleanUpStaleEntries() {
 		// TODO Only clean up to a certain number of entries per call when merely accessing or setting?
 		// TODO Periodic task to run this every now and then, ala org.eclipse.core.runtime.jobs.Job?
-		// If this is done, will need to make this class thread safe.
 
-		// Not thread safe, but this whole class isn't, so that is fine.
+		// Called with the lock of the cache held.
 		Reference<?> r;
 		// Reference#poll thankfully does not block if there is nothing available.
 		while ((r = evaluationsQueue.poll()) != null) {
@@ -118,7 +127,8 @@ public class EvaluationCache implements VisibilityListener {
 	 * @return the cached descriptors for the given key, or {@code null} if not
 	 *         currently in the cache
 	 */
-	public final NavigatorContentDescriptor[] getDescriptors(Object anElement, boolean toComputeOverrides) {
+	public final synchronized NavigatorContentDescriptor[] getDescriptors(Object anElement,
+			boolean toComputeOverrides) {
 		cleanUpStaleEntries();
 		if (anElement == null)
 			return null;
@@ -161,7 +171,7 @@ public class EvaluationCache implements VisibilityListener {
 	 *            whether overrides were considered in the computation of the
 	 *            given descriptors
 	 */
-	public final void setDescriptors(Object anElement, NavigatorContentDescriptor[] theDescriptors,
+	public final synchronized void setDescriptors(Object anElement, NavigatorContentDescriptor[] theDescriptors,
 			boolean toComputeOverrides) {
 		cleanUpStaleEntries();
 		if (anElement != null) {
@@ -173,6 +183,48 @@ public class EvaluationCache implements VisibilityListener {
 		}
 	}
 
+	/**
+	 * Finds the descriptors cached for all of the elements of the given type,
+	 * or returns {@code null} if not currently in the cache.
+	 *
+	 * @param aType
+	 *            the class of the element to lookup
+	 * @param toComputeOverrides
+	 *            whether overrides are to be considered
+	 * @return the cached descriptors for the given type, or {@code null} if
+	 *         not currently in the cache
+	 */
+	public final synchronized NavigatorContentDescriptor[] getDescriptorsForType(Class<?> aType,
+			boolean toComputeOverrides) {
+		if (toComputeOverrides) {
+			return typeEvaluations.get(aType);
+		}
+		return typeEvaluationsWithOverrides.get(aType);
+	}
+
+	/**
+	 * Caches the given descriptors for all of the elements of the given type.
+	 * The descriptors must only depend on the class of the elements, and not
+	 * on their state.
+	 *
+	 * @param aType
+	 *            the class of the elements to associate with the given
+	 *            descriptors
+	 * @param theDescriptors
+	 *            the descriptors to cache against the given type
+	 * @param toComputeOverrides
+	 *            whether overrides were considered in the computation of the
+	 *            given descriptors
+	 */
+	public final synchronized void setDescriptorsForType(Class<?> aType, NavigatorContentDescriptor[] theDescriptors,
+			boolean toComputeOverrides) {
+		if (toComputeOverrides) {
+			typeEvaluations.put(aType, theDescriptors);
+		} else {
+			typeEvaluationsWithOverrides.put(aType, theDescriptors);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -186,7 +238,7 @@ public class EvaluationCache implements VisibilityListener {
 	/**
 	 * Clears the cache.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		// Dump everything in the reference queues.
 		// Don't bother removing from the map based on references, we are about to clear everything anyways.
 		// This might lead to some premature removals because yet to be collected values are not clearing
@@ -203,5 +255,7 @@ public class EvaluationCache implements VisibilityListener {
 		}
 		evaluations.clear();
 		evaluationsWithOverrides.clear();
+		typeEvaluations.clear();
+		typeEvaluationsWithOverrides.clear();
 	}
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import org.eclipse.core.expressions.ElementHandler;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
+import org.eclipse.core.expressions.ExpressionTagNames;
 import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -75,6 +76,10 @@ public final class NavigatorContentDescriptor implements
 
 	private Expression possibleChildren;
 
+	private boolean enablementByType;
+
+	private boolean possibleChildrenByType;
+
 	private Expression initialActivation;
 
 	private String icon;
@@ -256,6 +261,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_TRIGGER_POINTS);
 			if (children.length == 1) {
 				enablement = new CustomAndExpression(children[0]);
+				enablementByType = testsTypeOnly(children[0]);
 			} else {
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -269,6 +275,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_POSSIBLE_CHILDREN);
 			if (children.length == 1) {
 				possibleChildren = new CustomAndExpression(children[0]);
+				possibleChildrenByType = testsTypeOnly(children[0]);
 			} else if(children.length > 1){
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -282,6 +289,7 @@ public final class NavigatorContentDescriptor implements
 			try {
 				enablement = ElementHandler.getDefault().create(
 						ExpressionConverter.getDefault(), children[0]);
+				enablementByType = testsTypeOnly(children[0]);
 			} catch (CoreException e) {
 				NavigatorPlugin.log(IStatus.ERROR, 0, e.getMessage(), e);
 			}
@@ -398,6 +406,50 @@ public final class NavigatorContentDescriptor implements
 		return NavigatorPlugin.safeEvaluate(initialActivation, context) == EvaluationResult.TRUE;
 	}
 
+	/**
+	 * Answers whether the children of the expression element only test the
+	 * type of the element the expression is evaluated for, with
+	 * <code>instanceof</code> combined by <code>and</code>, <code>or</code>
+	 * and <code>not</code>.
+	 *
+	 * @param anExpressionElement
+	 *            the element holding the expression
+	 * @return True if the expression gives the same result for all of the
+	 *         elements of a class.
+	 */
+	private static boolean testsTypeOnly(IConfigurationElement anExpressionElement) {
+		for (IConfigurationElement child : anExpressionElement.getChildren()) {
+			String name = child.getName();
+			if (ExpressionTagNames.INSTANCEOF.equals(name)) {
+				continue;
+			}
+			if (!(ExpressionTagNames.AND.equals(name) || ExpressionTagNames.OR.equals(name)
+					|| ExpressionTagNames.NOT.equals(name)) || !testsTypeOnly(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return True if {@link #isTriggerPoint(Object)} answers the same for all
+	 *         of the elements of a class.
+	 */
+	boolean isTriggerPointByType() {
+		return enablement == null || enablementByType;
+	}
+
+	/**
+	 * @return True if {@link #isPossibleChild(Object)} answers the same for
+	 *         all of the elements of a class, other than selections.
+	 */
+	boolean isPossibleChildByType() {
+		if (possibleChildren != null) {
+			return possibleChildrenByType;
+		}
+		return enablement == null || enablementByType;
+	}
+
 	/**
 	 * Determine if this content extension would be able to provide children for
 	 * the given element.
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.internal.navigator.NavigatorPlugin;
 import org.eclipse.ui.internal.navigator.NavigatorSafeRunnable;
@@ -168,6 +169,17 @@ public class NavigatorContentDescriptorManager {
 			return descriptors;
 		}
 
+		// Selections are evaluated element by element
+		Class<?> type = anElement == null || anElement instanceof IStructuredSelection ? null : anElement.getClass();
+		if (type != null && (cachedDescriptors = cache.getDescriptorsForType(type, considerOverrides)) != null) {
+			descriptors.addAll(Arrays.asList(cachedDescriptors));
+			if (Policy.DEBUG_RESOLUTION) {
+				System.out.println("Find descriptors for : " + Policy.getObjectString(anElement) + //$NON-NLS-1$
+						(considerOverrides ? " (with overrides)" : "") + " (cached by type): " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			return descriptors;
+		}
+
 		if (considerOverrides) {
 			addDescriptorsConsideringOverrides(anElement, firstClassDescriptorsSet, aVisibilityAssistant, descriptors, possibleChild);
 		} else {
@@ -184,18 +196,59 @@ public class NavigatorContentDescriptorManager {
 			System.out.println("Find descriptors for: " + Policy.getObjectString(anElement) + //$NON-NLS-1$
 					(considerOverrides ? " (with overrides)" : "") + ": " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
-		cache.setDescriptors(anElement, descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]), considerOverrides);
+		NavigatorContentDescriptor[] foundDescriptors = descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]);
+		if (type != null && isEvaluatedByType(firstClassDescriptorsSet, aVisibilityAssistant, possibleChild)) {
+			// Answer all of the elements of this class at once
+			cache.setDescriptorsForType(type, foundDescriptors, considerOverrides);
+		} else {
+			cache.setDescriptors(anElement, foundDescriptors, considerOverrides);
+		}
 
 		return descriptors;
 	}
 
+	/**
+	 * Answers whether the given descriptors, and the descriptors overriding
+	 * them, that the assistant lets enable are evaluated the same for all of
+	 * the elements of a class.
+	 */
+	private static boolean isEvaluatedByType(Set<NavigatorContentDescriptor> theDescriptors,
+			VisibilityAssistant aVisibilityAssistant, boolean possibleChild) {
+		for (NavigatorContentDescriptor descriptor : theDescriptors) {
+			if (aVisibilityAssistant.isActive(descriptor) && aVisibilityAssistant.isVisible(descriptor)
+					&& !(possibleChild ? descriptor.isPossibleChildByType() : descriptor.isTriggerPointByType())) {
+				return false;
+			}
+			if (descriptor.hasOverridingExtensions() && !isEvaluatedByType(descriptor.getOverriddingExtensions(),
+					aVisibilityAssistant, possibleChild)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Public for tests only.
+	 *
+	 * @param aVisibilityAssistant
+	 *            The relevant viewer assistant
+	 * @return the cache of the trigger point evaluations made for the given
+	 *         assistant
+	 */
+	public EvaluationCache getTriggerPointEvaluationCache(VisibilityAssistant aVisibilityAssistant) {
+		return getEvaluationCache(cachedTriggerPointEvaluations, aVisibilityAssistant);
+	}
+
 	private EvaluationCache getEvaluationCache(Map<VisibilityAssistant, EvaluationCache> anEvaluationMap,
 			VisibilityAssistant aVisibilityAssistant) {
-		EvaluationCache c = anEvaluationMap.get(aVisibilityAssistant);
-		if (c == null) {
-			anEvaluationMap.put(aVisibilityAssistant, c = new EvaluationCache(aVisibilityAssistant));
+		// Also called by the jobs computing the children of a viewer
+		synchronized (anEvaluationMap) {
+			EvaluationCache c = anEvaluationMap.get(aVisibilityAssistant);
+			if (c == null) {
+				anEvaluationMap.put(aVisibilityAssistant, c = new EvaluationCache(aVisibilityAssistant));
+			}
+			return c;
 		}
-		return c;
 	}
 
 	private boolean addDescriptorsConsideringOverrides(Object anElement,
@@ -37,7 +37,9 @@ import org.eclipse.swt.widgets.Item;
 import org.eclipse.swt.widgets.Widget;
 import org.eclipse.ui.internal.navigator.CommonNavigatorFrameSource;
 import org.eclipse.ui.internal.navigator.ContributorTrackingSet;
+import org.eclipse.ui.internal.navigator.DeferredChildrenManager;
 import org.eclipse.ui.internal.navigator.NavigatorContentService;
+import org.eclipse.ui.internal.navigator.NavigatorContentServiceContentProvider;
 import org.eclipse.ui.internal.navigator.NavigatorDecoratingLabelProvider;
 import org.eclipse.ui.internal.navigator.NavigatorPipelineService;
 import org.eclipse.ui.internal.navigator.dnd.NavigatorDnDService;
@@ -139,6 +141,71 @@ public class CommonViewer extends TreeViewer {
 		return _mapper;
 	}
 
+	/**
+	 * Instructs the viewer to compute the children of its elements in
+	 * background jobs, so that slow content extensions do not block the user
+	 * interface.
+	 * <p>
+	 * When the children of an element are first needed, a "Pending..." node
+	 * is shown and the children are added in batches as each content
+	 * extension provides them, once they went through the pipeline of the
+	 * overriding extensions, and through the sorter and the filters of the
+	 * viewer. When an element is refreshed, its children are shown until its
+	 * new children are known. Fetching the children of an element is
+	 * cancelled when the element is collapsed.
+	 * </p>
+	 * <p>
+	 * The content providers of the extensions must then support being called
+	 * outside of the UI thread. The root elements are still computed in the
+	 * UI thread. This setting has no effect if the content provider of the
+	 * viewer was replaced.
+	 * </p>
+	 *
+	 * @param deferred
+	 *            <code>true</code> to compute the children in the background
+	 * @see #isUseDeferredChildren()
+	 * @since 3.8
+	 */
+	public void setUseDeferredChildren(boolean deferred) {
+		if (!(getContentProvider() instanceof NavigatorContentServiceContentProvider)) {
+			return;
+		}
+		NavigatorContentServiceContentProvider provider = (NavigatorContentServiceContentProvider) getContentProvider();
+		if (deferred == (provider.getDeferredChildrenManager() != null)) {
+			return;
+		}
+		if (!deferred) {
+			provider.setDeferredChildrenManager(null);
+			return;
+		}
+		provider.setDeferredChildrenManager(new DeferredChildrenManager(provider, this) {
+			@Override
+			protected void addToViewer(Object aParentElementOrPath, Object[] children) {
+				// The children went through the pipeline already
+				CommonViewer.super.add(aParentElementOrPath, children);
+			}
+
+			@Override
+			protected void removeFromViewer(Object aPlaceholder) {
+				CommonViewer.super.remove(new Object[] { aPlaceholder });
+			}
+		});
+	}
+
+	/**
+	 * Returns whether the children of the elements are computed in background
+	 * jobs.
+	 *
+	 * @return <code>true</code> if the children are computed in the
+	 *         background
+	 * @see #setUseDeferredChildren(boolean)
+	 * @since 3.8
+	 */
+	public boolean isUseDeferredChildren() {
+		return getContentProvider() instanceof NavigatorContentServiceContentProvider
+				&& ((NavigatorContentServiceContentProvider) getContentProvider()).getDeferredChildrenManager() != null;
+	}
+
 	/**
 	 * @return the CommonNavigator
 	 * @since 3.4
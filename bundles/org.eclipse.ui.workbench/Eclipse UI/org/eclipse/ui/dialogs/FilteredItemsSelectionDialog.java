@@ -36,6 +36,8 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.IHandler;
@@ -222,6 +224,23 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 	private static final String EMPTY_STRING = ""; //$NON-NLS-1$
 
+	/**
+	 * Number of cached items matched at once when the pattern is refined.
+	 */
+	private static final int MATCH_CHUNK_SIZE = 5000;
+
+	/**
+	 * Minimum number of cached items for which the chunks are matched in
+	 * parallel, if the filter allows it.
+	 */
+	private static final int PARALLEL_MATCH_THRESHOLD = 50000;
+
+	/**
+	 * Number of items found by a full search after which the list is refreshed
+	 * for the first time, before the search completes.
+	 */
+	private static final int FIRST_PAGE_SIZE = 50;
+
 	private boolean refreshWithLastSelection = false;
 
 	private IHandlerActivation showViewHandler;
@@ -2023,24 +2042,42 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 			if (lastCompletedFilter != null
 					&& lastCompletedFilter.isSubFilter(this.itemsFilter)) {
 
-				int length = lastCompletedResult.size() / 500;
+				Object[] candidates = lastCompletedResult.toArray();
+				int chunks = (candidates.length + MATCH_CHUNK_SIZE - 1) / MATCH_CHUNK_SIZE;
 				monitor
 						.beginTask(
 								WorkbenchMessages.FilteredItemsSelectionDialog_cacheSearchJob_taskName,
-								length);
-
-				for (int pos = 0; pos < lastCompletedResult.size(); pos++) {
-
-					Object item = lastCompletedResult.get(pos);
-					if (monitor.isCanceled())
-						break;
-					contentProvider.add(item, itemsFilter);
-
-					if ((pos % 500) == 0) {
-						monitor.worked(1);
+								chunks);
+
+				// The candidates are sorted, so the first chunk holds the best
+				// ranked matches: show them before matching the rest
+				contentProvider.addAll(matchItems(candidates, 0, monitor), itemsFilter);
+				monitor.worked(1);
+				if (chunks > 1 && !monitor.isCanceled()) {
+					contentProvider.refresh();
+
+					if (candidates.length >= PARALLEL_MATCH_THRESHOLD && itemsFilter.isThreadSafe()) {
+						List<List<Object>> matches = IntStream.range(1, chunks).parallel()
+								.mapToObj(chunk -> matchItems(candidates, chunk, monitor))
+								.collect(Collectors.toList());
+						for (List<Object> chunkMatches : matches) {
+							contentProvider.addAll(chunkMatches, itemsFilter);
+							monitor.worked(1);
+						}
+					} else {
+						for (int chunk = 1; chunk < chunks && !monitor.isCanceled(); chunk++) {
+							contentProvider.addAll(matchItems(candidates, chunk, monitor), itemsFilter);
+							monitor.worked(1);
+						}
 					}
 				}
 
+				// Narrow the next refinement of the pattern down from this
+				// result instead of the one of the last full search
+				if (!monitor.isCanceled()) {
+					contentProvider.rememberResult(itemsFilter);
+				}
+
 			} else {
 
 				lastCompletedFilter = null;
@@ -2061,6 +2098,35 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 		}
 
+		/**
+		 * Returns the items of the given chunk of candidates matching the
+		 * filter. May be called concurrently for different chunks if the
+		 * filter is thread safe.
+		 *
+		 * @param candidates
+		 *            the items to match
+		 * @param chunk
+		 *            the index of the chunk of {@link #MATCH_CHUNK_SIZE} items
+		 *            to match
+		 * @param monitor
+		 *            checked for cancellation only
+		 * @return the matching items, in the order of the candidates
+		 */
+		private List<Object> matchItems(Object[] candidates, int chunk, IProgressMonitor monitor) {
+			int end = Math.min(candidates.length, (chunk + 1) * MATCH_CHUNK_SIZE);
+			List<Object> matches = new ArrayList<>();
+			for (int pos = chunk * MATCH_CHUNK_SIZE; pos < end; pos++) {
+				if ((pos % 500) == 0 && monitor.isCanceled()) {
+					break;
+				}
+				Object item = candidates[pos];
+				if (itemsFilter.matchItem(item)) {
+					matches.add(item);
+				}
+			}
+			return matches;
+		}
+
 	}
 
 	/**
@@ -2404,6 +2470,20 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		public abstract boolean isConsistentItem(Object item);
 
+		/**
+		 * Returns whether {@link #matchItem(Object)} may be called
+		 * concurrently from several threads. If so, large sets of previously
+		 * matched items are narrowed in parallel chunks when the user refines
+		 * the pattern. The default implementation returns <code>false</code>.
+		 *
+		 * @return <code>true</code> if this filter can match items
+		 *         concurrently, <code>false</code> otherwise
+		 * @since 3.113
+		 */
+		public boolean isThreadSafe() {
+			return false;
+		}
+
 	}
 
 	/**
@@ -2491,6 +2571,13 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		private boolean reset;
 
+		/**
+		 * Whether the list has been refreshed with the first
+		 * {@link FilteredItemsSelectionDialog#FIRST_PAGE_SIZE} items found by
+		 * the current search.
+		 */
+		private volatile boolean firstPageShown;
+
 		/**
 		 * Creates new instance of <code>ContentProvider</code>.
 		 */
@@ -2524,6 +2611,7 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		public void reset() {
 			reset = true;
+			firstPageShown = false;
 			this.items.clear();
 			this.duplicates.clear();
 			this.lastSortedItems.clear();
@@ -2552,6 +2640,25 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 				} else {
 					this.items.add(item);
 				}
+				if (!firstPageShown && items.size() >= FIRST_PAGE_SIZE) {
+					// Show the first matches while the search goes on
+					firstPageShown = true;
+					refresh();
+				}
+			}
+		}
+
+		/**
+		 * Adds items that are known to match the filter.
+		 *
+		 * @param matches
+		 *            the matching items
+		 * @param itemsFilter
+		 *            the filter the items were matched with
+		 */
+		public void addAll(List<Object> matches, ItemsFilter itemsFilter) {
+			if (itemsFilter == filter) {
+				this.items.addAll(matches);
 			}
 		}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2006 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,6 +36,19 @@ public interface IObjectContributor {
      */
     boolean isApplicableTo(Object object);
 
+	/**
+	 * Return whether {@link #isApplicableTo(Object)} gives the same answer for
+	 * all the objects of a class, so that it only needs to be asked once per
+	 * class of the objects in a selection. The default implementation returns
+	 * <code>false</code>.
+	 *
+	 * @return boolean
+	 * @since 3.113
+	 */
+	default boolean isApplicableToClass() {
+		return false;
+	}
+
     /**
      * Return whether or not the receiver can adapt to IResource.
      * @return boolean
@@ -123,6 +123,15 @@ public interface IPreferenceConstants {
 	// Max entries shown in the progress view (see DetailedProgressViewer)
 	String MAX_PROGRESS_ENTRIES = "MAX_PROGRESS_ENTRIES"; //$NON-NLS-1$
 
+	// Min time in ms between two refreshes of the progress views (see ProgressManager)
+	String PROGRESS_UPDATE_INTERVAL = "PROGRESS_UPDATE_INTERVAL"; //$NON-NLS-1$
+
+	// Number of jobs computing lightweight decorations (see DecorationScheduler)
+	String DECORATION_WORKERS = "DECORATION_WORKERS"; //$NON-NLS-1$
+
+	// Max decoration results cached (see DecorationScheduler)
+	String DECORATION_CACHE_SIZE = "DECORATION_CACHE_SIZE"; //$NON-NLS-1$
+
     /**
      * Boolean; true = EditorList displays full path
      */
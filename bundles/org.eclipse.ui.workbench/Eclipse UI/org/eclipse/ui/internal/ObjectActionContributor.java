@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -241,6 +241,20 @@ public class ObjectActionContributor extends PluginActionBuilder implements
                 .isApplicableTo(object);
     }
 
+    /**
+     * Returns true if neither a name filter nor visibility, filter or
+     * enablement tests are specified for the contribution, the contribution
+     * is then applicable to any object of its class.
+     */
+    @Override
+	public boolean isApplicableToClass() {
+        if (!configRead) {
+			readConfigElement();
+		}
+        return config.getAttribute(IWorkbenchRegistryConstants.ATT_NAME_FILTER) == null
+                && !((ObjectContribution) currentContribution).hasTests();
+    }
+
     /**
      * Reads the configuration element and all the children.
      * This creates an action descriptor for every action in the extension.
@@ -341,6 +355,15 @@ public class ObjectActionContributor extends PluginActionBuilder implements
             }
         }
 
+        /**
+         * Returns whether any test is specified for the contribution.
+         *
+         * @return whether the object needs to be tested
+         */
+        public boolean hasTests() {
+            return visibilityTest != null || filterTest != null || enablement != null;
+        }
+
         /**
          * Returns true if name filter is not specified for the contribution
          * or the current selection matches the filter.
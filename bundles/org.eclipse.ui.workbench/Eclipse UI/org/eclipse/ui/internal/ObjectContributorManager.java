@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import org.eclipse.core.runtime.Adapters;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IAdapterManager;
@@ -75,17 +77,62 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 		IObjectContributor contributor;
 	}
 
-    /** Table of contributors. */
-    protected Map contributors;
+	/**
+	 * The contributor search paths computed since the contributors last
+	 * changed, by object class, resource adapter class and adapter type name.
+	 * The maps are never modified once the cache is published: a lookup that
+	 * misses publishes a copy holding the new entry instead, so that the
+	 * lookups do not need to lock.
+	 */
+	private static final class LookupCache {
+		/** Incremented each time the contributors change. */
+		final int generation;
+
+		final Map<Class, List> objectLookup;
+
+		final Map<Class, List> resourceAdapterLookup;
+
+		final Map<String, List> adaptableLookup;
+
+		LookupCache(int generation) {
+			this(generation, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+		}
 
-    /** Cache of object class contributor search paths; <code>null</code> if none. */
-    protected Map objectLookup;
+		private LookupCache(int generation, Map<Class, List> objectLookup, Map<Class, List> resourceAdapterLookup,
+				Map<String, List> adaptableLookup) {
+			this.generation = generation;
+			this.objectLookup = objectLookup;
+			this.resourceAdapterLookup = resourceAdapterLookup;
+			this.adaptableLookup = adaptableLookup;
+		}
 
-    /** Cache of resource adapter class contributor search paths; <code>null</code> if none. */
-    protected Map resourceAdapterLookup;
+		LookupCache withObjectLookup(Class objectClass, List results) {
+			return new LookupCache(generation, with(objectLookup, objectClass, results), resourceAdapterLookup,
+					adaptableLookup);
+		}
 
-    /** Cache of adaptable class contributor search paths; <code>null</code> if none. */
-    protected Map adaptableLookup;
+		LookupCache withResourceAdapterLookup(Class adapterClass, List results) {
+			return new LookupCache(generation, objectLookup, with(resourceAdapterLookup, adapterClass, results),
+					adaptableLookup);
+		}
+
+		LookupCache withAdaptableLookup(String adapterType, List results) {
+			return new LookupCache(generation, objectLookup, resourceAdapterLookup,
+					with(adaptableLookup, adapterType, results));
+		}
+
+		private static <K> Map<K, List> with(Map<K, List> lookup, K key, List results) {
+			Map<K, List> copy = new HashMap<>(lookup);
+			copy.put(key, results);
+			return copy;
+		}
+	}
+
+    /** Table of contributors. */
+    protected Map contributors;
+
+	/** Cache of contributor search paths, replaced as a whole. */
+	private final AtomicReference<LookupCache> lookupCache = new AtomicReference<>(new LookupCache(0));
 
     protected Set contributorRecordSet;
 
@@ -95,9 +142,6 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
     public ObjectContributorManager() {
     	contributors = new Hashtable(5);
         contributorRecordSet = new HashSet(5);
-        objectLookup = null;
-        resourceAdapterLookup = null;
-        adaptableLookup = null;
         String extensionPointId = getExtensionPointFilter();
         if (extensionPointId != null) {
         	IExtensionPoint extensionPoint = Platform.getExtensionRegistry().getExtensionPoint(
@@ -171,40 +215,18 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * smart and remove only those entries affected.
      */
     public void flushLookup() {
-        objectLookup = null;
-        resourceAdapterLookup = null;
-        adaptableLookup = null;
+		lookupCache.updateAndGet(cache -> new LookupCache(cache.generation + 1));
     }
 
-    /**
-     * Cache the real adapter class contributor search path.
-     */
-    private void cacheResourceAdapterLookup(Class adapterClass, List results) {
-        if (resourceAdapterLookup == null) {
-			resourceAdapterLookup = new HashMap();
-		}
-        resourceAdapterLookup.put(adapterClass, results);
-    }
-
-    /**
-     * Cache the real adapter class contributor search path.
-     */
-    private void cacheAdaptableLookup(String adapterClass, List results) {
-        if (adaptableLookup == null) {
-			adaptableLookup = new HashMap();
-		}
-        adaptableLookup.put(adapterClass, results);
-    }
-
-    /**
-     * Cache the object class contributor search path.
-     */
-    private void cacheObjectLookup(Class objectClass, List results) {
-        if (objectLookup == null) {
-			objectLookup = new HashMap();
-		}
-        objectLookup.put(objectClass, results);
-    }
+	/**
+	 * Publish a copy of the cache with a search path computed from the
+	 * contributors of <code>computedFrom</code>, unless the contributors
+	 * changed since.
+	 */
+	private void cacheLookup(LookupCache computedFrom, UnaryOperator<LookupCache> addition) {
+		lookupCache.updateAndGet(
+				cache -> cache.generation == computedFrom.generation ? addition.apply(cache) : cache);
+	}
 
     /**
      * Get the contributions registered to this manager.
@@ -278,13 +300,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	 */
     public boolean isApplicableTo(IStructuredSelection selection,
             IObjectContributor contributor) {
-        Iterator elements = selection.iterator();
-        while (elements.hasNext()) {
-            if (contributor.isApplicableTo(elements.next()) == false) {
-				return false;
-			}
-        }
-        return true;
+		return isApplicableToAll(selection.iterator(), contributor);
     }
 
     /**
@@ -299,14 +315,30 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	 */
 
     public boolean isApplicableTo(List list, IObjectContributor contributor) {
-        Iterator elements = list.iterator();
-        while (elements.hasNext()) {
-            if (contributor.isApplicableTo(elements.next()) == false) {
+		return isApplicableToAll(list.iterator(), contributor);
+    }
+
+	/**
+	 * Return whether the given contributor is applicable to all the elements,
+	 * asking it once per class of the elements if its answer only depends on
+	 * the class.
+	 */
+	private boolean isApplicableToAll(Iterator elements, IObjectContributor contributor) {
+		Set<Class> applicableClasses = contributor.isApplicableToClass() ? new HashSet<>() : null;
+		while (elements.hasNext()) {
+			Object element = elements.next();
+			if (applicableClasses != null && applicableClasses.contains(element.getClass())) {
+				continue;
+			}
+			if (contributor.isApplicableTo(element) == false) {
 				return false;
 			}
-        }
-        return true;
-    }
+			if (applicableClasses != null) {
+				applicableClasses.add(element.getClass());
+			}
+		}
+		return true;
+	}
 
     /**
      * Register a contributor.
@@ -416,11 +448,9 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
     protected List getObjectContributors(Class objectClass) {
-		List objectList = null;
 		// Lookup the results in the cache first.
-		if (objectLookup != null) {
-			objectList = (List) objectLookup.get(objectClass);
-		}
+		LookupCache cache = lookupCache.get();
+		List objectList = cache.objectLookup.get(objectClass);
 		if (objectList == null) {
 			objectList = addContributorsFor(objectClass);
 			if (objectList.isEmpty()) {
@@ -429,7 +459,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 			else {
 				objectList = Collections.unmodifiableList(objectList);
 			}
-			cacheObjectLookup(objectClass, objectList);
+			List results = objectList;
+			cacheLookup(cache, c -> c.withObjectLookup(objectClass, results));
 		}
 		return objectList;
 	}
@@ -446,10 +477,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
 	protected List getResourceContributors(Class resourceClass) {
-		List resourceList = null;
-		if (resourceAdapterLookup != null) {
-			resourceList = (List) resourceAdapterLookup.get(resourceClass);
-		}
+		LookupCache cache = lookupCache.get();
+		List resourceList = cache.resourceAdapterLookup.get(resourceClass);
 		if (resourceList == null) {
 			resourceList = addContributorsFor(resourceClass);
 			if (resourceList.isEmpty()) {
@@ -457,7 +486,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 			} else {
 				resourceList = Collections.unmodifiableList(filterOnlyAdaptableContributors(resourceList));
 			}
-			cacheResourceAdapterLookup(resourceClass, resourceList);
+			List results = resourceList;
+			cacheLookup(cache, c -> c.withResourceAdapterLookup(resourceClass, results));
 		}
 		return resourceList;
 	}
@@ -472,13 +502,11 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
 	protected List getAdaptableContributors(String adapterType) {
-		List adaptableList = null;
 		// Lookup the results in the cache first, there are two caches
 		// one that stores non-adapter contributions and the other
 		// contains adapter contributions.
-		if (adaptableLookup != null) {
-			adaptableList = (List) adaptableLookup.get(adapterType);
-		}
+		LookupCache cache = lookupCache.get();
+		List adaptableList = cache.adaptableLookup.get(adapterType);
 		if (adaptableList == null) {
 			// ignore resource adapters because these must be adapted via the
 			// IContributorResourceAdapter.
@@ -493,7 +521,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 					adaptableList = Collections.unmodifiableList(filterOnlyAdaptableContributors(adaptableList));
 				}
 			}
-			cacheAdaptableLookup(adapterType, adaptableList);
+			List results = adaptableList;
+			cacheLookup(cache, c -> c.withAdaptableLookup(adapterType, results));
 		}
 		return adaptableList;
 	}
@@ -698,17 +727,32 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
         boolean classesEmpty = classes.isEmpty();
         boolean interfacesEmpty = interfaces.isEmpty();
 
+        // The search orders are computed once per class in the selection
+        Map<Class, SearchOrder> searchOrders = new HashMap<>();
+        Class previousClass = objects.get(0).getClass();
+        // Whether another element of the previous class would leave the common
+        // types and adapters unchanged. The first element only initialized
+        // them: the common types are recorded by the next one.
+        boolean unchanged = false;
+
         // Traverse the selection if there is more than one element selected.
         for (int i = 1; i < objects.size(); i++) {
+            Class otherClass = objects.get(i).getClass();
+            if (otherClass == previousClass && unchanged) {
+                continue;
+            }
+            previousClass = otherClass;
+            SearchOrder searchOrder = searchOrders.computeIfAbsent(otherClass, SearchOrder::new);
+
             // Compute all the super classes for the current element
-            List otherClasses = computeClassOrder(objects.get(i).getClass());
+            List otherClasses = searchOrder.classes;
             if (!classesEmpty) {
                 classesEmpty = extractCommonClasses(classes, otherClasses);
             }
 
             // Compute all the interfaces for the current element
             // and all of its super classes.
-            List otherInterfaces = computeInterfaceOrder(otherClasses);
+            List otherInterfaces = searchOrder.interfaces;
             if (!interfacesEmpty) {
                 interfacesEmpty = extractCommonClasses(interfaces,
                         otherInterfaces);
@@ -716,11 +760,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 
             // Compute all the adapters provided for the calculated
             // classes and interfaces for this element.
-            List classesAndInterfaces = new ArrayList(otherClasses);
-            if (otherInterfaces != null) {
-				classesAndInterfaces.addAll(otherInterfaces);
-			}
-            List otherAdapters = computeAdapterOrder(classesAndInterfaces);
+            List classesAndInterfaces = searchOrder.classesAndInterfaces;
+            List otherAdapters = searchOrder.adapters;
 
             // Compute common adapters
             // Note here that an adapter can match a class or interface, that is
@@ -732,6 +773,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
                 removeNonCommonAdapters(adapters, classesAndInterfaces);
             } else {
                 if (adapters.isEmpty()) {
+                    otherAdapters = new ArrayList(otherAdapters);
                     removeNonCommonAdapters(otherAdapters, lastCommonTypes);
                     if (!otherAdapters.isEmpty()) {
 						adapters.addAll(otherAdapters);
@@ -750,9 +792,18 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 
             // Remember the common search order up to now, this is
             // used to match adapters against common classes or interfaces.
+            List commonTypes = new ArrayList(classes.size() + interfaces.size());
+            commonTypes.addAll(classes);
+            commonTypes.addAll(interfaces);
+
+            // The same class again intersects the classes and interfaces with
+            // themselves and records the same common types. It only adds
+            // adapters when none are common yet, by matching its own adapters
+            // against common types that changed.
+            unchanged = !adapters.isEmpty() || searchOrder.adapters.isEmpty()
+                    || commonTypes.equals(lastCommonTypes);
             lastCommonTypes.clear();
-            lastCommonTypes.addAll(classes);
-            lastCommonTypes.addAll(interfaces);
+            lastCommonTypes.addAll(commonTypes);
 
             if (interfacesEmpty && classesEmpty && adapters.isEmpty()) {
                 // As soon as we detect nothing in common, just exit.
@@ -788,6 +839,28 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
         return results;
     }
 
+	/**
+	 * The super classes, interfaces and adapters of a class, in search order.
+	 * The lists must not be modified.
+	 */
+	private final class SearchOrder {
+		final List classes;
+
+		final List interfaces;
+
+		final List classesAndInterfaces;
+
+		final List adapters;
+
+		SearchOrder(Class clazz) {
+			classes = computeClassOrder(clazz);
+			interfaces = computeInterfaceOrder(classes);
+			classesAndInterfaces = new ArrayList(classes);
+			classesAndInterfaces.addAll(interfaces);
+			adapters = computeAdapterOrder(classesAndInterfaces);
+		}
+	}
+
     /**
      * Returns <code>true</code> if all objects in the given list are of the same class,
      * <code>false</code> otherwise.
@@ -64,6 +64,7 @@ import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.di.UIEventTopic;
 import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
 import org.eclipse.e4.ui.internal.workbench.PartServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
@@ -598,6 +599,9 @@ public class WorkbenchPage implements IWorkbenchPage {
     // Deferral count... delays disposing parts and sending certain events if nonzero
     private int deferCount = 0;
 
+	// Batches the model events while updates are deferred
+	private UIEventPublisher deferredEventPublisher;
+
 
 	private String aggregateWorkingSetId;
 
@@ -1616,11 +1620,19 @@ public class WorkbenchPage implements IWorkbenchPage {
     }
 
     private void startDeferring() {
-		// TODO compat: do we defer events
+		// Handlers of all the model events get the changes as one batch
+		deferredEventPublisher = application.getContext().get(UIEventPublisher.class);
+		if (deferredEventPublisher != null) {
+			deferredEventPublisher.beginBatch();
+		}
     }
 
     private void handleDeferredEvents() {
-		// TODO compat: do we handler defered events
+		if (deferredEventPublisher != null) {
+			UIEventPublisher publisher = deferredEventPublisher;
+			deferredEventPublisher = null;
+			publisher.endBatch();
+		}
     }
 
     public boolean closeEditor(IEditorReference editorRef, boolean save) {
@@ -3513,105 +3525,110 @@ public class WorkbenchPage implements IWorkbenchPage {
 			}
 		}
 
-		modelService.resetPerspectiveModel(persp, window);
+		deferUpdates(true);
+		try {
+			modelService.resetPerspectiveModel(persp, window);
 
-		if (saveablesList != null) {
-			saveablesList.postClose(postCloseInfo);
-		}
+			if (saveablesList != null) {
+				saveablesList.postClose(postCloseInfo);
+			}
 
-		boolean revert = false;
-		if (desc instanceof PerspectiveDescriptor) {
-			PerspectiveDescriptor perspectiveDescriptor = (PerspectiveDescriptor) desc;
-			revert = perspectiveDescriptor.isPredefined()
-					&& !perspectiveDescriptor.hasCustomDefinition();
-		}
+			boolean revert = false;
+			if (desc instanceof PerspectiveDescriptor) {
+				PerspectiveDescriptor perspectiveDescriptor = (PerspectiveDescriptor) desc;
+				revert = perspectiveDescriptor.isPredefined()
+						&& !perspectiveDescriptor.hasCustomDefinition();
+			}
 
-		MPerspective dummyPerspective = null;
-		if (!revert) {
-			dummyPerspective = (MPerspective) modelService.cloneSnippet(application, desc.getId(),
-					window);
-			if (dummyPerspective != null) {
-				handleNullRefPlaceHolders(dummyPerspective, window);
+			MPerspective dummyPerspective = null;
+			if (!revert) {
+				dummyPerspective = (MPerspective) modelService.cloneSnippet(application, desc.getId(),
+						window);
+				if (dummyPerspective != null) {
+					handleNullRefPlaceHolders(dummyPerspective, window);
+				}
 			}
-		}
 
-		if (dummyPerspective == null) {
-			// instantiate a dummy perspective perspective
-			dummyPerspective = modelService.createModelElement(MPerspective.class);
-			dummyPerspective.setElementId(persp.getElementId());
+			if (dummyPerspective == null) {
+				// instantiate a dummy perspective perspective
+				dummyPerspective = modelService.createModelElement(MPerspective.class);
+				dummyPerspective.setElementId(persp.getElementId());
 
-			IPerspectiveFactory factory = ((PerspectiveDescriptor) desc).createFactory();
-			ModeledPageLayout modelLayout = new ModeledPageLayout(window, modelService,
-					partService, dummyPerspective, desc, this, true);
-			factory.createInitialLayout(modelLayout);
+				IPerspectiveFactory factory = ((PerspectiveDescriptor) desc).createFactory();
+				ModeledPageLayout modelLayout = new ModeledPageLayout(window, modelService,
+						partService, dummyPerspective, desc, this, true);
+				factory.createInitialLayout(modelLayout);
 
-			PerspectiveTagger.tagPerspective(dummyPerspective, modelService);
-			PerspectiveExtensionReader reader = new PerspectiveExtensionReader();
-			reader.extendLayout(getExtensionTracker(), desc.getId(), modelLayout);
-		}
+				PerspectiveTagger.tagPerspective(dummyPerspective, modelService);
+				PerspectiveExtensionReader reader = new PerspectiveExtensionReader();
+				reader.extendLayout(getExtensionTracker(), desc.getId(), modelLayout);
+			}
 
-		String hiddenItems = dummyPerspective.getPersistedState().get(ModeledPageLayout.HIDDEN_ITEMS_KEY);
-		persp.getPersistedState().put(ModeledPageLayout.HIDDEN_ITEMS_KEY, hiddenItems);
+			String hiddenItems = dummyPerspective.getPersistedState().get(ModeledPageLayout.HIDDEN_ITEMS_KEY);
+			persp.getPersistedState().put(ModeledPageLayout.HIDDEN_ITEMS_KEY, hiddenItems);
 
-		legacyWindow.getMenuManager().updateAll(true);
-		// ((ICoolBarManager2) ((WorkbenchWindow)
-		// getWorkbenchWindow()).getCoolBarManager2())
-		// .resetItemOrder();
+			legacyWindow.getMenuManager().updateAll(true);
+			// ((ICoolBarManager2) ((WorkbenchWindow)
+			// getWorkbenchWindow()).getCoolBarManager2())
+			// .resetItemOrder();
 
-		// Hide placeholders for parts that exist in the 'global' areas
-		modelService.hideLocalPlaceholders(window, dummyPerspective);
+			// Hide placeholders for parts that exist in the 'global' areas
+			modelService.hideLocalPlaceholders(window, dummyPerspective);
 
-		int dCount = dummyPerspective.getChildren().size();
-		while (dummyPerspective.getChildren().size() > 0) {
-			MPartSashContainerElement dChild = dummyPerspective.getChildren().remove(0);
-			persp.getChildren().add(dChild);
-		}
+			int dCount = dummyPerspective.getChildren().size();
+			while (dummyPerspective.getChildren().size() > 0) {
+				MPartSashContainerElement dChild = dummyPerspective.getChildren().remove(0);
+				persp.getChildren().add(dChild);
+			}
 
-		while (persp.getChildren().size() > dCount) {
-			MUIElement child = persp.getChildren().get(0);
-			child.setToBeRendered(false);
-			persp.getChildren().remove(0);
-		}
+			while (persp.getChildren().size() > dCount) {
+				MUIElement child = persp.getChildren().get(0);
+				child.setToBeRendered(false);
+				persp.getChildren().remove(0);
+			}
 
-		List<MWindow> existingDetachedWindows = new ArrayList<>();
-		existingDetachedWindows.addAll(persp.getWindows());
+			List<MWindow> existingDetachedWindows = new ArrayList<>();
+			existingDetachedWindows.addAll(persp.getWindows());
 
-		// Move any detached windows from template to perspective
-		while (dummyPerspective.getWindows().size() > 0) {
-			MWindow detachedWindow = dummyPerspective.getWindows().remove(0);
-			persp.getWindows().add(detachedWindow);
-		}
+			// Move any detached windows from template to perspective
+			while (dummyPerspective.getWindows().size() > 0) {
+				MWindow detachedWindow = dummyPerspective.getWindows().remove(0);
+				persp.getWindows().add(detachedWindow);
+			}
 
-		// Remove original windows.  Can't remove them first or the MParts will be disposed
-		for (MWindow detachedWindow : existingDetachedWindows) {
-			detachedWindow.setToBeRendered(false);
-			persp.getWindows().remove(detachedWindow);
-		}
+			// Remove original windows.  Can't remove them first or the MParts will be disposed
+			for (MWindow detachedWindow : existingDetachedWindows) {
+				detachedWindow.setToBeRendered(false);
+				persp.getWindows().remove(detachedWindow);
+			}
 
-		// deactivate and activate other action sets as
-		Perspective oldPersp = getPerspective(persp);
-		Perspective dummyPersp = getPerspective(dummyPerspective);
-		updateActionSets(oldPersp, dummyPersp);
-		oldPersp.getAlwaysOnActionSets().clear();
-		oldPersp.getAlwaysOnActionSets().addAll(dummyPersp.getAlwaysOnActionSets());
-		oldPersp.getAlwaysOffActionSets().clear();
-		oldPersp.getAlwaysOffActionSets().addAll(dummyPersp.getAlwaysOffActionSets());
+			// deactivate and activate other action sets as
+			Perspective oldPersp = getPerspective(persp);
+			Perspective dummyPersp = getPerspective(dummyPerspective);
+			updateActionSets(oldPersp, dummyPersp);
+			oldPersp.getAlwaysOnActionSets().clear();
+			oldPersp.getAlwaysOnActionSets().addAll(dummyPersp.getAlwaysOnActionSets());
+			oldPersp.getAlwaysOffActionSets().clear();
+			oldPersp.getAlwaysOffActionSets().addAll(dummyPersp.getAlwaysOffActionSets());
 
-		modelToPerspectiveMapping.remove(dummyPerspective);
+			modelToPerspectiveMapping.remove(dummyPerspective);
 
-		// partly fixing toolbar refresh issue, see bug 383569 comment 10
-		legacyWindow.updateActionSets();
+			// partly fixing toolbar refresh issue, see bug 383569 comment 10
+			legacyWindow.updateActionSets();
 
-		// migrate the tags
-		List<String> tags = persp.getTags();
-		tags.clear();
-		tags.addAll(dummyPerspective.getTags());
+			// migrate the tags
+			List<String> tags = persp.getTags();
+			tags.clear();
+			tags.addAll(dummyPerspective.getTags());
 
-		// remove HIDDEN_EXPLICITLY tag from trim elements
-		List<MTrimElement> trimElements = modelService.findElements(window, null,
-				MTrimElement.class, null);
-		for (MTrimElement mTrimElement : trimElements) {
-			mTrimElement.getTags().remove(IPresentationEngine.HIDDEN_EXPLICITLY);
+			// remove HIDDEN_EXPLICITLY tag from trim elements
+			List<MTrimElement> trimElements = modelService.findElements(window, null,
+					MTrimElement.class, null);
+			for (MTrimElement mTrimElement : trimElements) {
+				mTrimElement.getTags().remove(IPresentationEngine.HIDDEN_EXPLICITLY);
+			}
+		} finally {
+			deferUpdates(false);
 		}
 
 		partService.requestActivation();
@@ -124,6 +124,11 @@ public class WorkbenchPreferenceInitializer extends AbstractPreferenceInitialize
 
 		// Progress view
 		node.putInt(IPreferenceConstants.MAX_PROGRESS_ENTRIES, 20);
+		node.putInt(IPreferenceConstants.PROGRESS_UPDATE_INTERVAL, 100);
+
+		// Decorations
+		node.putInt(IPreferenceConstants.DECORATION_WORKERS, 1);
+		node.putInt(IPreferenceConstants.DECORATION_CACHE_SIZE, 100000);
 
 		IEclipsePreferences rootNode = (IEclipsePreferences) Platform
 				.getPreferencesService().getRootNode()
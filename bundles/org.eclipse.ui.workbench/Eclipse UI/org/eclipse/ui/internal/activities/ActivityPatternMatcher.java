@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.activities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.ui.activities.IActivityPatternBinding;
+
+/**
+ * Matches identifiers against the pattern bindings of all the activities at
+ * once.
+ * <p>
+ * Equality patterns are looked up in a map. Regular expressions are stored in
+ * a trie under their leading literal characters, where an unescaped
+ * <code>.</code> is an edge matching any character, so an identifier is only
+ * tested against the expressions whose prefix it starts with. Expressions
+ * without such a prefix are stored at the root and tested against every
+ * identifier.
+ * </p>
+ * <p>
+ * The activities matching an identifier are remembered. They only depend on
+ * the pattern bindings, not on the enablement of the activities.
+ * </p>
+ *
+ * @since 3.113
+ */
+final class ActivityPatternMatcher {
+
+	private static final class Node {
+		Map<Character, Node> children;
+		Node any;
+		List<ActivityPatternBinding> bindings;
+
+		Node getChild(char c) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children.computeIfAbsent(Character.valueOf(c), key -> new Node());
+		}
+
+		Node getAny() {
+			if (any == null) {
+				any = new Node();
+			}
+			return any;
+		}
+	}
+
+	private final Map<String, Set<IActivityPatternBinding>> bindingsByActivityId;
+
+	private final Map<String, Set<String>> activityIdsByEqualityPattern = new HashMap<>();
+
+	private final Node root = new Node();
+
+	private final List<ActivityPatternBinding> allBindings = new ArrayList<>();
+
+	private final Map<String, Set<String>> activityIdsByIdentifierId = new ConcurrentHashMap<>();
+
+	/**
+	 * @param bindingsByActivityId
+	 *            the pattern bindings of the defined activities
+	 */
+	ActivityPatternMatcher(Map<String, Set<IActivityPatternBinding>> bindingsByActivityId) {
+		this.bindingsByActivityId = bindingsByActivityId;
+		for (Set<IActivityPatternBinding> bindings : bindingsByActivityId.values()) {
+			for (IActivityPatternBinding binding : bindings) {
+				add((ActivityPatternBinding) binding);
+			}
+		}
+	}
+
+	private void add(ActivityPatternBinding binding) {
+		allBindings.add(binding);
+		if (binding.isEqualityPattern()) {
+			activityIdsByEqualityPattern.computeIfAbsent(binding.getString(), key -> new HashSet<>())
+					.add(binding.getActivityId());
+			return;
+		}
+		String regex = binding.getPattern().pattern();
+		Node node = root;
+		// Alternatives have no common prefix
+		if (regex.indexOf('|') < 0) {
+			int i = regex.startsWith("^") ? 1 : 0; //$NON-NLS-1$
+			while (i < regex.length()) {
+				char c = regex.charAt(i);
+				int next = i + 1;
+				boolean any = false;
+				if (c == '.') {
+					any = true;
+				} else if (c == '\\') {
+					// An escaped letter or digit is a class, a quote or a reference
+					if (next == regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+						break;
+					}
+					c = regex.charAt(next++);
+				} else if ("[](){}*+?^$".indexOf(c) >= 0) { //$NON-NLS-1$
+					break;
+				}
+				// The element is optional or repeated
+				if (next < regex.length() && "*+?{".indexOf(regex.charAt(next)) >= 0) { //$NON-NLS-1$
+					break;
+				}
+				node = any ? node.getAny() : node.getChild(c);
+				i = next;
+			}
+		}
+		if (node.bindings == null) {
+			node.bindings = new ArrayList<>(1);
+		}
+		node.bindings.add(binding);
+	}
+
+	/**
+	 * Returns a matcher for new pattern bindings. The activities remembered
+	 * for the identifiers are kept, only the activities whose bindings changed
+	 * are matched again.
+	 *
+	 * @param newBindingsByActivityId
+	 *            the pattern bindings of the defined activities
+	 * @return the matcher for the new bindings
+	 */
+	ActivityPatternMatcher update(Map<String, Set<IActivityPatternBinding>> newBindingsByActivityId) {
+		ActivityPatternMatcher matcher = new ActivityPatternMatcher(newBindingsByActivityId);
+		Set<String> changedActivityIds = new HashSet<>();
+		Set<String> activityIds = new HashSet<>(bindingsByActivityId.keySet());
+		activityIds.addAll(newBindingsByActivityId.keySet());
+		for (String activityId : activityIds) {
+			if (!getPatterns(bindingsByActivityId.get(activityId))
+					.equals(getPatterns(newBindingsByActivityId.get(activityId)))) {
+				changedActivityIds.add(activityId);
+			}
+		}
+		for (Map.Entry<String, Set<String>> entry : activityIdsByIdentifierId.entrySet()) {
+			Set<String> matches = entry.getValue();
+			if (!changedActivityIds.isEmpty()) {
+				matches = new HashSet<>(matches);
+				matches.removeAll(changedActivityIds);
+				matcher.collectMatches(entry.getKey(), changedActivityIds, matches);
+				matches = freeze(matches);
+			}
+			matcher.activityIdsByIdentifierId.put(entry.getKey(), matches);
+		}
+		return matcher;
+	}
+
+	// Compiled patterns are not equal to each other, compare their sources
+	private static Set<String> getPatterns(Set<IActivityPatternBinding> bindings) {
+		if (bindings == null) {
+			return Collections.emptySet();
+		}
+		Set<String> patterns = new HashSet<>();
+		for (IActivityPatternBinding binding : bindings) {
+			patterns.add((binding.isEqualityPattern() ? '=' : '~') + binding.getString());
+		}
+		return patterns;
+	}
+
+	/**
+	 * Returns the ids of the activities with a pattern binding matching the
+	 * identifier.
+	 *
+	 * @param identifierId
+	 *            the id of the identifier
+	 * @return the ids of the matching activities, not to be modified
+	 */
+	Set<String> getActivityIds(String identifierId) {
+		Set<String> activityIds = activityIdsByIdentifierId.get(identifierId);
+		if (activityIds == null) {
+			Set<String> matches = new HashSet<>();
+			collectMatches(identifierId, null, matches);
+			activityIds = freeze(matches);
+			activityIdsByIdentifierId.put(identifierId, activityIds);
+		}
+		return activityIds;
+	}
+
+	private static Set<String> freeze(Set<String> activityIds) {
+		return activityIds.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(activityIds);
+	}
+
+	private void collectMatches(String identifierId, Set<String> activityIds, Set<String> matches) {
+		Set<String> equalityActivityIds = activityIdsByEqualityPattern.get(identifierId);
+		if (equalityActivityIds != null) {
+			for (String activityId : equalityActivityIds) {
+				if (activityIds == null || activityIds.contains(activityId)) {
+					matches.add(activityId);
+				}
+			}
+		}
+		if (hasSurrogates(identifierId)) {
+			// An unescaped . matches a surrogate pair, not a single char
+			collectMatches(allBindings, identifierId, activityIds, matches);
+		} else {
+			collectMatches(root, identifierId, 0, activityIds, matches);
+		}
+	}
+
+	private static void collectMatches(Node node, String identifierId, int index, Set<String> activityIds,
+			Set<String> matches) {
+		if (node.bindings != null) {
+			collectMatches(node.bindings, identifierId, activityIds, matches);
+		}
+		if (index == identifierId.length()) {
+			return;
+		}
+		if (node.children != null) {
+			Node child = node.children.get(Character.valueOf(identifierId.charAt(index)));
+			if (child != null) {
+				collectMatches(child, identifierId, index + 1, activityIds, matches);
+			}
+		}
+		if (node.any != null) {
+			collectMatches(node.any, identifierId, index + 1, activityIds, matches);
+		}
+	}
+
+	private static void collectMatches(List<ActivityPatternBinding> bindings, String identifierId,
+			Set<String> activityIds, Set<String> matches) {
+		for (ActivityPatternBinding binding : bindings) {
+			String activityId = binding.getActivityId();
+			if (!binding.isEqualityPattern() && !matches.contains(activityId)
+					&& (activityIds == null || activityIds.contains(activityId))
+					&& binding.isMatch(identifierId)) {
+				matches.add(activityId);
+			}
+		}
+	}
+
+	private static boolean hasSurrogates(String string) {
+		for (int i = 0; i < string.length(); i++) {
+			if (Character.isSurrogate(string.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
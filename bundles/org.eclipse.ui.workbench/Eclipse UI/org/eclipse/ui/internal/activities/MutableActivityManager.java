@@ -85,6 +85,12 @@ public final class MutableActivityManager extends AbstractActivityManager
 
 	private Map<String, Identifier> identifiersById = new HashMap<>();
 
+	/**
+	 * Matches the identifiers against the pattern bindings of all the
+	 * activities, and remembers the results.
+	 */
+	private ActivityPatternMatcher patternMatcher = new ActivityPatternMatcher(Collections.emptyMap());
+
     /**
      * Avoid endless circular referencing of re-adding activity to evaluation
      * listener, because of adding it the first time to evaluation listener.
@@ -413,6 +419,7 @@ public final class MutableActivityManager extends AbstractActivityManager
         this.activityRequirementBindingsByActivityId = activityRequirementBindingsByActivityId;
         this.activityDefinitionsById = activityDefinitionsById;
         this.activityPatternBindingsByActivityId = activityPatternBindingsByActivityId;
+        this.patternMatcher = patternMatcher.update(activityPatternBindingsByActivityId);
         this.categoryActivityBindingsByCategoryId = categoryActivityBindingsByCategoryId;
         this.categoryDefinitionsById = categoryDefinitionsById;
         boolean definedActivityIdsChanged = false;
@@ -538,7 +545,7 @@ public final class MutableActivityManager extends AbstractActivityManager
         }
 
         updateListeners(activityManagerChanged, activityEventsByActivityId,
-				deltaActivityIds, previouslyEnabledActivityIds);
+				previouslyEnabledActivityIds);
     }
 
 	/**
@@ -546,16 +553,17 @@ public final class MutableActivityManager extends AbstractActivityManager
 	 *
 	 * @param activityManagerChanged
 	 * @param activityEventsByActivityId
-	 * @param deltaActivityIds
 	 * @param previouslyEnabledActivityIds
 	 */
 	private void updateListeners(boolean activityManagerChanged,
-			Map<String, ActivityEvent> activityEventsByActivityId, Set<String> deltaActivityIds,
+			Map<String, ActivityEvent> activityEventsByActivityId,
 			Set<String> previouslyEnabledActivityIds) {
 		// don't update identifiers if the enabled activity set has not changed
         if (activityManagerChanged) {
+			// the matching activities are remembered, only the enablement is
+			// computed again
 			Map<String, IdentifierEvent> identifierEventsByIdentifierId = updateIdentifiers(identifiersById
-                    .keySet(), deltaActivityIds);
+                    .keySet());
             if (identifierEventsByIdentifierId != null) {
 				notifyIdentifiers(identifierEventsByIdentifierId);
 			}
@@ -594,7 +602,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 		deltaActivityIds.add(id);
 		Map<String, ActivityEvent> activityEventsByActivityId = updateActivities(deltaActivityIds);
 
-		updateListeners(true, activityEventsByActivityId, deltaActivityIds,
+		updateListeners(true, activityEventsByActivityId,
 				previouslyEnabledActivityIds);
 	}
 
@@ -770,12 +778,7 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
     private IdentifierEvent updateIdentifier(Identifier identifier) {
-        return updateIdentifier(identifier, definedActivityIds);
-    }
-
-	private IdentifierEvent updateIdentifier(Identifier identifier, Set<String> changedActivityIds) {
         String id = identifier.getId();
-		Set<String> activityIds = new HashSet<>();
 
         boolean enabled = false;
 
@@ -797,21 +800,7 @@ public final class MutableActivityManager extends AbstractActivityManager
                         enabledChanged);
 			}
         } else {
-			Set<String> activityIdsToUpdate = new HashSet<>(changedActivityIds);
-            if (identifier.getActivityIds() != null) {
-                activityIdsToUpdate.addAll(identifier.getActivityIds());
-            }
-			for (Iterator<String> iterator = activityIdsToUpdate.iterator(); iterator
-                    .hasNext();) {
-                String activityId = iterator.next();
-                Activity activity = (Activity) getActivity(activityId);
-
-                if (activity.isMatch(id)) {
-                    activityIds.add(activityId);
-               }
-            }
-
-            activityIdsChanged = identifier.setActivityIds(activityIds);
+            activityIdsChanged = identifier.setActivityIds(patternMatcher.getActivityIds(id));
 
             if (advisor != null) {
             	enabled = advisor.computeEnablement(this, identifier);
@@ -827,11 +816,6 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
 	private Map<String, IdentifierEvent> updateIdentifiers(Collection<String> identifierIds) {
-        return updateIdentifiers(identifierIds, definedActivityIds);
-    }
-
-	private Map<String, IdentifierEvent> updateIdentifiers(Collection<String> identifierIds,
-			Set<String> changedActivityIds) {
 		Map<String, IdentifierEvent> identifierEventsByIdentifierId = new TreeMap<>();
 
 		for (Iterator<String> iterator = identifierIds.iterator(); iterator.hasNext();) {
@@ -839,7 +823,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 			Identifier identifier = identifiersById.get(identifierId);
 
 			if (identifier != null) {
-				IdentifierEvent identifierEvent = updateIdentifier(identifier, changedActivityIds);
+				IdentifierEvent identifierEvent = updateIdentifier(identifier);
 
 				if (identifierEvent != null) {
 					identifierEventsByIdentifierId.put(identifierId, identifierEvent);
@@ -879,17 +863,8 @@ public final class MutableActivityManager extends AbstractActivityManager
 
 				while (!deferredIdentifiers.isEmpty()) {
 					Identifier identifier = deferredIdentifiers.remove(0);
-					Set<String> activityIds = new HashSet<>();
-					for (Iterator<String> iterator = definedActivityIds.iterator(); iterator.hasNext();) {
-						String activityId = iterator.next();
-						Activity activity = (Activity) getActivity(activityId);
-
-						if (activity.isMatch(identifier.getId())) {
-							activityIds.add(activityId);
-						}
-					}
-
-					boolean activityIdsChanged = identifier.setActivityIds(activityIds);
+					boolean activityIdsChanged = identifier
+							.setActivityIds(patternMatcher.getActivityIds(identifier.getId()));
 					if (activityIdsChanged) {
 						IdentifierEvent identifierEvent = new IdentifierEvent(identifier, activityIdsChanged, false);
 						identifierEventsByIdentifierId.put(identifier.getId(), identifierEvent);
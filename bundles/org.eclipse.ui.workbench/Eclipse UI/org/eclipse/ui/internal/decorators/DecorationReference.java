@@ -33,6 +33,12 @@ class DecorationReference {
 
 	IDecorationContext[] contexts;
 
+	// When the reference was queued, used for the latency statistics
+	final long queuedTime = System.nanoTime();
+
+	// Whether the element was visible in a viewer when it was taken from the queue
+	boolean visible = false;
+
     DecorationReference(Object object, Object adaptedObject, IDecorationContext context) {
         this.contexts = new IDecorationContext[] { context} ;
 		Assert.isNotNull(object);
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.jface.viewers.IDecorationContext;
+
+/**
+ * The DecorationResultCache holds the computed {@link DecorationResult}s per
+ * decoration context and element. It can be read and written from any thread
+ * without locking.
+ * <p>
+ * The number of cached results is bounded. When the bound is exceeded the
+ * oldest results are evicted first. Since the scheduler clears the cache after
+ * every round of label updates, the results still in the cache are the ones
+ * computed most recently, and insertion order is a good enough approximation
+ * of access order.
+ * </p>
+ */
+class DecorationResultCache {
+
+	private final Map<IDecorationContext, Map<Object, DecorationResult>> results = new ConcurrentHashMap<>();
+
+	// Entries of the form {context, element} in the order they were added
+	private final Queue<Object[]> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	// The length of insertionOrder, which may contain entries already cleared
+	private final AtomicInteger size = new AtomicInteger();
+
+	private volatile int maxSize;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Create a new cache holding at most maxSize results.
+	 *
+	 * @param maxSize
+	 *            the maximum number of results, at least 1
+	 */
+	DecorationResultCache(int maxSize) {
+		setMaxSize(maxSize);
+	}
+
+	/**
+	 * Set the maximum number of results held by the receiver. Results over the
+	 * new limit are evicted.
+	 *
+	 * @param maxSize
+	 *            the maximum number of results, at least 1
+	 */
+	void setMaxSize(int maxSize) {
+		this.maxSize = Math.max(1, maxSize);
+		evict();
+	}
+
+	/**
+	 * Return the result for element in context, or <code>null</code> if there
+	 * is none. The lookup is counted as a hit or miss.
+	 *
+	 * @param element
+	 * @param context
+	 * @return DecorationResult or <code>null</code>
+	 */
+	DecorationResult lookup(Object element, IDecorationContext context) {
+		DecorationResult result = get(element, context);
+		if (result == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return result;
+	}
+
+	/**
+	 * Return the result for element in context, or <code>null</code> if there
+	 * is none.
+	 *
+	 * @param element
+	 * @param context
+	 * @return DecorationResult or <code>null</code>
+	 */
+	DecorationResult get(Object element, IDecorationContext context) {
+		Map<Object, DecorationResult> contextResults = results.get(context);
+		if (contextResults != null) {
+			return contextResults.get(element);
+		}
+		return null;
+	}
+
+	/**
+	 * Cache the result for element in context, evicting the oldest results if
+	 * the receiver is full.
+	 *
+	 * @param element
+	 * @param context
+	 * @param result
+	 */
+	void put(Object element, IDecorationContext context, DecorationResult result) {
+		Map<Object, DecorationResult> contextResults = results.computeIfAbsent(context,
+				key -> new ConcurrentHashMap<>());
+		if (contextResults.put(element, result) == null) {
+			insertionOrder.add(new Object[] { context, element });
+			if (size.incrementAndGet() > maxSize) {
+				evict();
+			}
+		}
+	}
+
+	/**
+	 * Remove all results.
+	 */
+	void clear() {
+		results.clear();
+		while (insertionOrder.poll() != null) {
+			size.decrementAndGet();
+		}
+	}
+
+	private void evict() {
+		while (size.get() > maxSize) {
+			Object[] entry = insertionOrder.poll();
+			if (entry == null) {
+				return;
+			}
+			size.decrementAndGet();
+			Map<Object, DecorationResult> contextResults = results.get(entry[0]);
+			if (contextResults != null && contextResults.remove(entry[1]) != null) {
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of results currently cached
+	 */
+	int size() {
+		return Math.max(0, size.get());
+	}
+
+	/**
+	 * @return the number of lookups that found a result
+	 */
+	long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a result
+	 */
+	long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of results evicted because the cache was full
+	 */
+	long getEvictions() {
+		return evictions.sum();
+	}
+}
@@ -15,14 +15,18 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -34,17 +38,34 @@ import org.eclipse.jface.viewers.DecorationContext;
 import org.eclipse.jface.viewers.IDecorationContext;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.WorkbenchMessages;
+import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.progress.UIJob;
 import org.eclipse.ui.progress.WorkbenchJob;
 
 /**
  * The DecorationScheduler is the class that handles the decoration of elements
- * using a background thread.
+ * using background jobs.
+ * <p>
+ * Lightweight decorations are computed by a pool of decoration jobs, sized by
+ * the {@link IPreferenceConstants#DECORATION_WORKERS} preference, which all
+ * take their work from a shared queue. The queues and maps are concurrent, so
+ * queueing and computing decorations does not block on a monitor. The number
+ * of results kept in the cache is bounded by the
+ * {@link IPreferenceConstants#DECORATION_CACHE_SIZE} preference.
+ * </p>
+ * <p>
+ * Elements that viewers report as visible are decorated first. Their labels
+ * are updated as soon as all visible elements are decorated, while the label
+ * updates for the other elements are deferred until the whole queue has been
+ * processed.
+ * </p>
  */
 public class DecorationScheduler {
 
@@ -52,27 +73,38 @@ public class DecorationScheduler {
 
 	// When decorations are computed they are added to this cache via
 	// decorated() method
-	Map resultCache = new HashMap();
+	DecorationResultCache resultCache;
 
 	// Objects that need an icon and text computed for display to the user
-	List awaitingDecoration = new ArrayList();
+	Queue<Object> awaitingDecoration = new ConcurrentLinkedQueue<>();
 
-	// Objects that are awaiting a label update.
-	Set pendingUpdate = new HashSet();
+	// Objects awaiting decoration that are visible in a viewer. They may also
+	// be in awaitingDecoration, whichever entry is taken first wins.
+	Queue<Object> awaitingVisibleDecoration = new ConcurrentLinkedQueue<>();
+
+	// The elements visible in each viewer showing decorations
+	Map<Viewer, Set<Object>> visibleElements = new ConcurrentHashMap<>();
 
-	// Key to lock write access to the pending update set
-	Object pendingKey = new Object();
+	// Objects that are awaiting a label update.
+	Set<Object> pendingUpdate = ConcurrentHashMap.newKeySet();
 
-	Map awaitingDecorationValues = new HashMap();
+	Map<Object, DecorationReference> awaitingDecorationValues = new ConcurrentHashMap<>();
 
 	DecoratorManager decoratorManager;
 
-	boolean shutdown = false;
+	volatile boolean shutdown = false;
 
-	Job decorationJob;
+	Job[] decorationJobs;
 
 	UIJob updateJob;
 
+	// Statistics on the time from queueing an element to having its result
+	private final LongAdder decorationCount = new LongAdder();
+
+	private final LongAdder totalLatency = new LongAdder();
+
+	private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
 	private Collection removedListeners = Collections.synchronizedSet(new HashSet());
 
 	private Job clearJob;
@@ -91,7 +123,16 @@ public class DecorationScheduler {
 	 */
 	DecorationScheduler(DecoratorManager manager) {
 		decoratorManager = manager;
-		createDecorationJob();
+		int workers = WorkbenchPlugin.getDefault().getPreferenceStore()
+				.getInt(IPreferenceConstants.DECORATION_WORKERS);
+		int cacheSize = WorkbenchPlugin.getDefault().getPreferenceStore()
+				.getInt(IPreferenceConstants.DECORATION_CACHE_SIZE);
+		resultCache = new DecorationResultCache(cacheSize);
+		updateJob = getUpdateJob();
+		decorationJobs = new Job[Math.max(1, workers)];
+		for (int i = 0; i < decorationJobs.length; i++) {
+			decorationJobs[i] = createDecorationJob();
+		}
 	}
 
 	/**
@@ -134,28 +175,94 @@ public class DecorationScheduler {
 	 *            The decoration context
 	 */
 
-	synchronized void queueForDecoration(Object element, Object adaptedElement, boolean forceUpdate,
+	void queueForDecoration(Object element, Object adaptedElement, boolean forceUpdate,
 			String undecoratedText, IDecorationContext context) {
 
 		Assert.isNotNull(context);
-		DecorationReference reference = (DecorationReference) awaitingDecorationValues.get(element);
-		if (reference != null) {
-			if (forceUpdate) {// Make sure we don't loose a force
-				reference.setForceUpdate(forceUpdate);
+		boolean[] added = new boolean[1];
+		// The reference is updated atomically with respect to nextElement()
+		awaitingDecorationValues.compute(element, (key, reference) -> {
+			if (reference != null) {
+				if (forceUpdate) {// Make sure we don't loose a force
+					reference.setForceUpdate(forceUpdate);
+				}
+				reference.addContext(context);
+				return reference;
 			}
-			reference.addContext(context);
-		} else {
 			reference = new DecorationReference(element, adaptedElement, context);
 			reference.setForceUpdate(forceUpdate);
 			reference.setUndecoratedText(undecoratedText);
-			awaitingDecorationValues.put(element, reference);
-			awaitingDecoration.add(element);
-			if (shutdown) {
-				return;
+			added[0] = true;
+			return reference;
+		});
+		if (added[0]) {
+			if (isVisible(element)) {
+				awaitingVisibleDecoration.add(element);
+			} else {
+				awaitingDecoration.add(element);
 			}
+			scheduleDecorationJobs();
+		}
+
+	}
+
+	private void scheduleDecorationJobs() {
+		if (shutdown) {
+			return;
+		}
+		for (Job decorationJob : decorationJobs) {
 			decorationJob.schedule();
 		}
+	}
+
+	/**
+	 * Set the elements visible in viewer. Elements awaiting decoration among
+	 * them are moved ahead of the others.
+	 *
+	 * @param viewer
+	 * @param elements
+	 *            the visible elements, empty if viewer shows nothing
+	 */
+	void setVisibleElements(Viewer viewer, Object[] elements) {
+		if (elements.length == 0) {
+			visibleElements.remove(viewer);
+			return;
+		}
+		visibleElements.put(viewer, new HashSet<>(Arrays.asList(elements)));
+		boolean promoted = false;
+		for (Object element : elements) {
+			if (awaitingDecorationValues.containsKey(element)) {
+				awaitingVisibleDecoration.add(element);
+				promoted = true;
+			}
+		}
+		if (promoted) {
+			scheduleDecorationJobs();
+		}
+	}
 
+	/**
+	 * Return whether element is visible in any viewer.
+	 *
+	 * @param element
+	 * @return boolean
+	 */
+	boolean isVisible(Object element) {
+		for (Set<Object> elements : visibleElements.values()) {
+			if (elements.contains(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return whether there are no elements awaiting decoration.
+	 *
+	 * @return boolean
+	 */
+	boolean isQueueEmpty() {
+		return awaitingVisibleDecoration.isEmpty() && awaitingDecoration.isEmpty();
 	}
 
 	/**
@@ -202,7 +309,7 @@ public class DecorationScheduler {
 			return null;
 		}
 
-		DecorationResult decoration = internalGetResult(element, context);
+		DecorationResult decoration = resultCache.lookup(element, context);
 
 		if (decoration == null) {
 			queueForDecoration(element, adaptedElement, false, null, context);
@@ -214,38 +321,24 @@ public class DecorationScheduler {
 
 	private DecorationResult internalGetResult(Object element,
 			IDecorationContext context) {
-		Map results = (Map) resultCache.get(context);
-		if (results != null) {
-			return (DecorationResult) results.get(element);
-		}
-		return null;
+		return resultCache.get(element, context);
 	}
 
 	protected void internalPutResult(Object element,
 			IDecorationContext context, DecorationResult result) {
-		Map results = (Map) resultCache.get(context);
-		if (results == null) {
-			results = new HashMap();
-			resultCache.put(context, results);
-		}
-		results.put(element, result);
+		resultCache.put(element, context, result);
 	}
 
 	/**
 	 * Execute a label update using the pending decorations.
 	 */
-	synchronized void decorated() {
+	void decorated() {
 
 		// Don't bother if we are shutdown now
 		if (shutdown) {
 			return;
 		}
 
-		// Lazy initialize the job
-		if (updateJob == null) {
-			updateJob = getUpdateJob();
-		}
-
 		// Give it a bit of a lag for other updates to occur
 		updateJob.schedule(UPDATE_DELAY);
 	}
@@ -253,37 +346,52 @@ public class DecorationScheduler {
 	/**
 	 * Shutdown the decoration.
 	 */
-	synchronized void shutdown() {
+	void shutdown() {
 		shutdown = true;
 	}
 
 	/**
-	 * Get the next resource to be decorated.
+	 * Get the next resource to be decorated, visible elements first. May be
+	 * called by several decoration jobs at once.
 	 *
 	 * @return IResource
 	 */
-	synchronized DecorationReference nextElement() {
-
-		if (shutdown || awaitingDecoration.isEmpty()) {
-			return null;
+	DecorationReference nextElement() {
+
+		Object element;
+		while (!shutdown && (element = awaitingVisibleDecoration.poll()) != null) {
+			if (!isVisible(element)) {
+				// Scrolled out of view, demote it
+				if (awaitingDecorationValues.containsKey(element)) {
+					awaitingDecoration.add(element);
+				}
+				continue;
+			}
+			DecorationReference reference = awaitingDecorationValues.remove(element);
+			if (reference != null) {
+				reference.visible = true;
+				return reference;
+			}
 		}
-		Object element = awaitingDecoration.remove(0);
-
-		return (DecorationReference) awaitingDecorationValues.remove(element);
+		while (!shutdown && (element = awaitingDecoration.poll()) != null) {
+			DecorationReference reference = awaitingDecorationValues.remove(element);
+			if (reference != null) {
+				return reference;
+			}
+		}
+		return null;
 	}
 
 	/**
-	 * Create the Thread used for running decoration.
+	 * Create a job used for running decoration.
 	 */
-	private void createDecorationJob() {
-		decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
+	private Job createDecorationJob() {
+		Job decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 
-				synchronized (DecorationScheduler.this) {
-					if (shutdown) {
-						return Status.CANCEL_STATUS;
-					}
+				if (shutdown) {
+					return Status.CANCEL_STATUS;
 				}
 
 				while (updatesPending()) {
@@ -313,12 +421,15 @@ public class DecorationScheduler {
 						ensureResultCached(element, force, context);
 						loopMonitor.split(1);
 					}
+					long latency = System.nanoTime() - reference.queuedTime;
+					decorationCount.increment();
+					totalLatency.add(latency);
+					maxLatency.accumulate(latency);
 					// Only notify listeners when we have exhausted the
-					// queue of decoration requests.
-					synchronized (DecorationScheduler.this) {
-						if (awaitingDecoration.isEmpty()) {
-							decorated();
-						}
+					// queue of decoration requests, or all visible elements
+					// have been decorated.
+					if (isQueueEmpty() || (reference.visible && awaitingVisibleDecoration.isEmpty())) {
+						decorated();
 					}
 				}
 				return Status.OK_STATUS;
@@ -338,10 +449,7 @@ public class DecorationScheduler {
 					IDecorationContext context) {
 				boolean elementIsCached = internalGetResult(element, context) != null;
 				if (elementIsCached) {
-					synchronized (pendingKey) {
-						pendingUpdate.add(element);
-					}
-
+					pendingUpdate.add(element);
 				}
 
 				if (!elementIsCached) {
@@ -353,12 +461,6 @@ public class DecorationScheduler {
 					// anyways
 					if (cacheResult.hasValue() || force) {
 
-						// Synchronize on the result lock as we want to
-						// be sure that we do not try and decorate during
-						// label update servicing.
-						// Note: resultCache and pendingUpdate modifications
-						// must be done atomically.
-
 						// Add the decoration even if it's empty in
 						// order to indicate that the decoration is
 						// ready
@@ -367,10 +469,7 @@ public class DecorationScheduler {
 						// Add an update for only the original element
 						// to
 						// prevent multiple updates and clear the cache.
-						synchronized (pendingKey) {
-							pendingUpdate.add(element);
-						}
-
+						pendingUpdate.add(element);
 
 					}
 				}
@@ -390,6 +489,7 @@ public class DecorationScheduler {
 		decorationJob.setSystem(true);
 		decorationJob.setPriority(Job.DECORATE);
 		decorationJob.schedule();
+		return decorationJob;
 	}
 
 	/**
@@ -455,10 +555,8 @@ public class DecorationScheduler {
 			@Override
 			public IStatus runInUIThread(IProgressMonitor monitor) {
 
-				synchronized (DecorationScheduler.this) {
-					if (shutdown) {
-						return Status.CANCEL_STATUS;
-					}
+				if (shutdown) {
+					return Status.CANCEL_STATUS;
 				}
 
 				// If this is the first one check again in case
@@ -520,7 +618,7 @@ public class DecorationScheduler {
                 // Other decoration requests may have occurred due to
                 // updates or we may have timed out updating listeners.
                 // Only clear the results if there are none pending.
-                if (awaitingDecoration.isEmpty()) {
+                if (isQueueEmpty()) {
                     resultCache.clear();
                 }
             }
@@ -530,11 +628,14 @@ public class DecorationScheduler {
 				// clear the list
 				removedListeners.clear();
 				currentIndex = 0;
-				synchronized (pendingKey) {
-					Object[] elements = pendingUpdate.toArray(new Object[pendingUpdate.size()]);
-					pendingUpdate.clear();
-					labelProviderChangedEvent = new LabelProviderChangedEvent(decoratorManager, elements);
+				// Remove the elements one by one, so that elements added by
+				// the decoration jobs in the meantime are not lost
+				Collection<Object> elements = new HashSet<>();
+				for (Iterator<Object> iterator = pendingUpdate.iterator(); iterator.hasNext();) {
+					elements.add(iterator.next());
+					iterator.remove();
 				}
+				labelProviderChangedEvent = new LabelProviderChangedEvent(decoratorManager, elements.toArray());
 				listeners = decoratorManager.getListeners();
 			}
 
@@ -628,7 +729,7 @@ public class DecorationScheduler {
 	 * @return boolean
 	 */
 	public boolean processingUpdates() {
-		return !hasPendingUpdates() && !awaitingDecoration.isEmpty();
+		return !hasPendingUpdates() && !isQueueEmpty();
 	}
 
 	/**
@@ -653,9 +754,73 @@ public class DecorationScheduler {
 	 * @return boolean <code>true</code> if the updates are empty
 	 */
 	boolean hasPendingUpdates() {
-		synchronized (pendingKey) {
-			return pendingUpdate.isEmpty();
-		}
+		return pendingUpdate.isEmpty();
+	}
+
+	/**
+	 * Return the number of lookups that found a cached decoration.
+	 *
+	 * @return long
+	 */
+	public long getCacheHits() {
+		return resultCache.getHits();
+	}
+
+	/**
+	 * Return the number of lookups that had to queue the element for
+	 * decoration.
+	 *
+	 * @return long
+	 */
+	public long getCacheMisses() {
+		return resultCache.getMisses();
+	}
+
+	/**
+	 * Return the number of results evicted because the cache was full.
+	 *
+	 * @return long
+	 */
+	public long getCacheEvictions() {
+		return resultCache.getEvictions();
+	}
 
+	/**
+	 * Return the number of results currently cached.
+	 *
+	 * @return int
+	 */
+	public int getCacheSize() {
+		return resultCache.size();
+	}
+
+	/**
+	 * Return the number of elements decorated so far.
+	 *
+	 * @return long
+	 */
+	public long getDecorationCount() {
+		return decorationCount.sum();
+	}
+
+	/**
+	 * Return the average time in nanoseconds from queueing an element until its
+	 * decoration was computed.
+	 *
+	 * @return long
+	 */
+	public long getAverageLatency() {
+		long count = decorationCount.sum();
+		return count == 0 ? 0 : totalLatency.sum() / count;
+	}
+
+	/**
+	 * Return the longest time in nanoseconds from queueing an element until its
+	 * decoration was computed.
+	 *
+	 * @return long
+	 */
+	public long getMaxLatency() {
+		return maxLatency.get();
 	}
 }
@@ -45,8 +45,10 @@ import org.eclipse.jface.viewers.IFontDecorator;
 import org.eclipse.jface.viewers.ILabelDecorator;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+import org.eclipse.jface.viewers.IPrioritizedLabelDecorator;
 import org.eclipse.jface.viewers.LabelDecorator;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
@@ -115,7 +117,7 @@ public class DecoratorManager implements ILabelProviderListener,
 	 */
 	private static class ManagedWorkbenchLabelDecorator extends LabelDecorator
 			implements ILabelDecorator, IDelayedLabelDecorator,
-			IColorDecorator, IFontDecorator {
+			IPrioritizedLabelDecorator, IColorDecorator, IFontDecorator {
 
 		private final DecoratorManager decoratorManager;
 		private LocalResourceManager resourceManager;
@@ -167,6 +169,11 @@ public class DecoratorManager implements ILabelProviderListener,
 					DecorationContext.DEFAULT_CONTEXT);
 		}
 
+		@Override
+		public void setVisibleElements(Viewer viewer, Object[] elements) {
+			decoratorManager.setVisibleElements(viewer, elements);
+		}
+
 		@Override
 		public Font decorateFont(Object element) {
 			return decoratorManager.decorateFont(element);
@@ -1028,6 +1035,18 @@ public class DecoratorManager implements ILabelProviderListener,
 		return lightweightManager;
 	}
 
+	/**
+	 * Returns the scheduler computing the lightweight decorations, which
+	 * exposes the cache and latency statistics. This method is public for use
+	 * by test cases. No other classes outside of this package should use this
+	 * method.
+	 *
+	 * @return DecorationScheduler
+	 */
+	public DecorationScheduler getScheduler() {
+		return scheduler;
+	}
+
 	/**
 	 * @see org.eclipse.ui.IDecoratorManager#update(java.lang.String)
 	 */
@@ -1042,6 +1061,18 @@ public class DecoratorManager implements ILabelProviderListener,
 
 	}
 
+	/**
+	 * Set the elements visible in viewer, which are decorated before other
+	 * elements.
+	 *
+	 * @param viewer
+	 * @param elements
+	 *            the visible elements, empty if viewer shows nothing
+	 */
+	public void setVisibleElements(Viewer viewer, Object[] elements) {
+		scheduler.setVisibleElements(viewer, elements);
+	}
+
 	public boolean prepareDecoration(Object element, String originalText,
 			IDecorationContext context) {
 		// Check if there is a decoration ready or if there is no lightweight
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pattern supporting "*" and "?" wildcards, compiled once into the segments
+ * between its "*"s, shared by the string matchers of the workbench.
+ * <p>
+ * Literal '*' and '?' characters must be escaped in the pattern e.g., "\*"
+ * means literal "*", etc. Escaping any other character just results in the
+ * escape character and that character in the pattern.
+ * </p>
+ * <p>
+ * The segments without '?' are searched with {@link String#indexOf(String)}
+ * when the case is significant. When it is ignored, the lower and upper case
+ * of the segments are computed once, and ASCII characters are compared
+ * without {@link Character} case conversions. Matching does not allocate, and
+ * the matchers can be shared by threads.
+ * </p>
+ *
+ * @since 3.113
+ */
+public final class GlobMatcher {
+
+	private static final char SINGLE_WILD_CARD = '\u0000';
+
+	private final int length;
+
+	private final boolean ignoreCase;
+
+	private final boolean ignoreWildCards;
+
+	private final boolean hasLeadingStar;
+
+	private final boolean hasTrailingStar;
+
+	/* The segments between the '*'s, with '?' as SINGLE_WILD_CARD */
+	private final String[] segments;
+
+	private final char[][] chars;
+
+	private final char[][] lowerChars;
+
+	private final char[][] upperChars;
+
+	private final boolean[] hasSingleWildCard;
+
+	/* The number of characters of the text matched by the segments */
+	private final int bound;
+
+	/**
+	 * Compile a pattern which may contain '*' for 0 and many characters and
+	 * '?' for exactly one character.
+	 *
+	 * @param pattern
+	 *            the pattern to match text against
+	 * @param ignoreCase
+	 *            if true, case is ignored
+	 * @param ignoreWildCards
+	 *            if true, wild cards and their escape sequences are ignored
+	 *            (everything is taken literally).
+	 */
+	public GlobMatcher(String pattern, boolean ignoreCase, boolean ignoreWildCards) {
+		if (pattern == null) {
+			throw new IllegalArgumentException();
+		}
+		this.length = pattern.length();
+		this.ignoreCase = ignoreCase;
+		this.ignoreWildCards = ignoreWildCards;
+		if (ignoreWildCards) {
+			hasLeadingStar = false;
+			hasTrailingStar = false;
+			segments = new String[] { pattern };
+		} else {
+			hasLeadingStar = pattern.startsWith("*"); //$NON-NLS-1$
+			/* make sure it's not an escaped wildcard */
+			hasTrailingStar = pattern.endsWith("*") && length > 1 && pattern.charAt(length - 2) != '\\'; //$NON-NLS-1$
+			segments = parseSegments(pattern);
+		}
+		chars = new char[segments.length][];
+		lowerChars = new char[segments.length][];
+		upperChars = new char[segments.length][];
+		hasSingleWildCard = new boolean[segments.length];
+		int total = 0;
+		for (int i = 0; i < segments.length; i++) {
+			chars[i] = segments[i].toCharArray();
+			lowerChars[i] = new char[chars[i].length];
+			upperChars[i] = new char[chars[i].length];
+			for (int j = 0; j < chars[i].length; j++) {
+				lowerChars[i][j] = Character.toLowerCase(chars[i][j]);
+				upperChars[i][j] = Character.toUpperCase(chars[i][j]);
+			}
+			hasSingleWildCard[i] = !ignoreWildCards && segments[i].indexOf(SINGLE_WILD_CARD) >= 0;
+			total += chars[i].length;
+		}
+		bound = total;
+	}
+
+	/**
+	 * Parses the given pattern into segments separated by wildcard '*'
+	 * characters.
+	 */
+	private static String[] parseSegments(String pattern) {
+		List<String> temp = new ArrayList<>();
+		int pos = 0;
+		StringBuilder buf = new StringBuilder();
+		while (pos < pattern.length()) {
+			char c = pattern.charAt(pos++);
+			switch (c) {
+			case '\\':
+				if (pos >= pattern.length()) {
+					buf.append(c);
+				} else {
+					char next = pattern.charAt(pos++);
+					/* if it's an escape sequence */
+					if (next == '*' || next == '?' || next == '\\') {
+						buf.append(next);
+					} else {
+						/* not an escape sequence, just insert literally */
+						buf.append(c);
+						buf.append(next);
+					}
+				}
+				break;
+			case '*':
+				if (buf.length() > 0) {
+					/* new segment */
+					temp.add(buf.toString());
+					buf.setLength(0);
+				}
+				break;
+			case '?':
+				/* append special character representing single match wildcard */
+				buf.append(SINGLE_WILD_CARD);
+				break;
+			default:
+				buf.append(c);
+			}
+		}
+		/* add last buffer to segment list */
+		if (buf.length() > 0) {
+			temp.add(buf.toString());
+		}
+		return temp.toArray(new String[temp.size()]);
+	}
+
+	/**
+	 * Match the given <code>text</code> with the pattern.
+	 *
+	 * @param text
+	 *            a String object
+	 * @return true if matched otherwise false
+	 */
+	public boolean match(String text) {
+		if (text == null) {
+			return false;
+		}
+		return match(text, 0, text.length());
+	}
+
+	/**
+	 * Given the starting (inclusive) and the ending (exclusive) positions in
+	 * the <code>text</code>, determine if the given substring matches with the
+	 * pattern.
+	 *
+	 * @param text
+	 *            a String object that contains the substring to match
+	 * @param start
+	 *            marks the starting position (inclusive) of the substring
+	 * @param end
+	 *            marks the ending index (exclusive) of the substring
+	 * @return true if the specified portion of the text matches the pattern
+	 */
+	public boolean match(String text, int start, int end) {
+		if (text == null) {
+			throw new IllegalArgumentException();
+		}
+		if (start > end) {
+			return false;
+		}
+		if (ignoreWildCards) {
+			return end - start == length && start >= 0 && end <= text.length() && regionMatches(text, start, 0);
+		}
+		int segCount = segments.length;
+		if (segCount == 0 && (hasLeadingStar || hasTrailingStar)) {
+			// contains only '*'(s)
+			return true;
+		}
+		if (start == end) {
+			return length == 0;
+		}
+		if (length == 0) {
+			return false;
+		}
+		start = Math.max(0, start);
+		end = Math.min(end, text.length());
+		if (end - start < bound) {
+			return false;
+		}
+
+		int tCurPos = start;
+		int i = 0;
+		/* process first segment */
+		if (!hasLeadingStar) {
+			if (!regionMatches(text, start, 0)) {
+				return false;
+			}
+			tCurPos += chars[0].length;
+			i++;
+			if (segCount == 1 && !hasTrailingStar) {
+				// only one segment to match, no wildcards specified
+				return tCurPos == end;
+			}
+		}
+		/* process middle segments */
+		for (; i < segCount; i++) {
+			int currentMatch = indexOf(text, tCurPos, end, i);
+			if (currentMatch < 0) {
+				return false;
+			}
+			tCurPos = currentMatch + chars[i].length;
+		}
+		/* process final segment */
+		if (!hasTrailingStar && tCurPos != end) {
+			return regionMatches(text, end - chars[segCount - 1].length, segCount - 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Given the starting (inclusive) and the ending (exclusive) positions in
+	 * the <code>text</code>, determine if the pattern matches a part of the
+	 * given substring, as if it started and ended with '*'. No part of the
+	 * substring matches the pattern if this is false.
+	 *
+	 * @param text
+	 *            a String object that contains the substring to search
+	 * @param start
+	 *            marks the starting position (inclusive) of the substring
+	 * @param end
+	 *            marks the ending index (exclusive) of the substring
+	 * @return true if a part of the specified portion of the text matches the
+	 *         pattern
+	 */
+	public boolean matchPart(String text, int start, int end) {
+		if (text == null) {
+			throw new IllegalArgumentException();
+		}
+		start = Math.max(0, start);
+		end = Math.min(end, text.length());
+		if (end - start < bound) {
+			return false;
+		}
+		int tCurPos = start;
+		for (int i = 0; i < segments.length; i++) {
+			int currentMatch = indexOf(text, tCurPos, end, i);
+			if (currentMatch < 0) {
+				return false;
+			}
+			tCurPos = currentMatch + chars[i].length;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the starting index in the text of the first match of the
+	 *         segment between start (inclusive) and end (exclusive), or -1 if
+	 *         not found
+	 */
+	private int indexOf(String text, int start, int end, int segment) {
+		int max = end - chars[segment].length;
+		if (!ignoreCase && !hasSingleWildCard[segment]) {
+			int i = text.indexOf(segments[segment], start);
+			return i > max ? -1 : i;
+		}
+		for (int i = start; i <= max; i++) {
+			if (regionMatches(text, i, segment)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return whether the segment matches the text at tStart
+	 */
+	private boolean regionMatches(String text, int tStart, int segment) {
+		char[] p = chars[segment];
+		for (int i = 0; i < p.length; i++) {
+			char tchar = text.charAt(tStart + i);
+			char pchar = p[i];
+			if (pchar == tchar) {
+				continue;
+			}
+			/* skip single wild cards */
+			if (pchar == SINGLE_WILD_CARD && !ignoreWildCards) {
+				continue;
+			}
+			if (!ignoreCase) {
+				return false;
+			}
+			char lower = lowerChars[segment][i];
+			if ((tchar | pchar) < 128) {
+				// Both ASCII, only the letters have another case
+				if (tchar >= 'A' && tchar <= 'Z') {
+					tchar += 'a' - 'A';
+				}
+				if (tchar != lower) {
+					return false;
+				}
+			} else {
+				char upper = upperChars[segment][i];
+				char tupper = Character.toUpperCase(tchar);
+				// comparing after converting to upper case doesn't handle all
+				// cases; also compare after converting to lower case
+				if (tupper != upper && Character.toLowerCase(tchar) != lower
+						&& Character.toLowerCase(tupper) != Character.toLowerCase(upper)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,10 +18,10 @@ package org.eclipse.ui.internal.misc;
 import com.ibm.icu.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
 
 /**
- * A string pattern matcher, supporting "*" and "?" wildcards.
+ * A string pattern matcher, supporting "*" and "?" wildcards. The pattern and
+ * each of its words are compiled into a {@link GlobMatcher}.
  */
 public class StringMatcher {
     protected String fPattern;
@@ -37,165 +37,18 @@ public class StringMatcher {
 	protected Word wholePatternWord;
 	protected Word[] splittedPatternWords;
 
-    protected static final char fSingleWildCard = '\u0000';
-
 	class Word {
-		private boolean hasTrailingStar = false;
-		private boolean hasLeadingStar = false;
-		private int bound = 0;
-		private String[] fragments = null;
 		private final String pattern;
 
+		private final GlobMatcher matcher;
+
 		Word(String pattern) {
 			this.pattern = pattern;
-		}
-
-		public Word(String pattern, int fLength, String[] wordsSplitted) {
-			this(pattern);
-			this.bound = fLength;
-			this.fragments = wordsSplitted;
-		}
-
-		private void parseWildcards() {
-			if (this.pattern.startsWith("*")) { //$NON-NLS-1$
-				this.hasLeadingStar = true;
-			}
-			if (this.pattern.endsWith("*")) {//$NON-NLS-1$
-				/* make sure it's not an escaped wildcard */
-				if (this.pattern.length() > 1 && this.pattern.charAt(this.pattern.length() - 2) != '\\') {
-					this.hasTrailingStar = true;
-				}
-			}
-
-			Vector<String> temp = new Vector<>();
-
-			int pos = 0;
-			StringBuilder buf = new StringBuilder();
-			while (pos < this.pattern.length()) {
-				char c = this.pattern.charAt(pos++);
-				switch (c) {
-				case '\\':
-					if (pos >= this.pattern.length()) {
-						buf.append(c);
-					} else {
-						char next = this.pattern.charAt(pos++);
-						/* if it's an escape sequence */
-						if (next == '*' || next == '?' || next == '\\') {
-							buf.append(next);
-						} else {
-							/* not an escape sequence, just insert literally */
-							buf.append(c);
-							buf.append(next);
-						}
-					}
-					break;
-				case '*':
-					if (buf.length() > 0) {
-						/* new segment */
-						temp.addElement(buf.toString());
-						this.bound += buf.length();
-						buf.setLength(0);
-					}
-					break;
-				case '?':
-					/* append special character representing single match wildcard */
-					buf.append(fSingleWildCard);
-					break;
-				default:
-					buf.append(c);
-				}
-			}
-
-			/* add last buffer to segment list */
-			if (buf.length() > 0) {
-				temp.addElement(buf.toString());
-				this.bound += buf.length();
-			}
-
-			this.fragments = new String[temp.size()];
-			temp.copyInto(this.fragments);
+			this.matcher = new GlobMatcher(pattern, fIgnoreCase, fIgnoreWildCards);
 		}
 
 		boolean match(String text, int start, int end) {
-			boolean found = true;
-			if (fIgnoreWildCards) {
-				if ((end - start == this.pattern.length())
-						&& this.pattern.regionMatches(fIgnoreCase, 0, text, start, this.pattern.length()))
-					return true;
-				return false;
-			}
-			String[] segments = null;
-			segments = this.fragments;
-			int segCount = segments.length;
-			if (segCount == 0 && (this.hasLeadingStar || this.hasTrailingStar)) {
-				return true;
-			}
-			if (start == end) {
-				if (this.pattern.length() == 0)
-					return true;
-				return false;
-			}
-			if (this.pattern.length() == 0) {
-				if (start == end)
-					return true;
-				return false;
-			}
-
-			int tCurPos = start;
-			int bound = end - this.bound;
-			if (bound < 0) {
-				return false;
-			}
-			int i = 0;
-			String current = segments[i];
-			int segLength = current.length();
-
-			/* process first segment */
-			if (!hasLeadingStar) {
-				if (!regExpRegionMatches(text, start, current, 0, segLength)) {
-					return false;
-				}
-				++i;
-				tCurPos = tCurPos + segLength;
-			}
-			if ((segments.length == 1) && (!hasLeadingStar) && (!hasTrailingStar)) {
-				// only one segment to match, no wildcards specified
-				if (tCurPos == end)
-					return true;
-				return false;
-			}
-			/* process middle segments */
-			while (i < segCount && found) {
-				current = segments[i];
-				int currentMatch;
-				int k = current.indexOf(fSingleWildCard);
-				if (k < 0) {
-					currentMatch = textPosIn(text, tCurPos, end, current);
-					if (currentMatch < 0) {
-						found = false;
-					}
-				} else {
-					currentMatch = regExpPosIn(text, tCurPos, end, current);
-					if (currentMatch < 0) {
-						found = false;
-					}
-				}
-				if (!found)
-					return false;
-				tCurPos = currentMatch + current.length();
-				i++;
-			}
-
-			/* process final segment */
-			if (!hasTrailingStar && tCurPos != end) {
-				int clen = current.length();
-				if (regExpRegionMatches(text, end - clen, current, 0, clen))
-					return true;
-				return false;
-			}
-			if (i == segCount)
-				return true;
-			return false;
+			return matcher.match(text, start, end);
 		}
 
 		/**
@@ -206,6 +59,10 @@ public class StringMatcher {
 		 *         given text
 		 */
 		public boolean matchTextWord(String text, int start, int end) {
+			if (!matcher.matchPart(text, start, end)) {
+				// No word of the text can match
+				return false;
+			}
 			String[] textWords = getWords(text.substring(start, end));
 			if (textWords.length == 0) {
 				return pattern.isEmpty();
@@ -272,16 +129,8 @@ public class StringMatcher {
         parsePatternIntoWords();
 
         if (fIgnoreWildCards) {
-            parseNoWildCards();
-        } else {
-			if (wholePatternWord != null) {
-				wholePatternWord.parseWildcards();
-			}
-			if (splittedPatternWords != null && splittedPatternWords.length > 1) {
-				for (Word word : splittedPatternWords) {
-					word.parseWildcards();
-				}
-			}
+			// The pattern is matched as a whole
+			this.wholePatternWord = new Word(fPattern);
         }
     }
 
@@ -356,134 +205,6 @@ public class StringMatcher {
 		}
 	}
 
-    /**
-     * This method parses the given pattern into segments seperated by wildcard '*' characters.
-     * Since wildcards are not being used in this case, the pattern consists of a single segment.
-     */
-    private void parseNoWildCards() {
-		this.wholePatternWord = new Word(fPattern, fLength, patternWords);
-		this.wholePatternWord.bound = fLength;
-		this.wholePatternWord.fragments = patternWords;
-    }
-
-
-    /**
-     * @param text a string which contains no wildcard
-     * @param start the starting index in the text for search, inclusive
-     * @param end the stopping point of search, exclusive
-     * @return the starting index in the text of the pattern , or -1 if not found
-     */
-    protected int posIn(String text, int start, int end) {//no wild card in pattern
-        int max = end - fLength;
-
-        if (!fIgnoreCase) {
-            int i = text.indexOf(fPattern, start);
-            if (i == -1 || i > max) {
-				return -1;
-			}
-            return i;
-        }
-
-        for (int i = start; i <= max; ++i) {
-            if (text.regionMatches(true, i, fPattern, 0, fLength)) {
-				return i;
-			}
-        }
-
-        return -1;
-    }
-
-    /**
-     * @param text a simple regular expression that may only contain '?'(s)
-     * @param start the starting index in the text for search, inclusive
-     * @param end the stopping point of search, exclusive
-     * @param p a simple regular expression that may contains '?'
-     * @return the starting index in the text of the pattern , or -1 if not found
-     */
-    protected int regExpPosIn(String text, int start, int end, String p) {
-        int plen = p.length();
-
-        int max = end - plen;
-        for (int i = start; i <= max; ++i) {
-            if (regExpRegionMatches(text, i, p, 0, plen)) {
-				return i;
-			}
-        }
-        return -1;
-    }
-
-    /**
-	 *
-	 * @return boolean
-	 * @param text       a String to match
-	 * @param start      int that indicates the starting index of match, inclusive
-	 * @param            end</code> int that indicates the ending index of match,
-	 *                   exclusive
-	 * @param p          String, String, a simple regular expression that may
-	 *                   contain '?'
-	 * @param ignoreCase boolean indicating whether code>p</code> is case sensitive
-	 */
-    protected boolean regExpRegionMatches(String text, int tStart, String p,
-            int pStart, int plen) {
-        while (plen-- > 0) {
-            char tchar = text.charAt(tStart++);
-            char pchar = p.charAt(pStart++);
-
-            /* process wild cards */
-            if (!fIgnoreWildCards) {
-                /* skip single wild cards */
-                if (pchar == fSingleWildCard) {
-                    continue;
-                }
-            }
-            if (pchar == tchar) {
-				continue;
-			}
-            if (fIgnoreCase) {
-                if (Character.toUpperCase(tchar) == Character
-                        .toUpperCase(pchar)) {
-					continue;
-				}
-                // comparing after converting to upper case doesn't handle all cases;
-                // also compare after converting to lower case
-				if (Character.toLowerCase(tchar) == Character.toLowerCase(pchar)) {
-					continue;
-				}
-            }
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * @param text the string to match
-     * @param start the starting index in the text for search, inclusive
-     * @param end the stopping point of search, exclusive
-     * @param p a pattern string that has no wildcard
-     * @return the starting index in the text of the pattern , or -1 if not found
-     */
-    protected int textPosIn(String text, int start, int end, String p) {
-
-        int plen = p.length();
-        int max = end - plen;
-
-        if (!fIgnoreCase) {
-            int i = text.indexOf(p, start);
-            if (i == -1 || i > max) {
-				return -1;
-			}
-            return i;
-        }
-
-        for (int i = start; i <= max; ++i) {
-            if (text.regionMatches(true, i, p, 0, plen)) {
-				return i;
-			}
-        }
-
-        return -1;
-    }
-
 	/**
 	 * Take the given filter text and break it down into words using a
 	 * BreakIterator.
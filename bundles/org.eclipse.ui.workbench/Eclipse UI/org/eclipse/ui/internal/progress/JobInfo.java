@@ -17,6 +17,7 @@ package org.eclipse.ui.internal.progress;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.jobs.Job;
@@ -34,6 +35,12 @@ public class JobInfo extends JobTreeElement {
 	private volatile boolean canceled;
 	private final Queue<JobTreeElement> children = new ConcurrentLinkedQueue<>();
 
+	/**
+	 * Whether a refresh of this job is queued in the {@link ProgressManager}
+	 * and not yet delivered to the listeners.
+	 */
+	private final AtomicBoolean refreshPending = new AtomicBoolean();
+
 	private final Job job;
 
     private GroupInfo parent;
@@ -95,6 +102,23 @@ public class JobInfo extends JobTreeElement {
         ProgressManager.getInstance().refreshJobInfo(this);
     }
 
+	/**
+	 * Marks a refresh of the receiver as pending.
+	 *
+	 * @return <code>false</code> if a refresh was already pending, in which
+	 *         case the new refresh can be coalesced with it
+	 */
+	boolean markRefreshPending() {
+		return refreshPending.compareAndSet(false, true);
+	}
+
+	/**
+	 * Marks the pending refresh of the receiver as delivered.
+	 */
+	void clearRefreshPending() {
+		refreshPending.set(false);
+	}
+
     /**
 	 * Clears the collection of subtasks an the task info.
 	 */
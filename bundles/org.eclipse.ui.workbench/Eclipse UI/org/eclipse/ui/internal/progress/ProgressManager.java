@@ -174,6 +174,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 	private final Throttler uiRefreshThrottler;
 
+	private static final int DEFAULT_UPDATE_INTERVAL = 100;
+
 	/**
 	 * Returns the progress manager currently in use.
 	 *
@@ -335,7 +337,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 		setUpImages();
 
-		uiRefreshThrottler = new Throttler(Display.getDefault(), Duration.ofMillis(100), this::notifyListeners);
+		uiRefreshThrottler = new Throttler(Display.getDefault(), Duration.ofMillis(getUpdateInterval()),
+				this::notifyListeners);
 		changeListener = createChangeListener();
 
 		Job.getJobManager().setProgressProvider(this);
@@ -359,6 +362,11 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			pendingJobAddition = new LinkedHashMap<>();
 		}
 
+		// Refreshes requested from now on must be queued again. The listeners
+		// read the latest state of the jobs, so refreshes requested while they
+		// are notified are not lost.
+		localPendingJobUpdates.keySet().forEach(JobInfo::clearRefreshPending);
+
 		localPendingJobAddition.entrySet().forEach(e -> e.getValue().forEach(listener -> listener.addJob(e.getKey())));
 
 		// Adds all non null JobInfo#getGroupInfo to the list of groups to
@@ -615,8 +623,17 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param info
 	 */
 	public void refreshJobInfo(JobInfo info) {
+		// Coalesce with a refresh that is already pending for this job. The
+		// listeners only display the latest state of the job.
+		if (listeners.isEmpty() || !info.markRefreshPending()) {
+			return;
+		}
 		synchronized (pendingUpdatesMutex) {
-			rememberListenersForJob(info, pendingJobUpdates);
+			if (!rememberListenersForJob(info, pendingJobUpdates)) {
+				// No listener displays this job
+				info.clearRefreshPending();
+				return;
+			}
 		}
 		uiRefreshThrottler.throttledExec();
 	}
@@ -681,12 +698,36 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		uiRefreshThrottler.throttledExec();
 	}
 
-	private void rememberListenersForJob(JobInfo info, Map<JobInfo, Set<IJobProgressManagerListener>> listenersMap) {
-		Set<IJobProgressManagerListener> localListeners = listenersMap.computeIfAbsent(info,
-				k -> new LinkedHashSet<>());
-		listeners.stream()
-				.filter(listener -> !isCurrentDisplaying(info.getJob(), listener.showsDebug()))
-				.forEach(localListeners::add);
+	/**
+	 * Remembers the listeners displaying the job of the given info in the
+	 * given map.
+	 *
+	 * @return <code>true</code> if any listener displays the job
+	 */
+	private boolean rememberListenersForJob(JobInfo info,
+			Map<JobInfo, Set<IJobProgressManagerListener>> listenersMap) {
+		Set<IJobProgressManagerListener> localListeners = null;
+		for (IJobProgressManagerListener listener : listeners) {
+			if (!isCurrentDisplaying(info.getJob(), listener.showsDebug())) {
+				if (localListeners == null) {
+					localListeners = listenersMap.computeIfAbsent(info, k -> new LinkedHashSet<>());
+				}
+				localListeners.add(listener);
+			}
+		}
+		return localListeners != null;
+	}
+
+	/**
+	 * Returns the minimum time in milliseconds between two updates of the
+	 * progress listeners and viewers.
+	 *
+	 * @return the update interval
+	 */
+	static int getUpdateInterval() {
+		int interval = WorkbenchPlugin.getDefault().getPreferenceStore()
+				.getInt(IPreferenceConstants.PROGRESS_UPDATE_INTERVAL);
+		return interval > 0 ? interval : DEFAULT_UPDATE_INTERVAL;
 	}
 
 	/**
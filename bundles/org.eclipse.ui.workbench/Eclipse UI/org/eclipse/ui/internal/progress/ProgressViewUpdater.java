@@ -37,8 +37,8 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     boolean debug;
 
-	Throttler throttledUpdate = new Throttler(PlatformUI.getWorkbench().getDisplay(), Duration.ofMillis(100),
-			this::update);
+	Throttler throttledUpdate = new Throttler(PlatformUI.getWorkbench().getDisplay(),
+			Duration.ofMillis(ProgressManager.getUpdateInterval()), this::update);
 
     /**
      * The UpdatesInfo is a private class for keeping track of the updates
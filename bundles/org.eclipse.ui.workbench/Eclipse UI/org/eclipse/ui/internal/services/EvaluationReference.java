@@ -37,6 +37,9 @@ public class EvaluationReference extends RunAndTrack implements IEvaluationRefer
 	final IPropertyChangeListener listener;
 	final String property;
 	final int sourcePriority;
+	// the variables the expression depends on, null if unknown
+	final String[] dependencies;
+	EvaluationResults results;
 	boolean cache;
 	boolean participating = true;
 	boolean postingChanges = true;
@@ -49,6 +52,7 @@ public class EvaluationReference extends RunAndTrack implements IEvaluationRefer
 		this.listener = listener;
 		this.property = property;
 		this.sourcePriority = SourcePriorityNameMapping.computeSourcePriority(expression);
+		this.dependencies = expression == null ? null : EvaluationResults.getDependencies(expression);
 	}
 
 	@Override
@@ -98,7 +102,11 @@ public class EvaluationReference extends RunAndTrack implements IEvaluationRefer
 
 	public void evaluate() {
 		boolean value = cache;
-		evaluate(new ExpressionContext(context));
+		if (results == null) {
+			evaluate(new ExpressionContext(context));
+		} else {
+			results.evaluate(this);
+		}
 		if (!postingChanges) {
 			return;
 		}
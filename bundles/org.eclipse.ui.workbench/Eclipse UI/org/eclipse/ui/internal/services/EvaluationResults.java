@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.core.commands.util.Tracing;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.e4.core.commands.ExpressionContext;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.services.IServiceConstants;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.misc.Policy;
+
+/**
+ * Remembers the results of the expressions of the evaluation references for
+ * the rest of the current turn of the event loop.
+ * <p>
+ * A result is remembered for the expression and the values of the variables
+ * it declares, so references with equal expressions are evaluated once for
+ * the same values. Property testers may answer differently once their
+ * receivers change, so the results are forgotten when the event loop turn
+ * ends, or when an evaluation of a property is requested.
+ * </p>
+ * <p>
+ * Expressions that do not describe the variables they access, and expressions
+ * accessing the context itself, are always evaluated.
+ * </p>
+ *
+ * @since 3.113
+ */
+final class EvaluationResults {
+
+	private static final String TRACING_COMPONENT = "EVALUATIONS"; //$NON-NLS-1$
+
+	private static final Object[] NO_VALUES = new Object[0];
+
+	/**
+	 * An expression and the identities of the values of its variables.
+	 */
+	private static final class Key {
+		private final Expression expression;
+		private final Object[] values;
+		private final int hashCode;
+
+		Key(Expression expression, Object[] values) {
+			this.expression = expression;
+			this.values = values;
+			int hash = expression.hashCode();
+			for (Object value : values) {
+				hash = hash * 31 + System.identityHashCode(value);
+			}
+			this.hashCode = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			if (hashCode != other.hashCode || values.length != other.values.length) {
+				return false;
+			}
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != other.values[i]) {
+					return false;
+				}
+			}
+			return expression.equals(other.expression);
+		}
+	}
+
+	private final Map<Key, Boolean> results = new HashMap<>();
+
+	private boolean clearScheduled;
+
+	private long evaluationCount;
+
+	private long reusedCount;
+
+	// The counts of the current second, when tracing
+	private long traceStart;
+	private int traceEvaluations;
+	private int traceReused;
+
+	private final Runnable clearRunnable = () -> {
+		clearScheduled = false;
+		results.clear();
+	};
+
+	/**
+	 * Returns the names of the variables the result of the expression depends
+	 * on, or <code>null</code> if the expression cannot tell.
+	 *
+	 * @param expression
+	 *            the expression, not <code>null</code>
+	 * @return the names of the variables, or <code>null</code>
+	 */
+	static String[] getDependencies(Expression expression) {
+		ExpressionInfo info = expression.computeExpressionInfo();
+		if (info.getMisbehavingExpressionTypes() != null) {
+			return null;
+		}
+		String[] names = info.getAccessedVariableNames();
+		for (String name : names) {
+			if (IEclipseContext.class.getName().equals(name)) {
+				return null;
+			}
+		}
+		if (info.hasDefaultVariableAccess()) {
+			// The default variable is computed from these two
+			names = Arrays.copyOf(names, names.length + 2);
+			names[names.length - 2] = EvaluationService.DEFAULT_VAR;
+			names[names.length - 1] = IServiceConstants.ACTIVE_SELECTION;
+		}
+		return names;
+	}
+
+	/**
+	 * Evaluates the expression of the reference in its context, or returns the
+	 * result of an equal expression evaluated for the same values during this
+	 * turn of the event loop.
+	 *
+	 * @param ref
+	 *            the reference to evaluate
+	 * @return the result of the expression
+	 */
+	boolean evaluate(EvaluationReference ref) {
+		String[] dependencies = ref.dependencies;
+		Display display = Display.getCurrent();
+		if (dependencies == null || display == null) {
+			count(false);
+			return ref.evaluate(new ExpressionContext(ref.context));
+		}
+		Object[] values = dependencies.length == 0 ? NO_VALUES : new Object[dependencies.length];
+		for (int i = 0; i < dependencies.length; i++) {
+			// Read like the expression would, so that the reference keeps
+			// tracking the variables when the result is reused
+			values[i] = EvaluationService.DEFAULT_VAR.equals(dependencies[i])
+					? ref.context.getLocal(dependencies[i])
+					: ref.context.getActive(dependencies[i]);
+		}
+		Key key = new Key(ref.expression, values);
+		Boolean result = results.get(key);
+		if (result != null) {
+			count(true);
+			ref.setResult(result.booleanValue());
+			return result.booleanValue();
+		}
+		count(false);
+		boolean value = ref.evaluate(new ExpressionContext(ref.context));
+		results.put(key, Boolean.valueOf(value));
+		if (!clearScheduled) {
+			clearScheduled = true;
+			display.asyncExec(clearRunnable);
+		}
+		return value;
+	}
+
+	/**
+	 * Forgets the remembered results.
+	 */
+	void clear() {
+		results.clear();
+	}
+
+	private void count(boolean reused) {
+		if (reused) {
+			reusedCount++;
+		} else {
+			evaluationCount++;
+		}
+		if (Policy.DEBUG_EVALUATIONS_PERFORMANCE) {
+			if (reused) {
+				traceReused++;
+			} else {
+				traceEvaluations++;
+			}
+			long now = System.currentTimeMillis();
+			if (traceStart == 0L) {
+				traceStart = now;
+			} else if (now - traceStart >= 1000L) {
+				Tracing.printTrace(TRACING_COMPONENT, traceEvaluations + " evaluations, " + traceReused //$NON-NLS-1$
+						+ " reused results in " + (now - traceStart) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+				traceStart = now;
+				traceEvaluations = 0;
+				traceReused = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of expressions evaluated so far
+	 */
+	long getEvaluationCount() {
+		return evaluationCount;
+	}
+
+	/**
+	 * @return the number of remembered results returned so far
+	 */
+	long getReusedCount() {
+		return reusedCount;
+	}
+}
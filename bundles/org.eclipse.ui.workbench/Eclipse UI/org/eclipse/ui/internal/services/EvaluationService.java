@@ -18,11 +18,15 @@ package org.eclipse.ui.internal.services;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
@@ -40,6 +44,7 @@ import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.ISourceProvider;
 import org.eclipse.ui.ISourceProviderListener;
 import org.eclipse.ui.ISources;
@@ -63,6 +68,10 @@ public final class EvaluationService implements IEvaluationService {
 	private ListenerList<IPropertyChangeListener> serviceListeners = new ListenerList<>(ListenerList.IDENTITY);
 	ArrayList<ISourceProvider> sourceProviders = new ArrayList<>();
 	LinkedList<EvaluationReference> refs = new LinkedList<>();
+	// the references by the names of the properties and variables they access
+	private Map<String, List<EvaluationReference>> refsByName = new HashMap<>();
+	private final EvaluationResults results = new EvaluationResults();
+	private boolean enablementUpdateScheduled = false;
 	private ISourceProviderListener contextUpdater;
 
 	private HashSet<String> ratVariables = new HashSet<>();
@@ -81,7 +90,7 @@ public final class EvaluationService implements IEvaluationService {
 			}
 			// This ties tool item enablement to variable changes that can
 			// effect the enablement.
-			getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			requestEnablementUpdate();
 			return true;
 		}
 	};
@@ -142,6 +151,26 @@ public final class EvaluationService implements IEvaluationService {
 		context.set(RE_EVAL, Boolean.valueOf(evaluate));
 	}
 
+	/**
+	 * Asks the tool items to update their enablement. On the UI thread, the
+	 * requests made during a turn of the event loop are sent once, at the end
+	 * of the turn, since each one updates every tool item.
+	 */
+	private void requestEnablementUpdate() {
+		Display display = Display.getCurrent();
+		if (display == null) {
+			getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			return;
+		}
+		if (!enablementUpdateScheduled) {
+			enablementUpdateScheduled = true;
+			display.asyncExec(() -> {
+				enablementUpdateScheduled = false;
+				getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			});
+		}
+	}
+
 	protected void changeVariable(final String name, final Object value) {
 		if (name == null || variableFilter.contains(name)) {
 			return;
@@ -197,6 +226,8 @@ public final class EvaluationService implements IEvaluationService {
 			invalidate(ref, false);
 		}
 		refs.clear();
+		refsByName.clear();
+		results.clear();
 		serviceListeners.clear();
 	}
 
@@ -223,8 +254,12 @@ public final class EvaluationService implements IEvaluationService {
 	public void addEvaluationReference(IEvaluationReference ref) {
 		EvaluationReference eref = (EvaluationReference) ref;
 		refs.add(eref);
+		eref.results = results;
 		boolean changed = false;
 		if (eref.getExpression() != null) {
+			for (String name : getAccessedNames(eref)) {
+				refsByName.computeIfAbsent(name, key -> new ArrayList<>(2)).add(eref);
+			}
 			ExpressionInfo info = new ExpressionInfo();
 			eref.getExpression().collectExpressionInfo(info);
 			for (String varName : info.getAccessedVariableNames()) {
@@ -245,11 +280,27 @@ public final class EvaluationService implements IEvaluationService {
 		ratContext.runAndTrack(eref);
 	}
 
+	private static Set<String> getAccessedNames(EvaluationReference ref) {
+		ExpressionInfo info = ref.getExpression().computeExpressionInfo();
+		Set<String> names = new LinkedHashSet<>();
+		names.addAll(Arrays.asList(info.getAccessedPropertyNames()));
+		names.addAll(Arrays.asList(info.getAccessedVariableNames()));
+		return names;
+	}
+
 	private void invalidate(IEvaluationReference ref, boolean remove) {
-		if (remove) {
-			refs.remove(ref);
-		}
 		EvaluationReference eref = (EvaluationReference) ref;
+		if (remove && refs.remove(ref) && eref.getExpression() != null) {
+			for (String name : getAccessedNames(eref)) {
+				List<EvaluationReference> namedRefs = refsByName.get(name);
+				if (namedRefs != null) {
+					namedRefs.remove(eref);
+					if (namedRefs.isEmpty()) {
+						refsByName.remove(name);
+					}
+				}
+			}
+		}
 		eref.participating = false;
 		eref.evaluate();
 		eref.hasRun = false;
@@ -273,35 +324,42 @@ public final class EvaluationService implements IEvaluationService {
 		context.remove(pokeVar);
 		context.set(pokeVar, "link"); //$NON-NLS-1$
 
+		// The property testers may answer differently now
+		results.clear();
+
 		String[] sourceNames = new String[] { propertyName };
 		startSourceChange(sourceNames);
-		for (EvaluationReference ref : refs) {
-			Expression expr = ref.getExpression();
-			if (expr != null) {
-				boolean evaluated = false;
-				ExpressionInfo info = expr.computeExpressionInfo();
-				String[] names = info.getAccessedPropertyNames();
-				for (String name : names) {
-					if (propertyName.equals(name)) {
-						evaluated = true;
-						ref.evaluate();
-						break;
-					}
-				}
-				if (!evaluated) {
-					names = info.getAccessedVariableNames();
-					for (String name : names) {
-						if (propertyName.equals(name)) {
-							evaluated = true;
-							ref.evaluate();
-							break;
-						}
-					}
-				}
+		List<EvaluationReference> namedRefs = refsByName.get(propertyName);
+		if (namedRefs != null) {
+			for (EvaluationReference ref : namedRefs.toArray(new EvaluationReference[namedRefs.size()])) {
+				ref.evaluate();
 			}
 		}
 		endSourceChange(sourceNames);
-		eventBroker.send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+		requestEnablementUpdate();
+	}
+
+	/**
+	 * Returns the number of expressions evaluated for the evaluation
+	 * references of this service so far. Together with
+	 * {@link #getReusedResultCount()}, this tells how many evaluations were
+	 * avoided.
+	 *
+	 * @return the number of evaluated expressions
+	 */
+	public long getEvaluationCount() {
+		return results.getEvaluationCount();
+	}
+
+	/**
+	 * Returns the number of times the result of an equal expression, evaluated
+	 * for the same variables during the same turn of the event loop, was used
+	 * instead of evaluating the expression of an evaluation reference.
+	 *
+	 * @return the number of reused results
+	 */
+	public long getReusedResultCount() {
+		return results.getReusedCount();
 	}
 
 	/**
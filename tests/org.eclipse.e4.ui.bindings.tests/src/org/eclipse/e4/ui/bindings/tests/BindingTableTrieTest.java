@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.bindings.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.commands.Category;
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandManager;
+import org.eclipse.core.commands.ParameterizedCommand;
+import org.eclipse.core.commands.contexts.Context;
+import org.eclipse.core.commands.contexts.ContextManager;
+import org.eclipse.e4.ui.bindings.internal.BindingTable;
+import org.eclipse.jface.bindings.Binding;
+import org.eclipse.jface.bindings.keys.KeyBinding;
+import org.eclipse.jface.bindings.keys.KeySequence;
+import org.eclipse.jface.bindings.keys.KeyStroke;
+import org.eclipse.swt.SWT;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookup of perfect and partial matches in a binding table of
+ * two-stroke and three-stroke key sequences sharing their prefixes.
+ */
+public class BindingTableTrieTest {
+	private static final String ID_CONTEXT = "org.eclipse.ui.tests.bindings.trie";
+	private static final String SCHEME_ID = "org.eclipse.ui.defaultAcceleratorConfiguration";
+
+	private static final int[] MODIFIERS = { SWT.CTRL, SWT.ALT };
+	private static final String KEYS = "ABCDEFGHIJ";
+	private static final int STROKES = MODIFIERS.length * KEYS.length();
+
+	private Context context;
+	private CommandManager commandManager;
+	private Category category;
+	private KeyStroke[] strokes;
+	private List<Binding> bindings;
+
+	@Before
+	public void setUp() throws Exception {
+		ContextManager contextManager = new ContextManager();
+		context = contextManager.getContext(ID_CONTEXT);
+		context.define("Trie", null, null);
+
+		commandManager = new CommandManager();
+		category = commandManager.getCategory("bogus");
+		category.define("Bogus", null);
+
+		strokes = new KeyStroke[STROKES];
+		for (int i = 0; i < STROKES; i++) {
+			strokes[i] = KeyStroke.getInstance(MODIFIERS[i / KEYS.length()], KEYS.charAt(i % KEYS.length()));
+		}
+		bindings = new ArrayList<>();
+		for (int i = 0; i < STROKES * STROKES; i++) {
+			bindings.add(createBinding(strokes[i / STROKES], strokes[i % STROKES]));
+		}
+	}
+
+	private Binding createBinding(KeyStroke... keyStrokes) {
+		int id = commandManager.getDefinedCommandIds().size();
+		Command cmd = commandManager.getCommand("org.eclipse.ui.tests.command" + id);
+		cmd.define("Command " + id, null, category);
+		return new KeyBinding(KeySequence.getInstance(keyStrokes), new ParameterizedCommand(cmd, null), SCHEME_ID,
+				ID_CONTEXT, null, null, null, Binding.SYSTEM);
+	}
+
+	private BindingTable createTable(List<Binding> tableBindings) {
+		BindingTable table = new BindingTable(context);
+		for (Binding binding : tableBindings) {
+			table.addBinding(binding);
+		}
+		return table;
+	}
+
+	@Test
+	public void testLookupKeyStrokes() {
+		BindingTable table = createTable(bindings);
+		assertEquals(bindings.size(), table.getBindings().size());
+		for (Binding binding : bindings) {
+			KeySequence sequence = (KeySequence) binding.getTriggerSequence();
+			KeySequence prefix = KeySequence.getInstance(sequence.getKeyStrokes()[0]);
+			// First keystroke
+			assertNull(table.getPerfectMatch(prefix));
+			assertTrue(table.isPartialMatch(prefix));
+			// Second keystroke
+			assertSame(binding, table.getPerfectMatch(sequence));
+			assertFalse(table.isPartialMatch(sequence));
+			assertNull(table.getPartialMatches(sequence));
+		}
+		KeySequence unbound = KeySequence.getInstance(KeyStroke.getInstance(SWT.SHIFT, 'A'));
+		assertNull(table.getPerfectMatch(unbound));
+		assertFalse(table.isPartialMatch(unbound));
+	}
+
+	@Test
+	public void testPartialMatchesOrder() {
+		List<Binding> shuffled = new ArrayList<>(bindings);
+		Collections.shuffle(shuffled, new Random(STROKES));
+		Binding longer = createBinding(strokes[0], strokes[1], strokes[2]);
+		shuffled.add(STROKES / 2, longer);
+		BindingTable table = createTable(shuffled);
+
+		// The partial matches of a prefix are in the order they were added,
+		// including the ones of longer sequences
+		KeySequence prefix = KeySequence.getInstance(strokes[0]);
+		List<Binding> expected = new ArrayList<>();
+		for (Binding binding : shuffled) {
+			if (binding.getTriggerSequence().startsWith(prefix, false)) {
+				expected.add(binding);
+			}
+		}
+		assertEquals(STROKES + 1, expected.size());
+		assertEquals(expected, new ArrayList<>(table.getPartialMatches(prefix)));
+		KeySequence twoStrokes = KeySequence.getInstance(new KeyStroke[] { strokes[0], strokes[1] });
+		assertEquals(Arrays.asList(longer), new ArrayList<>(table.getPartialMatches(twoStrokes)));
+		assertTrue(table.isPartialMatch(twoStrokes));
+
+		// A binding added again comes last
+		Binding first = expected.get(0);
+		table.removeBinding(first);
+		table.addBinding(first);
+		expected.remove(0);
+		expected.add(first);
+		assertEquals(expected, new ArrayList<>(table.getPartialMatches(prefix)));
+	}
+
+	@Test
+	public void testRemoveBindings() {
+		BindingTable table = createTable(bindings);
+		Binding longer = createBinding(strokes[0], strokes[1], strokes[2]);
+		table.addBinding(longer);
+		KeySequence prefix = KeySequence.getInstance(strokes[0]);
+		KeySequence twoStrokes = KeySequence.getInstance(new KeyStroke[] { strokes[0], strokes[1] });
+		assertEquals(STROKES + 1, table.getPartialMatches(prefix).size());
+
+		table.removeBinding(longer);
+		assertEquals(STROKES, table.getPartialMatches(prefix).size());
+		assertFalse(table.isPartialMatch(twoStrokes));
+		assertNull(table.getPartialMatches(twoStrokes));
+		assertSame(bindings.get(1), table.getPerfectMatch(twoStrokes));
+
+		for (Binding binding : bindings) {
+			table.removeBinding(binding);
+		}
+		assertTrue(table.getBindings().isEmpty());
+		assertFalse(table.isPartialMatch(prefix));
+		assertNull(table.getPartialMatches(prefix));
+		assertNull(table.getPerfectMatch(bindings.get(0).getTriggerSequence()));
+
+		// Removing a binding that isn't in the table does nothing
+		table.removeBinding(longer);
+		assertTrue(table.getBindings().isEmpty());
+	}
+}
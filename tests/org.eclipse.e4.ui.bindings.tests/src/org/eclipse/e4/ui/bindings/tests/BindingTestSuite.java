@@ -22,6 +22,7 @@ import org.junit.runners.Suite;
 	BindingLookupTest.class,
 	KeyDispatcherTest.class,
 	BindingTableTests.class,
+	BindingTableTrieTest.class,
 	BindingCreateTest.class })
 
 public class BindingTestSuite {
@@ -119,6 +119,36 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testSelectorIndex() throws Exception {
+		// Rules indexed under the id, the classes and the type of the element,
+		// and rules which cannot be indexed, are applied in the order of the
+		// stylesheet
+		String css = "* { color: black; }\n" + "#special { color: red; }\n" + ".big { font-style: italic; }\n"
+				+ "Button.big.round { color: blue; }\n" + "Composite > Button { font-weight: bold; }\n"
+				+ "Label { color: green; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement composite = new TestElement("Composite", engine);
+		final TestElement button = new TestElement("Button", composite, engine);
+		button.setClass("big  round");
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("blue", buttonStyle.getPropertyCSSValue("color").getCssText());
+		assertEquals("italic", buttonStyle.getPropertyCSSValue("font-style").getCssText());
+		assertEquals("bold", buttonStyle.getPropertyCSSValue("font-weight").getCssText());
+
+		button.setId("special");
+		buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals("red", buttonStyle.getPropertyCSSValue("color").getCssText());
+
+		final TestElement label = new TestElement("Label", composite, engine);
+		label.setClass("round");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertEquals("green", labelStyle.getPropertyCSSValue("color").getCssText());
+		assertNull(labelStyle.getPropertyCSSValue("font-style"));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testRuleCaching() throws Exception {
@@ -39,6 +39,7 @@ import org.eclipse.e4.ui.tests.css.swt.FontDefinitionTest;
 import org.eclipse.e4.ui.tests.css.swt.GradientTest;
 import org.eclipse.e4.ui.tests.css.swt.IEclipsePreferencesTest;
 import org.eclipse.e4.ui.tests.css.swt.IdClassLabelColorTest;
+import org.eclipse.e4.ui.tests.css.swt.IncrementalStylingTest;
 import org.eclipse.e4.ui.tests.css.swt.InheritTest;
 import org.eclipse.e4.ui.tests.css.swt.InnerClassElementTest;
 import org.eclipse.e4.ui.tests.css.swt.LabelTest;
@@ -48,6 +49,7 @@ import org.eclipse.e4.ui.tests.css.swt.MarginTest;
 import org.eclipse.e4.ui.tests.css.swt.ShellActiveTest;
 import org.eclipse.e4.ui.tests.css.swt.ShellTest;
 import org.eclipse.e4.ui.tests.css.swt.StyledTextScrollbarTest;
+import org.eclipse.e4.ui.tests.css.swt.StylingPerformanceTest;
 import org.eclipse.e4.ui.tests.css.swt.TableTest;
 import org.eclipse.e4.ui.tests.css.swt.TextTextTransformTest;
 import org.eclipse.e4.ui.tests.css.swt.ThemeTest;
@@ -94,6 +96,8 @@ import org.junit.runners.Suite;
 	StyledTextScrollbarTest.class,
 	TableTest.class,
 	TreeTest.class,
+	StylingPerformanceTest.class,
+	IncrementalStylingTest.class,
 	TabbedPropertiesListTest.class,
 	TabbedPropertiesTitleTest.class})
 public class CssSwtTestSuite {
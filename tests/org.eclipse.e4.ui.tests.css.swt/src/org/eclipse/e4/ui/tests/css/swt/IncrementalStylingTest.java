@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+
+/**
+ * Checks that restyling a tree after a change only restyles the elements whose
+ * state, as tested by the selectors of the stylesheet, has changed, while
+ * applying the styles to a tree restyles all its elements.
+ */
+public class IncrementalStylingTest extends CSSSWTTestCase {
+
+	private static final RGB WHITE = new RGB(255, 255, 255);
+
+	@Test
+	public void testRestyleChangedElements() {
+		engine = createEngine("Label { color: #00FF00; }\n" + "Label.marked { color: #0000FF; }\n"
+				+ "Composite.selected Label { color: #FF0000; }", display);
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		Composite composite = new Composite(shell, SWT.NONE);
+		Label marked = new Label(composite, SWT.NONE);
+		Label unchanged = new Label(composite, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(GREEN, marked.getForeground().getRGB());
+		assertEquals(GREEN, unchanged.getForeground().getRGB());
+
+		// An element whose class did not change is not restyled
+		Color white = new Color(display, WHITE);
+		try {
+			unchanged.setForeground(white);
+			WidgetElement.setCSSClass(marked, "marked");
+			engine.restyle(shell);
+			assertEquals(BLUE, marked.getForeground().getRGB());
+			assertEquals(WHITE, unchanged.getForeground().getRGB());
+
+			// A change of an ancestor restyles the descendants
+			WidgetElement.setCSSClass(composite, "selected");
+			engine.restyle(shell);
+			assertEquals(RED, marked.getForeground().getRGB());
+			assertEquals(RED, unchanged.getForeground().getRGB());
+		} finally {
+			white.dispose();
+		}
+	}
+
+	@Test
+	public void testApplyStylesToUnchangedElements() {
+		engine = createEngine("Label { color: #00FF00; }", display);
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		Label label = new Label(shell, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(GREEN, label.getForeground().getRGB());
+
+		// The values are applied again although neither the state of the
+		// elements nor the stylesheet changed
+		Color white = new Color(display, WHITE);
+		try {
+			label.setForeground(white);
+			engine.applyStyles(shell, true);
+			assertEquals(GREEN, label.getForeground().getRGB());
+
+			label.setForeground(white);
+			engine.reapply();
+			assertEquals(GREEN, label.getForeground().getRGB());
+		} finally {
+			white.dispose();
+		}
+	}
+
+	@Test
+	public void testRestyleAfterStyleSheetChange() throws Exception {
+		engine = createEngine("Label { color: #00FF00; }", display);
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		Label label = new Label(shell, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(GREEN, label.getForeground().getRGB());
+
+		// The states of the elements do not change, but the stylesheet does
+		engine.reset();
+		engine.parseStyleSheet(new StringReader("Label { color: #0000FF; }"));
+		engine.applyStyles(shell, true);
+		assertEquals(BLUE, label.getForeground().getRGB());
+	}
+}
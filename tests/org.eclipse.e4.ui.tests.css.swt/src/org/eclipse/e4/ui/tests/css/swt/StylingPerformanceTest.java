@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Styles a tree of 10,000 widgets with a stylesheet of the size of a theme
+ * extended by contributed stylesheets, and checks that the indexed selectors
+ * and the styles shared between siblings give the same result as testing
+ * every rule.
+ */
+public class StylingPerformanceTest extends CSSSWTTestCase {
+
+	private static final int PANELS = 100;
+	private static final int WIDGETS_PER_PANEL = 100;
+	private static final int CONTRIBUTED_RULES = 500;
+	private static final int RUNS = 5;
+
+	private static String createStyleSheet() {
+		StringBuilder css = new StringBuilder();
+		css.append("Shell { background-color: #202020; }\n");
+		css.append("Composite { background-color: #2F2F2F; }\n");
+		css.append("Composite.panel { background-color: #303030; }\n");
+		css.append("Label { color: #DDDDDD; }\n");
+		css.append("Button { color: #EEEEEE; }\n");
+		css.append("Composite.panel Label { color: #00FF00; }\n");
+		css.append("Composite.panel > Button.primary { color: #0000FF; }\n");
+		css.append("#status { color: #FF0000; }\n");
+		css.append("Label:disabled { color: #808080; }\n");
+		// Rules contributed by plug-ins for widgets which are not in the tree
+		for (int i = 0; i < CONTRIBUTED_RULES; i++) {
+			css.append("Composite.contributed").append(i).append(" Label { color: #").append(String.format("%06X", i))
+			.append("; }\n");
+			css.append("#contributed").append(i).append(" { background-color: #").append(String.format("%06X", i))
+			.append("; }\n");
+		}
+		return css.toString();
+	}
+
+	private Shell createWidgetTree(List<Control> widgets) {
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		for (int i = 0; i < PANELS; i++) {
+			Composite panel = new Composite(shell, SWT.NONE);
+			if (i % 2 == 0) {
+				WidgetElement.setCSSClass(panel, "panel");
+			}
+			widgets.add(panel);
+			for (int j = 0; j < WIDGETS_PER_PANEL - 1; j++) {
+				Control widget;
+				if (j % 2 == 0) {
+					widget = new Label(panel, SWT.NONE);
+				} else {
+					widget = new Button(panel, SWT.PUSH);
+					if (j % 3 == 0) {
+						WidgetElement.setCSSClass(widget, "primary");
+					}
+				}
+				if (i == 0 && j == 0) {
+					WidgetElement.setID(widget, "status");
+				}
+				widgets.add(widget);
+			}
+		}
+		return shell;
+	}
+
+	@Test
+	public void testStyleWidgetTree() {
+		engine = createEngine(createStyleSheet(), display);
+		List<Control> widgets = new ArrayList<>();
+		Shell shell = createWidgetTree(widgets);
+		assertEquals(PANELS * WIDGETS_PER_PANEL, widgets.size());
+
+		long bestTime = Long.MAX_VALUE;
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.nanoTime();
+			engine.applyStyles(shell, true);
+			bestTime = Math.min(bestTime, System.nanoTime() - start);
+		}
+		System.out.format("  styled %d widgets in %d ms%n", widgets.size(), bestTime / 1000000);
+
+		assertEquals(RED, ((Label) widgets.get(1)).getForeground().getRGB());
+		assertEquals(GREEN, ((Label) widgets.get(3)).getForeground().getRGB());
+		assertEquals(BLUE, ((Button) widgets.get(4)).getForeground().getRGB());
+
+		// The computed styles must be the same as when testing all the rules
+		ViewCSSImpl viewCSS = (ViewCSSImpl) engine.getViewCSS();
+		List<CSSRule> rules = getRules();
+		viewCSS.setStyleSharingEnabled(true);
+		try {
+			for (Control widget : widgets) {
+				Element element = engine.getElement(widget);
+				assertEquals(getCssText(viewCSS.getComputedStyle(rules, element, null)),
+						getCssText(viewCSS.getComputedStyle(element, null)));
+			}
+		} finally {
+			viewCSS.setStyleSharingEnabled(false);
+		}
+	}
+
+	private List<CSSRule> getRules() {
+		List<CSSRule> rules = new ArrayList<>();
+		StyleSheetList styleSheets = engine.getDocumentCSS().getStyleSheets();
+		for (int i = 0; i < styleSheets.getLength(); i++) {
+			CSSRuleList ruleList = ((CSSStyleSheet) styleSheets.item(i)).getCssRules();
+			for (int j = 0; j < ruleList.getLength(); j++) {
+				rules.add(ruleList.item(j));
+			}
+		}
+		return rules;
+	}
+
+	private static String getCssText(CSSStyleDeclaration style) {
+		return style == null ? null : style.getCssText();
+	}
+}
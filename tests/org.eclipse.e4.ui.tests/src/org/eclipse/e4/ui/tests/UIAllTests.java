@@ -21,6 +21,7 @@ import org.eclipse.e4.ui.tests.application.Bug320857Test;
 import org.eclipse.e4.ui.tests.application.E4ResourceTest;
 import org.eclipse.e4.ui.tests.application.ModelElementTest;
 import org.eclipse.e4.ui.tests.application.ModelRobustnessTest;
+import org.eclipse.e4.ui.tests.application.ModelSnapshotTest;
 import org.eclipse.e4.ui.tests.application.ResourceHandlerTest;
 import org.eclipse.e4.ui.tests.application.StartupTestSuite;
 import org.eclipse.e4.ui.tests.application.UIEventTypesTest;
@@ -79,6 +80,7 @@ import org.junit.runners.Suite;
 		Bug308317Test.class,
 		ModelRobustnessTest.class,
 		ResourceHandlerTest.class,
+		ModelSnapshotTest.class,
 		// Commented out due the bug 505678
 		// PartFocusTest.class,
 		ModelElementTest.class,
@@ -53,7 +53,7 @@ import org.junit.Test;
 
 public class EModelServiceFindTest {
 
-	private IEclipseContext applicationContext;
+	protected IEclipseContext applicationContext;
 
 	MApplication app = null;
 
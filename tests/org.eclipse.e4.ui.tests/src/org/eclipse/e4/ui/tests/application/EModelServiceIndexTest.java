@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the tests of {@link EModelServiceFindTest} with the index of the model
+ * elements enabled, and compares the results of searches in a larger model
+ * with and without the index.
+ */
+public class EModelServiceIndexTest extends EModelServiceFindTest {
+
+	private static final int PERSPECTIVES = 5;
+	private static final int STACKS = 4;
+	private static final int PARTS = 10;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		applicationContext.set(E4Workbench.MODEL_INDEX, Boolean.TRUE);
+	}
+
+	private MApplication createLargeApplication(EModelService modelService) {
+		MApplication application = modelService.createModelElement(MApplication.class);
+		application.setContext(applicationContext);
+		MWindow window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+
+		MArea area = modelService.createModelElement(MArea.class);
+		area.setElementId("org.eclipse.ui.editorss");
+		window.getSharedElements().add(area);
+		MPart editor = modelService.createModelElement(MPart.class);
+		editor.setElementId("editor");
+		area.getChildren().add(editor);
+
+		for (int p = 0; p < PERSPECTIVES; p++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspective.setElementId("perspective" + p);
+			perspectiveStack.getChildren().add(perspective);
+			MPlaceholder areaPlaceholder = modelService.createModelElement(MPlaceholder.class);
+			areaPlaceholder.setRef(area);
+			perspective.getChildren().add(areaPlaceholder);
+			for (int s = 0; s < STACKS; s++) {
+				MPartStack stack = modelService.createModelElement(MPartStack.class);
+				perspective.getChildren().add(stack);
+				for (int i = 0; i < PARTS; i++) {
+					MPart part = modelService.createModelElement(MPart.class);
+					part.setElementId("part" + p + "." + s + "." + i);
+					part.getTags().add("View");
+					stack.getChildren().add(part);
+				}
+			}
+		}
+		perspectiveStack.setSelectedElement(perspectiveStack.getChildren().get(0));
+		return application;
+	}
+
+	@Test
+	public void testLargeModel() {
+		EModelService modelService = applicationContext.get(EModelService.class);
+		MApplication application = createLargeApplication(modelService);
+
+		// Results must not depend on the index
+		for (boolean indexed : new boolean[] { false, true }) {
+			applicationContext.set(E4Workbench.MODEL_INDEX, Boolean.valueOf(indexed));
+			List<MPart> editors = modelService.findElements(application, "editor", MPart.class);
+			assertEquals(1, editors.size());
+			assertTrue(modelService
+					.findElements(application, "editor", MPart.class, null, EModelService.IN_ACTIVE_PERSPECTIVE)
+					.isEmpty());
+			assertEquals(PERSPECTIVES * STACKS * PARTS,
+					modelService.findElements(application, null, MPart.class, Collections.singletonList("View"))
+					.size());
+		}
+
+		for (int i = 0; i < PARTS; i++) {
+			String id = "part3.2." + i;
+			applicationContext.set(E4Workbench.MODEL_INDEX, Boolean.FALSE);
+			List<MPart> parts = modelService.findElements(application, id, MPart.class);
+			assertEquals(1, parts.size());
+			applicationContext.set(E4Workbench.MODEL_INDEX, Boolean.TRUE);
+			assertEquals(parts, modelService.findElements(application, id, MPart.class));
+			assertTrue(modelService.findElements(application, "missing" + i, MPart.class).isEmpty());
+		}
+
+		// The index follows the changes of the model
+		MPart part = modelService.findElements(application, "part3.2.0", MPart.class).get(0);
+		part.setElementId("renamed");
+		assertTrue(modelService.findElements(application, "part3.2.0", MPart.class).isEmpty());
+		assertSame(part, modelService.find("renamed", application));
+		part.getParent().getChildren().remove(part);
+		assertNull(modelService.find("renamed", application));
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.internal.workbench.ModelSnapshot;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a binary snapshot of the persisted workbench model restores the
+ * elements, their ids and their references.
+ */
+public class ModelSnapshotTest {
+
+	private File xmiFile;
+	private File snapshotFile;
+
+	@Before
+	public void setUp() throws IOException {
+		xmiFile = File.createTempFile("workbench", ".xmi");
+		snapshotFile = File.createTempFile("workbench", ".bin");
+	}
+
+	@After
+	public void tearDown() {
+		xmiFile.delete();
+		snapshotFile.delete();
+	}
+
+	private static MApplication createModel(int windows, int perspectives, int stacks, int parts) {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		application.setElementId("application");
+		for (int w = 0; w < windows; w++) {
+			MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+			window.setElementId("window" + w);
+			MPerspectiveStack perspectiveStack = MAdvancedFactory.INSTANCE.createPerspectiveStack();
+			window.getChildren().add(perspectiveStack);
+			for (int p = 0; p < perspectives; p++) {
+				MPerspective perspective = MAdvancedFactory.INSTANCE.createPerspective();
+				perspective.setElementId("perspective" + p);
+				perspectiveStack.getChildren().add(perspective);
+				MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+				perspective.getChildren().add(sash);
+				for (int s = 0; s < stacks; s++) {
+					MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+					stack.setElementId("stack" + s);
+					stack.setContainerData(Integer.toString(100 / stacks));
+					sash.getChildren().add(stack);
+					for (int i = 0; i < parts; i++) {
+						MPart part = MBasicFactory.INSTANCE.createPart();
+						part.setElementId("part" + i);
+						part.setLabel("Part " + i);
+						part.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.example.Part" + i);
+						part.getTags().add("View");
+						part.getPersistedState().put("memento", "<state index=\"" + i + "\"/>");
+						stack.getChildren().add(part);
+					}
+					stack.setSelectedElement(stack.getChildren().get(parts - 1));
+				}
+				perspectiveStack.setSelectedElement(perspective);
+			}
+			application.getChildren().add(window);
+		}
+		return application;
+	}
+
+	private static E4XMIResource createResource(File file) {
+		return (E4XMIResource) new E4XMIResourceFactory().createResource(URI.createFileURI(file.getAbsolutePath()));
+	}
+
+	private static List<String> getIds(E4XMIResource resource) {
+		List<String> ids = new ArrayList<>();
+		TreeIterator<EObject> it = EcoreUtil.getAllContents(resource, false);
+		while (it.hasNext()) {
+			ids.add(resource.getID(it.next()));
+		}
+		return ids;
+	}
+
+	@Test
+	public void testSnapshotRestoresModel() throws IOException {
+		E4XMIResource resource = createResource(xmiFile);
+		resource.getContents().add((EObject) createModel(2, 2, 2, 3));
+		List<String> ids = getIds(resource);
+		ModelSnapshot.save(resource, snapshotFile);
+
+		E4XMIResource loaded = createResource(xmiFile);
+		ModelSnapshot.load(loaded, snapshotFile);
+		assertEquals(ids, getIds(loaded));
+
+		MApplication application = (MApplication) loaded.getContents().get(0);
+		MTrimmedWindow window = (MTrimmedWindow) application.getChildren().get(1);
+		MPerspectiveStack perspectiveStack = (MPerspectiveStack) window.getChildren().get(0);
+		assertSame(perspectiveStack.getChildren().get(1), perspectiveStack.getSelectedElement());
+		MPartSashContainer sash = (MPartSashContainer) perspectiveStack.getChildren().get(0).getChildren().get(0);
+		MPartStack stack = (MPartStack) sash.getChildren().get(1);
+		assertSame(stack.getChildren().get(2), stack.getSelectedElement());
+		MPart part = (MPart) stack.getChildren().get(0);
+		assertEquals("part0", part.getElementId());
+		assertEquals("<state index=\"0\"/>", part.getPersistedState().get("memento"));
+		assertEquals("View", part.getTags().get(0));
+	}
+}
@@ -19,6 +19,12 @@ package org.eclipse.e4.ui.tests.application;
  */
 public class PreModelProcessorImpl extends AbstractModelProcessorImpl {
 
+	/**
+	 * The number of times the processor ran, which does not change when the
+	 * assembled model is read from the cache.
+	 */
+	static int runs;
+
 	@Override
 	protected String getSuffix() {
 		return "pre";
@@ -26,6 +32,6 @@ public class PreModelProcessorImpl extends AbstractModelProcessorImpl {
 
 	@Override
 	protected void doRun() {
-
+		runs++;
 	}
 }
@@ -19,6 +19,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.List;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -71,11 +75,18 @@ public class ResourceHandlerTest {
 	}
 
 	private ResourceHandler createHandler(URI uri) {
+		return createHandler(uri, null);
+	}
+
+	private ResourceHandler createHandler(URI uri, File cacheFile) {
 		IEclipseContext appContext = E4Application.createDefaultContext();
 		IEclipseContext localContext = appContext.createChild();
 		localContext.set(E4Workbench.INSTANCE_LOCATION, getInstanceLocation());
 		localContext.set(IWorkbench.PERSIST_STATE, Boolean.TRUE);
 		localContext.set(IWorkbench.CLEAR_PERSISTED_STATE, Boolean.TRUE);
+		if (cacheFile != null) {
+			localContext.set(E4Workbench.MODEL_ASSEMBLY_CACHE, cacheFile);
+		}
 
 		localContext.set(E4Workbench.INITIAL_WORKBENCH_MODEL_URI, uri);
 
@@ -93,6 +104,68 @@ public class ResourceHandlerTest {
 
 	}
 
+	@Test
+	public void testModelAssemblyCache() throws IOException {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		File cacheFile = File.createTempFile("assembledModel", ".bin");
+		cacheFile.delete();
+		try {
+			int runs = PreModelProcessorImpl.runs;
+			createHandler(uri, cacheFile).loadMostRecentModel();
+			assertTrue(cacheFile.exists());
+			assertEquals(runs + 1, PreModelProcessorImpl.runs);
+
+			// The cacheable pre-processor doesn't run on the cached model
+			Resource cachedResource = createHandler(uri, cacheFile).loadMostRecentModel();
+			assertEquals(runs + 1, PreModelProcessorImpl.runs);
+
+			MApplication cachedApplication = (MApplication) cachedResource.getContents().get(0);
+			assertEquals(application.getChildren().size(), cachedApplication.getChildren().size());
+			MWindow mWindow2 = cachedApplication.getChildren().get(1);
+			assertEquals("fragment.contributedWindow", mWindow2.getElementId());
+			assertEquals("_w4fQ8HVHEd-aXt9fFntEtw", ((E4XMIResource) cachedResource).getID((EObject) mWindow2));
+			assertEquals("platform:/plugin/org.eclipse.e4.ui.tests", mWindow2.getContributorURI());
+			// The post-processor is not cacheable and ran again on the cached model
+			assertEquals(application.getDescriptors().size(), cachedApplication.getDescriptors().size());
+			assertEquals(2, cachedApplication.getCommands().get(0).getParameters().size());
+		} finally {
+			cacheFile.delete();
+		}
+	}
+
+	@Test
+	public void testModelAssemblyCacheInvalidation() throws IOException {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		File cacheFile = File.createTempFile("assembledModel", ".bin");
+		try {
+			// A cache written for other contributions
+			try (DataOutputStream output = new DataOutputStream(new FileOutputStream(cacheFile))) {
+				output.writeUTF("stale");
+			}
+			int runs = PreModelProcessorImpl.runs;
+			Resource resource = createHandler(uri, cacheFile).loadMostRecentModel();
+			assertEquals(runs + 1, PreModelProcessorImpl.runs);
+			MApplication assembledApplication = (MApplication) resource.getContents().get(0);
+			assertEquals(application.getChildren().size(), assembledApplication.getChildren().size());
+			assertEquals(application.getDescriptors().size(), assembledApplication.getDescriptors().size());
+
+			// The cache was written again for the current contributions
+			createHandler(uri, cacheFile).loadMostRecentModel();
+			assertEquals(runs + 1, PreModelProcessorImpl.runs);
+
+			// A cache which cannot be read
+			try (FileOutputStream output = new FileOutputStream(cacheFile)) {
+				output.write(new byte[] { 0, 1, 2 });
+			}
+			resource = createHandler(uri, cacheFile).loadMostRecentModel();
+			assertEquals(runs + 2, PreModelProcessorImpl.runs);
+			assembledApplication = (MApplication) resource.getContents().get(0);
+			assertEquals(application.getChildren().size(), assembledApplication.getChildren().size());
+		} finally {
+			cacheFile.delete();
+		}
+	}
+
 	@Test
 	public void testProcessedApplicationModelNotNull() {
 		assertNotNull(application);
@@ -19,9 +19,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ EModelServiceTest.class, EModelServiceFindTest.class, EModelServicePerspectiveFindTest.class,
+@Suite.SuiteClasses({ EModelServiceTest.class, EModelServiceFindTest.class, EModelServiceIndexTest.class,
+		EModelServicePerspectiveFindTest.class,
 		EModelServiceInsertTest.class, EPartServiceTest.class, ESelectionServiceTest.class, EventBrokerTest.class,
-		HeadlessContactsDemoTest.class, HeadlessPhotoDemoTest.class, UIEventsTest.class,
+		HeadlessContactsDemoTest.class, HeadlessPhotoDemoTest.class, UIEventsTest.class, UIEventPublisherTest.class,
 })
 public class StartupTestSuite {
 }
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.e4.ui.workbench.UIEvents.ApplicationElement;
+import org.eclipse.e4.ui.workbench.UIEvents.ElementContainer;
+import org.eclipse.e4.ui.workbench.UIEvents.EventTags;
+import org.eclipse.e4.ui.workbench.UIEvents.UIElement;
+import org.eclipse.e4.ui.workbench.UIEvents.UILabel;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Checks the delivery of the events of the model by the
+ * {@link UIEventPublisher}, when nobody listens, when the changes of the
+ * children are handled one by one, and when the handlers of all the events of
+ * the model receive them in a batch.
+ */
+public class UIEventPublisherTest extends HeadlessApplicationElementTest {
+
+	private static final int STACKS = 10;
+	private static final int PARTS = 30;
+	private static final int RESETS = 3;
+
+	private final List<EventHandler> handlers = new ArrayList<>();
+
+	@Override
+	protected MApplicationElement createApplicationElement(IEclipseContext appContext) throws Exception {
+		EModelService modelService = appContext.get(EModelService.class);
+		MApplication application = modelService.createModelElement(MApplication.class);
+		MWindow window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		MPerspective perspective = modelService.createModelElement(MPerspective.class);
+		perspective.setElementId("perspective");
+		perspectiveStack.getChildren().add(perspective);
+		perspective.getChildren().add(createLayout(modelService));
+		return application;
+	}
+
+	@After
+	public void tearDown() {
+		IEventBroker eventBroker = rule.getApplicationContext().get(IEventBroker.class);
+		for (EventHandler handler : handlers) {
+			eventBroker.unsubscribe(handler);
+		}
+	}
+
+	private static MPartSashContainer createLayout(EModelService modelService) {
+		MPartSashContainer sash = modelService.createModelElement(MPartSashContainer.class);
+		for (int s = 0; s < STACKS; s++) {
+			MPartStack stack = modelService.createModelElement(MPartStack.class);
+			stack.setElementId("stack" + s);
+			sash.getChildren().add(stack);
+			for (int i = 0; i < PARTS; i++) {
+				MPart part = modelService.createModelElement(MPart.class);
+				part.setElementId("part" + s + "." + i);
+				part.setLabel("Part " + i);
+				part.getTags().add("View");
+				stack.getChildren().add(part);
+			}
+			stack.setSelectedElement(stack.getChildren().get(0));
+		}
+		return sash;
+	}
+
+	private List<Event> subscribe(String topic) {
+		List<Event> events = new ArrayList<>();
+		EventHandler handler = events::add;
+		rule.getApplicationContext().get(IEventBroker.class).subscribe(topic, handler);
+		handlers.add(handler);
+		return events;
+	}
+
+	private UIEventPublisher getPublisher() {
+		return rule.getApplicationContext().get(UIEventPublisher.class);
+	}
+
+	private MPerspective getPerspective() {
+		return ems.find("perspective", (MApplication) applicationElement);
+	}
+
+	private MPart getPart() {
+		return ems.findElements((MApplication) applicationElement, "part0.0", MPart.class).get(0);
+	}
+
+	@Test
+	public void testSubscribeAfterChange() {
+		MPart part = getPart();
+		// Nobody listens to the labels yet
+		part.setLabel("first");
+
+		List<Event> events = subscribe(UILabel.TOPIC_LABEL);
+		part.setLabel("second");
+		assertEquals(1, events.size());
+		assertEquals("first", events.get(0).getProperty(EventTags.OLD_VALUE));
+		assertEquals("second", events.get(0).getProperty(EventTags.NEW_VALUE));
+
+		// Wildcard subscriptions receive the events as well
+		List<Event> allEvents = subscribe(UILabel.TOPIC_ALL);
+		part.setTooltip("tooltip");
+		assertEquals(1, events.size());
+		assertEquals(1, allEvents.size());
+		assertEquals(UILabel.TOOLTIP, allEvents.get(0).getProperty(EventTags.ATTNAME));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> getChanges(Event batchEvent) {
+		return (List<Map<String, Object>>) batchEvent.getProperty(IEventBroker.DATA);
+	}
+
+	@Test
+	public void testBatch() {
+		MPart part = getPart();
+		List<Event> labelEvents = subscribe(UILabel.TOPIC_LABEL);
+		List<Event> batchEvents = subscribe(UIEventPublisher.TOPIC_BATCH);
+
+		UIEventPublisher publisher = getPublisher();
+		publisher.beginBatch();
+		part.setLabel("first");
+		part.setLabel("second");
+		part.setTooltip("tooltip");
+		part.setTooltip(null);
+		part.getTags().add("Batched");
+		part.getPersistedState().put("key1", "value1");
+		part.getPersistedState().put("key2", "value2");
+		part.getPersistedState().put("key1", "value3");
+		// The handlers of a topic still receive its changes right away
+		assertEquals(2, labelEvents.size());
+		assertTrue(batchEvents.isEmpty());
+		publisher.endBatch();
+		assertEquals(2, labelEvents.size());
+
+		assertEquals(1, batchEvents.size());
+		List<Map<String, Object>> changes = getChanges(batchEvents.get(0));
+		// Successive changes of a value are merged, and dropped when the value
+		// is back to what it was. The changes of different entries of a map are
+		// not merged.
+		assertEquals(5, changes.size());
+		assertSame(part, changes.get(0).get(EventTags.ELEMENT));
+		assertEquals(UILabel.LABEL, changes.get(0).get(EventTags.ATTNAME));
+		assertEquals("Part 0", changes.get(0).get(EventTags.OLD_VALUE));
+		assertEquals("second", changes.get(0).get(EventTags.NEW_VALUE));
+		assertEquals(ApplicationElement.TAGS, changes.get(1).get(EventTags.ATTNAME));
+		for (int i = 2; i < 5; i++) {
+			assertEquals(ApplicationElement.PERSISTEDSTATE, changes.get(i).get(EventTags.ATTNAME));
+		}
+	}
+
+	@Test
+	public void testBatchReplacesModelEvents() {
+		MPart part = getPart();
+		List<Event> tooltipEvents = subscribe(UILabel.TOPIC_TOOLTIP);
+		List<Event> modelEvents = subscribe(UIEvents.UIModelTopicBase + "/*");
+
+		UIEventPublisher publisher = getPublisher();
+		publisher.beginBatch();
+		part.setLabel("batched");
+		part.setTooltip("batched");
+		// Only the change that a handler subscribed to separately is sent
+		assertEquals(1, tooltipEvents.size());
+		assertEquals(1, modelEvents.size());
+		assertEquals(UILabel.TOOLTIP, modelEvents.get(0).getProperty(EventTags.ATTNAME));
+		publisher.endBatch();
+
+		// The handlers of the whole model receive one event for the batch
+		assertEquals(2, modelEvents.size());
+		Event batchEvent = modelEvents.get(1);
+		assertEquals(UIEventPublisher.TOPIC_BATCH, batchEvent.getTopic());
+		assertEquals(2, getChanges(batchEvent).size());
+
+		// Without batch, every change is sent
+		part.setLabel("unbatched");
+		assertEquals(3, modelEvents.size());
+		assertEquals(UILabel.LABEL, modelEvents.get(2).getProperty(EventTags.ATTNAME));
+	}
+
+	@Test
+	public void testNestedBatch() {
+		MPart part = getPart();
+		List<Event> batchEvents = subscribe(UIEventPublisher.TOPIC_BATCH);
+		UIEventPublisher publisher = getPublisher();
+		publisher.beginBatch();
+		publisher.beginBatch();
+		part.setLabel("nested");
+		publisher.endBatch();
+		assertTrue(batchEvents.isEmpty());
+		part.setLabel("outer");
+		publisher.endBatch();
+		assertEquals(1, batchEvents.size());
+		assertEquals(1, getChanges(batchEvents.get(0)).size());
+
+		// A batch without changes sends nothing
+		publisher.beginBatch();
+		publisher.endBatch();
+		assertEquals(1, batchEvents.size());
+	}
+
+	private void resetPerspective(boolean batched) {
+		MPerspective perspective = getPerspective();
+		MPartSashContainer layout = (MPartSashContainer) EcoreUtil.copy((EObject) perspective.getChildren().get(0));
+		UIEventPublisher publisher = getPublisher();
+		for (int i = 0; i < RESETS; i++) {
+			MPartSashContainer copy = (MPartSashContainer) EcoreUtil.copy((EObject) layout);
+			if (batched) {
+				publisher.beginBatch();
+			}
+			try {
+				for (MPart part : ems.findElements(perspective, null, MPart.class)) {
+					part.setToBeRendered(false);
+				}
+				perspective.getChildren().clear();
+				perspective.getChildren().add(copy);
+			} finally {
+				if (batched) {
+					publisher.endBatch();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testResetPerspective() {
+		// Without handlers
+		resetPerspective(false);
+		assertFalse(getPerspective().getChildren().isEmpty());
+
+		List<Event> renderedEvents = subscribe(UIElement.TOPIC_TOBERENDERED);
+		List<Event> childrenEvents = subscribe(ElementContainer.TOPIC_CHILDREN);
+		resetPerspective(false);
+		assertEquals(RESETS * STACKS * PARTS, renderedEvents.size());
+		assertEquals(2 * RESETS, childrenEvents.size());
+
+		List<Event> modelEvents = subscribe(UIEvents.UIModelTopicBase + "/*");
+		resetPerspective(false);
+		int unbatchedEvents = modelEvents.size();
+		assertTrue(unbatchedEvents >= RESETS * (STACKS * PARTS + 2));
+
+		// The handlers of the children and of toBeRendered still receive every
+		// change, the handlers of the whole model one event per reset instead
+		// of the other changes
+		renderedEvents.clear();
+		childrenEvents.clear();
+		modelEvents.clear();
+		resetPerspective(true);
+		assertEquals(RESETS * STACKS * PARTS, renderedEvents.size());
+		assertEquals(2 * RESETS, childrenEvents.size());
+		int batchEvents = 0;
+		for (Event event : modelEvents) {
+			if (UIEventPublisher.TOPIC_BATCH.equals(event.getTopic())) {
+				assertTrue(getChanges(event).size() >= STACKS * PARTS);
+				batchEvents++;
+			}
+		}
+		assertEquals(RESETS, batchEvents);
+		assertTrue(modelEvents.size() <= unbatchedEvents);
+		assertFalse(getPerspective().getChildren().isEmpty());
+	}
+}
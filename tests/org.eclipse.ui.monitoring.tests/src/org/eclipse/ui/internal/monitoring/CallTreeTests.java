@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CallTree} class.
+ */
+public class CallTreeTests {
+
+	/**
+	 * Creates a stack trace from frames listed from the outermost to the innermost, in the
+	 * reverse order of {@link Thread#getStackTrace()}.
+	 */
+	private static StackTraceElement[] createStackTrace(String... frames) {
+		StackTraceElement[] stackTrace = new StackTraceElement[frames.length];
+		for (int i = 0; i < frames.length; i++) {
+			stackTrace[frames.length - 1 - i] = new StackTraceElement("a.Class", frames[i], null, -1);
+		}
+		return stackTrace;
+	}
+
+	@Test
+	public void testSelfAndTotalTime() throws Exception {
+		CallTree tree = new CallTree(100);
+		tree.addSample(createStackTrace("main", "dispatch", "paint"), 10);
+		tree.addSample(createStackTrace("main", "dispatch", "layout"), 20);
+		tree.addSample(createStackTrace("main", "dispatch"), 5);
+
+		assertEquals(4, tree.getNodeCount());
+		CallTree.Node main = tree.getRoot().getChild("a.Class.main");
+		assertNotNull(main);
+		assertEquals(35, main.getTotalTime());
+		assertEquals(0, main.getSelfTime());
+		CallTree.Node dispatch = main.getChild("a.Class.dispatch");
+		assertEquals(35, dispatch.getTotalTime());
+		assertEquals(5, dispatch.getSelfTime());
+		assertEquals(10, dispatch.getChild("a.Class.paint").getSelfTime());
+		assertEquals(20, dispatch.getChild("a.Class.layout").getTotalTime());
+	}
+
+	@Test
+	public void testMaxNodes() throws Exception {
+		CallTree tree = new CallTree(2);
+		tree.addSample(createStackTrace("main", "dispatch", "paint"), 10);
+
+		assertEquals(2, tree.getNodeCount());
+		CallTree.Node dispatch =
+				tree.getRoot().getChild("a.Class.main").getChild("a.Class.dispatch");
+		assertNull(dispatch.getChild("a.Class.paint"));
+		// The time of the frame that didn't fit is attributed to its deepest known caller.
+		assertEquals(10, dispatch.getSelfTime());
+	}
+
+	@Test
+	public void testCollapsedStacks() throws Exception {
+		CallTree tree = new CallTree(100);
+		tree.addSample(createStackTrace("main", "dispatch", "paint"), 10);
+		tree.addSample(createStackTrace("main", "dispatch", "paint"), 10);
+		tree.addSample(createStackTrace("main", "idle"), 3);
+
+		StringBuilder out = new StringBuilder();
+		tree.writeCollapsedStacks(out);
+		List<String> lines = Arrays.asList(out.toString().split("\n"));
+		lines.sort(null);
+		assertEquals(Arrays.asList(
+				"a.Class.main;a.Class.dispatch;a.Class.paint 20",
+				"a.Class.main;a.Class.idle 3"), lines);
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		CallTree tree = new CallTree(100);
+		tree.addSample(createStackTrace("main", "dispatch"), 10);
+		tree.clear();
+
+		assertEquals(0, tree.getNodeCount());
+		assertEquals(0, tree.getRoot().getTotalTime());
+		assertEquals(0, tree.getRoot().getChildren().size());
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FreezeDatabase} class.
+ */
+public class FreezeDatabaseTests {
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("ui_freezes", ".dat");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	private UiFreezeEvent createFreezeEvent(long start, long duration) {
+		ThreadMXBean jvmThreadManager = ManagementFactory.getThreadMXBean();
+		ThreadInfo thread =
+				jvmThreadManager.getThreadInfo(Thread.currentThread().getId(), Integer.MAX_VALUE);
+		StackSample[] samples = {
+				new StackSample(start, new ThreadInfo[] { thread }),
+				new StackSample(start + duration / 2, new ThreadInfo[] { thread }) };
+		return new UiFreezeEvent(start, duration, samples, false, false, false);
+	}
+
+	@Test
+	public void testSignature() throws Exception {
+		String signature = FreezeDatabase.getSignature(createFreezeEvent(0, 1000));
+		assertNotNull(signature);
+		assertTrue(signature.split("\n").length <= FreezeDatabase.MAX_SIGNATURE_FRAMES);
+		assertEquals(signature, FreezeDatabase.getSignature(createFreezeEvent(5000, 700)));
+
+		UiFreezeEvent starved = new UiFreezeEvent(0, 1000, new StackSample[0], false, true, false);
+		assertNull(FreezeDatabase.getSignature(starved));
+	}
+
+	@Test
+	public void testAggregation() throws Exception {
+		FreezeDatabase database = new FreezeDatabase(null);
+		database.record(createFreezeEvent(1000, 500));
+		database.record(createFreezeEvent(2000, 3000));
+		FreezeDatabase.Entry entry = database.record(createFreezeEvent(3000, 800));
+
+		assertEquals(1, database.size());
+		assertEquals(3, entry.getCount());
+		assertEquals(3, entry.getSessionCount());
+		assertEquals(4300, entry.getTotalDuration());
+		assertEquals(3000, entry.getMaxDuration());
+		assertEquals(800, entry.getMedianDuration());
+		assertEquals(1000, entry.getFirstSeen());
+		assertEquals(3000, entry.getLastSeen());
+	}
+
+	@Test
+	public void testTopOffenders() throws Exception {
+		FreezeDatabase database = new FreezeDatabase(null);
+		database.record("a.A.rare", 0, 5000);
+		database.record("a.B.frequent", 0, 1000);
+		database.record("a.B.frequent", 10, 1000);
+		database.record("a.B.frequent", 20, 4000);
+		database.record("a.C.small", 0, 100);
+
+		List<FreezeDatabase.Entry> top = database.getTopOffenders(2);
+		assertEquals(2, top.size());
+		assertEquals("a.B.frequent", top.get(0).getSignature());
+		assertEquals("a.A.rare", top.get(1).getSignature());
+	}
+
+	@Test
+	public void testPersistence() throws Exception {
+		FreezeDatabase database = new FreezeDatabase(file);
+		for (int i = 0; i < FreezeDatabase.MEDIAN_WINDOW + 10; i++) {
+			database.record("a.A.method", i, 100 + i);
+		}
+		database.save();
+
+		FreezeDatabase reloaded = new FreezeDatabase(file);
+		FreezeDatabase.Entry entry = reloaded.getTopOffenders(1).get(0);
+		FreezeDatabase.Entry original = database.getTopOffenders(1).get(0);
+		assertEquals(original.getCount(), entry.getCount());
+		assertEquals(original.getTotalDuration(), entry.getTotalDuration());
+		assertEquals(original.getMaxDuration(), entry.getMaxDuration());
+		assertEquals(original.getMedianDuration(), entry.getMedianDuration());
+		assertEquals(original.getFirstSeen(), entry.getFirstSeen());
+		assertEquals(original.getLastSeen(), entry.getLastSeen());
+		// Freezes of earlier sessions are not counted in the current one.
+		assertEquals(0, entry.getSessionCount());
+	}
+}
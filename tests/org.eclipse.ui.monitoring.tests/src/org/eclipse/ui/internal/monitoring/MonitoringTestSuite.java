@@ -26,6 +26,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	EventLoopMonitorThreadTests.class,
 	FilterHandlerTests.class,
-	DefaultLoggerTests.class})
+	DefaultLoggerTests.class,
+	CallTreeTests.class,
+	FreezeDatabaseTests.class})
 public class MonitoringTestSuite {
 }
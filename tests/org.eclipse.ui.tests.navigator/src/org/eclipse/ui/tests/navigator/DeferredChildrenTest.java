@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.ui.internal.navigator.DeferredChildrenManager;
+import org.eclipse.ui.internal.navigator.NavigatorContentServiceContentProvider;
+import org.eclipse.ui.internal.navigator.filters.UpdateActiveFiltersOperation;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeferredChildrenTest extends NavigatorTestBase {
+
+	public DeferredChildrenTest() {
+		_navigatorInstanceId = TEST_VIEWER;
+	}
+
+	@Override
+	@Before
+	public void setUp() {
+		super.setUp();
+		_contentService.getActivationService().activateExtensions(new String[] { COMMON_NAVIGATOR_RESOURCE_EXT },
+				true);
+		try {
+			new UpdateActiveFiltersOperation(_viewer, new String[0]).execute(null, null);
+		} catch (ExecutionException e) {
+			fail("Should not throw an exception");
+		}
+		_viewer.setUseDeferredChildren(true);
+	}
+
+	@Override
+	@After
+	public void tearDown() {
+		_viewer.setUseDeferredChildren(false);
+		super.tearDown();
+	}
+
+	private TreeItem projectItem() {
+		return (TreeItem) _viewer.testFindItem(_project);
+	}
+
+	private Set<Object> childrenOf(TreeItem item) {
+		Set<Object> children = new HashSet<>();
+		for (TreeItem child : item.getItems()) {
+			children.add(child.getData());
+		}
+		return children;
+	}
+
+	private boolean waitForChildren(final TreeItem item) {
+		return waitForChildren(item, _expectedChildren);
+	}
+
+	private boolean waitForChildren(final TreeItem item, final Set<Object> expected) {
+		return new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return childrenOf(item).equals(expected);
+			}
+		}.waitForCondition(Display.getCurrent(), 10000);
+	}
+
+	private static boolean hasPlaceholder(Set<Object> children) {
+		for (Object child : children) {
+			if (child instanceof PendingUpdateAdapter) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private DeferredChildrenManager getManager() {
+		return ((NavigatorContentServiceContentProvider) _viewer.getContentProvider()).getDeferredChildrenManager();
+	}
+
+	/**
+	 * Collapses the element the way the user does, notifying the listeners of
+	 * the viewer.
+	 */
+	private void collapse(Object anElement) {
+		TreeItem item = (TreeItem) _viewer.testFindItem(anElement);
+		item.setExpanded(false);
+		Event event = new Event();
+		event.item = item;
+		_viewer.getTree().notifyListeners(SWT.Collapse, event);
+	}
+
+	/**
+	 * Creates files in the bin folder of the project, and shows the children
+	 * of the project.
+	 */
+	private IFolder createFiles(final int count) throws CoreException {
+		final IFolder folder = _project.getFolder("bin");
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			for (int i = 0; i < count; i++) {
+				folder.getFile("file" + i + ".txt").create(new ByteArrayInputStream(new byte[0]), true, null);
+			}
+		}, null);
+		_viewer.setExpandedState(_project, true);
+		assertTrue(waitForChildren(projectItem()));
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+		return folder;
+	}
+
+	@Test
+	public void testPendingUntilFetched() throws Exception {
+		assertTrue(_viewer.isUseDeferredChildren());
+
+		_viewer.setExpandedState(_project, true);
+		TreeItem item = projectItem();
+		assertEquals(1, item.getItemCount());
+		assertTrue(item.getItems()[0].getData() instanceof PendingUpdateAdapter);
+
+		assertTrue(waitForChildren(item));
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+		assertEquals(_expectedChildren, childrenOf(item));
+	}
+
+	@Test
+	public void testRefreshKeepsChildren() throws Exception {
+		_viewer.setExpandedState(_project, true);
+		TreeItem item = projectItem();
+		assertTrue(waitForChildren(item));
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+
+		_viewer.refresh(_project);
+		// The known children are shown while they are fetched again
+		assertEquals(_expectedChildren, childrenOf(item));
+		DisplayHelper.runEventLoop(Display.getCurrent(), 500);
+		assertEquals(_expectedChildren, childrenOf(item));
+	}
+
+	@Test
+	public void testExpandAgain() throws Exception {
+		_viewer.setExpandedState(_project, true);
+		collapse(_project);
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+
+		_viewer.setExpandedState(_project, true);
+		TreeItem item = projectItem();
+		assertTrue(waitForChildren(item));
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+		for (TreeItem child : item.getItems()) {
+			assertFalse(child.getData() instanceof PendingUpdateAdapter);
+		}
+	}
+
+	@Test
+	public void testCollapseCancelsFetch() throws Exception {
+		DeferredChildrenManager manager = getManager();
+		Job.getJobManager().suspend();
+		try {
+			_viewer.setExpandedState(_project, true);
+			assertEquals(1, Job.getJobManager().find(manager).length);
+			collapse(_project);
+			assertEquals(0, Job.getJobManager().find(manager).length);
+		} finally {
+			Job.getJobManager().resume();
+		}
+		DisplayHelper.runEventLoop(Display.getCurrent(), 100);
+		assertEquals(0, Job.getJobManager().find(manager).length);
+
+		// The next expansion fetches the children again
+		_viewer.setExpandedState(_project, true);
+		assertTrue(waitForChildren(projectItem()));
+	}
+
+	@Test
+	public void testChildrenAddedInBatches() throws Exception {
+		IFolder folder = createFiles(250);
+		Set<Object> members = new HashSet<>(Arrays.asList(folder.members()));
+
+		_viewer.setExpandedState(folder, true);
+		TreeItem item = (TreeItem) _viewer.testFindItem(folder);
+		Display display = Display.getCurrent();
+		boolean partial = false;
+		long end = System.currentTimeMillis() + 10000;
+		while (!childrenOf(item).equals(members) && System.currentTimeMillis() < end) {
+			// Runs the batches posted by the fetch one at a time
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+				continue;
+			}
+			Set<Object> children = childrenOf(item);
+			if (!partial && hasPlaceholder(children) && children.size() > 1 && children.size() - 1 < members.size()) {
+				partial = true;
+				// Refreshing the folder keeps the children shown so far, and
+				// keeps fetching the others
+				_viewer.refresh(folder);
+				assertEquals(children, childrenOf(item));
+			}
+		}
+		assertTrue("The children weren't added in batches", partial);
+		assertEquals(members, childrenOf(item));
+		assertFalse(hasPlaceholder(childrenOf(item)));
+	}
+
+	@Test
+	public void testConcurrentLookups() throws Exception {
+		IFolder folder = createFiles(1000);
+		Set<Object> members = new HashSet<>(Arrays.asList(folder.members()));
+		DeferredChildrenManager manager = getManager();
+
+		_viewer.setExpandedState(folder, true);
+		TreeItem item = (TreeItem) _viewer.testFindItem(folder);
+		int lookups = 0;
+		for (int i = 0; i < 3; i++) {
+			// The fetch looks up the extensions of the children while the UI
+			// thread looks up the extensions of other elements
+			while (Job.getJobManager().find(manager).length > 0) {
+				for (IResource member : folder.members()) {
+					assertFalse(_contentService.findContentExtensionsByTriggerPoint(member).isEmpty());
+					assertFalse(_contentService
+							.findContentExtensionsWithPossibleChild(folder.getFile("lookup" + lookups++ + ".txt"))
+							.isEmpty());
+				}
+			}
+			assertTrue(waitForChildren(item, members));
+			// Fetches the known children again
+			_viewer.refresh(folder);
+		}
+		assertTrue(waitForChildren(item, members));
+	}
+
+	@Test
+	public void testSynchronous() throws Exception {
+		_viewer.setUseDeferredChildren(false);
+		assertFalse(_viewer.isUseDeferredChildren());
+
+		_viewer.setExpandedState(_project, true);
+		assertEquals(_expectedChildren, childrenOf(projectItem()));
+	}
+}
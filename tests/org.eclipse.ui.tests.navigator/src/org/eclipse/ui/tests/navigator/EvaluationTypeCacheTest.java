@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.ui.tests.navigator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.ui.internal.navigator.VisibilityAssistant;
+import org.eclipse.ui.internal.navigator.extensions.EvaluationCache;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptorManager;
+import org.eclipse.ui.navigator.IExtensionActivationListener;
+import org.eclipse.ui.navigator.INavigatorActivationService;
+import org.eclipse.ui.navigator.INavigatorContentDescriptor;
+import org.eclipse.ui.tests.navigator.util.TestNavigatorViewerDescriptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the descriptors triggered by the elements of a class are cached
+ * for the class when the enabled extensions only test the type of the
+ * elements, and per element otherwise.
+ */
+public class EvaluationTypeCacheTest extends NavigatorTestBase {
+
+	private static final String VIEWER_ID = "org.eclipse.ui.tests.navigator.EvaluationTypeCacheTest";
+
+	private final NavigatorContentDescriptorManager manager = NavigatorContentDescriptorManager.getInstance();
+
+	private TestActivationService activationService;
+
+	private VisibilityAssistant assistant;
+
+	private EvaluationCache cache;
+
+	public EvaluationTypeCacheTest() {
+		_navigatorInstanceId = TEST_VIEWER_PROGRAMMATIC;
+	}
+
+	@Override
+	public void setUp() {
+		super.setUp();
+		activationService = new TestActivationService();
+		assistant = new VisibilityAssistant(new TestNavigatorViewerDescriptor() {
+			@Override
+			public String getViewerId() {
+				return VIEWER_ID;
+			}
+		}, activationService);
+		// TEST_CONTENT2 triggers on instanceof IProject only, and
+		// TEST_CONTENT_HAS_CHILDREN tests the extension of files
+		assistant.bindExtensions(new String[] { TEST_CONTENT2, TEST_CONTENT_HAS_CHILDREN }, false);
+		cache = manager.getTriggerPointEvaluationCache(assistant);
+	}
+
+	@Override
+	public void tearDown() {
+		assistant.dispose();
+		super.tearDown();
+	}
+
+	private Set<String> findIds(Object anElement) {
+		Set<String> ids = new HashSet<String>();
+		for (NavigatorContentDescriptor descriptor : manager.findDescriptorsForTriggerPoint(anElement, assistant,
+				false)) {
+			ids.add(descriptor.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	public void testElementsOfOneClass() {
+		activationService.activateExtensions(new String[] { TEST_CONTENT2 }, false);
+
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT2)), findIds(_p1));
+		Assert.assertNotNull(cache.getDescriptorsForType(_p1.getClass(), false));
+		Assert.assertNull(cache.getDescriptors(_p1, false));
+
+		// Another project resolves through the entry of its class
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT2)), findIds(_p2));
+		Assert.assertNull(cache.getDescriptors(_p2, false));
+
+		Assert.assertTrue(findIds(_project.getFile("model.properties")).isEmpty());
+		Assert.assertNotNull(cache.getDescriptorsForType(_project.getFile("model.properties").getClass(), false));
+	}
+
+	@Test
+	public void testActivationChangeClearsTypeEntries() {
+		activationService.activateExtensions(new String[] { TEST_CONTENT2 }, false);
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT2)), findIds(_p1));
+		Assert.assertNotNull(cache.getDescriptorsForType(_p1.getClass(), false));
+
+		activationService.deactivateExtensions(new String[] { TEST_CONTENT2 }, false);
+		Assert.assertNull(cache.getDescriptorsForType(_p1.getClass(), false));
+		Assert.assertTrue(findIds(_p1).isEmpty());
+
+		activationService.activateExtensions(new String[] { TEST_CONTENT2 }, false);
+		Assert.assertNull(cache.getDescriptorsForType(_p1.getClass(), false));
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT2)), findIds(_p1));
+	}
+
+	@Test
+	public void testTestExpressionsAreCachedPerElement() {
+		activationService.activateExtensions(new String[] { TEST_CONTENT2, TEST_CONTENT_HAS_CHILDREN }, false);
+
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT2)), findIds(_p1));
+		Assert.assertNull(cache.getDescriptorsForType(_p1.getClass(), false));
+		Assert.assertNotNull(cache.getDescriptors(_p1, false));
+
+		// Files of the same class are told apart by their extension
+		IFile datFile = _project.getFile("model.dat");
+		IFile propertiesFile = _project.getFile("model.properties");
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(TEST_CONTENT_HAS_CHILDREN)), findIds(datFile));
+		Assert.assertTrue(findIds(propertiesFile).isEmpty());
+		Assert.assertNull(cache.getDescriptorsForType(datFile.getClass(), false));
+		Assert.assertNotNull(cache.getDescriptors(datFile, false));
+		Assert.assertNotNull(cache.getDescriptors(propertiesFile, false));
+	}
+
+	/**
+	 * Activates the extensions for the viewer of the test and notifies the
+	 * assistant.
+	 */
+	private static class TestActivationService implements INavigatorActivationService {
+
+		private final Set<String> activeExtensions = new HashSet<String>();
+
+		private final Set<IExtensionActivationListener> listeners = new HashSet<IExtensionActivationListener>();
+
+		@Override
+		public INavigatorContentDescriptor[] activateExtensions(String[] extensionIds, boolean toDeactivateAllOthers) {
+			activeExtensions.addAll(Arrays.asList(extensionIds));
+			fireActivation(extensionIds, true);
+			return null;
+		}
+
+		@Override
+		public INavigatorContentDescriptor[] deactivateExtensions(String[] extensionIds, boolean toActivateAllOthers) {
+			activeExtensions.removeAll(Arrays.asList(extensionIds));
+			fireActivation(extensionIds, false);
+			return null;
+		}
+
+		private void fireActivation(String[] extensionIds, boolean isActive) {
+			for (IExtensionActivationListener listener : listeners) {
+				listener.onExtensionActivation(VIEWER_ID, extensionIds, isActive);
+			}
+		}
+
+		@Override
+		public boolean isNavigatorExtensionActive(String aNavigatorExtensionId) {
+			return activeExtensions.contains(aNavigatorExtensionId);
+		}
+
+		@Override
+		public void persistExtensionActivations() {
+		}
+
+		@Override
+		public void addExtensionActivationListener(IExtensionActivationListener aListener) {
+			listeners.add(aListener);
+		}
+
+		@Override
+		public void removeExtensionActivationListener(IExtensionActivationListener aListener) {
+			listeners.remove(aListener);
+		}
+	}
+}
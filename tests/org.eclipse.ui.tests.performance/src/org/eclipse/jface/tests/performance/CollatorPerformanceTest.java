@@ -15,10 +15,12 @@
 
 package org.eclipse.jface.tests.performance;
 
+import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
 
 import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.ui.tests.performance.BasicPerformanceTest;
 
 /**
@@ -53,6 +55,34 @@ public class CollatorPerformanceTest extends BasicPerformanceTest {
         assertPerformance();
 	}
 
+	/**
+	 * test sorting the array with a collator based ViewerComparator
+	 */
+	public void testViewerComparator() {
+		doTestViewerComparator(new ViewerComparator(Collator.getInstance()));
+	}
+
+	/**
+	 * test sorting the array with a collator based ViewerComparator that caches
+	 * its collation keys
+	 */
+	public void testViewerComparatorCachedKeys() {
+		ViewerComparator viewerComparator = new ViewerComparator(Collator.getInstance());
+		viewerComparator.setSortKeyCacheSize(ARRAYSIZE);
+		doTestViewerComparator(viewerComparator);
+	}
+
+	private void doTestViewerComparator(ViewerComparator viewerComparator) {
+		for (int i = 0; i < 15; i++) {
+			String[] array = fArray.clone();
+			startMeasuring();
+			viewerComparator.sort(null, array);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/**
 	 * Generate a large sized array for sorting
 	 */
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * The ElementMapFootprintTest measures the heap used by the element to widget
+ * map of table and tree viewers. All elements are mapped to a single item so
+ * that the measurement is not dominated by the native widgets.
+ */
+public class ElementMapFootprintTest extends ViewerTest {
+
+	interface MappingViewer {
+		void mapAll(Object[] elements, Widget item);
+
+		void unmapAll();
+
+		Widget createItem();
+	}
+
+	class MappingTableViewer extends TableViewer implements MappingViewer {
+
+		public MappingTableViewer(Composite parent) {
+			super(parent);
+		}
+
+		@Override
+		public void mapAll(Object[] elements, Widget item) {
+			for (Object element : elements) {
+				mapElement(element, item);
+			}
+		}
+
+		@Override
+		public void unmapAll() {
+			unmapAllElements();
+		}
+
+		@Override
+		public Widget createItem() {
+			return new TableItem(getTable(), SWT.NONE);
+		}
+	}
+
+	class MappingTreeViewer extends TreeViewer implements MappingViewer {
+
+		public MappingTreeViewer(Composite parent) {
+			super(parent);
+		}
+
+		@Override
+		public void mapAll(Object[] elements, Widget item) {
+			for (Object element : elements) {
+				mapElement(element, item);
+			}
+		}
+
+		@Override
+		public void unmapAll() {
+			unmapAllElements();
+		}
+
+		@Override
+		public Widget createItem() {
+			return new TreeItem(getTree(), SWT.NONE);
+		}
+	}
+
+	private boolean useTree;
+
+	private MappingViewer viewer;
+
+	public ElementMapFootprintTest(String testName, int tagging) {
+		super(testName, tagging);
+	}
+
+	public ElementMapFootprintTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Shell shell) {
+		StructuredViewer structuredViewer;
+		if (useTree) {
+			structuredViewer = new MappingTreeViewer(shell);
+		} else {
+			structuredViewer = new MappingTableViewer(shell);
+		}
+		structuredViewer.setContentProvider(ArrayContentProvider.getInstance());
+		structuredViewer.setLabelProvider(getLabelProvider());
+		viewer = (MappingViewer) structuredViewer;
+		return structuredViewer;
+	}
+
+	@Override
+	protected Object getInitialInput() {
+		return new Object[0];
+	}
+
+	public void testTableTenThousand() throws CoreException {
+		doTestFootprint(false, 10000);
+	}
+
+	public void testTableHundredThousand() throws CoreException {
+		doTestFootprint(false, 100000);
+	}
+
+	public void testTableMillion() throws CoreException {
+		tagIfNecessary("JFace - Element map footprint 1000000 elements TableViewer",
+				Dimension.USED_JAVA_HEAP);
+
+		doTestFootprint(false, 1000000);
+	}
+
+	public void testTreeTenThousand() throws CoreException {
+		doTestFootprint(true, 10000);
+	}
+
+	public void testTreeHundredThousand() throws CoreException {
+		doTestFootprint(true, 100000);
+	}
+
+	public void testTreeMillion() throws CoreException {
+		doTestFootprint(true, 1000000);
+	}
+
+	/**
+	 * Measure the heap used to map count elements.
+	 *
+	 * @param tree
+	 * @param count
+	 * @throws CoreException
+	 */
+	protected void doTestFootprint(boolean tree, final int count)
+			throws CoreException {
+		useTree = tree;
+		openBrowser();
+
+		final Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = new TestElement(i);
+		}
+		final Widget item = viewer.createItem();
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+				System.gc();
+				startMeasuring();
+				viewer.mapAll(elements, item);
+				System.gc();
+				stopMeasuring();
+				viewer.unmapAll();
+			}
+		}, 3, 10, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * Measures structural refreshes of a large tree where only a few children
+ * change, with and without incremental refresh. With incremental refresh the
+ * cost should follow the size of the change, not the size of the tree.
+ */
+public class IncrementalTreeRefreshTest extends TreeAddTest {
+
+	static int TREE_SIZE = 10000;
+
+	public IncrementalTreeRefreshTest(String testName, int tagging) {
+		super(testName, tagging);
+	}
+
+	public IncrementalTreeRefreshTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * @throws CoreException
+	 *             Test refreshing ten changed children with positional
+	 *             refresh.
+	 */
+	public void testRefreshTenChanges() throws CoreException {
+		doTestRefresh(10, false);
+	}
+
+	/**
+	 * @throws CoreException
+	 *             Test refreshing ten changed children with incremental
+	 *             refresh.
+	 */
+	public void testRefreshTenChangesIncremental() throws CoreException {
+		tagIfNecessary("JFace - Refresh 10 changes in 10000 item TreeViewer incrementally",
+				Dimension.ELAPSED_PROCESS);
+
+		doTestRefresh(10, true);
+	}
+
+	/**
+	 * @throws CoreException
+	 *             Test refreshing a thousand changed children with incremental
+	 *             refresh.
+	 */
+	public void testRefreshThousandChangesIncremental() throws CoreException {
+		doTestRefresh(1000, true);
+	}
+
+	/**
+	 * Fill the tree with {@link #TREE_SIZE} children, then repeatedly replace
+	 * the first <code>changes</code> of them and refresh the tree.
+	 *
+	 * @param changes
+	 * @param incremental
+	 * @throws CoreException
+	 */
+	protected void doTestRefresh(final int changes, final boolean incremental)
+			throws CoreException {
+
+		openBrowser();
+		viewer.setUseIncrementalRefresh(incremental);
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+
+				TestTreeElement input = new TestTreeElement(0, null);
+				input.createChildren(TREE_SIZE);
+				viewer.setInput(input);
+				processEvents();
+
+				TestTreeElement[] original = input.children;
+				TestTreeElement[] changed = new TestTreeElement[TREE_SIZE];
+				System.arraycopy(original, 0, changed, 0, TREE_SIZE);
+				for (int i = 0; i < changes; i++) {
+					changed[i] = new TestTreeElement(TREE_SIZE + i, input);
+				}
+
+				startMeasuring();
+				for (int i = 0; i < 10; i++) {
+					input.children = i % 2 == 0 ? changed : original;
+					viewer.refresh(input, false);
+					processEvents();
+				}
+				stopMeasuring();
+
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
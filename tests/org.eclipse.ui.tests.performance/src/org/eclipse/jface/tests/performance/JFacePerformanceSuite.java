@@ -50,7 +50,15 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new TreeAddTest("testAddThousandPreSort", BasicPerformanceTest.GLOBAL));
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
+		addTest(new IncrementalTreeRefreshTest("testRefreshTenChanges"));
+		addTest(new IncrementalTreeRefreshTest("testRefreshTenChangesIncremental", BasicPerformanceTest.LOCAL));
+		addTest(new IncrementalTreeRefreshTest("testRefreshThousandChangesIncremental"));
+		addTest(new ElementMapFootprintTest("testTableHundredThousand"));
+		addTest(new ElementMapFootprintTest("testTableMillion", BasicPerformanceTest.LOCAL));
+		addTest(new ElementMapFootprintTest("testTreeHundredThousand"));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new CollatorPerformanceTest("testViewerComparator"));
+		addTest(new CollatorPerformanceTest("testViewerComparatorCachedKeys"));
 
 	}
 }
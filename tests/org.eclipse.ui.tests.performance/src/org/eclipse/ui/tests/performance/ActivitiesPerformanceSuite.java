@@ -38,6 +38,7 @@ public class ActivitiesPerformanceSuite extends TestSuite {
     public ActivitiesPerformanceSuite() {
         super();
         addTest(new GenerateIdentifiersTest(10000));
+        addTest(new ActivityPatternMatchingTest(10000));
     }
 
 }
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.ui.activities.WorkbenchTriggerPointAdvisor;
+import org.eclipse.ui.internal.activities.AbstractActivityRegistry;
+import org.eclipse.ui.internal.activities.ActivityDefinition;
+import org.eclipse.ui.internal.activities.ActivityPatternBindingDefinition;
+import org.eclipse.ui.internal.activities.MutableActivityManager;
+
+/**
+ * Matches identifiers against the patterns of a few hundred activities, then
+ * enables and disables some of the activities.
+ */
+public class ActivityPatternMatchingTest extends BasicPerformanceTest {
+
+	private static final String SOURCE_ID = "org.eclipse.ui.tests.performance";
+
+	private static final int ACTIVITIES = 300;
+
+	private static final int TOGGLED_ACTIVITIES = 10;
+
+	private int count;
+
+	/**
+	 * Defines activities bound to the contributions of their own plug-in, and
+	 * a few regular expressions and equality patterns.
+	 */
+	private static class PatternActivityRegistry extends AbstractActivityRegistry {
+
+		PatternActivityRegistry() {
+			activityDefinitions = new ArrayList<>();
+			activityPatternBindingDefinitions = new ArrayList<>();
+			for (int i = 0; i < ACTIVITIES; i++) {
+				String activityId = getActivityId(i);
+				activityDefinitions.add(new ActivityDefinition(activityId, "Activity " + i, SOURCE_ID, null));
+				activityPatternBindingDefinitions.add(
+						new ActivityPatternBindingDefinition(activityId, "org\\.example\\.plugin" + i + "/.*", SOURCE_ID));
+				if (i % 10 == 0) {
+					// Without literal prefix
+					activityPatternBindingDefinitions
+							.add(new ActivityPatternBindingDefinition(activityId, ".*/debug" + i, SOURCE_ID));
+				}
+				if (i % 3 == 0) {
+					activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+							"org.example.plugin" + i + "/exact", SOURCE_ID, true));
+				}
+			}
+		}
+	}
+
+	private static String getActivityId(int index) {
+		return "org.example.activity" + index;
+	}
+
+	public ActivityPatternMatchingTest(int numberOfIdentifiers) {
+		super("Match " + numberOfIdentifiers + " identifiers against " + ACTIVITIES + " activities");
+		this.count = numberOfIdentifiers;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		final MutableActivityManager activityManager = new MutableActivityManager(new WorkbenchTriggerPointAdvisor(),
+				new PatternActivityRegistry());
+		try {
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					final String[] ids = new String[count];
+					long timestamp = System.currentTimeMillis();
+					for (int i = 0; i < ids.length; i++) {
+						ids[i] = "org.example.plugin" + (i % ACTIVITIES) + "/contribution" + i + timestamp;
+					}
+
+					startMeasuring();
+					for (int i = 0; i < ids.length; i++) {
+						activityManager.getIdentifier(ids[i]);
+					}
+					Set<String> enabledActivityIds = new HashSet<>();
+					for (int i = 0; i < TOGGLED_ACTIVITIES; i++) {
+						enabledActivityIds.add(getActivityId(i));
+						activityManager.setEnabledActivityIds(enabledActivityIds);
+					}
+					activityManager.setEnabledActivityIds(Collections.emptySet());
+					stopMeasuring();
+
+					assertEquals(Collections.singleton(getActivityId(7)),
+							activityManager.getIdentifier(ids[7]).getActivityIds());
+					assertEquals(Collections.singleton(getActivityId(3)),
+							activityManager.getIdentifier("org.example.plugin3/exact").getActivityIds());
+					assertEquals(new HashSet<>(Arrays.asList(getActivityId(10), getActivityId(20))),
+							activityManager.getIdentifier("org.example.plugin20/debug10").getActivityIds());
+				}
+			});
+		} finally {
+			activityManager.unhookRegistryListeners();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
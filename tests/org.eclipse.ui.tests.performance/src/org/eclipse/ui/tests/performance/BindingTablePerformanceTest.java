@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.commands.Category;
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandManager;
+import org.eclipse.core.commands.ParameterizedCommand;
+import org.eclipse.core.commands.contexts.Context;
+import org.eclipse.core.commands.contexts.ContextManager;
+import org.eclipse.e4.ui.bindings.internal.BindingTable;
+import org.eclipse.jface.bindings.Binding;
+import org.eclipse.jface.bindings.keys.KeyBinding;
+import org.eclipse.jface.bindings.keys.KeySequence;
+import org.eclipse.jface.bindings.keys.KeyStroke;
+import org.eclipse.swt.SWT;
+
+/**
+ * Builds a binding table of 10,000 two-stroke key sequences, or looks up each
+ * keystroke of these sequences the way the key binding dispatcher does.
+ */
+public class BindingTablePerformanceTest extends BasicPerformanceTest {
+
+	/**
+	 * The operations measured on the table.
+	 */
+	public static final String[] SCENARIOS = { "build", "lookup" };
+
+	private static final String ID_CONTEXT = "org.eclipse.ui.tests.performance.bindings";
+
+	private static final String SCHEME_ID = "org.eclipse.ui.defaultAcceleratorConfiguration";
+
+	private static final int[] MODIFIERS = { SWT.CTRL, SWT.CTRL | SWT.SHIFT, SWT.ALT, SWT.ALT | SWT.SHIFT };
+
+	private static final String KEYS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+	private static final int STROKES = 100;
+
+	private static final int BINDINGS = STROKES * STROKES;
+
+	private final String scenario;
+
+	/**
+	 * @param scenario
+	 *            one of {@link #SCENARIOS}
+	 */
+	public BindingTablePerformanceTest(String scenario) {
+		super("Binding table of " + BINDINGS + " key sequences: " + scenario);
+		this.scenario = scenario;
+	}
+
+	private static List<Binding> createBindings(Context context) {
+		CommandManager commandManager = new CommandManager();
+		Category category = commandManager.getCategory("bogus");
+		category.define("Bogus", null);
+
+		KeyStroke[] strokes = new KeyStroke[STROKES];
+		for (int i = 0; i < STROKES; i++) {
+			strokes[i] = KeyStroke.getInstance(MODIFIERS[i / KEYS.length()], KEYS.charAt(i % KEYS.length()));
+		}
+		List<Binding> bindings = new ArrayList<>(BINDINGS);
+		for (int i = 0; i < BINDINGS; i++) {
+			Command cmd = commandManager.getCommand("org.eclipse.ui.tests.command" + i);
+			cmd.define("Command " + i, null, category);
+			KeySequence seq = KeySequence.getInstance(new KeyStroke[] { strokes[i / STROKES], strokes[i % STROKES] });
+			bindings.add(new KeyBinding(seq, new ParameterizedCommand(cmd, null), SCHEME_ID, context.getId(), null,
+					null, null, Binding.SYSTEM));
+		}
+		return bindings;
+	}
+
+	private static BindingTable createTable(Context context, List<Binding> bindings) {
+		BindingTable table = new BindingTable(context);
+		for (Binding binding : bindings) {
+			table.addBinding(binding);
+		}
+		return table;
+	}
+
+	private static void lookup(BindingTable table, List<Binding> bindings) {
+		for (Binding binding : bindings) {
+			KeySequence sequence = (KeySequence) binding.getTriggerSequence();
+			KeySequence prefix = KeySequence.getInstance(sequence.getKeyStrokes()[0]);
+			// First keystroke
+			assertNull(table.getPerfectMatch(prefix));
+			assertTrue(table.isPartialMatch(prefix));
+			// Second keystroke
+			assertSame(binding, table.getPerfectMatch(sequence));
+			assertFalse(table.isPartialMatch(sequence));
+		}
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		ContextManager contextManager = new ContextManager();
+		final Context context = contextManager.getContext(ID_CONTEXT);
+		context.define("Performance", null, null);
+		final List<Binding> bindings = createBindings(context);
+		final BindingTable table = createTable(context, bindings);
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				if ("build".equals(scenario)) {
+					startMeasuring();
+					BindingTable built = createTable(context, bindings);
+					stopMeasuring();
+					assertEquals(BINDINGS, built.getBindings().size());
+				} else {
+					startMeasuring();
+					lookup(table, bindings);
+					stopMeasuring();
+				}
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+}
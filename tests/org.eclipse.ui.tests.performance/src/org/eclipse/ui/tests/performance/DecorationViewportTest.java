@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.jface.tests.performance.JFacePerformanceSuite;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.DecoratingLabelProvider;
+import org.eclipse.jface.viewers.DecoratingStyledCellLabelProvider;
+import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider.IStyledLabelProvider;
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.jface.viewers.ILabelDecorator;
+import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.IDecoratorManager;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Measure the time from setting the input of a large tree until the rows in
+ * the visible area show their lightweight decorations.
+ */
+public class DecorationViewportTest extends BasicPerformanceTest {
+
+	/**
+	 * The id of the decorator defined in the plugin.xml
+	 */
+	public static final String DECORATOR_ID = "org.eclipse.ui.tests.performance.viewportDecorator";
+
+	static final String SUFFIX = " [decorated]";
+
+	/**
+	 * The elements decorated by the {@link ViewportDecorator}.
+	 */
+	public static class DecoratedElement {
+		private final int index;
+
+		public DecoratedElement(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String toString() {
+			return "Element " + index;
+		}
+	}
+
+	/**
+	 * A lightweight decorator that takes a fixed amount of time per element,
+	 * as decorators computing a team or problem state do.
+	 */
+	public static class ViewportDecorator extends LabelProvider implements ILightweightLabelDecorator {
+
+		private static final long DECORATION_NANOS = 200000;
+
+		@Override
+		public void decorate(Object element, IDecoration decoration) {
+			long end = System.nanoTime() + DECORATION_NANOS;
+			while (System.nanoTime() < end) {
+				// simulate the work of a real decorator
+			}
+			decoration.addSuffix(SUFFIX);
+		}
+	}
+
+	private static class StyledLabelProvider extends LabelProvider implements IStyledLabelProvider {
+		@Override
+		public StyledString getStyledText(Object element) {
+			return new StyledString(getText(element));
+		}
+
+		@Override
+		public Image getImage(Object element) {
+			return null;
+		}
+	}
+
+	private static final int ITEM_COUNT = 20000;
+	private static final int ITERATIONS = 5;
+	private static final int MIN_ITERATIONS = 5;
+	private static final long TIMEOUT = 60000;
+
+	private Shell fShell;
+	private TreeViewer fViewer;
+
+	private boolean styled;
+
+	/**
+	 * @param styled <code>true</code to use DecoratingStyledCellLabelProvider
+	 */
+	public DecorationViewportTest(String testName, boolean styled) {
+		super(testName);
+		this.styled = styled;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		if (!styled) {
+			tagIfNecessary("UI - Time to decorated viewport in 20000 item tree", Dimension.ELAPSED_PROCESS);
+		}
+
+		ILabelDecorator decorator = PlatformUI.getWorkbench().getDecoratorManager().getLabelDecorator();
+		if (styled)
+			fViewer.setLabelProvider(new DecoratingStyledCellLabelProvider(new StyledLabelProvider(), decorator, null));
+		else
+			fViewer.setLabelProvider(new DecoratingLabelProvider(new LabelProvider(), decorator));
+
+		final Tree tree = fViewer.getTree();
+		fShell.setFocus();
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+				// new elements each time so that no decoration is cached
+				DecoratedElement[] elements = new DecoratedElement[ITEM_COUNT];
+				for (int i = 0; i < elements.length; i++) {
+					elements[i] = new DecoratedElement(i);
+				}
+
+				startMeasuring();
+				fViewer.setInput(elements);
+				tree.setTopItem(tree.getItem(ITEM_COUNT / 2));
+				waitUntilDecorated(tree, true);
+				stopMeasuring();
+
+				// let the off-screen decorations finish before the next run
+				waitUntilDecorated(tree, false);
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Process events until the visible rows, or all rows, show the decoration.
+	 */
+	private void waitUntilDecorated(Tree tree, boolean visibleOnly) {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!isDecorated(tree, visibleOnly)) {
+			if (System.currentTimeMillis() > end) {
+				fail("Decorations not shown after " + TIMEOUT + " ms");
+			}
+			processEvents();
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				// just check again
+			}
+		}
+	}
+
+	private boolean isDecorated(Tree tree, boolean visibleOnly) {
+		int start = 0;
+		int bottom = Integer.MAX_VALUE;
+		if (visibleOnly) {
+			TreeItem top = tree.getTopItem();
+			if (top == null) {
+				return false;
+			}
+			start = tree.indexOf(top);
+			Rectangle area = tree.getClientArea();
+			bottom = area.y + area.height;
+		}
+		for (int i = start; i < tree.getItemCount(); i++) {
+			TreeItem item = tree.getItem(i);
+			if (visibleOnly && item.getBounds().y >= bottom) {
+				break;
+			}
+			if (!item.getText().endsWith(SUFFIX)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+
+		IDecoratorManager manager = PlatformUI.getWorkbench().getDecoratorManager();
+		manager.setEnabled(DECORATOR_ID, true);
+
+		Display display = Display.getCurrent();
+		if (display == null)
+			display = new Display();
+
+		fShell = new Shell(display);
+		fShell.setSize(500, 500);
+		fShell.setLayout(new FillLayout());
+		fViewer = new TreeViewer(fShell, SWT.FULL_SELECTION);
+		fViewer.setContentProvider(ArrayContentProvider.getInstance());
+		fViewer.setUseHashlookup(true);
+		fShell.open();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		super.doTearDown();
+		if (fShell != null) {
+			fShell.close();
+			fShell = null;
+		}
+		PlatformUI.getWorkbench().getDecoratorManager().setEnabled(DECORATOR_ID, false);
+	}
+}
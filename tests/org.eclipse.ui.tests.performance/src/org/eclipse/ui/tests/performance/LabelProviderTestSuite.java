@@ -31,5 +31,7 @@ public class LabelProviderTestSuite extends TestSuite {
         addTest(new LabelProviderTest("DecoratingStyledCellLabelProvider", true, false));
         addTest(new LabelProviderTest("DecoratingLabelProvider with Colors", false, true));
         addTest(new LabelProviderTest("DecoratingLabelProvider", false, false));
+        addTest(new DecorationViewportTest("DecoratingStyledCellLabelProvider time to decorated viewport", true));
+        addTest(new DecorationViewportTest("DecoratingLabelProvider time to decorated viewport", false));
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.File;
+
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.workbench.IWorkbench;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Loads the initial model of the IDE and assembles it with the fragments and
+ * processors contributed by the installed bundles, the way the workbench does
+ * on a start without persisted state, with or without
+ * <code>-modelAssemblyCache</code>.
+ */
+public class ModelAssemblyPerformanceTest extends BasicPerformanceTest {
+
+	private static final String INITIAL_MODEL = "platform:/plugin/org.eclipse.ui.workbench/LegacyIDE.e4xmi";
+
+	private final boolean cached;
+
+	public ModelAssemblyPerformanceTest(boolean cached) {
+		super("Assemble the initial workbench model " + (cached ? "with" : "without") + " the model assembly cache");
+		this.cached = cached;
+	}
+
+	private static MApplication loadModel(IEclipseContext workbenchContext, File cacheFile) {
+		IEclipseContext context = workbenchContext.createChild("Model assembly");
+		try {
+			// The persisted state of the running workbench is left alone
+			context.set(IWorkbench.PERSIST_STATE, Boolean.FALSE);
+			context.set(IWorkbench.CLEAR_PERSISTED_STATE, Boolean.FALSE);
+			context.set(E4Workbench.INITIAL_WORKBENCH_MODEL_URI, URI.createURI(INITIAL_MODEL));
+			context.set(E4Workbench.MODEL_ASSEMBLY_CACHE, cacheFile);
+			ResourceHandler handler = ContextInjectionFactory.make(ResourceHandler.class, context);
+			Resource resource = handler.loadMostRecentModel();
+			return (MApplication) resource.getContents().get(0);
+		} finally {
+			context.dispose();
+		}
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		final IEclipseContext workbenchContext = PlatformUI.getWorkbench().getService(IEclipseContext.class);
+		final File cacheFile = cached ? File.createTempFile("assembledModel", ".bin") : null;
+		try {
+			if (cacheFile != null) {
+				// Writes the cache for the installed contributions
+				cacheFile.delete();
+				loadModel(workbenchContext, cacheFile);
+				assertTrue(cacheFile.isFile());
+			}
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					startMeasuring();
+					MApplication application = loadModel(workbenchContext, cacheFile);
+					stopMeasuring();
+					assertFalse(application.getChildren().isEmpty());
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			if (cacheFile != null) {
+				cacheFile.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the loading, the assembly, the searches and the resets of application
+ * models.
+ */
+public class ModelPerformanceSuite extends TestSuite {
+
+	/**
+	 * Returns the suite. This is required to use the JUnit Launcher.
+	 */
+	public static Test suite() {
+		return new ModelPerformanceSuite();
+	}
+
+	public ModelPerformanceSuite() {
+		super();
+		for (String format : ModelSnapshotPerformanceTest.FORMATS) {
+			addTest(new ModelSnapshotPerformanceTest(format));
+		}
+		addTest(new ModelServicePerformanceTest(false));
+		addTest(new ModelServicePerformanceTest(true));
+		addTest(new ModelAssemblyPerformanceTest(false));
+		addTest(new ModelAssemblyPerformanceTest(true));
+		addTest(new PerspectiveResetPerformanceTest(false));
+		addTest(new PerspectiveResetPerformanceTest(true));
+	}
+}
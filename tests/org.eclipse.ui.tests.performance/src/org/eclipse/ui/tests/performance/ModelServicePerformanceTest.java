@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Searches parts by id in an application model of 20,000 parts, with or
+ * without the index of the model elements.
+ */
+public class ModelServicePerformanceTest extends BasicPerformanceTest {
+
+	private static final int PERSPECTIVES = 10;
+
+	private static final int STACKS = 20;
+
+	private static final int PARTS = 100;
+
+	private static final int LOOKUPS = 1000;
+
+	private final boolean indexed;
+
+	public ModelServicePerformanceTest(boolean indexed) {
+		super("Find parts by id " + (indexed ? "with" : "without") + " the model index");
+		this.indexed = indexed;
+	}
+
+	private static MApplication createApplication(EModelService modelService, IEclipseContext context) {
+		MApplication application = modelService.createModelElement(MApplication.class);
+		application.setContext(context);
+		MWindow window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+
+		MArea area = modelService.createModelElement(MArea.class);
+		area.setElementId("org.eclipse.ui.editorss");
+		window.getSharedElements().add(area);
+
+		for (int p = 0; p < PERSPECTIVES; p++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspective.setElementId("perspective" + p);
+			perspectiveStack.getChildren().add(perspective);
+			MPlaceholder areaPlaceholder = modelService.createModelElement(MPlaceholder.class);
+			areaPlaceholder.setRef(area);
+			perspective.getChildren().add(areaPlaceholder);
+			for (int s = 0; s < STACKS; s++) {
+				MPartStack stack = modelService.createModelElement(MPartStack.class);
+				perspective.getChildren().add(stack);
+				for (int i = 0; i < PARTS; i++) {
+					MPart part = modelService.createModelElement(MPart.class);
+					part.setElementId("part" + p + "." + s + "." + i);
+					part.getTags().add("View");
+					stack.getChildren().add(part);
+				}
+			}
+		}
+		perspectiveStack.setSelectedElement(perspectiveStack.getChildren().get(0));
+		return application;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		IEclipseContext workbenchContext = PlatformUI.getWorkbench().getService(IEclipseContext.class);
+		final IEclipseContext context = workbenchContext.createChild(getName());
+		try {
+			context.set(E4Workbench.MODEL_INDEX, Boolean.valueOf(indexed));
+			final EModelService modelService = ContextInjectionFactory.make(ModelServiceImpl.class, context);
+			final MApplication application = createApplication(modelService, context);
+			// Builds the index
+			modelService.find("part0.0.0", application);
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					startMeasuring();
+					for (int i = 0; i < LOOKUPS; i++) {
+						assertEquals(1, modelService
+								.findElements(application, "part5.10." + (i % PARTS), MPart.class).size());
+						assertTrue(modelService.findElements(application, "missing" + i, MPart.class).isEmpty());
+					}
+					stopMeasuring();
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			context.dispose();
+		}
+	}
+}
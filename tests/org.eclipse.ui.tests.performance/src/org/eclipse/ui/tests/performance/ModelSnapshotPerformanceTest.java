@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.File;
+
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.internal.workbench.ModelSnapshot;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Loads a persisted workbench model of about 50,000 elements from XMI or from
+ * a binary snapshot.
+ */
+public class ModelSnapshotPerformanceTest extends BasicPerformanceTest {
+
+	/**
+	 * The formats the model is loaded from.
+	 */
+	public static final String[] FORMATS = { "XMI", "snapshot" };
+
+	private static final int WINDOWS = 10;
+
+	private static final int PERSPECTIVES = 10;
+
+	private static final int STACKS = 10;
+
+	private static final int PARTS = 49;
+
+	private final String format;
+
+	/**
+	 * @param format
+	 *            one of {@link #FORMATS}
+	 */
+	public ModelSnapshotPerformanceTest(String format) {
+		super("Load the workbench model from " + format);
+		this.format = format;
+	}
+
+	private static MApplication createModel() {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		application.setElementId("application");
+		for (int w = 0; w < WINDOWS; w++) {
+			MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+			window.setElementId("window" + w);
+			MPerspectiveStack perspectiveStack = MAdvancedFactory.INSTANCE.createPerspectiveStack();
+			window.getChildren().add(perspectiveStack);
+			for (int p = 0; p < PERSPECTIVES; p++) {
+				MPerspective perspective = MAdvancedFactory.INSTANCE.createPerspective();
+				perspective.setElementId("perspective" + p);
+				perspectiveStack.getChildren().add(perspective);
+				MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+				perspective.getChildren().add(sash);
+				for (int s = 0; s < STACKS; s++) {
+					MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+					stack.setElementId("stack" + s);
+					stack.setContainerData(Integer.toString(100 / STACKS));
+					sash.getChildren().add(stack);
+					for (int i = 0; i < PARTS; i++) {
+						MPart part = MBasicFactory.INSTANCE.createPart();
+						part.setElementId("part" + i);
+						part.setLabel("Part " + i);
+						part.setContributionURI("bundleclass://org.eclipse.ui.tests.performance/org.example.Part" + i);
+						part.getTags().add("View");
+						part.getPersistedState().put("memento", "<state index=\"" + i + "\"/>");
+						stack.getChildren().add(part);
+					}
+					stack.setSelectedElement(stack.getChildren().get(PARTS - 1));
+				}
+				perspectiveStack.setSelectedElement(perspective);
+			}
+			application.getChildren().add(window);
+		}
+		return application;
+	}
+
+	private static E4XMIResource createResource(File file) {
+		return (E4XMIResource) new E4XMIResourceFactory().createResource(URI.createFileURI(file.getAbsolutePath()));
+	}
+
+	private static int countElements(E4XMIResource resource) {
+		int count = 0;
+		TreeIterator<EObject> it = EcoreUtil.getAllContents(resource, false);
+		while (it.hasNext()) {
+			it.next();
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		final File xmiFile = File.createTempFile("workbench", ".xmi");
+		final File snapshotFile = File.createTempFile("workbench", ".bin");
+		try {
+			E4XMIResource resource = createResource(xmiFile);
+			resource.getContents().add((EObject) createModel());
+			resource.save(null);
+			ModelSnapshot.save(resource, snapshotFile);
+			final int elements = countElements(resource);
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					E4XMIResource loaded = createResource(xmiFile);
+					startMeasuring();
+					if ("XMI".equals(format)) {
+						loaded.load(null);
+					} else {
+						ModelSnapshot.load(loaded, snapshotFile);
+					}
+					stopMeasuring();
+					assertEquals(elements, countElements(loaded));
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			xmiFile.delete();
+			snapshotFile.delete();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -254,6 +254,33 @@ public final class ObjectContributionTest extends UITestCase {
 			);
     }
 
+    /**
+     * Ensure that the contributions to a large selection of a few classes are
+     * the ones to a small selection of the same classes.
+     */
+    public final void testLargeSelection() {
+		List<Object> elements = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			elements.add(new ObjectContributionClasses.A());
+			elements.add(new ObjectContributionClasses.B());
+			elements.add(new ObjectContributionClasses.C());
+			elements.add(new ObjectContributionClasses.Common());
+		}
+		assertPopupMenus("1",
+				new String[] {"ICommon.1"},
+				new StructuredSelection(elements),
+				ICommon.class,
+				true
+			);
+		elements.add(new Object());
+		assertPopupMenus("2",
+				new String[] {"ICommon.1"},
+				new StructuredSelection(elements),
+				ICommon.class,
+				false
+			);
+    }
+
     /**
      * Ensure that there are no duplicate contributions.
      *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,10 @@ public class ObjectContributionsPerformance extends BasicPerformanceTest {
 
 	public static Test suite() {
 		TestSuite suite = new TestSuite("Object contribution performance");
+        suite.addTest(new ObjectContributionsPerformance(
+                "huge selection, limited contributors",
+                generateAdaptableSelection(SEED, 10000),
+                BasicPerformanceTest.NONE));
         suite.addTest(new ObjectContributionsPerformance(
                 "large selection, limited contributors",
                 generateAdaptableSelection(SEED, 5000),
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,7 @@ import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.navigator.CommonNavigator;
 import org.eclipse.ui.views.navigator.ResourceNavigator;
 import org.osgi.framework.Bundle;
 
@@ -64,6 +65,59 @@ public class OpenNavigatorFolderTest extends PerformanceTestCase {
 	 */
 	public void testOpenNavigatorFolder() {
 		IProject project = createProject("testViewAndContentTypeProject");
+		importFiles(project);
+		startMeasuring();
+		IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		IViewPart view = null;
+		try {
+			view = activePage.showView("org.eclipse.ui.views.ResourceNavigator");
+		}
+		catch (PartInitException e) {
+			Assert.fail(e.getMessage());
+		}
+		ResourceNavigator navigatorView = null;
+		try {
+			navigatorView = (ResourceNavigator) view;
+		}
+		catch (ClassCastException e) {
+			Assert.fail(e.getMessage());
+		}
+		navigatorView.getTreeViewer().expandAll();
+		stopMeasuring();
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/*
+	 * The same folder in the Project Explorer, where each of the children is
+	 * matched against the content extensions of the Common Navigator
+	 */
+	public void testOpenProjectExplorerFolder() {
+		IProject project = createProject("testProjectExplorerAndContentTypeProject");
+		importFiles(project);
+		startMeasuring();
+		IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		IViewPart view = null;
+		try {
+			view = activePage.showView(ViewPerformanceSuite.PROJECT_EXPLORER);
+		}
+		catch (PartInitException e) {
+			Assert.fail(e.getMessage());
+		}
+		CommonNavigator navigatorView = null;
+		try {
+			navigatorView = (CommonNavigator) view;
+		}
+		catch (ClassCastException e) {
+			Assert.fail(e.getMessage());
+		}
+		navigatorView.getCommonViewer().expandAll();
+		stopMeasuring();
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void importFiles(IProject project) {
 		Bundle bundle = Platform.getBundle("org.eclipse.ui.tests.performance");
 		URL url = bundle.getEntry("data/testContentType.zip");
 		ZipInputStream zis = null;
@@ -126,26 +180,6 @@ public class OpenNavigatorFolderTest extends PerformanceTestCase {
 				Assert.fail(e.getMessage());
 			}
 		}
-		startMeasuring();
-		IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
-		IViewPart view = null;
-		try {
-			view = activePage.showView("org.eclipse.ui.views.ResourceNavigator");
-		}
-		catch (PartInitException e) {
-			Assert.fail(e.getMessage());
-		}
-		ResourceNavigator navigatorView = null;
-		try {
-			navigatorView = (ResourceNavigator) view;
-		}
-		catch (ClassCastException e) {
-			Assert.fail(e.getMessage());
-		}
-		navigatorView.getTreeViewer().expandAll();
-		stopMeasuring();
-		commitMeasurements();
-		assertPerformance();
 	}
 
 	private IProject createProject(String name) {
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.ui.PlatformUI;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Resets a perspective of 300 parts the way the workbench page does: hides its
+ * parts and replaces its layout, with or without a batch of the model events.
+ */
+public class PerspectiveResetPerformanceTest extends BasicPerformanceTest {
+
+	private static final int STACKS = 10;
+
+	private static final int PARTS = 30;
+
+	private static final int RESETS = 10;
+
+	private final boolean batched;
+
+	private int events;
+
+	public PerspectiveResetPerformanceTest(boolean batched) {
+		super("Reset a perspective of " + STACKS * PARTS + " parts " + (batched ? "with" : "without")
+				+ " a batch of events");
+		this.batched = batched;
+	}
+
+	private static MApplication createApplication(EModelService modelService, IEclipseContext context) {
+		MApplication application = modelService.createModelElement(MApplication.class);
+		application.setContext(context);
+		MWindow window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		MPerspective perspective = modelService.createModelElement(MPerspective.class);
+		perspective.setElementId("perspective");
+		perspectiveStack.getChildren().add(perspective);
+		perspectiveStack.setSelectedElement(perspective);
+
+		MPartSashContainer sash = modelService.createModelElement(MPartSashContainer.class);
+		perspective.getChildren().add(sash);
+		for (int s = 0; s < STACKS; s++) {
+			MPartStack stack = modelService.createModelElement(MPartStack.class);
+			sash.getChildren().add(stack);
+			for (int i = 0; i < PARTS; i++) {
+				MPart part = modelService.createModelElement(MPart.class);
+				part.setElementId("part" + s + "." + i);
+				part.setLabel("Part " + i);
+				part.getTags().add("View");
+				stack.getChildren().add(part);
+			}
+			stack.setSelectedElement(stack.getChildren().get(0));
+		}
+		return application;
+	}
+
+	private void reset(EModelService modelService, UIEventPublisher publisher, MPerspective perspective,
+			MPartSashContainer layout) {
+		if (batched) {
+			publisher.beginBatch();
+		}
+		try {
+			for (MPart part : modelService.findElements(perspective, null, MPart.class)) {
+				part.setToBeRendered(false);
+			}
+			perspective.getChildren().clear();
+			perspective.getChildren().add((MPartSashContainer) EcoreUtil.copy((EObject) layout));
+		} finally {
+			if (batched) {
+				publisher.endBatch();
+			}
+		}
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		IEclipseContext workbenchContext = PlatformUI.getWorkbench().getService(IEclipseContext.class);
+		final IEclipseContext context = workbenchContext.createChild(getName());
+		IEventBroker eventBroker = context.get(IEventBroker.class);
+		EventHandler handler = new EventHandler() {
+			@Override
+			public void handleEvent(Event event) {
+				events++;
+			}
+		};
+		try {
+			final EModelService modelService = ContextInjectionFactory.make(ModelServiceImpl.class, context);
+			final MApplication application = createApplication(modelService, context);
+			final UIEventPublisher publisher = new UIEventPublisher(context);
+			((EObject) application).eAdapters().add(publisher);
+			// The handlers the renderers and the workbench page subscribe
+			eventBroker.subscribe(UIEvents.UIElement.TOPIC_TOBERENDERED, handler);
+			eventBroker.subscribe(UIEvents.ElementContainer.TOPIC_CHILDREN, handler);
+
+			final MPerspective perspective = modelService.findElements(application, "perspective",
+					MPerspective.class).get(0);
+			final MPartSashContainer layout = (MPartSashContainer) EcoreUtil
+					.copy((EObject) perspective.getChildren().get(0));
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					events = 0;
+					startMeasuring();
+					for (int i = 0; i < RESETS; i++) {
+						reset(modelService, publisher, perspective, layout);
+					}
+					stopMeasuring();
+					assertEquals(RESETS * (STACKS * PARTS + 2), events);
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			eventBroker.unsubscribe(handler);
+			context.dispose();
+		}
+	}
+}
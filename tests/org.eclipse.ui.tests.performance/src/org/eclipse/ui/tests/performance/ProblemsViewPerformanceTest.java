@@ -18,8 +18,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.test.performance.Dimension;
@@ -41,6 +44,8 @@ public class ProblemsViewPerformanceTest extends BasicPerformanceTest {
 
 	private String PROBLEMS_VIEW_ID = "org.eclipse.ui.tests.performance.problemsView";
 
+	private static final int PROJECTS = 10;
+
 	/**
 	 * Create a new instance of the receiver.
 	 *
@@ -86,6 +91,162 @@ public class ProblemsViewPerformanceTest extends BasicPerformanceTest {
 
 	}
 
+	/**
+	 * Test the population of the problems view with 100,000 markers.
+	 */
+	public void testPopulation100k() throws CoreException {
+		doTestLargePopulation(100000, 5);
+	}
+
+	/**
+	 * Test the population of the problems view with 1,000,000 markers.
+	 */
+	public void testPopulation1M() throws CoreException {
+		doTestLargePopulation(1000000, 3);
+	}
+
+	private void doTestLargePopulation(int count, int iterations) throws CoreException {
+		IWorkbenchWindow window = openTestWindow(EMPTY_PERSPECTIVE_ID);
+		final IWorkbenchPage page = window.getActivePage();
+
+		PerformanceProblemsView view;
+
+		try {
+			view = (PerformanceProblemsView) page.showView(PROBLEMS_VIEW_ID);
+		} catch (PartInitException e) {
+			e.printStackTrace();
+			fail();
+			return;
+		}
+
+		IProject[] projects = createProjects();
+		try {
+			for (int i = 0; i < iterations; i++) {
+				createMarkers(projects, count);
+				processEvents();
+				startMeasuring();
+				while (view.getTreeWidget().getItemCount() == 0)
+					processEvents();
+				stopMeasuring();
+				Runtime runtime = Runtime.getRuntime();
+				System.gc();
+				System.out.println("Problems view with " + count + " markers: "
+						+ (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB used");
+				removeMarkers(projects);
+				while (view.getTreeWidget().getItemCount() > 0)
+					processEvents();
+			}
+		} finally {
+			for (IProject project : projects) {
+				project.delete(true, true, null);
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test applying changes of 1,000 markers to a problems view showing
+	 * 500,000 markers.
+	 */
+	public void testDeltaUpdate500k() throws CoreException {
+		IWorkbenchWindow window = openTestWindow(EMPTY_PERSPECTIVE_ID);
+		final IWorkbenchPage page = window.getActivePage();
+
+		PerformanceProblemsView view;
+
+		try {
+			view = (PerformanceProblemsView) page.showView(PROBLEMS_VIEW_ID);
+		} catch (PartInitException e) {
+			e.printStackTrace();
+			fail();
+			return;
+		}
+
+		IProject[] projects = createProjects();
+		try {
+			createMarkers(projects, 500000);
+			while (view.getTreeWidget().getItemCount() == 0)
+				processEvents();
+
+			IWorkspace workspace = ResourcesPlugin.getWorkspace();
+			for (int i = 0; i < 10; i++) {
+				String label = view.getTreeWidget().getItem(0).getText();
+				IMarker[] added = new IMarker[1000];
+				startMeasuring();
+				workspace.run(monitor -> {
+					Map<String, Object> attribs = new HashMap<>();
+					attribs.put(IMarker.SEVERITY, Integer.valueOf(IMarker.SEVERITY_ERROR));
+					for (int j = 0; j < added.length; j++) {
+						attribs.put(IMarker.MESSAGE, "this is a delta test " + j);
+						added[j] = projects[j % projects.length].createMarker(IMarker.PROBLEM);
+						added[j].setAttributes(attribs);
+					}
+				}, null);
+				// markers are usually changed by builds, the view updates
+				// soon after them
+				workspace.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+				while (label.equals(view.getTreeWidget().getItem(0).getText()))
+					processEvents();
+
+				workspace.run(monitor -> {
+					for (IMarker marker : added) {
+						marker.delete();
+					}
+				}, null);
+				workspace.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+				while (!label.equals(view.getTreeWidget().getItem(0).getText()))
+					processEvents();
+				stopMeasuring();
+			}
+		} finally {
+			for (IProject project : projects) {
+				project.delete(true, true, null);
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private IProject[] createProjects() throws CoreException {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IProject[] projects = new IProject[PROJECTS];
+		for (int i = 0; i < projects.length; i++) {
+			projects[i] = root.getProject("ProblemsViewPerformance" + i);
+			if (!projects[i].exists()) {
+				projects[i].create(null);
+			}
+			projects[i].open(null);
+		}
+		return projects;
+	}
+
+	/**
+	 * Create count markers spread over the projects in one workspace
+	 * operation.
+	 */
+	private void createMarkers(final IProject[] projects, final int count) throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.run(monitor -> {
+			Map<String, Object> attribs = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				attribs.put(IMarker.SEVERITY, Integer.valueOf(i % 3));
+				// Many markers share their message in a real workspace
+				attribs.put(IMarker.MESSAGE, "this is a test " + i % 1000);
+				projects[i % projects.length].createMarker(IMarker.PROBLEM).setAttributes(attribs);
+			}
+		}, null);
+	}
+
+	private void removeMarkers(final IProject[] projects) throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.run(monitor -> {
+			for (IProject project : projects) {
+				project.deleteMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE);
+			}
+		}, null);
+	}
+
 	/**
 	 * Remove the created markers
 	 */
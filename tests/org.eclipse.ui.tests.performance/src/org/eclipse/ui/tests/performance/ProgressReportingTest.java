@@ -1,6 +1,7 @@
 package org.eclipse.ui.tests.performance;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -10,6 +11,7 @@ import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.IPreferenceConstants;
@@ -51,6 +53,11 @@ public class ProgressReportingTest extends BasicPerformanceTest {
 	 * results during profiling.
 	 */
 	public static final int MAX_ITERATIONS = 100;
+
+	/**
+	 * Number of jobs reporting progress at the same time in the stress test.
+	 */
+	public static final int CONCURRENT_JOBS = 1000;
 	private volatile boolean isDone;
 	private Display display;
 
@@ -311,6 +318,40 @@ public class ProgressReportingTest extends BasicPerformanceTest {
 		});
 	}
 
+	/**
+	 * Test the cost of many concurrent jobs reporting progress at a high
+	 * frequency while the progress view is open
+	 */
+	public void testManyJobsReportingProgress() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		setRunInBackground(true);
+		int iterations = ITERATIONS / CONCURRENT_JOBS;
+		runAsyncTest(() -> {
+			AtomicInteger runningJobs = new AtomicInteger(CONCURRENT_JOBS);
+			for (int j = 0; j < CONCURRENT_JOBS; j++) {
+				Job.create("Test Job " + j, monitor -> {
+					monitor.beginTask("Test Job", iterations);
+					int i = 0;
+					long result = 0;
+					while (i < iterations) {
+						if (i % 100 == 0) {
+							monitor.subTask(Integer.toString(i));
+						}
+						monitor.worked(1);
+						result += i;
+						i++;
+					}
+					monitor.done();
+
+					if (runningJobs.decrementAndGet() == 0) {
+						endAsyncTest(result);
+					}
+				}).schedule();
+			}
+		});
+	}
+
 	/**
 	 * Test the cost of monitor.subTask in the progress service
 	 */
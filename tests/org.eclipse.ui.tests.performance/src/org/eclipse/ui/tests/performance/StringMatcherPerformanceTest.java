@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.ui.internal.misc.GlobMatcher;
+import org.eclipse.ui.internal.misc.StringMatcher;
+
+/**
+ * Matches the patterns typed in Open Resource, Quick Access and filtered trees
+ * against the names of the files of a large workspace, with the shared
+ * {@link GlobMatcher} and the matchers built on it.
+ */
+public class StringMatcherPerformanceTest extends BasicPerformanceTest {
+
+	private static final int NAMES = 50000;
+
+	private static final int ITERATIONS = 5;
+
+	private static final String[] WORDS = { "Abstract", "Tree", "Viewer", "Content", "Provider", "Label", "Marker",
+			"Job", "Manager", "Test", "Util", "Navigator", "Filter", "Dialog", "Resource", "Workbench", "\u00C9tat" };
+
+	private static final String[] EXTENSIONS = { ".java", ".class", ".xml", ".MF", ".properties", ".html", ".png" };
+
+	private static final String[] PATTERNS = { "*.java", "tree*", "*viewer*prov*", "m?rker*", "content provider",
+			"*\u00E9tat*" };
+
+	/**
+	 * The matchers to compare, created for a pattern.
+	 */
+	public static final String[] MATCHERS = { "GlobMatcher", "StringMatcher", "navigator StringMatcher",
+			"SearchPattern" };
+
+	private final String matcher;
+
+	/**
+	 * @param matcher
+	 *            one of {@link #MATCHERS}
+	 */
+	public StringMatcherPerformanceTest(String matcher) {
+		super("Match " + NAMES + " file names with the " + matcher);
+		this.matcher = matcher;
+	}
+
+	private Function<String, Predicate<String>> getFactory() {
+		switch (matcher) {
+		case "GlobMatcher":
+			return pattern -> new GlobMatcher(pattern, true, false)::match;
+		case "StringMatcher":
+			return pattern -> new StringMatcher(pattern, true, false)::match;
+		case "navigator StringMatcher":
+			return pattern -> new org.eclipse.ui.internal.navigator.StringMatcher(pattern, true, false)::match;
+		default:
+			return pattern -> {
+				SearchPattern searchPattern = new SearchPattern();
+				searchPattern.setPattern(pattern);
+				return searchPattern::matches;
+			};
+		}
+	}
+
+	private static String[] generateNames() {
+		Random random = new Random(NAMES);
+		String[] names = new String[NAMES];
+		for (int i = 0; i < names.length; i++) {
+			StringBuilder name = new StringBuilder();
+			int words = 1 + random.nextInt(4);
+			for (int j = 0; j < words; j++) {
+				name.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			name.append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+			names[i] = name.toString();
+		}
+		return names;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		final String[] names = generateNames();
+		final Function<String, Predicate<String>> factory = getFactory();
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				int matches = 0;
+				startMeasuring();
+				for (int i = 0; i < ITERATIONS; i++) {
+					for (String pattern : PATTERNS) {
+						Predicate<String> predicate = factory.apply(pattern);
+						for (String name : names) {
+							if (predicate.test(name)) {
+								matches++;
+							}
+						}
+					}
+				}
+				stopMeasuring();
+				assertTrue(matches > 0);
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -35,9 +35,13 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
 		super();
 		addTest(new ActivitiesPerformanceSuite());
 		addTest(new WorkbenchPerformanceSuite());
+		addTest(new ModelPerformanceSuite());
 		addTest(new ViewPerformanceSuite());
 		addTest(new EditorPerformanceSuite());
 		addTest(new TestSuite(CommandsPerformanceTest.class));
+		for (String scenario : BindingTablePerformanceTest.SCENARIOS) {
+			addTest(new BindingTablePerformanceTest(scenario));
+		}
 		addTest(new LabelProviderTestSuite());
 		addTest(new TestSuite(ProgressReportingTest.class));
 	}
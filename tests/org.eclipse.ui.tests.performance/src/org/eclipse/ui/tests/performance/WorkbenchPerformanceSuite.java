@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -83,12 +83,24 @@ class WorkbenchPerformanceSuite extends TestSuite {
         addPerspectiveOpenCloseScenarios();
         addWindowOpenCloseScenarios();
         addContributionScenarios();
+        addMatcherScenarios();
     }
 
+	private void addMatcherScenarios() {
+		for (String matcher : StringMatcherPerformanceTest.MATCHERS) {
+			addTest(new StringMatcherPerformanceTest(matcher));
+		}
+	}
+
     /**
 	 *
 	 */
 	private void addContributionScenarios() {
+        addTest(new ObjectContributionsPerformance(
+                "huge selection, limited contributors",
+                ObjectContributionsPerformance.generateAdaptableSelection(
+                        ObjectContributionsPerformance.SEED, 10000),
+                BasicPerformanceTest.NONE));
         addTest(new ObjectContributionsPerformance(
                 "large selection, limited contributors",
                 ObjectContributionsPerformance.generateAdaptableSelection(
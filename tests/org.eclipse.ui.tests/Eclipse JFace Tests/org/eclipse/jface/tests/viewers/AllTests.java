@@ -19,7 +19,8 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TreeSelectionTest.class, MultipleEqualElementsTreeViewerTest.class,
-		LazySortedCollectionTest.class, TreeViewerTest.class, VirtualTreeViewerTest.class, SimpleTreeViewerTest.class,
+		LazySortedCollectionTest.class, TreeViewerTest.class, IncrementalRefreshTreeViewerTest.class,
+		VirtualTreeViewerTest.class, SimpleTreeViewerTest.class,
 		SimpleTableViewerTest.class, SimpleVirtualLazyTreeViewerTest.class, VirtualLazyTreeViewerTest.class,
 		TableViewerTest.class, TreeViewerColumnTest.class, VirtualTableViewerTest.class,
 		VirtualLazyTableViewerTest.class, TableColorProviderTest.class,
@@ -31,7 +32,7 @@ import org.junit.runners.Suite;
 		Bug201002TreeViewerTest.class, Bug200337TableViewerTest.class, Bug203657TreeViewerTest.class,
 		Bug203657TableViewerTest.class, Bug205700TreeViewerTest.class, Bug180504TableViewerTest.class,
 		Bug180504TreeViewerTest.class, Bug256889TableViewerTest.class, Bug287765Test.class, Bug242231Test.class,
-		StyledStringBuilderTest.class, TreeManagerTest.class })
+		StyledStringBuilderTest.class, TreeManagerTest.class, BackgroundSortAndFilterTest.class })
 public class AllTests {
 
 	public static void main(String[] args) {
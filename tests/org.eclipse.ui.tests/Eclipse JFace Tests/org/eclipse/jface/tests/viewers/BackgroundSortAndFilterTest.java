@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+
+/**
+ * Tests for background sorting and filtering of a table viewer.
+ */
+public class BackgroundSortAndFilterTest extends ViewerTestCase {
+
+	private TableViewer tableViewer;
+
+	public BackgroundSortAndFilterTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		tableViewer = new TableViewer(parent);
+		tableViewer.setContentProvider(new TestModelContentProvider());
+		tableViewer.setLabelProvider(new TestLabelProvider());
+		tableViewer.setComparator(new ViewerComparator());
+		tableViewer.setUseBackgroundSortAndFilter(true);
+		return tableViewer;
+	}
+
+	private void waitForItemCount(int count) {
+		Table table = tableViewer.getTable();
+		long start = System.currentTimeMillis();
+		while (table.getItemCount() != count && System.currentTimeMillis() - start < 5000) {
+			processEvents();
+			sleep(10);
+		}
+		assertEquals(count, table.getItemCount());
+	}
+
+	public void testRefreshIsSortedInBackground() {
+		int count = fRootElement.getChildCount();
+		TestElement added = fRootElement.basicAddChild();
+		tableViewer.refresh();
+		waitForItemCount(count + 1);
+
+		Table table = tableViewer.getTable();
+		for (int i = 1; i < table.getItemCount(); i++) {
+			assertTrue(table.getItem(i - 1).getText().compareTo(table.getItem(i).getText()) <= 0);
+		}
+		assertNotNull(tableViewer.testFindItem(added));
+	}
+
+	public void testRefreshIsFilteredInBackground() {
+		final TestElement first = fRootElement.getFirstChild();
+		tableViewer.addFilter(new ViewerFilter() {
+			@Override
+			public boolean select(Viewer viewer, Object parentElement, Object element) {
+				return element != first;
+			}
+		});
+		waitForItemCount(fRootElement.getChildCount() - 1);
+		assertNull(tableViewer.testFindItem(first));
+	}
+
+	public void testNewRefreshCancelsPendingRefresh() {
+		int count = fRootElement.getChildCount();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		waitForItemCount(count + 2);
+	}
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Tree;
+
+/**
+ * Runs the tree viewer tests with incremental refresh enabled.
+ */
+public class IncrementalRefreshTreeViewerTest extends TreeViewerTest {
+
+	public IncrementalRefreshTreeViewerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		StructuredViewer viewer = super.createViewer(parent);
+		fTreeViewer.setUseIncrementalRefresh(true);
+		return viewer;
+	}
+
+	public void testRefreshReordersChildren() {
+		TestElement first = fRootElement.getFirstChild();
+		TestElement last = fRootElement.getLastChild();
+		fRootElement.fChildren.remove(first);
+		fRootElement.fChildren.add(first);
+		fViewer.refresh();
+		Tree tree = (Tree) fTreeViewer.getControl();
+		int count = tree.getItemCount();
+		assertEquals(fRootElement.getChildCount(), count);
+		assertSame(tree.getItem(count - 1), fViewer.testFindItem(first));
+		assertSame(tree.getItem(count - 2), fViewer.testFindItem(last));
+	}
+}
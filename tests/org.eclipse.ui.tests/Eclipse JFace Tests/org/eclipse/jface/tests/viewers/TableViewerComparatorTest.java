@@ -14,6 +14,8 @@
 
 package org.eclipse.jface.tests.viewers;
 
+import java.text.Collator;
+
 import org.eclipse.jface.viewers.ColumnLayoutData;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.StructuredViewer;
@@ -89,6 +91,16 @@ public class TableViewerComparatorTest extends ViewerComparatorTest {
 		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
 	}
 
+	public void testViewerComparatorCachedKeys(){
+		ViewerComparator comparator = new ViewerComparator(Collator.getInstance());
+		comparator.setSortKeyCacheSize(100);
+		fViewer.setComparator(comparator);
+		assertSortedResult(TEAM1_SORTED);
+		team1.addMember("Duong");
+		fViewer.refresh();
+		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
+	}
+
 	private void assertSortedResult(String[] expected){
 		TableItem[] items = getTableViewer().getTable().getItems();
 		for (int i = 0; i < items.length; i++){
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.dialogs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.dialogs.DialogSettings;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.dialogs.FilteredItemsSelectionDialog;
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.ui.internal.WorkbenchMessages;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+
+/**
+ * Tests the narrowing of the previous matches of a
+ * {@link FilteredItemsSelectionDialog} when the pattern is refined, for
+ * thread safe filters matching large caches in parallel and for the others.
+ *
+ * @since 3.14
+ */
+public class FilteredItemsSelectionDialogTest extends UITestCase {
+
+	/**
+	 * More items than the dialog matches in parallel when the filter is thread
+	 * safe.
+	 */
+	private static final int ITEMS = 60000;
+
+	private TestDialog dialog;
+
+	public FilteredItemsSelectionDialogTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		if (dialog != null) {
+			dialog.close();
+			dialog = null;
+		}
+		super.doTearDown();
+	}
+
+	/**
+	 * Tests that the parallel and the sequential narrowing find the same items
+	 * in the same order.
+	 */
+	public void testParallelNarrowing() {
+		List<String> sequential = narrow(false, "item5999");
+		List<String> parallel = narrow(true, "item5999");
+		assertEquals(expected("item5999"), new HashSet<>(sequential));
+		assertEquals(sequential, parallel);
+	}
+
+	/**
+	 * Tests that a filter which is not thread safe is only called by the job
+	 * filtering the items.
+	 */
+	public void testNotThreadSafeFilter() {
+		narrow(false, "item5999");
+		assertEquals(dialog.lastFilter.threads.toString(), 1, dialog.lastFilter.threads.size());
+	}
+
+	/**
+	 * Tests that refining the pattern while the matches are narrowed in
+	 * parallel shows the matches of the new pattern, and that the cancelled
+	 * matching isn't narrowed down later on.
+	 */
+	public void testCancelParallelNarrowing() {
+		openDialog(true);
+		setPattern("item", expected("item"));
+
+		dialog.blockedPattern = "item5";
+		getPatternControl().setText("item5");
+		boolean blocked = new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return dialog.blocking.getCount() == 0;
+			}
+		}.waitForCondition(dialog.getShell().getDisplay(), 10000);
+		assertTrue("The matching wasn't started", blocked);
+
+		// Cancels the blocked matching
+		getPatternControl().setText("item59");
+		dialog.release.countDown();
+		List<String> items = waitForItems(expected("item59"));
+		assertEquals(expected("item59"), new HashSet<>(items));
+
+		List<String> refined = setPattern("item599", expected("item599"));
+		assertEquals(expected("item599"), new HashSet<>(refined));
+		assertFalse(dialog.getShell().isDisposed());
+	}
+
+	private List<String> narrow(boolean threadSafe, String pattern) {
+		if (dialog != null) {
+			dialog.close();
+		}
+		openDialog(threadSafe);
+		setPattern("item", expected("item"));
+		return setPattern(pattern, expected(pattern));
+	}
+
+	private void openDialog(boolean threadSafe) {
+		dialog = new TestDialog(threadSafe);
+		dialog.setBlockOnOpen(false);
+		dialog.open();
+	}
+
+	private Text getPatternControl() {
+		return (Text) dialog.getPatternControl();
+	}
+
+	private List<String> setPattern(String pattern, Set<String> expected) {
+		getPatternControl().setText(pattern);
+		return waitForItems(expected);
+	}
+
+	/**
+	 * Waits until the dialog is done filtering and shows the expected number
+	 * of items.
+	 *
+	 * @return the shown items, in their order
+	 */
+	private List<String> waitForItems(Set<String> expected) {
+		Table table = findTable(dialog.getShell());
+		new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return !isFiltering() && table.getItemCount() == expected.size();
+			}
+		}.waitForCondition(table.getDisplay(), 30000);
+		assertFalse("The items weren't filtered", isFiltering());
+		assertEquals(expected.size(), table.getItemCount());
+		List<String> items = new ArrayList<>();
+		if (expected.size() < ITEMS) {
+			for (int i = 0; i < table.getItemCount(); i++) {
+				items.add(table.getItem(i).getText());
+			}
+		}
+		return items;
+	}
+
+	private static boolean isFiltering() {
+		for (Job job : Job.getJobManager().find(null)) {
+			String name = job.getName();
+			if (WorkbenchMessages.FilteredItemsSelectionDialog_jobLabel.equals(name)
+					|| WorkbenchMessages.FilteredItemsSelectionDialog_cacheRefreshJob.equals(name)
+					|| WorkbenchMessages.FilteredItemsSelectionDialog_refreshJob.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Table findTable(Composite composite) {
+		for (Control child : composite.getChildren()) {
+			if (child instanceof Table) {
+				return (Table) child;
+			}
+			if (child instanceof Composite) {
+				Table table = findTable((Composite) child);
+				if (table != null) {
+					return table;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Set<String> expected(String pattern) {
+		SearchPattern searchPattern = new SearchPattern();
+		searchPattern.setPattern(pattern);
+		Set<String> expected = new HashSet<>();
+		for (int i = 0; i < ITEMS; i++) {
+			if (searchPattern.matches("item" + i)) {
+				expected.add("item" + i);
+			}
+		}
+		return expected;
+	}
+
+	private static class TestDialog extends FilteredItemsSelectionDialog {
+
+		private final boolean threadSafe;
+
+		private final IDialogSettings settings = new DialogSettings("FilteredItemsSelectionDialogTest"); //$NON-NLS-1$
+
+		volatile TestFilter lastFilter;
+
+		volatile String blockedPattern;
+
+		final CountDownLatch blocking = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		TestDialog(boolean threadSafe) {
+			super(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell());
+			this.threadSafe = threadSafe;
+		}
+
+		@Override
+		protected Control createExtendedContentArea(Composite parent) {
+			return null;
+		}
+
+		@Override
+		protected IDialogSettings getDialogSettings() {
+			return settings;
+		}
+
+		@Override
+		protected IStatus validateItem(Object item) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		protected ItemsFilter createFilter() {
+			lastFilter = new TestFilter();
+			return lastFilter;
+		}
+
+		@Override
+		protected Comparator<String> getItemsComparator() {
+			return Comparator.naturalOrder();
+		}
+
+		@Override
+		protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
+				IProgressMonitor progressMonitor) throws CoreException {
+			progressMonitor.beginTask("", ITEMS); //$NON-NLS-1$
+			for (int i = 0; i < ITEMS && !progressMonitor.isCanceled(); i++) {
+				contentProvider.add("item" + i, itemsFilter); //$NON-NLS-1$
+				progressMonitor.worked(1);
+			}
+			progressMonitor.done();
+		}
+
+		@Override
+		public String getElementName(Object item) {
+			return item.toString();
+		}
+
+		private class TestFilter extends ItemsFilter {
+
+			final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+			private final AtomicInteger calls = new AtomicInteger();
+
+			@Override
+			public boolean matchItem(Object item) {
+				threads.add(Thread.currentThread());
+				// Blocks once the first chunks are matched and shown, while
+				// the others are matched in parallel
+				if (getPattern().equals(blockedPattern) && calls.incrementAndGet() > ITEMS / 2) {
+					blocking.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return matches(getElementName(item));
+			}
+
+			@Override
+			public boolean isConsistentItem(Object item) {
+				return true;
+			}
+
+			@Override
+			public boolean isThreadSafe() {
+				return threadSafe;
+			}
+		}
+	}
+}
@@ -40,5 +40,6 @@ public class FilteredResourcesSelectionDialogTestSuite extends TestSuite {
 	 */
 	public FilteredResourcesSelectionDialogTestSuite() {
 		addTestSuite(ResourceItemLabelTest.class);
+		addTestSuite(FilteredItemsSelectionDialogTest.class);
 	}
 }
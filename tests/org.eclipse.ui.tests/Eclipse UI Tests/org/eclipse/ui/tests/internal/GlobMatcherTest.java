@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.internal;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.eclipse.ui.internal.misc.GlobMatcher;
+import org.eclipse.ui.internal.misc.StringMatcher;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the matching of the patterns compiled by {@link GlobMatcher}.
+ */
+public class GlobMatcherTest extends TestCase {
+	public GlobMatcherTest(String name) {
+		super(name);
+	}
+
+	public void testLiteral() {
+		GlobMatcher matcher = new GlobMatcher("plugin.xml", false, false);
+		assertTrue(matcher.match("plugin.xml"));
+		assertFalse(matcher.match("Plugin.xml"));
+		assertFalse(matcher.match("plugin.xml2"));
+		assertFalse(matcher.match(null));
+	}
+
+	public void testWildCards() {
+		GlobMatcher matcher = new GlobMatcher("*View?r*.java", false, false);
+		assertTrue(matcher.match("TreeViewer.java"));
+		assertTrue(matcher.match("Viewor2.java"));
+		assertFalse(matcher.match("Viewr.java"));
+		assertFalse(matcher.match("TreeViewer.class"));
+
+		assertTrue(new GlobMatcher("*", false, false).match(""));
+		assertTrue(new GlobMatcher("", false, false).match(""));
+		assertFalse(new GlobMatcher("", false, false).match("a"));
+		assertTrue(new GlobMatcher("a*a", false, false).match("aa"));
+		assertFalse(new GlobMatcher("a*a", false, false).match("a"));
+	}
+
+	public void testEscapes() {
+		GlobMatcher matcher = new GlobMatcher("a\\*b\\?", false, false);
+		assertTrue(matcher.match("a*b?"));
+		assertFalse(matcher.match("axby"));
+		assertTrue(new GlobMatcher("a\\b", false, false).match("a\\b"));
+	}
+
+	public void testIgnoreCase() {
+		GlobMatcher matcher = new GlobMatcher("*viewer*", true, false);
+		assertTrue(matcher.match("TreeVIEWER"));
+		assertTrue(new GlobMatcher("\u00E9tat*", true, false).match("\u00C9TAT.java"));
+		// The Kelvin sign is a capital K
+		assertTrue(new GlobMatcher("k", true, false).match("\u212A"));
+		assertFalse(new GlobMatcher("k", false, false).match("\u212A"));
+	}
+
+	public void testIgnoreWildCards() {
+		GlobMatcher matcher = new GlobMatcher("a*b?", true, true);
+		assertTrue(matcher.match("A*B?"));
+		assertFalse(matcher.match("axby"));
+		assertTrue(matcher.matchPart("xa*b?x", 0, 6));
+		assertFalse(matcher.matchPart("xa*b?x", 2, 6));
+	}
+
+	public void testRange() {
+		GlobMatcher matcher = new GlobMatcher("b?d", false, false);
+		assertTrue(matcher.match("abcde", 1, 4));
+		assertFalse(matcher.match("abcde", 1, 3));
+		assertFalse(matcher.match("abcde", 4, 1));
+	}
+
+	public void testMatchPart() {
+		GlobMatcher matcher = new GlobMatcher("con?ent", true, false);
+		assertTrue(matcher.matchPart("IContentProvider", 0, 16));
+		assertFalse(matcher.matchPart("IContentProvider", 0, 7));
+		assertFalse(matcher.matchPart("LabelProvider", 0, 13));
+		assertTrue(new GlobMatcher("", true, false).matchPart("", 0, 0));
+	}
+
+	/**
+	 * Compares the matches of random patterns with the ones of the equivalent
+	 * regular expressions.
+	 */
+	public void testRegularExpressions() {
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			String pattern = randomString(random, "aB.*?", 5);
+			String text = randomString(random, "abAB.", 8);
+			boolean ignoreCase = random.nextBoolean();
+			StringBuilder regex = new StringBuilder();
+			for (char c : pattern.toCharArray()) {
+				if (c == '*') {
+					regex.append(".*");
+				} else if (c == '?') {
+					regex.append('.');
+				} else {
+					regex.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			boolean expected = Pattern
+					.compile(regex.toString(), ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.DOTALL : Pattern.DOTALL)
+					.matcher(text).matches();
+			assertEquals(pattern + " " + text, expected, new GlobMatcher(pattern, ignoreCase, false).match(text));
+		}
+	}
+
+	public void testStringMatcherWords() {
+		StringMatcher matcher = new StringMatcher("tree prov", true, false);
+		assertTrue(matcher.match("Tree Content Provider"));
+		assertFalse(matcher.match("Tree Label"));
+		assertTrue(new StringMatcher("content", true, false).match("Tree Content Provider"));
+		assertFalse(new StringMatcher("label", true, false).match("Tree Content Provider"));
+	}
+
+	private static String randomString(Random random, String characters, int maxLength) {
+		StringBuilder builder = new StringBuilder();
+		int length = random.nextInt(maxLength + 1);
+		for (int i = 0; i < length; i++) {
+			builder.append(characters.charAt(random.nextInt(characters.length())));
+		}
+		return builder.toString();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.ui.tests.internal;
 import org.eclipse.ui.tests.markers.Bug75909Test;
 import org.eclipse.ui.tests.markers.DeclarativeFilterActivityTest;
 import org.eclipse.ui.tests.markers.DeclarativeFilterDeclarationTest;
+import org.eclipse.ui.tests.markers.MarkerChangesTest;
 import org.eclipse.ui.tests.markers.MarkerSortUtilTest;
 import org.eclipse.ui.tests.markers.MarkerSupportRegistryTests;
 import org.eclipse.ui.tests.markers.MarkerTesterTest;
@@ -57,10 +58,13 @@ public class InternalTestSuite extends TestSuite {
         addTest(new TestSuite(MarkerSortUtilTest.class));
         addTest(new TestSuite(MarkerViewTests.class));
 		addTest(new TestSuite(MarkerViewUtilTest.class));
+		addTest(new TestSuite(MarkerChangesTest.class));
         addTest(Bug99858Test.suite());
         addTest(new TestSuite(WorkbenchWindowSubordinateSourcesTests.class));
         addTest(new TestSuite(ReopenMenuTest.class));
         addTest(new TestSuite(UtilTest.class));
+        addTest(new TestSuite(ObjectContributorManagerTest.class));
+		addTest(new TestSuite(GlobMatcherTest.class));
 		addTest(new TestSuite(MarkerTesterTest.class));
 		addTest(new TestSuite(TextHandlerTest.class));
         addTest(new TestSuite(PerspectiveSwitcherTest.class));
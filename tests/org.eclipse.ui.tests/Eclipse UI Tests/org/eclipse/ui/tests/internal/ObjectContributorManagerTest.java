@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IAdapterFactory;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.ui.internal.IObjectContributor;
+import org.eclipse.ui.internal.ObjectContributorManager;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the contributors found for selections of several elements of the same
+ * class.
+ *
+ * @since 3.14
+ */
+public class ObjectContributorManagerTest extends TestCase {
+
+	public interface ICommon {
+	}
+
+	public interface IOther {
+	}
+
+	public static class First implements ICommon {
+	}
+
+	public static class Second implements ICommon {
+	}
+
+	private static class TestManager extends ObjectContributorManager {
+		public List getContributorsFor(Object... elements) {
+			return getContributors(Arrays.asList(elements));
+		}
+	}
+
+	private static class AdaptableContributor implements IObjectContributor {
+		@Override
+		public boolean isApplicableTo(Object object) {
+			return true;
+		}
+
+		@Override
+		public boolean canAdapt() {
+			return true;
+		}
+	}
+
+	/**
+	 * Adapts Second to a type none of the elements are.
+	 */
+	private final IAdapterFactory factory = new IAdapterFactory() {
+		@Override
+		public <T> T getAdapter(Object adaptableObject, Class<T> adapterType) {
+			return null;
+		}
+
+		@Override
+		public Class<?>[] getAdapterList() {
+			return new Class[] { ICommon.class, IOther.class };
+		}
+	};
+
+	private TestManager manager;
+
+	private IObjectContributor contributor;
+
+	public ObjectContributorManagerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Platform.getAdapterManager().registerAdapters(factory, Second.class);
+		manager = new TestManager();
+		contributor = new AdaptableContributor();
+		manager.registerContributor(contributor, IOther.class.getName());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		manager.unregisterAllContributors();
+		Platform.getAdapterManager().unregisterAdapters(factory, Second.class);
+		super.tearDown();
+	}
+
+	/**
+	 * The adapters of the second element are not matched against common types
+	 * yet, those of the third one are matched against the ones it has in common
+	 * with the previous elements.
+	 */
+	public void testRepeatedClassAddsAdapters() {
+		assertEquals(Collections.emptyList(), manager.getContributorsFor(new First(), new Second()));
+		assertEquals(Collections.singletonList(contributor),
+				manager.getContributorsFor(new First(), new Second(), new Second()));
+	}
+
+	public void testRepeatedClassKeepsAdapters() {
+		List expected = manager.getContributorsFor(new First(), new Second(), new Second());
+		assertEquals(expected, manager.getContributorsFor(new First(), new Second(), new Second(), new Second()));
+		assertEquals(expected, manager.getContributorsFor(new First(), new Second(), new Second(), new First()));
+	}
+}
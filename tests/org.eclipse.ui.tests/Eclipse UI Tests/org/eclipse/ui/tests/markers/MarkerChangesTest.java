@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.internal.views.markers.MarkerContentGenerator;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.eclipse.ui.views.markers.MarkerItem;
+
+/**
+ * MarkerChangesTest checks that the changes of markers applied to the sorted
+ * and grouped markers of a view give the same result as gathering all of the
+ * markers again.
+ *
+ * @since 3.14
+ *
+ */
+public class MarkerChangesTest extends UITestCase {
+
+	private static final String MESSAGE = "Marker change ";
+
+	private static final int LIMIT = 5;
+
+	private static final long TIMEOUT = 30000;
+
+	private IProject project;
+
+	private MarkersTestMarkersView view;
+
+	private boolean limitsEnabled;
+
+	private int limits;
+
+	/**
+	 * Create a new instance of the receiver.
+	 *
+	 * @param testName
+	 */
+	public MarkerChangesTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		project = FileUtil.createProject("MarkerChangesTest");
+		IWorkbenchPage page = fWorkbench.getActiveWorkbenchWindow().getActivePage();
+		view = (MarkersTestMarkersView) page.showView("org.eclipse.ui.tests.markerTests");
+		MarkerContentGenerator generator = view.getGeneratorForTests();
+		limitsEnabled = generator.isMarkerLimitsEnabled();
+		limits = generator.getMarkerLimits();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		MarkerContentGenerator generator = view.getGeneratorForTests();
+		generator.setMarkerLimitsEnabled(limitsEnabled);
+		generator.setMarkerLimits(limits);
+		view.getSite().getPage().hideView(view);
+		FileUtil.deleteProject(project);
+		super.doTearDown();
+	}
+
+	/**
+	 * Show at most limit markers per category, or all of them if limit is 0,
+	 * and gather the markers again.
+	 */
+	private void setLimit(int limit) {
+		MarkerContentGenerator generator = view.getGeneratorForTests();
+		generator.setMarkerLimitsEnabled(limit > 0);
+		generator.setMarkerLimits(limit);
+		gatherMarkers();
+	}
+
+	private void gatherMarkers() {
+		view.gatherMarkers();
+		waitForUpdate();
+	}
+
+	private void waitForUpdate() {
+		long start = System.currentTimeMillis();
+		while (view.updatesPending()) {
+			assertTrue("The markers were not updated", System.currentTimeMillis() - start < TIMEOUT);
+			processEvents();
+			sleep(10);
+		}
+		processEvents();
+	}
+
+	/**
+	 * Change the markers in one workspace operation, and wait for the view to
+	 * apply the changes.
+	 */
+	private void changeMarkers(IWorkspaceRunnable changes) throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.run(changes, null);
+		// markers are usually changed by builds, the view updates soon after
+		// them
+		workspace.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+		waitForUpdate();
+	}
+
+	/**
+	 * Create a marker whose message sorts by its number.
+	 */
+	private IMarker createMarker(int severity, int number) throws CoreException {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put(IMarker.SEVERITY, Integer.valueOf(severity));
+		attributes.put(IMarker.MESSAGE, String.format(MESSAGE + "%03d", Integer.valueOf(number)));
+		IMarker marker = project.createMarker(IMarker.PROBLEM);
+		marker.setAttributes(attributes);
+		return marker;
+	}
+
+	private List<IMarker> createMarkers(int severity, int first, int count, int step) throws CoreException {
+		List<IMarker> markers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			markers.add(createMarker(severity, first + i * step));
+		}
+		return markers;
+	}
+
+	/**
+	 * Describe what the view shows: the label of each category, followed by
+	 * the markers shown in their order, and then the ones beyond the limit,
+	 * whose order doesn't matter.
+	 */
+	private List<String> getShownMarkers() {
+		MarkerContentGenerator generator = view.getGeneratorForTests();
+		List<String> shown = new ArrayList<>();
+		for (MarkerItem category : view.getElements()) {
+			shown.add(category.getAttributeValue(IMarker.MESSAGE, ""));
+			MarkerItem[] children = view.getChildren(category);
+			int sorted = children.length;
+			if (generator.isMarkerLimitsEnabled()) {
+				sorted = Math.min(generator.getMarkerLimits(), sorted);
+			}
+			List<String> rest = new ArrayList<>();
+			for (int i = 0; i < children.length; i++) {
+				String message = children[i].getAttributeValue(IMarker.MESSAGE, "");
+				if (i < sorted) {
+					shown.add(message);
+				} else {
+					rest.add(message);
+				}
+			}
+			Collections.sort(rest);
+			shown.addAll(rest);
+		}
+		return shown;
+	}
+
+	/**
+	 * Check that the changes applied to the markers show the same as gathering
+	 * all of them again.
+	 */
+	private void assertSameAsGathered() {
+		List<String> applied = getShownMarkers();
+		gatherMarkers();
+		assertEquals(getShownMarkers(), applied);
+	}
+
+	/**
+	 * Check that the categories were kept, which they are not when the markers
+	 * are gathered again.
+	 */
+	private void assertSameCategories(MarkerItem[] expected) {
+		MarkerItem[] categories = view.getElements();
+		assertEquals(expected.length, categories.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertSame("The category was created again", expected[i], categories[i]);
+		}
+	}
+
+	public void testChangesInLimitedView() throws CoreException {
+		List<IMarker> errors = createMarkers(IMarker.SEVERITY_ERROR, 0, 20, 2);
+		List<IMarker> warnings = createMarkers(IMarker.SEVERITY_WARNING, 100, 20, 2);
+		setLimit(LIMIT);
+		MarkerItem[] categories = view.getElements();
+
+		changeMarkers(monitor -> {
+			// among the shown markers, and beyond them
+			createMarker(IMarker.SEVERITY_ERROR, 1);
+			createMarker(IMarker.SEVERITY_ERROR, 5);
+			createMarker(IMarker.SEVERITY_ERROR, 99);
+			createMarker(IMarker.SEVERITY_WARNING, 101);
+			errors.get(errors.size() - 1).delete();
+			warnings.get(warnings.size() - 1).delete();
+		});
+		assertSameCategories(categories);
+		assertSameAsGathered();
+	}
+
+	public void testRemoveShownMarkers() throws CoreException {
+		List<IMarker> errors = createMarkers(IMarker.SEVERITY_ERROR, 0, 20, 1);
+		setLimit(LIMIT);
+		MarkerItem[] categories = view.getElements();
+
+		// markers beyond the limit are shown in place of the removed ones, and
+		// have to be sorted
+		changeMarkers(monitor -> {
+			errors.get(0).delete();
+			errors.get(2).delete();
+		});
+		assertSameCategories(categories);
+		assertSameAsGathered();
+
+		// with a marker added at the same time
+		changeMarkers(monitor -> {
+			errors.get(1).delete();
+			createMarker(IMarker.SEVERITY_ERROR, 50);
+		});
+		assertSameCategories(categories);
+		assertSameAsGathered();
+	}
+
+	public void testNewCategories() throws CoreException {
+		createMarkers(IMarker.SEVERITY_WARNING, 0, 10, 1);
+		setLimit(LIMIT);
+		List<MarkerItem> categories = Arrays.asList(view.getElements());
+
+		changeMarkers(monitor -> {
+			createMarkers(IMarker.SEVERITY_ERROR, 20, 3, 1);
+			createMarkers(IMarker.SEVERITY_INFO, 30, 8, 1);
+			createMarker(IMarker.SEVERITY_WARNING, 10);
+		});
+		List<MarkerItem> changed = Arrays.asList(view.getElements());
+		assertEquals(categories.size() + 2, changed.size());
+		for (MarkerItem category : categories) {
+			assertTrue("The category was created again", changed.contains(category));
+		}
+		assertSameAsGathered();
+	}
+
+	public void testEmptiedCategories() throws CoreException {
+		List<IMarker> errors = createMarkers(IMarker.SEVERITY_ERROR, 0, 10, 1);
+		List<IMarker> warnings = createMarkers(IMarker.SEVERITY_WARNING, 20, 3, 1);
+		setLimit(LIMIT);
+		int categories = view.getElements().length;
+
+		changeMarkers(monitor -> {
+			for (IMarker warning : warnings) {
+				warning.delete();
+			}
+			errors.get(0).delete();
+		});
+		assertEquals(categories - 1, view.getElements().length);
+		assertSameAsGathered();
+
+		changeMarkers(monitor -> {
+			for (IMarker error : errors.subList(1, errors.size())) {
+				error.delete();
+			}
+		});
+		assertEquals(categories - 2, view.getElements().length);
+		assertSameAsGathered();
+	}
+
+	public void testChangesInUnlimitedView() throws CoreException {
+		List<IMarker> errors = createMarkers(IMarker.SEVERITY_ERROR, 0, 20, 2);
+		createMarkers(IMarker.SEVERITY_WARNING, 100, 20, 2);
+		setLimit(0);
+		MarkerItem[] categories = view.getElements();
+
+		changeMarkers(monitor -> {
+			createMarker(IMarker.SEVERITY_ERROR, 3);
+			createMarker(IMarker.SEVERITY_WARNING, 199);
+			errors.get(5).delete();
+			// changed markers move in their category and to other categories
+			errors.get(6).setAttribute(IMarker.MESSAGE, MESSAGE + "000a");
+			errors.get(7).setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+		});
+		assertSameCategories(categories);
+		assertSameAsGathered();
+	}
+}
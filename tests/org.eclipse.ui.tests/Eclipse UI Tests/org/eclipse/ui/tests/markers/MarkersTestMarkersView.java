@@ -24,7 +24,10 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
+import org.eclipse.ui.internal.views.markers.CachedMarkerBuilder;
 import org.eclipse.ui.internal.views.markers.ExtendedMarkersView;
+import org.eclipse.ui.internal.views.markers.MarkerContentGenerator;
+import org.eclipse.ui.views.markers.MarkerItem;
 import org.eclipse.ui.views.markers.MarkerSupportView;
 import org.eclipse.ui.views.markers.internal.MarkerSupportRegistry;
 
@@ -126,6 +129,74 @@ public class MarkersTestMarkersView extends MarkerSupportView {
 
 	}
 
+	/**
+	 * Invoke a method that is not visible to the tests.
+	 *
+	 * @param target
+	 * @param declaringClass
+	 *            the class or superclass of the target declaring the method
+	 * @param name
+	 * @return the result of the method
+	 */
+	private static Object invoke(Object target, Class<?> declaringClass, String name) {
+		try {
+			Method method = declaringClass.getDeclaredMethod(name);
+			method.setAccessible(true);
+			return method.invoke(target);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private CachedMarkerBuilder getBuilderForTests() {
+		return (CachedMarkerBuilder) invoke(this, ExtendedMarkersView.class, "getBuilder");
+	}
+
+	/**
+	 * Return the items at the top of the tree: the categories if the markers
+	 * are grouped, the markers otherwise.
+	 *
+	 * @return the items
+	 */
+	public MarkerItem[] getElements() {
+		Object markers = invoke(getBuilderForTests(), CachedMarkerBuilder.class, "getMarkers");
+		return (MarkerItem[]) invoke(markers, markers.getClass(), "getElements");
+	}
+
+	/**
+	 * Return the markers of a category, the ones shown first.
+	 *
+	 * @param category
+	 *            an item returned by {@link #getElements()}
+	 * @return the items of the markers
+	 */
+	public MarkerItem[] getChildren(MarkerItem category) {
+		return (MarkerItem[]) invoke(category, category.getClass(), "getChildren");
+	}
+
+	/**
+	 * @return whether an update of the markers is scheduled or running
+	 */
+	public boolean updatesPending() {
+		return ((Boolean) invoke(getBuilderForTests(), CachedMarkerBuilder.class, "updatesPending")).booleanValue();
+	}
+
+	/**
+	 * Gather, sort and group all of the markers again.
+	 */
+	public void gatherMarkers() {
+		invoke(getBuilderForTests(), CachedMarkerBuilder.class, "scheduleUpdate");
+	}
+
+	/**
+	 * Return the generator of the receiver.
+	 *
+	 * @return the generator
+	 */
+	public MarkerContentGenerator getGeneratorForTests() {
+		return (MarkerContentGenerator) invoke(this, ExtendedMarkersView.class, "getGenerator");
+	}
+
 	@Override
 	public void createPartControl(Composite parent) {
 		super.createPartControl(parent);
@@ -53,6 +53,7 @@ import org.eclipse.ui.handlers.IHandlerActivation;
 import org.eclipse.ui.handlers.IHandlerService;
 import org.eclipse.ui.internal.WorkbenchWindow;
 import org.eclipse.ui.internal.handlers.HandlerPersistence;
+import org.eclipse.ui.internal.services.EvaluationService;
 import org.eclipse.ui.services.IEvaluationReference;
 import org.eclipse.ui.services.IEvaluationService;
 import org.eclipse.ui.services.ISourceProviderService;
@@ -281,6 +282,50 @@ public class EvaluationServiceTest extends UITestCase {
 		}
 	}
 
+	public void testReusedResults() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		boolean activeShell = forceActive(window.getShell());
+
+		waitForJobs(500, 5000);
+		Assume.assumeTrue(activeShell);
+
+		EvaluationService service = (EvaluationService) PlatformUI.getWorkbench()
+				.getService(IEvaluationService.class);
+		IContextService contextService = window.getService(IContextService.class);
+		final int count = 20;
+		MyEval[] listeners = new MyEval[count];
+		IEvaluationReference[] refs = new IEvaluationReference[count];
+		IContextActivation context1 = null;
+		try {
+			for (int i = 0; i < count; i++) {
+				listeners[i] = new MyEval();
+				refs[i] = service.addEvaluationListener(
+						new ActiveContextExpression(CONTEXT_ID1, new String[] { ISources.ACTIVE_CONTEXT_NAME }),
+						listeners[i], IEvaluationService.RESULT);
+				assertFalse(listeners[i].currentValue);
+			}
+
+			long reused = service.getReusedResultCount();
+			context1 = contextService.activateContext(CONTEXT_ID1);
+			for (MyEval listener : listeners) {
+				assertEquals(2, listener.count);
+				assertTrue(listener.currentValue);
+			}
+			// The equal expressions are evaluated once for the same contexts
+			reused = service.getReusedResultCount() - reused;
+			assertTrue(reused + " reused results", reused >= count - 1);
+		} finally {
+			if (context1 != null) {
+				contextService.deactivateContext(context1);
+			}
+			for (IEvaluationReference ref : refs) {
+				if (ref != null) {
+					service.removeEvaluationListener(ref);
+				}
+			}
+		}
+	}
+
 	// TODO fix testRestriction
 	public void TODOtestRestriction() {
 		IWorkbenchWindow window = openTestWindow();